@@ -12,6 +12,8 @@ import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
 import org.springframework.stereotype.Controller;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Authentication GraphQL Controller
  * 
@@ -42,7 +44,7 @@ public class AuthGraphQLController {
      * Yeni kullanıcı kaydı
      */
     @MutationMapping
-    public AuthGraphQLResponse register(@Argument("input") RegisterInput input) {
+    public CompletableFuture<AuthGraphQLResponse> register(@Argument("input") RegisterInput input) {
         log.info("GraphQL Mutation: register for email: {}", input.email());
 
         RegisterRequest request = RegisterRequest.builder()
@@ -52,9 +54,7 @@ public class AuthGraphQLController {
                 .lastName(input.lastName())
                 .build();
 
-        AuthResponse response = authService.register(request);
-
-        return AuthGraphQLResponse.fromAuthResponse(response);
+        return authService.register(request).thenApply(AuthGraphQLResponse::fromAuthResponse);
     }
 
     /**
@@ -62,14 +62,12 @@ public class AuthGraphQLController {
      * Kullanıcı girişi
      */
     @MutationMapping
-    public AuthGraphQLResponse login(@Argument("input") LoginInput input) {
+    public CompletableFuture<AuthGraphQLResponse> login(@Argument("input") LoginInput input) {
         log.info("GraphQL Mutation: login for email: {}", input.email());
 
         LoginRequest request = new LoginRequest(input.email(), input.password());
 
-        AuthResponse response = authService.login(request);
-
-        return AuthGraphQLResponse.fromAuthResponse(response);
+        return authService.login(request).thenApply(AuthGraphQLResponse::fromAuthResponse);
     }
 
     /**
@@ -130,8 +128,8 @@ public class AuthGraphQLController {
         public static AuthGraphQLResponse fromAuthResponse(AuthResponse response) {
             return new AuthGraphQLResponse(
                     response.getToken(),
-                    response.getUser().getTokenExpiresAt() != null
-                            ? response.getUser().getTokenExpiresAt().toString()
+                    response.getTokenExpiresAt() != null
+                            ? response.getTokenExpiresAt().toString()
                             : null,
                     new AuthUserResponse(
                             response.getUser().getId().toString(),
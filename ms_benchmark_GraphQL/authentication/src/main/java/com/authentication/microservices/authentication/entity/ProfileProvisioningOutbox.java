@@ -0,0 +1,64 @@
+package com.authentication.microservices.authentication.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * ProfileProvisioningOutbox Entity - Authentication Microservice
+ * Kayıt sırasında User Service'te oluşturulacak profil isteği. Kullanıcı ile aynı transaction'da
+ * yazılır; ProfileProvisioningRelay arka planda teslim eder (at-least-once, User Service idempotent).
+ */
+@Entity
+@Table(name = "profile_provisioning_outbox")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProfileProvisioningOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+
+    @Column(name = "email", nullable = false)
+    private String email;
+
+    @Column(name = "first_name")
+    private String firstName;
+
+    @Column(name = "last_name")
+    private String lastName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private Status status;
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt; // PENDING: bu andan sonra (tekrar) denenir; claim edilince lease süresi eklenir
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "delivered_at")
+    private LocalDateTime deliveredAt;
+
+    public enum Status {
+        PENDING,
+        DELIVERED,
+        FAILED
+    }
+}
@@ -2,8 +2,11 @@ package com.authentication.microservices.authentication.repository;
 
 import com.authentication.microservices.authentication.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -18,5 +21,15 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
 
     Optional<User> findByUserId(String userId);
+
+    /**
+     * Şifre hash'ini yenile (rehash-on-login); arada şifre değiştiyse dokunmaz
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.password = :newPassword WHERE u.userId = :userId AND u.password = :oldPassword")
+    int updatePasswordHash(@Param("userId") String userId,
+                           @Param("oldPassword") String oldPassword,
+                           @Param("newPassword") String newPassword);
 }
 
@@ -0,0 +1,131 @@
+package com.authentication.microservices.authentication.security;
+
+import com.authentication.microservices.authentication.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Password Hashing Service - Authentication Microservice
+ * BCrypt encode / matches işlemlerini Tomcat thread'leri yerine ayrı, çekirdek sayısıyla sınırlı
+ * bir havuzda çalıştırır; login patlamalarında diğer istekler CPU için beklemez.
+ *
+ * - Sonuç CompletableFuture olarak döner; request thread'i hash'i beklemez (controller'lar async döner),
+ *   devam adımı hashing thread'inde çalışır.
+ * - Havuz ve kuyruk doluysa istek beklemeden 429 (TooManyRequestsException) alır.
+ * - Kuyrukta timeout'tan uzun bekleyen iş hash'lenmeden 429 ile tamamlanır.
+ * - needsRehash: hash'teki cost, app.auth.bcrypt.strength'ten farklıysa true (login'de yeniden hash'lenir).
+ *
+ * Metrikler: auth.hashing.queue, auth.hashing.active, auth.hashing.wait, auth.hashing.rejected{reason}
+ */
+@Component
+public class PasswordHashingService {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abyx]?\\$(\\d{2})\\$");
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolTaskExecutor executor;
+    private final int strength;
+    private final Duration timeout;
+    private final Timer waitTimer;
+    private final Counter queueFullCounter;
+    private final Counter timeoutCounter;
+
+    public PasswordHashingService(
+            PasswordEncoder passwordEncoder,
+            MeterRegistry meterRegistry,
+            @Value("${app.auth.bcrypt.strength:4}") int strength,
+            @Value("${app.auth.hashing.threads:0}") int threads,
+            @Value("${app.auth.hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${app.auth.hashing.timeout:2s}") Duration timeout) {
+        this.passwordEncoder = passwordEncoder;
+        this.strength = strength;
+        this.timeout = timeout;
+        this.waitTimer = meterRegistry.timer("auth.hashing.wait");
+        this.queueFullCounter = meterRegistry.counter("auth.hashing.rejected", "reason", "queue-full");
+        this.timeoutCounter = meterRegistry.counter("auth.hashing.rejected", "reason", "timeout");
+
+        // 0: çekirdeklerin yarısı; request thread'lerine ve diğer işlere CPU bırakılır
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("PasswordHash-");
+        executor.initialize();
+
+        ThreadPoolExecutor pool = executor.getThreadPoolExecutor();
+        meterRegistry.gauge("auth.hashing.queue", pool, p -> p.getQueue().size());
+        meterRegistry.gauge("auth.hashing.active", pool, ThreadPoolExecutor::getActiveCount);
+
+        log.info("Password hashing executor: poolSize={}, queueCapacity={}, timeout={}, bcryptStrength={}",
+                poolSize, queueCapacity, timeout, strength);
+    }
+
+    /**
+     * Şifreyi hash'le
+     */
+    public CompletableFuture<String> encode(String rawPassword) {
+        return execute(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Şifreyi hash ile karşılaştır
+     */
+    public CompletableFuture<Boolean> matches(String rawPassword, String encodedPassword) {
+        return execute(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Hash yapılandırılmış cost ile mi üretilmiş? (cost artırıldığında veya düşürüldüğünde true)
+     */
+    public boolean needsRehash(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
+    }
+
+    private <T> CompletableFuture<T> execute(Supplier<T> task) {
+        long queuedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                long waited = System.nanoTime() - queuedAt;
+                waitTimer.record(waited, TimeUnit.NANOSECONDS);
+                if (waited > timeout.toNanos()) {
+                    timeoutCounter.increment();
+                    throw new TooManyRequestsException("Too many concurrent authentication requests, retry later");
+                }
+                return task.get();
+            }, executor);
+        } catch (TaskRejectedException e) {
+            queueFullCounter.increment();
+            throw new TooManyRequestsException("Too many concurrent authentication requests, retry later");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
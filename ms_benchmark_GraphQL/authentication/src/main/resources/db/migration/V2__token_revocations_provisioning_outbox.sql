@@ -0,0 +1,33 @@
+-- Baseline'dan sonra eklenen tablolar: logout kayıtları (token_revocations) ve profil oluşturma outbox'ı
+-- ddl-auto=update döneminde oluşmuş olabilirler (IF NOT EXISTS)
+
+create table if not exists token_revocations (
+    user_id varchar(255) not null,
+    revoked_before timestamp(6) not null,
+    expires_at timestamp(6) not null,
+    updated_at timestamp(6) not null,
+    primary key (user_id)
+);
+
+-- Diğer instance'lar updated_at üzerinden senkronize olur; süresi dolan kayıtlar expires_at ile temizlenir
+create index if not exists idx_token_revocation_updated_at on token_revocations (updated_at);
+create index if not exists idx_token_revocation_expires_at on token_revocations (expires_at);
+
+create table if not exists profile_provisioning_outbox (
+    id bigint generated by default as identity,
+    user_id varchar(255) not null,
+    email varchar(255) not null,
+    first_name varchar(255),
+    last_name varchar(255),
+    status varchar(20) not null check (status in ('PENDING','DELIVERED','FAILED')),
+    attempts integer not null,
+    next_attempt_at timestamp(6) not null,
+    last_error varchar(500),
+    created_at timestamp(6) not null,
+    delivered_at timestamp(6),
+    primary key (id)
+);
+
+-- Relay'in claim sorgusu (status = 'PENDING' AND next_attempt_at <= now ORDER BY id); kullanıcı başına tek kayıt
+create index if not exists idx_provisioning_outbox_due on profile_provisioning_outbox (status, next_attempt_at);
+create unique index if not exists idx_provisioning_outbox_user on profile_provisioning_outbox (user_id);
@@ -219,6 +219,26 @@ public class ContentGraphQLController {
         log.info("GraphQL Query: getEpisodeById for episodeId: {}", episodeId);
         return episodeService.getEpisodeById(episodeId);
     }
+
+    /**
+     * GraphQL Query: getEpisodeFile
+     * Episode ID'ye göre streaming bilgisi getir (Video Streaming Service)
+     */
+    @QueryMapping
+    public EpisodeFileResponse getEpisodeFile(@Argument Long episodeId) {
+        log.debug("GraphQL Query: getEpisodeFile for episodeId: {}", episodeId);
+        return episodeService.getEpisodeFile(episodeId);
+    }
+
+    /**
+     * GraphQL Query: getEpisodeFilesBySeasonId
+     * Season ID'ye göre aktif bölümlerin streaming bilgisi (sezon prefetch'i)
+     */
+    @QueryMapping
+    public List<EpisodeFileResponse> getEpisodeFilesBySeasonId(@Argument Long seasonId) {
+        log.debug("GraphQL Query: getEpisodeFilesBySeasonId for seasonId: {}", seasonId);
+        return episodeService.getActiveEpisodeFilesBySeasonId(seasonId);
+    }
     // ============== Federation Resolvers ==============
 
     /**
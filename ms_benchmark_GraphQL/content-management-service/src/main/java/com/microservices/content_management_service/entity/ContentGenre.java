@@ -6,6 +6,7 @@ import lombok.*;
 /**
  * ContentGenre Entity - Content Management Service
  * Content ve Genre arasındaki many-to-many ilişkiyi temsil eder
+ * İndeksler Flyway migration'larındadır (db/migration)
  */
 @Entity
 @Table(name = "content_genres", uniqueConstraints = {
@@ -11,6 +11,7 @@ import java.time.LocalDateTime;
 /**
  * Episode Entity - Content Management Service
  * TV dizilerinin bölümlerini temsil eder
+ * İndeksler Flyway migration'larındadır (db/migration)
  */
 @Entity
 @Table(name = "episodes")
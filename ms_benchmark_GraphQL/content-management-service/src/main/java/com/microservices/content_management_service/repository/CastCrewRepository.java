@@ -2,8 +2,11 @@ package com.microservices.content_management_service.repository;
 
 import com.microservices.content_management_service.entity.CastCrew;
 import com.microservices.content_management_service.entity.CastCrew.RoleType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -17,14 +20,16 @@ import java.util.Optional;
 public interface CastCrewRepository extends JpaRepository<CastCrew, Long> {
     
     /**
-     * Silinmemiş ve aktif cast/crew'leri bul
+     * Silinmemiş ve aktif cast/crew'leri bul (query cache)
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT c FROM CastCrew c WHERE c.deletedAt IS NULL AND c.isActive = true ORDER BY c.name ASC")
     List<CastCrew> findAllActiveCastCrew();
     
     /**
-     * Silinmemiş cast/crew'ü ID ile bul
+     * Silinmemiş cast/crew'ü ID ile bul (query cache)
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT c FROM CastCrew c WHERE c.id = :id AND c.deletedAt IS NULL")
     Optional<CastCrew> findByIdAndNotDeleted(@Param("id") Long id);
     
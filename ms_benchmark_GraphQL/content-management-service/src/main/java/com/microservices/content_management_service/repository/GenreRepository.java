@@ -1,8 +1,11 @@
 package com.microservices.content_management_service.repository;
 
 import com.microservices.content_management_service.entity.Genre;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -16,14 +19,16 @@ import java.util.Optional;
 public interface GenreRepository extends JpaRepository<Genre, Long> {
     
     /**
-     * Silinmemiş ve aktif türleri bul
+     * Silinmemiş ve aktif türleri bul (query cache)
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT g FROM Genre g WHERE g.deletedAt IS NULL AND g.isActive = true ORDER BY g.name ASC")
     List<Genre> findAllActiveGenres();
     
     /**
-     * Silinmemiş türü ID ile bul
+     * Silinmemiş türü ID ile bul (query cache)
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT g FROM Genre g WHERE g.id = :id AND g.deletedAt IS NULL")
     Optional<Genre> findByIdAndNotDeleted(@Param("id") Long id);
     
@@ -1,6 +1,7 @@
 package com.microservices.content_management_service.service;
 
 import com.microservices.content_management_service.dto.request.CreateEpisodeRequest;
+import com.microservices.content_management_service.dto.response.EpisodeFileResponse;
 import com.microservices.content_management_service.dto.response.EpisodeResponse;
 import com.microservices.content_management_service.entity.Episode;
 import com.microservices.content_management_service.entity.Season;
@@ -105,6 +106,30 @@ public class EpisodeService {
         return EpisodeResponse.fromEntity(episode);
     }
 
+    /**
+     * Episode ID'ye göre streaming bilgisi (video dosya yolu) getir
+     */
+    @Transactional(readOnly = true)
+    public EpisodeFileResponse getEpisodeFile(Long episodeId) {
+        log.debug("Fetching episode file for episodeId: {}", episodeId);
+
+        return episodeRepository.findEpisodeFileById(episodeId)
+                .orElseThrow(() -> {
+                    log.error("Episode not found for episodeId: {}", episodeId);
+                    return new ResourceNotFoundException("Episode not found for episode ID: " + episodeId);
+                });
+    }
+
+    /**
+     * Season ID'ye göre aktif bölümlerin streaming bilgisini getir (sezon prefetch'i için)
+     */
+    @Transactional(readOnly = true)
+    public List<EpisodeFileResponse> getActiveEpisodeFilesBySeasonId(Long seasonId) {
+        log.debug("Fetching active episode files for seasonId: {}", seasonId);
+
+        return episodeRepository.findActiveEpisodeFilesBySeasonId(seasonId);
+    }
+
     /**
      * Bölüm sil (soft delete)
      */
@@ -0,0 +1,133 @@
+package com.microservices.content_management_service.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Flyway migration'ları boş bir PostgreSQL'e uygulanır ve içerik / sezon / bölüm listeleme sorgularının
+ * partial indeksleri kullandığı EXPLAIN ile doğrulanır (Docker yoksa atlanır)
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ContentIndexUsageTest {
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static Connection connection;
+
+    @BeforeAll
+    static void migrateAndSeed() throws SQLException {
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .load()
+                .migrate();
+
+        connection = DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        try (Statement statement = connection.createStatement()) {
+            // 5000 içerik (her 7. pasif, her 11. silinmiş, her 20. öne çıkan), içerik başına 2 sezon, sezon başına 5 bölüm
+            statement.execute("""
+                    INSERT INTO contents (title, content_type, video_file_path, status, is_featured, view_count,
+                                          is_active, created_at, deleted_at)
+                    SELECT 'content-' || i, CASE WHEN i % 2 = 0 THEN 'MOVIE' ELSE 'TV_SERIES' END, '/videos/' || i,
+                           'PUBLISHED', i % 20 = 0, 0, i % 7 <> 0,
+                           now() - make_interval(secs => i), CASE WHEN i % 11 = 0 THEN now() END
+                    FROM generate_series(0, 4999) AS i
+                    """);
+            statement.execute("""
+                    INSERT INTO seasons (content_id, season_number, is_active, created_at, deleted_at)
+                    SELECT c.id, n, c.id % 5 <> 0, now(), CASE WHEN c.id % 13 = 0 THEN now() END
+                    FROM contents c CROSS JOIN generate_series(1, 2) AS n
+                    """);
+            statement.execute("""
+                    INSERT INTO episodes (season_id, episode_number, title, video_file_path, is_active, created_at,
+                                          deleted_at)
+                    SELECT s.id, n, 'episode-' || n, '/videos/' || s.id || '/' || n, s.id % 5 <> 0, now(),
+                           CASE WHEN s.id % 13 = 0 THEN now() END
+                    FROM seasons s CROSS JOIN generate_series(1, 5) AS n
+                    """);
+            statement.execute("ANALYZE");
+            // Planner sequential scan'e kaçmasın; hangi indeksin seçildiği doğrulanır
+            statement.execute("SET enable_seqscan = off");
+        }
+    }
+
+    @AfterAll
+    static void closeConnection() throws SQLException {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    @Test
+    void findAllActiveContentsUsesPartialIndex() throws SQLException {
+        String plan = explain("""
+                SELECT * FROM contents c
+                WHERE c.deleted_at IS NULL AND c.is_active = true
+                ORDER BY c.created_at DESC
+                """);
+
+        assertThat(plan).contains("idx_content_live_created");
+    }
+
+    @Test
+    void findFeaturedContentsUsesPartialIndex() throws SQLException {
+        String plan = explain("""
+                SELECT * FROM contents c
+                WHERE c.is_featured = true AND c.deleted_at IS NULL AND c.is_active = true
+                ORDER BY c.created_at DESC
+                """);
+
+        assertThat(plan).contains("idx_content_live_featured_created");
+    }
+
+    @Test
+    void findActiveSeasonsByContentIdUsesPartialIndex() throws SQLException {
+        String plan = explain("""
+                SELECT * FROM seasons s
+                WHERE s.content_id = ? AND s.deleted_at IS NULL AND s.is_active = true
+                ORDER BY s.season_number ASC
+                """, 42L);
+
+        assertThat(plan).contains("idx_season_content_live");
+    }
+
+    @Test
+    void findActiveEpisodesBySeasonIdUsesPartialIndex() throws SQLException {
+        String plan = explain("""
+                SELECT * FROM episodes e
+                WHERE e.season_id = ? AND e.deleted_at IS NULL AND e.is_active = true
+                ORDER BY e.episode_number ASC
+                """, 42L);
+
+        assertThat(plan).contains("idx_episode_season_live");
+    }
+
+    private static String explain(String sql, Object... parameters) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1)).append('\n');
+                }
+            }
+            return plan.toString();
+        }
+    }
+}
@@ -12,6 +12,7 @@ import org.springframework.graphql.data.method.annotation.QueryMapping;
 import org.springframework.stereotype.Controller;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Profile Service - GraphQL Controller
@@ -104,7 +105,7 @@ public class ProfileGraphQLController {
      * Yeni profil oluştur
      */
     @MutationMapping
-    public ProfileResponse createProfile(@Argument("input") CreateProfileInput input) {
+    public CompletableFuture<ProfileResponse> createProfile(@Argument("input") CreateProfileInput input) {
         log.info("GraphQL Mutation: createProfile for accountId: {}", input.accountId());
 
         CreateProfileRequest request = CreateProfileRequest.builder()
@@ -127,7 +128,7 @@ public class ProfileGraphQLController {
      * Profil güncelle
      */
     @MutationMapping
-    public ProfileResponse updateProfile(
+    public CompletableFuture<ProfileResponse> updateProfile(
             @Argument Long profileId,
             @Argument String accountId,
             @Argument("input") UpdateProfileInput input) {
@@ -27,12 +27,6 @@ public interface ProfileRepository extends JpaRepository<Profile, Long> {
     @Query("SELECT p FROM Profile p WHERE p.accountId = :accountId AND p.deletedAt IS NULL ORDER BY p.isDefault DESC, p.createdAt ASC")
     List<Profile> findAllByAccountId(@Param("accountId") String accountId);
     
-    /**
-     * Account ID'ye göre profil sayısını bul (aktif ve silinmemiş)
-     */
-    @Query("SELECT COUNT(p) FROM Profile p WHERE p.accountId = :accountId AND p.deletedAt IS NULL AND p.isActive = true")
-    long countActiveProfilesByAccountId(@Param("accountId") String accountId);
-    
     /**
      * Profile ID'ye göre profil bul (silinmemiş)
      */
@@ -50,10 +44,4 @@ public interface ProfileRepository extends JpaRepository<Profile, Long> {
      */
     @Query("SELECT p FROM Profile p WHERE p.accountId = :accountId AND p.isDefault = true AND p.deletedAt IS NULL AND p.isActive = true")
     Optional<Profile> findDefaultProfileByAccountId(@Param("accountId") String accountId);
-    
-    /**
-     * Account ID'ye göre profil var mı kontrol et (aktif ve silinmemiş)
-     */
-    @Query("SELECT COUNT(p) > 0 FROM Profile p WHERE p.accountId = :accountId AND p.deletedAt IS NULL AND p.isActive = true")
-    boolean existsByAccountId(@Param("accountId") String accountId);
 }
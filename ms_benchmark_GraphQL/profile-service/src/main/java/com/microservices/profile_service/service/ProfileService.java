@@ -10,13 +10,14 @@ import com.microservices.profile_service.config.ProfileServiceConfig;
 import com.microservices.profile_service.repository.ProfileRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 /**
@@ -32,15 +33,22 @@ public class ProfileService {
     private static final Logger log = LoggerFactory.getLogger(ProfileService.class);
 
     private final ProfileRepository profileRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PinHashingService pinHashingService;
+    private final AccountProfilesCache accountProfilesCache;
     private final ProfileServiceConfig profileServiceConfig;
+    private final TransactionTemplate transactionTemplate;
 
     public ProfileService(
             ProfileRepository profileRepository,
-            ProfileServiceConfig profileServiceConfig) {
+            ProfileServiceConfig profileServiceConfig,
+            PinHashingService pinHashingService,
+            AccountProfilesCache accountProfilesCache,
+            PlatformTransactionManager transactionManager) {
         this.profileRepository = profileRepository;
         this.profileServiceConfig = profileServiceConfig;
-        this.passwordEncoder = new BCryptPasswordEncoder();
+        this.pinHashingService = pinHashingService;
+        this.accountProfilesCache = accountProfilesCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     /**
@@ -49,14 +57,28 @@ public class ProfileService {
      * NOT: Apollo Federation ile User ve Subscription validasyonları 
      * Gateway üzerinden client tarafında yapılmalıdır.
      * Bu metot sadece profil oluşturma işlemini yapar.
+     * PIN hashing havuzunda hash'lenir; profil, hash hazır olunca kısa bir transaction'da yazılır
+     * (request thread'i ve DB bağlantısı BCrypt'i beklemez).
      */
-    @Transactional
-    public ProfileResponse createProfile(CreateProfileRequest request) {
+    public CompletableFuture<ProfileResponse> createProfile(CreateProfileRequest request) {
         log.info("Creating profile for accountId: {}, profileName: {}", 
                 request.getAccountId(), request.getProfileName());
 
+        // PIN şifreleme
+        CompletableFuture<String> pinHash =
+                Boolean.TRUE.equals(request.getIsPinProtected()) && request.getPin() != null
+                        ? hashPin(request.getPin())
+                        : CompletableFuture.completedFuture(null);
+
+        return pinHash.thenApply(hash -> transactionTemplate.execute(status -> saveNewProfile(request, hash)));
+    }
+
+    private ProfileResponse saveNewProfile(CreateProfileRequest request, String pinHash) {
+        // Hesabın aktif profilleri tek sorguda: sayı, varsayılan profil ve ilk profil kontrolü bu listeden
+        List<Profile> activeProfiles = profileRepository.findActiveProfilesByAccountId(request.getAccountId());
+
         // Mevcut profil sayısını kontrol et (lokal kontrol)
-        long currentProfileCount = profileRepository.countActiveProfilesByAccountId(request.getAccountId());
+        long currentProfileCount = activeProfiles.size();
         
         // Default max profile limit (Federation ile subscription bilgisi client'tan gelecek)
         int maxProfiles = profileServiceConfig.getDefaultMaxProfiles();
@@ -66,31 +88,18 @@ public class ProfileService {
                     String.format("Maximum profile limit reached. Maximum allowed: %d", maxProfiles));
         }
 
-        // PIN şifreleme
-        String pinHash = null;
-        if (request.getIsPinProtected() != null && request.getIsPinProtected() && request.getPin() != null) {
-            int pinLength = request.getPin().length();
-            if (pinLength < profileServiceConfig.getPinMinLength() || 
-                pinLength > profileServiceConfig.getPinMaxLength()) {
-                throw new BadRequestException(
-                        String.format("PIN must be between %d and %d characters", 
-                                profileServiceConfig.getPinMinLength(), 
-                                profileServiceConfig.getPinMaxLength()));
-            }
-            pinHash = passwordEncoder.encode(request.getPin());
-        }
-
         // Varsayılan profil kontrolü
         if (request.getIsDefault() != null && request.getIsDefault()) {
             // Mevcut varsayılan profili kaldır
-            profileRepository.findDefaultProfileByAccountId(request.getAccountId())
-                    .ifPresent(existingDefault -> {
+            activeProfiles.stream()
+                    .filter(existing -> Boolean.TRUE.equals(existing.getIsDefault()))
+                    .forEach(existingDefault -> {
                         existingDefault.setIsDefault(false);
                         profileRepository.save(existingDefault);
                     });
         } else {
             // Eğer ilk profil ise varsayılan yap
-            if (!profileRepository.existsByAccountId(request.getAccountId())) {
+            if (activeProfiles.isEmpty()) {
                 request.setIsDefault(true);
             }
         }
@@ -110,6 +119,7 @@ public class ProfileService {
                 .build();
 
         profile = profileRepository.save(profile);
+        accountProfilesCache.invalidate(profile.getAccountId());
 
         log.info("Profile created successfully: profileId={}, accountId={}", 
                 profile.getId(), profile.getAccountId());
@@ -120,15 +130,10 @@ public class ProfileService {
     /**
      * Account ID'ye göre aktif profilleri getir
      */
-    @Transactional(readOnly = true)
     public List<ProfileResponse> getActiveProfilesByAccountId(String accountId) {
         log.info("Fetching active profiles for accountId: {}", accountId);
 
-        List<Profile> profiles = profileRepository.findActiveProfilesByAccountId(accountId);
-
-        return profiles.stream()
-                .map(ProfileResponse::fromEntity)
-                .collect(Collectors.toList());
+        return getAccountProfiles(accountId).profiles();
     }
 
     /**
@@ -166,11 +171,23 @@ public class ProfileService {
 
     /**
      * Profil güncelle
+     * Yeni PIN varsa önce hashing havuzunda hash'lenir; güncelleme hash hazır olunca kısa bir transaction'dır
      */
-    @Transactional
-    public ProfileResponse updateProfile(Long profileId, String accountId, UpdateProfileRequest request) {
+    public CompletableFuture<ProfileResponse> updateProfile(Long profileId, String accountId,
+                                                            UpdateProfileRequest request) {
         log.info("Updating profile for profileId: {} and accountId: {}", profileId, accountId);
 
+        CompletableFuture<String> pinHash =
+                Boolean.TRUE.equals(request.getIsPinProtected()) && request.getPin() != null
+                        ? hashPin(request.getPin())
+                        : CompletableFuture.completedFuture(null);
+
+        return pinHash.thenApply(hash ->
+                transactionTemplate.execute(status -> applyUpdate(profileId, accountId, request, hash)));
+    }
+
+    private ProfileResponse applyUpdate(Long profileId, String accountId, UpdateProfileRequest request,
+                                        String pinHash) {
         Profile profile = profileRepository.findByIdAndAccountId(profileId, accountId)
                 .orElseThrow(() -> {
                     log.error("Profile not found for profileId: {} and accountId: {}", profileId, accountId);
@@ -206,16 +223,8 @@ public class ProfileService {
         // PIN koruması güncelle
         if (request.getIsPinProtected() != null) {
             profile.setIsPinProtected(request.getIsPinProtected());
-            if (request.getIsPinProtected() && request.getPin() != null) {
-                int pinLength = request.getPin().length();
-                if (pinLength < profileServiceConfig.getPinMinLength() || 
-                    pinLength > profileServiceConfig.getPinMaxLength()) {
-                    throw new BadRequestException(
-                            String.format("PIN must be between %d and %d characters", 
-                                    profileServiceConfig.getPinMinLength(), 
-                                    profileServiceConfig.getPinMaxLength()));
-                }
-                profile.setPinHash(passwordEncoder.encode(request.getPin()));
+            if (pinHash != null) {
+                profile.setPinHash(pinHash);
             } else if (!request.getIsPinProtected()) {
                 profile.setPinHash(null);
             }
@@ -235,12 +244,28 @@ public class ProfileService {
         }
 
         profile = profileRepository.save(profile);
+        accountProfilesCache.invalidate(accountId);
 
         log.info("Profile updated successfully: profileId={}", profileId);
 
         return ProfileResponse.fromEntity(profile);
     }
 
+    /**
+     * PIN uzunluğunu doğrula ve hashing havuzunda hash'le
+     */
+    private CompletableFuture<String> hashPin(String pin) {
+        int pinLength = pin.length();
+        if (pinLength < profileServiceConfig.getPinMinLength() || 
+            pinLength > profileServiceConfig.getPinMaxLength()) {
+            throw new BadRequestException(
+                    String.format("PIN must be between %d and %d characters", 
+                            profileServiceConfig.getPinMinLength(), 
+                            profileServiceConfig.getPinMaxLength()));
+        }
+        return pinHashingService.encode(pin);
+    }
+
     /**
      * Profil sil (soft delete)
      */
@@ -275,6 +300,7 @@ public class ProfileService {
         profile.setDeletedAt(LocalDateTime.now());
         profile.setIsActive(false);
         profileRepository.save(profile);
+        accountProfilesCache.invalidate(accountId);
 
         log.info("Profile deleted successfully: profileId={}", profileId);
     }
@@ -282,24 +308,30 @@ public class ProfileService {
     /**
      * Varsayılan profili getir
      */
-    @Transactional(readOnly = true)
     public ProfileResponse getDefaultProfile(String accountId) {
         log.info("Fetching default profile for accountId: {}", accountId);
 
-        Profile profile = profileRepository.findDefaultProfileByAccountId(accountId)
+        return getAccountProfiles(accountId).defaultProfile()
                 .orElseThrow(() -> {
                     log.error("Default profile not found for accountId: {}", accountId);
                     return new ResourceNotFoundException("Default profile not found for account ID: " + accountId);
                 });
-
-        return ProfileResponse.fromEntity(profile);
     }
 
     /**
      * Profil sayısını getir
      */
-    @Transactional(readOnly = true)
     public long getProfileCount(String accountId) {
-        return profileRepository.countActiveProfilesByAccountId(accountId);
+        return getAccountProfiles(accountId).count();
+    }
+
+    /**
+     * Hesabın aktif profilleri (AccountProfilesCache üzerinden; cache miss'te tek sorgu)
+     */
+    private AccountProfilesCache.AccountProfiles getAccountProfiles(String accountId) {
+        return accountProfilesCache.get(accountId, id -> new AccountProfilesCache.AccountProfiles(
+                profileRepository.findActiveProfilesByAccountId(id).stream()
+                        .map(ProfileResponse::fromEntity)
+                        .collect(Collectors.toList())));
     }
 }
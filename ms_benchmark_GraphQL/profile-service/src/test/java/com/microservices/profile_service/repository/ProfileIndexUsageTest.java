@@ -0,0 +1,96 @@
+package com.microservices.profile_service.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Flyway migration'ları boş bir PostgreSQL'e uygulanır ve ProfileRepository sorgularının
+ * partial indeksleri kullandığı EXPLAIN ile doğrulanır (Docker yoksa atlanır)
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ProfileIndexUsageTest {
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static Connection connection;
+
+    @BeforeAll
+    static void migrateAndSeed() throws SQLException {
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .load()
+                .migrate();
+
+        connection = DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        try (Statement statement = connection.createStatement()) {
+            // 2000 hesap x 5 profil; her 7. profil pasif, her 11. profil silinmiş
+            statement.execute("""
+                    INSERT INTO profiles (account_id, profile_name, is_active, is_default, created_at, deleted_at)
+                    SELECT 'account-' || (i % 2000), 'profile-' || i, i % 7 <> 0, i < 2000,
+                           now() - make_interval(secs => i), CASE WHEN i % 11 = 0 THEN now() END
+                    FROM generate_series(0, 9999) AS i
+                    """);
+            statement.execute("ANALYZE profiles");
+            // Planner sequential scan'e kaçmasın; hangi indeksin seçildiği doğrulanır
+            statement.execute("SET enable_seqscan = off");
+        }
+    }
+
+    @AfterAll
+    static void closeConnection() throws SQLException {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    @Test
+    void findActiveProfilesByAccountIdUsesPartialIndex() throws SQLException {
+        String plan = explain("""
+                SELECT * FROM profiles p
+                WHERE p.account_id = ? AND p.deleted_at IS NULL AND p.is_active = true
+                ORDER BY p.is_default DESC, p.created_at ASC
+                """, "account-42");
+
+        assertThat(plan).contains("idx_profile_account_live");
+    }
+
+    @Test
+    void findDefaultProfileByAccountIdUsesPartialIndex() throws SQLException {
+        String plan = explain("""
+                SELECT * FROM profiles p
+                WHERE p.account_id = ? AND p.is_default = true AND p.deleted_at IS NULL AND p.is_active = true
+                """, "account-42");
+
+        assertThat(plan).contains("idx_profile_account_live");
+    }
+
+    private static String explain(String sql, Object... parameters) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1)).append('\n');
+                }
+            }
+            return plan.toString();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.microservices.subscription_and_billing_service.controller;
+
+import com.microservices.subscription_and_billing_service.dto.response.BillingMonthlySummaryResponse;
+import com.microservices.subscription_and_billing_service.service.BillingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Billing Report Controller
+ * Şirket geneli gelir raporları; GraphQL supergraph'a açılmaz (graphql-gateway üzerinden erişilemez)
+ */
+@RestController
+@RequestMapping("/api/billing/reports")
+public class BillingReportController {
+
+    private static final Logger log = LoggerFactory.getLogger(BillingReportController.class);
+
+    private final BillingService billingService;
+
+    public BillingReportController(BillingService billingService) {
+        this.billingService = billingService;
+    }
+
+    /**
+     * Plan bazında aylık gelir özeti (finans dashboard'ları)
+     * INTERNAL ENDPOINT - sadece iç ağdan; gateway header'ı taşıyan istek 404 alır (GatewayVerificationFilter)
+     *
+     * GET /api/billing/reports/plans?from=2025-01&to=2025-12
+     */
+    @GetMapping("/plans")
+    public ResponseEntity<List<BillingMonthlySummaryResponse>> getPlanMonthlySummary(
+            @RequestParam(required = false) YearMonth from,
+            @RequestParam(required = false) YearMonth to) {
+        log.info("Received request to get monthly plan revenue summary");
+        return ResponseEntity.ok(billingService.getPlanMonthlySummary(from, to));
+    }
+}
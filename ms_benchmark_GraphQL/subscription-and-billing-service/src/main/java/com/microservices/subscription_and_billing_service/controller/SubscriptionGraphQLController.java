@@ -4,6 +4,7 @@ import com.microservices.subscription_and_billing_service.dto.request.AddPayment
 import com.microservices.subscription_and_billing_service.dto.request.CancelSubscriptionRequest;
 import com.microservices.subscription_and_billing_service.dto.request.SubscribeRequest;
 import com.microservices.subscription_and_billing_service.dto.response.*;
+import com.microservices.subscription_and_billing_service.exception.BadRequestException;
 import com.microservices.subscription_and_billing_service.service.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,6 +13,9 @@ import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
 import org.springframework.stereotype.Controller;
 
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 
 /**
@@ -27,15 +31,18 @@ public class SubscriptionGraphQLController {
     private final SubscriptionPlanService subscriptionPlanService;
     private final PaymentService paymentService;
     private final BillingService billingService;
+    private final IdempotencyService idempotencyService;
 
     public SubscriptionGraphQLController(SubscriptionService subscriptionService,
             SubscriptionPlanService subscriptionPlanService,
             PaymentService paymentService,
-            BillingService billingService) {
+            BillingService billingService,
+            IdempotencyService idempotencyService) {
         this.subscriptionService = subscriptionService;
         this.subscriptionPlanService = subscriptionPlanService;
         this.paymentService = paymentService;
         this.billingService = billingService;
+        this.idempotencyService = idempotencyService;
     }
 
     // ============== Subscription Queries ==============
@@ -91,9 +98,10 @@ public class SubscriptionGraphQLController {
      * Kullanıcının fatura geçmişini getir
      */
     @QueryMapping
-    public List<BillingHistoryResponse> getBillingHistory(@Argument String userId) {
+    public List<BillingHistoryResponse> getBillingHistory(@Argument String userId, @Argument Integer limit,
+            @Argument String since) {
         log.info("GraphQL Query: getBillingHistory for userId: {}", userId);
-        return billingService.getBillingHistory(userId);
+        return billingService.getBillingHistory(userId, limit, parseSince(since)).getItems();
     }
 
     /**
@@ -101,19 +109,32 @@ public class SubscriptionGraphQLController {
      * Başarılı ödemeleri getir
      */
     @QueryMapping
-    public List<BillingHistoryResponse> getSuccessfulPayments(@Argument String userId) {
+    public List<BillingHistoryResponse> getSuccessfulPayments(@Argument String userId, @Argument Integer limit,
+            @Argument String since) {
         log.info("GraphQL Query: getSuccessfulPayments for userId: {}", userId);
-        return billingService.getSuccessfulPayments(userId);
+        return billingService.getSuccessfulPayments(userId, limit, parseSince(since)).getItems();
+    }
+
+    /**
+     * GraphQL Query: getMonthlyBillingSummary
+     * Kullanıcının aylık harcama özeti
+     */
+    @QueryMapping
+    public List<BillingMonthlySummaryResponse> getMonthlyBillingSummary(@Argument String userId,
+            @Argument String from, @Argument String to) {
+        log.info("GraphQL Query: getMonthlyBillingSummary for userId: {}", userId);
+        return billingService.getMonthlySummary(userId, parseMonth(from), parseMonth(to));
     }
 
     // ============== Subscription Mutations ==============
 
     /**
      * GraphQL Mutation: subscribe
-     * Yeni abonelik satın al
+     * Yeni abonelik satın al (opsiyonel idempotencyKey ile tekrar denemeler güvenli)
      */
     @MutationMapping
-    public SubscriptionResponse subscribe(@Argument String userId, @Argument("input") SubscribeInput input) {
+    public SubscriptionResponse subscribe(@Argument String userId, @Argument("input") SubscribeInput input,
+            @Argument String idempotencyKey) {
         log.info("GraphQL Mutation: subscribe for userId: {} with plan: {}", userId, input.planName());
 
         SubscribeRequest request = SubscribeRequest.builder()
@@ -122,7 +143,8 @@ public class SubscriptionGraphQLController {
                 .paymentMethodId(input.paymentMethodId())
                 .build();
 
-        return subscriptionService.subscribe(userId, request);
+        return idempotencyService.execute(userId, idempotencyKey, "subscribe", request,
+                SubscriptionResponse.class, () -> subscriptionService.subscribe(userId, request));
     }
 
     /**
@@ -146,11 +168,12 @@ public class SubscriptionGraphQLController {
 
     /**
      * GraphQL Mutation: addPaymentMethod
-     * Yeni ödeme yöntemi ekle
+     * Yeni ödeme yöntemi ekle (opsiyonel idempotencyKey ile tekrar denemeler güvenli)
      */
     @MutationMapping
     public PaymentMethodResponse addPaymentMethod(@Argument String userId,
-            @Argument("input") AddPaymentMethodInput input) {
+            @Argument("input") AddPaymentMethodInput input,
+            @Argument String idempotencyKey) {
         log.info("GraphQL Mutation: addPaymentMethod for userId: {}", userId);
 
         AddPaymentMethodRequest request = AddPaymentMethodRequest.builder()
@@ -163,7 +186,8 @@ public class SubscriptionGraphQLController {
                 .setAsDefault(input.setAsDefault() != null ? input.setAsDefault() : false)
                 .build();
 
-        return paymentService.addPaymentMethod(userId, request);
+        return idempotencyService.execute(userId, idempotencyKey, "add-payment-method", request,
+                PaymentMethodResponse.class, () -> paymentService.addPaymentMethod(userId, request));
     }
 
     /**
@@ -193,9 +217,37 @@ public class SubscriptionGraphQLController {
      * Federation Resolver: User.billingHistory
      */
     @org.springframework.graphql.data.method.annotation.SchemaMapping(typeName = "User")
-    public List<BillingHistoryResponse> billingHistory(User user) {
+    public List<BillingHistoryResponse> billingHistory(User user, @Argument Integer limit, @Argument String since) {
         log.info("Federation Resolver: Resolving billingHistory for userId: {}", user.userId());
-        return billingService.getBillingHistory(user.userId());
+        return billingService.getBillingHistory(user.userId(), limit, parseSince(since)).getItems();
+    }
+
+    /**
+     * Opsiyonel ISO-8601 since argümanını çözümle
+     */
+    private LocalDateTime parseSince(String since) {
+        if (since == null || since.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(since);
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("Invalid since: " + since);
+        }
+    }
+
+    /**
+     * yyyy-MM ay argümanını parse et (boşsa null)
+     */
+    private YearMonth parseMonth(String month) {
+        if (month == null || month.isBlank()) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(month);
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("Invalid month: " + month);
+        }
     }
 
     // ============== Input Records ==============
@@ -0,0 +1,22 @@
+package com.microservices.subscription_and_billing_service.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Limit'li fatura geçmişi sorgusunun sonucu
+ * hasMore: limit'ten fazla kayıt var (liste kesildi)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BillingHistoryPage {
+
+    private List<BillingHistoryResponse> items;
+    private boolean hasMore;
+}
@@ -0,0 +1,58 @@
+package com.microservices.subscription_and_billing_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * BillingJobCheckpoint Entity
+ * Yenileme / süre sonu job'larının ilerleme kaydı (job başına tek satır).
+ * Her chunk commit'inde lastProcessedId ilerletilir; çöken bir çalıştırma aynı pencereden,
+ * kaldığı ID'den devam eder.
+ */
+@Entity
+@Table(name = "billing_job_checkpoints")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BillingJobCheckpoint {
+
+    @Id
+    @Column(length = 50)
+    private String jobName; // subscription-renewal, subscription-expiry
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private JobStatus status;
+
+    @Column
+    private LocalDateTime windowStart; // Çalıştırmanın endDate alt sınırı (expiry için null)
+
+    @Column
+    private LocalDateTime windowEnd; // Çalıştırmanın endDate üst sınırı
+
+    @Column(nullable = false)
+    private Long lastProcessedId; // Keyset pagination imleci
+
+    @Column(nullable = false)
+    private Long processedCount;
+
+    @Column(length = 100)
+    private String lockOwner; // Job'u çalıştıran instance
+
+    @Column
+    private LocalDateTime startedAt;
+
+    @Column
+    private LocalDateTime updatedAt; // Heartbeat: her chunk'ta güncellenir
+
+    public enum JobStatus {
+        RUNNING,
+        COMPLETED
+    }
+}
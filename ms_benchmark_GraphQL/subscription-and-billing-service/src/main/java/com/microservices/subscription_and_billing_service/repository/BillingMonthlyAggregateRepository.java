@@ -0,0 +1,28 @@
+package com.microservices.subscription_and_billing_service.repository;
+
+import com.microservices.subscription_and_billing_service.entity.BillingMonthlyAggregate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * BillingMonthlyAggregate Repository
+ * Yazma işlemleri BillingRollupService'te JDBC upsert ile yapılır
+ */
+@Repository
+public interface BillingMonthlyAggregateRepository extends JpaRepository<BillingMonthlyAggregate, Long> {
+
+    /**
+     * Tek bir kullanıcının / planın aylık özetleri
+     */
+    List<BillingMonthlyAggregate> findByScopeTypeAndScopeKeyAndPeriodMonthBetweenOrderByPeriodMonthAsc(
+            BillingMonthlyAggregate.ScopeType scopeType, String scopeKey, LocalDate from, LocalDate to);
+
+    /**
+     * Bir kapsamdaki tüm anahtarların aylık özetleri (örn. tüm planlar)
+     */
+    List<BillingMonthlyAggregate> findByScopeTypeAndPeriodMonthBetweenOrderByPeriodMonthAscScopeKeyAsc(
+            BillingMonthlyAggregate.ScopeType scopeType, LocalDate from, LocalDate to);
+}
@@ -1,6 +1,7 @@
 package com.microservices.subscription_and_billing_service.repository;
 
 import com.microservices.subscription_and_billing_service.entity.Subscription;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -35,15 +36,23 @@ public interface SubscriptionRepository extends JpaRepository<Subscription, Long
 
     /**
      * Süresi dolmak üzere olan abonelikleri bul (otomatik yenileme için)
+     * Deneme hakkı bitmiş (failedPaymentAttempts >= maxAttempts) veya bekleme süresi dolmamış
+     * (nextRetryAt > startDate) abonelikler atlanır.
+     * Keyset pagination: afterId'den sonraki ilk pageable.size kayıt, ID sırasıyla
      */
-    @Query("SELECT s FROM Subscription s WHERE s.status = 'ACTIVE' AND s.autoRenew = true AND s.endDate BETWEEN :startDate AND :endDate")
-    List<Subscription> findSubscriptionsForRenewal(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    @Query("SELECT s FROM Subscription s WHERE s.status = 'ACTIVE' AND s.autoRenew = true AND s.endDate BETWEEN :startDate AND :endDate " +
+           "AND (s.failedPaymentAttempts IS NULL OR s.failedPaymentAttempts < :maxAttempts) " +
+           "AND (s.nextRetryAt IS NULL OR s.nextRetryAt <= :startDate) AND s.id > :afterId ORDER BY s.id ASC")
+    List<Subscription> findSubscriptionsForRenewal(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate,
+                                                   @Param("maxAttempts") int maxAttempts,
+                                                   @Param("afterId") Long afterId, Pageable pageable);
 
     /**
      * Süresi dolmuş ama hala aktif olan abonelikleri bul
+     * Keyset pagination: afterId'den sonraki ilk pageable.size kayıt, ID sırasıyla
      */
-    @Query("SELECT s FROM Subscription s WHERE s.status = 'ACTIVE' AND s.endDate < :now")
-    List<Subscription> findExpiredSubscriptions(@Param("now") LocalDateTime now);
+    @Query("SELECT s FROM Subscription s WHERE s.status = 'ACTIVE' AND s.endDate < :now AND s.id > :afterId ORDER BY s.id ASC")
+    List<Subscription> findExpiredSubscriptions(@Param("now") LocalDateTime now, @Param("afterId") Long afterId, Pageable pageable);
 }
 
 
@@ -0,0 +1,234 @@
+package com.microservices.subscription_and_billing_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.microservices.subscription_and_billing_service.entity.IdempotencyRecord;
+import com.microservices.subscription_and_billing_service.exception.BadRequestException;
+import com.microservices.subscription_and_billing_service.exception.ConflictException;
+import com.microservices.subscription_and_billing_service.repository.IdempotencyRecordRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency Service
+ * Idempotency-Key taşıyan subscribe / ödeme isteklerinin en fazla bir kez çalışmasını sağlar.
+ *
+ * 1. Tamamlanmış yanıtlar önce bellekteki (Caffeine) cache'te, sonra idempotency_keys tablosunda aranır;
+ *    bulunursa kaydedilmiş yanıt tekrar döner (replay).
+ * 2. Yoksa unique index üzerinden PENDING kayıt eklenerek key sahiplenilir; aynı anda gelen
+ *    ikinci istek 409 Conflict alır.
+ * 3. İşlem ve yanıtın kaydı aynı transaction'da commit edilir; işlem hata verirse PENDING kayıt
+ *    silinir ve istemci aynı key ile tekrar deneyebilir.
+ *
+ * Metrikler: idempotency.requests{result=executed|replayed|conflict}, cache.*{cache=idempotency}
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private final IdempotencyRecordRepository recordRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, StoredResponse> completedResponses;
+    private final Duration retention;
+    private final Duration pendingTimeout;
+
+    public IdempotencyService(
+            IdempotencyRecordRepository recordRepository,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${billing.idempotency.cache-size:100000}") long cacheSize,
+            @Value("${billing.idempotency.retention:24h}") Duration retention,
+            @Value("${billing.idempotency.pending-timeout:1m}") Duration pendingTimeout) {
+        this.recordRepository = recordRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.retention = retention;
+        this.pendingTimeout = pendingTimeout;
+        this.completedResponses = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(retention)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, completedResponses, "idempotency");
+    }
+
+    /**
+     * İşlemi idempotent olarak çalıştır. Key yoksa işlem doğrudan çalışır.
+     */
+    public <T> T execute(String userId, String idempotencyKey, String operation, Object request,
+                         Class<T> responseType, Supplier<T> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String cacheKey = userId + "|" + idempotencyKey;
+        String requestHash = hash(operation, request);
+
+        // 1. Bellek, sonra tablo
+        StoredResponse stored = completedResponses.getIfPresent(cacheKey);
+        IdempotencyRecord existing = null;
+        if (stored == null) {
+            existing = recordRepository.findByUserIdAndIdempotencyKey(userId, idempotencyKey).orElse(null);
+            if (existing != null && existing.getStatus() == IdempotencyRecord.Status.COMPLETED) {
+                stored = cacheCompleted(cacheKey, existing);
+            }
+        }
+        if (stored != null) {
+            return replay(stored, requestHash, responseType);
+        }
+
+        // 2. Key'i sahiplen
+        IdempotencyRecord claimed = existing != null
+                ? reclaimIfStale(existing, requestHash)
+                : claim(userId, idempotencyKey, operation, requestHash, cacheKey);
+        if (claimed == null) {
+            // Yarışı kaybettik; kazanan tamamladıysa yanıtını döndür
+            IdempotencyRecord winner = recordRepository.findByUserIdAndIdempotencyKey(userId, idempotencyKey)
+                    .orElse(null);
+            if (winner != null && winner.getStatus() == IdempotencyRecord.Status.COMPLETED) {
+                return replay(cacheCompleted(cacheKey, winner), requestHash, responseType);
+            }
+            meterRegistry.counter("idempotency.requests", "result", "conflict").increment();
+            throw new ConflictException("A request with this Idempotency-Key is already in progress");
+        }
+
+        // 3. İşlem + yanıt kaydı tek transaction'da
+        try {
+            T response = transactionTemplate.execute(status -> {
+                T result = action.get();
+                claimed.setStatus(IdempotencyRecord.Status.COMPLETED);
+                claimed.setResponseBody(toJson(result));
+                claimed.setCompletedAt(LocalDateTime.now());
+                recordRepository.save(claimed);
+                return result;
+            });
+            completedResponses.put(cacheKey, new StoredResponse(requestHash, claimed.getResponseBody()));
+            meterRegistry.counter("idempotency.requests", "result", "executed").increment();
+            return response;
+        } catch (RuntimeException e) {
+            recordRepository.deletePending(claimed.getId());
+            throw e;
+        }
+    }
+
+    /**
+     * Saklama süresi dolmuş kayıtları temizle
+     */
+    @Scheduled(cron = "${billing.idempotency.cleanup-cron:0 0 * * * *}")
+    public void purgeExpired() {
+        int deleted = recordRepository.deleteOlderThan(LocalDateTime.now().minus(retention));
+        if (deleted > 0) {
+            log.info("Purged {} expired idempotency keys", deleted);
+        }
+    }
+
+    /**
+     * Unique index üzerinden PENDING kayıt ekle; key başkasındaysa null döner
+     */
+    private IdempotencyRecord claim(String userId, String idempotencyKey, String operation,
+                                    String requestHash, String cacheKey) {
+        try {
+            return recordRepository.saveAndFlush(IdempotencyRecord.builder()
+                    .userId(userId)
+                    .idempotencyKey(idempotencyKey)
+                    .operation(operation)
+                    .requestHash(requestHash)
+                    .status(IdempotencyRecord.Status.PENDING)
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Idempotency key already claimed: {}", cacheKey);
+            return null;
+        }
+    }
+
+    /**
+     * Çöken bir isteğin takılı kalan PENDING kaydını pendingTimeout sonra devral
+     */
+    private IdempotencyRecord reclaimIfStale(IdempotencyRecord existing, String requestHash) {
+        LocalDateTime now = LocalDateTime.now();
+        int updated = recordRepository.reclaimStalePending(
+                existing.getId(), requestHash, now, now.minus(pendingTimeout));
+        if (updated == 0) {
+            return null;
+        }
+        existing.setRequestHash(requestHash);
+        existing.setCreatedAt(now);
+        return existing;
+    }
+
+    private <T> T replay(StoredResponse stored, String requestHash, Class<T> responseType) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new BadRequestException("Idempotency-Key was already used with a different request");
+        }
+        meterRegistry.counter("idempotency.requests", "result", "replayed").increment();
+        try {
+            return objectMapper.readValue(stored.responseBody(), responseType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored idempotent response could not be read", e);
+        }
+    }
+
+    private StoredResponse cacheCompleted(String cacheKey, IdempotencyRecord record) {
+        StoredResponse stored = new StoredResponse(record.getRequestHash(), record.getResponseBody());
+        completedResponses.put(cacheKey, stored);
+        return stored;
+    }
+
+    /**
+     * İşlem adı + istek gövdesinin SHA-256 özeti (kart numarası gibi alanlar saklanmaz)
+     */
+    private String hash(String operation, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Request hash could not be computed", e);
+        }
+    }
+
+    private String toJson(Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Response could not be serialized", e);
+        }
+    }
+
+    /**
+     * Tamamlanmış isteğin özeti ve JSON yanıtı
+     */
+    private record StoredResponse(String requestHash, String responseBody) {
+    }
+}
@@ -26,9 +26,12 @@ public class PaymentService {
     private static final Logger log = LoggerFactory.getLogger(PaymentService.class);
 
     private final PaymentMethodRepository paymentMethodRepository;
+    private final TransactionIdGenerator transactionIdGenerator;
 
-    public PaymentService(PaymentMethodRepository paymentMethodRepository) {
+    public PaymentService(PaymentMethodRepository paymentMethodRepository,
+                          TransactionIdGenerator transactionIdGenerator) {
         this.paymentMethodRepository = paymentMethodRepository;
+        this.transactionIdGenerator = transactionIdGenerator;
     }
 
     /**
@@ -37,7 +40,17 @@ public class PaymentService {
      */
     @Transactional
     public boolean processPayment(String userId, BigDecimal amount, Long paymentMethodId) {
-        log.info("Processing payment for userId: {}, amount: {}", userId, amount);
+        return processPayment(userId, amount, paymentMethodId, null);
+    }
+
+    /**
+     * Idempotency key ile ödeme işlemi yap
+     * Key gateway'e iletilir; aynı key ile tekrarlanan istek ikinci kez tahsil edilmez,
+     * ilk denemenin sonucu döner.
+     */
+    @Transactional
+    public boolean processPayment(String userId, BigDecimal amount, Long paymentMethodId, String idempotencyKey) {
+        log.info("Processing payment for userId: {}, amount: {}, idempotencyKey: {}", userId, amount, idempotencyKey);
 
         // Ödeme yöntemi ID'si verilmişse onu kullan, yoksa default'u kullan
         PaymentMethod paymentMethod;
@@ -55,7 +68,7 @@ public class PaymentService {
         // gönderilir
         try {
             // Payment gateway'e istek gönder (simüle)
-            boolean paymentSuccess = simulatePaymentGateway(paymentMethod, amount);
+            boolean paymentSuccess = simulatePaymentGateway(paymentMethod, amount, idempotencyKey);
 
             if (paymentSuccess) {
                 log.info("Payment successful for userId: {}", userId);
@@ -100,7 +113,7 @@ public class PaymentService {
 
         // Gerçek uygulamada kart bilgileri payment gateway'e gönderilir ve token alınır
         // Burada simüle ediyoruz
-        String paymentToken = "TOKEN_" + System.currentTimeMillis();
+        String paymentToken = transactionIdGenerator.nextPaymentToken();
 
         PaymentMethod paymentMethod = PaymentMethod.builder()
                 .userId(userId)
@@ -157,8 +170,9 @@ public class PaymentService {
     /**
      * Payment gateway simülasyonu
      * Gerçek uygulamada buraya Stripe, PayPal, iyzico gibi entegrasyon gelecek
+     * (idempotencyKey gateway'in Idempotency-Key header'ı olarak gönderilir)
      */
-    private boolean simulatePaymentGateway(PaymentMethod paymentMethod, BigDecimal amount) {
+    private boolean simulatePaymentGateway(PaymentMethod paymentMethod, BigDecimal amount, String idempotencyKey) {
         // %100 başarı oranı ile simüle edilmiş ödeme (test ortamı için)
         // Gerçek uygulamada burada external API çağrısı yapılır
         return true;
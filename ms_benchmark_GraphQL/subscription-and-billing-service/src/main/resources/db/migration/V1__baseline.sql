@@ -0,0 +1,90 @@
+-- Subscription & Billing Service baseline şeması
+-- ddl-auto=update ile oluşturulmuş mevcut veritabanlarında bu dosya çalışmaz (baseline-on-migrate, baseline-version=1)
+
+create table subscription_plans (
+    id bigint generated by default as identity,
+    plan_name varchar(50) not null,
+    display_name varchar(100) not null,
+    description TEXT,
+    monthly_price numeric(10,2) not null,
+    yearly_price numeric(10,2) not null,
+    max_screens integer not null,
+    max_profiles integer not null,
+    video_quality varchar(255) not null,
+    download_available boolean not null,
+    ads_included boolean not null,
+    is_active boolean not null,
+    sort_order integer not null,
+    created_at timestamp(6) not null,
+    updated_at timestamp(6),
+    primary key (id),
+    constraint uk_subscription_plans_plan_name unique (plan_name)
+);
+
+create table subscriptions (
+    id bigint generated by default as identity,
+    user_id varchar(255) not null,
+    plan_id bigint not null,
+    status varchar(20) not null check (status in ('ACTIVE','CANCELLED','EXPIRED','SUSPENDED')),
+    billing_cycle varchar(20) not null check (billing_cycle in ('MONTHLY','YEARLY')),
+    start_date timestamp(6) not null,
+    end_date timestamp(6) not null,
+    cancelled_at timestamp(6),
+    cancellation_reason varchar(255),
+    auto_renew boolean not null,
+    next_billing_date timestamp(6),
+    last_billing_date timestamp(6),
+    failed_payment_attempts integer,
+    created_at timestamp(6) not null,
+    updated_at timestamp(6),
+    deleted_at timestamp(6),
+    primary key (id),
+    constraint fk_subscriptions_plan foreign key (plan_id) references subscription_plans
+);
+
+create index idx_subscription_user_id on subscriptions (user_id);
+create index idx_subscription_status on subscriptions (status);
+
+create table billing_history (
+    id bigint generated by default as identity,
+    user_id varchar(255) not null,
+    subscription_id bigint not null,
+    plan_id bigint not null,
+    plan_name varchar(100) not null,
+    amount numeric(10,2) not null,
+    currency varchar(3) not null,
+    payment_status varchar(20) not null check (payment_status in ('PENDING','SUCCESS','FAILED','REFUNDED')),
+    payment_method varchar(20) not null check (payment_method in ('CREDIT_CARD','DEBIT_CARD','PAYPAL','BANK_TRANSFER','OTHER')),
+    transaction_id varchar(100),
+    payment_date timestamp(6),
+    billing_period_start timestamp(6),
+    billing_period_end timestamp(6),
+    invoice_url TEXT,
+    failure_reason TEXT,
+    created_at timestamp(6) not null,
+    primary key (id)
+);
+
+create index idx_billing_user_id on billing_history (user_id);
+create index idx_billing_subscription_id on billing_history (subscription_id);
+create index idx_billing_payment_status on billing_history (payment_status);
+
+create table payment_methods (
+    id bigint generated by default as identity,
+    user_id varchar(255) not null,
+    type varchar(50) not null,
+    card_holder_name varchar(100) not null,
+    last_four_digits varchar(4) not null,
+    card_brand varchar(50),
+    expiry_month varchar(2) not null,
+    expiry_year varchar(4) not null,
+    payment_token TEXT not null,
+    is_default boolean not null,
+    is_active boolean not null,
+    created_at timestamp(6) not null,
+    updated_at timestamp(6),
+    deleted_at timestamp(6),
+    primary key (id)
+);
+
+create index idx_payment_method_user_id on payment_methods (user_id);
@@ -0,0 +1,21 @@
+-- Silinmiş / pasif kayıtlar indekse girmez
+
+-- findActiveSubscriptionByUserId
+create index if not exists idx_subscription_user_active
+    on subscriptions (user_id)
+    where status = 'ACTIVE' and deleted_at is null;
+
+-- findAllByUserId (sıralama indeksten okunur)
+create index if not exists idx_subscription_user_created
+    on subscriptions (user_id, created_at desc)
+    where deleted_at is null;
+
+-- Yukarıdaki iki indeksle karşılanan tam indeksler
+drop index if exists idx_subscription_user_id;
+drop index if exists idx_subscription_user_status;
+
+-- findActivePaymentMethodsByUserId / findDefaultPaymentMethod / existsByUserIdAndCardDetails
+-- idx_payment_method_user_id kalır: removeAllDefaultFlags kullanıcının tüm kayıtlarını günceller
+create index if not exists idx_payment_method_user_live
+    on payment_methods (user_id, is_default desc, created_at desc)
+    where is_active and deleted_at is null;
@@ -0,0 +1,17 @@
+-- Eski TransactionIdGenerator "TXN-" + currentTimeMillis üretiyordu; aynı milisaniyedeki ödemeler
+-- aynı transaction_id'yi aldı ve ddl-auto unique indeksi bu veritabanlarında oluşturamadı.
+-- Her tekrar grubunda ilk kayıt (en küçük id) değerini korur, diğerlerine "-dup-<id>" eklenir;
+-- kayıt silinmez (fatura geçmişi ve rollup'lar değişmez).
+
+with duplicates as (
+    select id, row_number() over (partition by transaction_id order by id) as position
+    from billing_history
+    where transaction_id is not null
+)
+update billing_history b
+set transaction_id = left(b.transaction_id, 100 - length('-dup-' || b.id)) || '-dup-' || b.id
+from duplicates d
+where b.id = d.id
+  and d.position > 1;
+
+create unique index if not exists idx_billing_transaction_id on billing_history (transaction_id);
@@ -0,0 +1,181 @@
+package com.microservices.subscription_and_billing_service.repository;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Flyway migration'ları boş bir PostgreSQL'e uygulanır (Docker yoksa atlanır):
+ * - V4 öncesinde eklenen eski "TXN-<millis>" tekrarları ayrıştırılır ve unique indeks oluşur
+ * - Abonelik / ödeme yöntemi sorgularının partial indeksleri kullandığı EXPLAIN ile doğrulanır
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class BillingMigrationTest {
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static Connection connection;
+
+    @BeforeAll
+    static void migrateAndSeed() throws SQLException {
+        // Unique indeksten önceki şema (ddl-auto döneminde indeksi oluşturamamış veritabanı)
+        flyway("3").migrate();
+
+        connection = DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    INSERT INTO billing_history (user_id, subscription_id, plan_id, plan_name, amount, currency,
+                                                 payment_status, payment_method, transaction_id, created_at)
+                    SELECT 'user-' || i, i, 1, 'BASIC', 99.90, 'TRY', 'SUCCESS', 'CREDIT_CARD',
+                           CASE WHEN i < 3 THEN 'TXN-1700000000000' ELSE 'TXN-' || (1700000000000 + i) END, now()
+                    FROM generate_series(0, 4) AS i
+                    """);
+        }
+
+        flyway(null).migrate();
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    INSERT INTO subscription_plans (plan_name, display_name, monthly_price, yearly_price, max_screens,
+                                                    max_profiles, video_quality, download_available, ads_included,
+                                                    is_active, sort_order, created_at)
+                    VALUES ('BASIC', 'Temel Plan', 99.90, 999.00, 1, 1, 'HD', false, true, true, 0, now())
+                    """);
+            // 2000 kullanıcı x 5 abonelik (biri aktif) ve 5 ödeme yöntemi; her 11. kayıt silinmiş
+            statement.execute("""
+                    INSERT INTO subscriptions (user_id, plan_id, status, billing_cycle, start_date, end_date,
+                                               auto_renew, failed_payment_attempts, created_at, deleted_at)
+                    SELECT 'user-' || (i % 2000), (SELECT id FROM subscription_plans WHERE plan_name = 'BASIC'),
+                           CASE WHEN i < 2000 THEN 'ACTIVE' ELSE 'EXPIRED' END, 'MONTHLY',
+                           now() - interval '1 month', now() + interval '1 month', true, 0,
+                           now() - make_interval(secs => i), CASE WHEN i % 11 = 0 THEN now() END
+                    FROM generate_series(0, 9999) AS i
+                    """);
+            statement.execute("""
+                    INSERT INTO payment_methods (user_id, type, card_holder_name, last_four_digits, card_brand,
+                                                 expiry_month, expiry_year, payment_token, is_default, is_active,
+                                                 created_at, deleted_at)
+                    SELECT 'user-' || (i % 2000), 'CREDIT_CARD', 'Test User', lpad((i % 10000)::text, 4, '0'), 'VISA',
+                           '12', '2030', 'token-' || i, i < 2000, i % 7 <> 0,
+                           now() - make_interval(secs => i), CASE WHEN i % 11 = 0 THEN now() END
+                    FROM generate_series(0, 9999) AS i
+                    """);
+            statement.execute("ANALYZE");
+            // Planner sequential scan'e kaçmasın; hangi indeksin seçildiği doğrulanır
+            statement.execute("SET enable_seqscan = off");
+        }
+    }
+
+    @AfterAll
+    static void closeConnection() throws SQLException {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    @Test
+    void duplicateLegacyTransactionIdsAreRenamedAndUniqueIndexIsCreated() throws SQLException {
+        List<String> transactionIds = new ArrayList<>();
+        List<Long> ids = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(
+                     "SELECT id, transaction_id FROM billing_history ORDER BY id")) {
+            while (resultSet.next()) {
+                ids.add(resultSet.getLong(1));
+                transactionIds.add(resultSet.getString(2));
+            }
+        }
+
+        // İlk kayıt değerini korur, tekrarlar "-dup-<id>" alır; tekrar etmeyenler değişmez
+        assertThat(transactionIds).containsExactly(
+                "TXN-1700000000000",
+                "TXN-1700000000000-dup-" + ids.get(1),
+                "TXN-1700000000000-dup-" + ids.get(2),
+                "TXN-1700000000003",
+                "TXN-1700000000004");
+
+        assertThatThrownBy(() -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("""
+                        INSERT INTO billing_history (user_id, subscription_id, plan_id, plan_name, amount, currency,
+                                                     payment_status, payment_method, transaction_id, created_at)
+                        VALUES ('user-0', 0, 1, 'BASIC', 99.90, 'TRY', 'SUCCESS', 'CREDIT_CARD', 'TXN-1700000000000', now())
+                        """);
+            }
+        }).isInstanceOf(SQLException.class).hasMessageContaining("idx_billing_transaction_id");
+    }
+
+    @Test
+    void findActiveSubscriptionByUserIdUsesPartialIndex() throws SQLException {
+        String plan = explain("""
+                SELECT * FROM subscriptions s
+                WHERE s.user_id = ? AND s.status = 'ACTIVE' AND s.deleted_at IS NULL
+                """, "user-42");
+
+        assertThat(plan).contains("idx_subscription_user_active");
+    }
+
+    @Test
+    void findAllByUserIdUsesPartialIndex() throws SQLException {
+        String plan = explain("""
+                SELECT * FROM subscriptions s
+                WHERE s.user_id = ? AND s.deleted_at IS NULL
+                ORDER BY s.created_at DESC
+                """, "user-42");
+
+        assertThat(plan).contains("idx_subscription_user_created");
+    }
+
+    @Test
+    void findActivePaymentMethodsByUserIdUsesPartialIndex() throws SQLException {
+        String plan = explain("""
+                SELECT * FROM payment_methods pm
+                WHERE pm.user_id = ? AND pm.is_active = true AND pm.deleted_at IS NULL
+                ORDER BY pm.is_default DESC, pm.created_at DESC
+                """, "user-42");
+
+        assertThat(plan).contains("idx_payment_method_user_live");
+    }
+
+    private static Flyway flyway(String target) {
+        FluentConfiguration configuration = Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        if (target != null) {
+            configuration.target(target);
+        }
+        return configuration.load();
+    }
+
+    private static String explain(String sql, Object... parameters) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1)).append('\n');
+                }
+            }
+            return plan.toString();
+        }
+    }
+}
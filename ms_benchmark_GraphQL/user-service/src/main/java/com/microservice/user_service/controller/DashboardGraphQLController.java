@@ -6,6 +6,7 @@ import com.microservice.user_service.dto.response.UserProfileResponse;
 import com.microservice.user_service.graphql.client.ContentServiceGraphQLClient;
 import com.microservice.user_service.graphql.client.ProfileServiceGraphQLClient;
 import com.microservice.user_service.graphql.client.SubscriptionServiceGraphQLClient;
+import com.microservice.user_service.graphql.client.WatchHistoryServiceGraphQLClient;
 import com.microservice.user_service.service.UserProfileService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,7 +14,6 @@ import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
 import org.springframework.stereotype.Controller;
 
-import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -23,11 +23,12 @@ import java.util.stream.Collectors;
  * 
  * Bu controller REST versiyonundaki UserDashboardController'ın GraphQL
  * karşılığıdır.
- * Tek bir GraphQL query ile 4 farklı servise GraphQL istekleri gönderir:
+ * Tek bir GraphQL query ile 4 farklı servise 5 GraphQL isteği gönderir:
  * 1. Profile Service - Kullanıcı profilleri
  * 2. Subscription Service - Aktif abonelik
  * 3. Subscription Service - Fatura geçmişi (billingHistory)
  * 4. Content Service - Önerilen içerikler
+ * 5. Video Streaming Service - İzleme geçmişi özeti
  * 
  * Protocol Comparison: REST vs gRPC vs GraphQL performans karşılaştırması için
  * kullanılır.
@@ -41,16 +42,19 @@ public class DashboardGraphQLController {
     private final ProfileServiceGraphQLClient profileServiceClient;
     private final SubscriptionServiceGraphQLClient subscriptionServiceClient;
     private final ContentServiceGraphQLClient contentServiceClient;
+    private final WatchHistoryServiceGraphQLClient watchHistoryServiceClient;
 
     public DashboardGraphQLController(
             UserProfileService userProfileService,
             ProfileServiceGraphQLClient profileServiceClient,
             SubscriptionServiceGraphQLClient subscriptionServiceClient,
-            ContentServiceGraphQLClient contentServiceClient) {
+            ContentServiceGraphQLClient contentServiceClient,
+            WatchHistoryServiceGraphQLClient watchHistoryServiceClient) {
         this.userProfileService = userProfileService;
         this.profileServiceClient = profileServiceClient;
         this.subscriptionServiceClient = subscriptionServiceClient;
         this.contentServiceClient = contentServiceClient;
+        this.watchHistoryServiceClient = watchHistoryServiceClient;
     }
 
     /**
@@ -62,7 +66,7 @@ public class DashboardGraphQLController {
      * 3. Subscription Service'e GraphQL call (subscription)
      * 4. Subscription Service'e GraphQL call (billingHistory)
      * 5. Content Service'e GraphQL call
-     * 6. Watch History mock data (local)
+     * 6. Video Streaming Service'e GraphQL call (izleme geçmişi özeti)
      */
     @QueryMapping
     public UserDashboardResponse dashboard(@Argument String userId) {
@@ -116,8 +120,8 @@ public class DashboardGraphQLController {
             long step4Start = System.currentTimeMillis();
             List<PaymentInfo> payments = new ArrayList<>();
             try {
-                List<PaymentInfo> allPayments = subscriptionServiceClient.getBillingHistory(userId);
-                payments = allPayments.stream().limit(5).collect(Collectors.toList());
+                // Son 5 ödeme (LIMIT server tarafında)
+                payments = subscriptionServiceClient.getBillingHistory(userId, 5);
                 long step4Time = System.currentTimeMillis() - step4Start;
                 fetchTimes.setBilling(step4Time);
                 log.info("  ✓ Step 4 [GraphQL->Subscription Service] {} payments retrieved - {}ms",
@@ -142,12 +146,21 @@ public class DashboardGraphQLController {
                 log.warn("  ⚠ Step 5 [GraphQL->Content Service] FAILED - Continuing with empty list");
             }
 
-            // 6. LOCAL: Mock watch history
+            // 6. GraphQL CALL: Video Streaming Service (watch history summary)
+            long step6Start = System.currentTimeMillis();
             WatchHistoryInfo watchHistory = WatchHistoryInfo.builder()
-                    .totalWatched(42)
-                    .recentWatchCount(12)
-                    .lastWatchedDate(LocalDateTime.now().toString())
+                    .totalWatched(0)
+                    .recentWatchCount(0)
                     .build();
+            try {
+                watchHistory = watchHistoryServiceClient.getSummary(userId);
+                long step6Time = System.currentTimeMillis() - step6Start;
+                fetchTimes.setWatchHistory(step6Time);
+                log.info("  ✓ Step 6 [GraphQL->Video Streaming Service] Watch history retrieved - {}ms", step6Time);
+            } catch (Exception e) {
+                fetchTimes.setWatchHistory(System.currentTimeMillis() - step6Start);
+                log.warn("  ⚠ Step 6 [GraphQL->Video Streaming Service] FAILED - Continuing with empty history");
+            }
 
             long totalTime = System.currentTimeMillis() - startTime;
             fetchTimes.setTotal(totalTime);
@@ -164,7 +177,7 @@ public class DashboardGraphQLController {
                     .build();
 
             log.info("📊 [SERVICE CHAIN TEST - GraphQL] ✅ Dashboard request completed - TOTAL TIME: {}ms", totalTime);
-            log.info("   Protocol: GraphQL | Service Calls: 4 GraphQL + 1 local | User: {}", userId);
+            log.info("   Protocol: GraphQL | Service Calls: 5 GraphQL + 1 local | User: {}", userId);
 
             return response;
 
@@ -98,6 +98,7 @@ public class UserDashboardResponse {
         private Long subscription;
         private Long billing;
         private Long contents;
+        private Long watchHistory;
         private Long total;
     }
 }
@@ -73,17 +73,18 @@ public class SubscriptionServiceGraphQLClient {
     }
 
     /**
-     * Kullanıcının fatura geçmişini getir
+     * Kullanıcının son faturalarını getir
      * 
      * @param userId Kullanıcı ID
+     * @param limit  En fazla kaç kayıt (billing servisinde veritabanı sorgusuna uygulanır)
      * @return List<PaymentInfo> ödeme listesi
      */
-    public List<PaymentInfo> getBillingHistory(String userId) {
+    public List<PaymentInfo> getBillingHistory(String userId, int limit) {
         log.debug("Fetching billing history for userId: {} via GraphQL", userId);
 
         String query = """
-                query GetBillingHistory($userId: String!) {
-                    getBillingHistory(userId: $userId) {
+                query GetBillingHistory($userId: String!, $limit: Int) {
+                    getBillingHistory(userId: $userId, limit: $limit) {
                         id
                         amount
                         status
@@ -95,6 +96,7 @@ public class SubscriptionServiceGraphQLClient {
         try {
             List<PaymentInfo> response = graphQlClient.document(query)
                     .variable("userId", userId)
+                    .variable("limit", limit)
                     .retrieve("getBillingHistory")
                     .toEntityList(PaymentInfo.class)
                     .block();
@@ -0,0 +1,69 @@
+package com.microservice.user_service.graphql.client;
+
+import com.microservice.user_service.dto.response.UserDashboardResponse.WatchHistoryInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.graphql.client.HttpGraphQlClient;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Watch History GraphQL Client
+ * Video Streaming Service'teki izleme geçmişi özetini GraphQL ile almak için kullanılır
+ */
+@Component
+public class WatchHistoryServiceGraphQLClient {
+
+    private static final Logger log = LoggerFactory.getLogger(WatchHistoryServiceGraphQLClient.class);
+
+    @Value("${application.config.video-streaming-service-url:http://video-streaming-service:9300}")
+    private String videoStreamingServiceUrl;
+
+    private HttpGraphQlClient graphQlClient;
+
+    @PostConstruct
+    public void init() {
+        WebClient webClient = WebClient.builder()
+                .baseUrl(videoStreamingServiceUrl + "/graphql")
+                .build();
+        this.graphQlClient = HttpGraphQlClient.builder(webClient).build();
+        log.info("WatchHistoryServiceGraphQLClient initialized with URL: {}/graphql", videoStreamingServiceUrl);
+    }
+
+    /**
+     * Hesabın izleme özeti
+     *
+     * @param userId Kullanıcı ID
+     * @return WatchHistoryInfo toplam / son dönemde izlenen içerik sayısı, son izleme tarihi
+     */
+    public WatchHistoryInfo getSummary(String userId) {
+        log.debug("Fetching watch history summary via GraphQL for userId: {}", userId);
+
+        String query = """
+                query GetWatchHistorySummary($userId: String!) {
+                    getWatchHistorySummary(userId: $userId) {
+                        totalWatched
+                        recentWatchCount
+                        lastWatchedDate
+                    }
+                }
+                """;
+
+        try {
+            WatchHistoryInfo response = graphQlClient.document(query)
+                    .variable("userId", userId)
+                    .retrieve("getWatchHistorySummary")
+                    .toEntity(WatchHistoryInfo.class)
+                    .block();
+
+            log.debug("Watch history summary fetched successfully: {}", response);
+            return response;
+        } catch (Exception e) {
+            log.error("Error fetching watch history summary for userId: {}, error: {}", userId, e.getMessage());
+            throw new RuntimeException("Failed to fetch watch history from video-streaming-service", e);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Video Streaming Service Application
@@ -11,10 +12,12 @@ import org.springframework.cloud.openfeign.EnableFeignClients;
  * 
  * @EnableDiscoveryClient: Eureka Server'a servis kaydını aktif eder
  * @EnableFeignClients: OpenFeign client kullanımını aktif eder
+ * @EnableScheduling: Oynatma oturumlarının periyodik temizliğini aktif eder
  */
 @SpringBootApplication
 @EnableDiscoveryClient
 @EnableFeignClients
+@EnableScheduling
 public class VideoStreamingServiceApplication {
 
 	public static void main(String[] args) {
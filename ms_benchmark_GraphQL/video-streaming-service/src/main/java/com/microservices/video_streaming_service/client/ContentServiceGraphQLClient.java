@@ -1,6 +1,7 @@
 package com.microservices.video_streaming_service.client;
 
 import com.microservices.video_streaming_service.dto.response.ContentResponse;
+import com.microservices.video_streaming_service.dto.response.EpisodeFileResponse;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -13,6 +14,8 @@ import org.springframework.web.reactive.function.client.WebClient;
 
 import jakarta.annotation.PostConstruct;
 
+import java.util.List;
+
 /**
  * Content Service GraphQL Client
  * Content Management Service'e GraphQL istekleri göndermek için kullanılır
@@ -107,6 +110,72 @@ public class ContentServiceGraphQLClient {
         }
     }
 
+    /**
+     * Episode ID'ye göre hafif bölüm bilgisini getir (videoFilePath ve seasonId için)
+     *
+     * @param episodeId Episode ID
+     * @return EpisodeFileResponse
+     */
+    public EpisodeFileResponse getEpisodeFile(Long episodeId) {
+        log.debug("Fetching episode file by id: {} via GraphQL", episodeId);
+
+        String query = """
+                query GetEpisodeFile($episodeId: ID!) {
+                    getEpisodeFile(episodeId: $episodeId) {
+                        id
+                        seasonId
+                        episodeNumber
+                        videoFilePath
+                        isActive
+                    }
+                }
+                """;
+
+        try {
+            return graphQlClient.document(query)
+                    .variable("episodeId", episodeId.toString())
+                    .retrieve("getEpisodeFile")
+                    .toEntity(EpisodeFileResponse.class)
+                    .block();
+        } catch (Exception e) {
+            log.error("Error fetching episode file by id: {}, error: {}", episodeId, e.getMessage());
+            throw new RuntimeException("Failed to fetch episode from content-service", e);
+        }
+    }
+
+    /**
+     * Season ID'ye göre aktif bölümlerin hafif bilgisini getir (sezon prefetch'i)
+     *
+     * @param seasonId Season ID
+     * @return bölüm numarasına göre sıralı liste
+     */
+    public List<EpisodeFileResponse> getActiveEpisodeFilesBySeasonId(Long seasonId) {
+        log.debug("Fetching episode files by season id: {} via GraphQL", seasonId);
+
+        String query = """
+                query GetEpisodeFilesBySeasonId($seasonId: ID!) {
+                    getEpisodeFilesBySeasonId(seasonId: $seasonId) {
+                        id
+                        seasonId
+                        episodeNumber
+                        videoFilePath
+                        isActive
+                    }
+                }
+                """;
+
+        try {
+            return graphQlClient.document(query)
+                    .variable("seasonId", seasonId.toString())
+                    .retrieve("getEpisodeFilesBySeasonId")
+                    .toEntityList(EpisodeFileResponse.class)
+                    .block();
+        } catch (Exception e) {
+            log.error("Error fetching episode files by season id: {}, error: {}", seasonId, e.getMessage());
+            throw new RuntimeException("Failed to fetch season episodes from content-service", e);
+        }
+    }
+
     /**
      * Episode Response DTO
      * Episode bilgisi için iç sınıf
@@ -1,9 +1,13 @@
 package com.microservices.video_streaming_service.controller;
 
+import com.microservices.video_streaming_service.dto.response.SeekResponse;
+import com.microservices.video_streaming_service.exception.ResourceNotFoundException;
+import com.microservices.video_streaming_service.service.HlsStreamingService;
+import com.microservices.video_streaming_service.service.StreamSessionRegistry;
 import com.microservices.video_streaming_service.service.VideoStreamingService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.core.io.Resource;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -18,9 +22,15 @@ public class VideoStreamingController {
     private static final Logger log = LoggerFactory.getLogger(VideoStreamingController.class);
 
     private final VideoStreamingService videoStreamingService;
+    private final HlsStreamingService hlsStreamingService;
+    private final StreamSessionRegistry streamSessionRegistry;
 
-    public VideoStreamingController(VideoStreamingService videoStreamingService) {
+    public VideoStreamingController(VideoStreamingService videoStreamingService,
+                                    HlsStreamingService hlsStreamingService,
+                                    StreamSessionRegistry streamSessionRegistry) {
         this.videoStreamingService = videoStreamingService;
+        this.hlsStreamingService = hlsStreamingService;
+        this.streamSessionRegistry = streamSessionRegistry;
     }
 
     /**
@@ -34,49 +44,165 @@ public class VideoStreamingController {
 
     /**
      * Content ID'ye göre videoyu stream et
-     * HTTP Range Request desteği ile (206 Partial Content)
+     * HTTP Range Request desteği ile (206 Partial Content, çoklu aralıkta multipart/byteranges)
+     * ETag / Last-Modified ile conditional istekler (304) ve If-Range desteklenir
+     * Planın ekran limiti uygulanır (aşılırsa 429) ve gövde plan kalitesine göre hız sınırıyla yazılır
      * 
      * GET /api/stream/content/{contentId}
      * 
      * Headers:
-     *   Range: bytes=0-1023 (optional)
+     *   Range: bytes=0-1023, bytes=500-, bytes=-500 veya bytes=0-99,200-299 (optional)
+     *   If-None-Match / If-Modified-Since / If-Range (optional)
+     *   X-Playback-Session-Id: oynatma oturumu (optional, yoksa türetilir ve yanıtta döner)
      *   X-User-Id: user id (required, added by API Gateway)
      */
     @GetMapping("/content/{contentId}")
-    public ResponseEntity<Resource> streamContent(
+    public ResponseEntity<?> streamContent(
             @PathVariable Long contentId,
             @RequestHeader(value = "X-User-Id") String userId,
-            @RequestHeader(value = "Range", required = false) String rangeHeader) {
+            @RequestHeader(value = "Range", required = false) String rangeHeader,
+            HttpServletRequest request) {
         
-        log.info("Received request to stream content: contentId={}, userId={}, range={}", contentId, userId, rangeHeader);
+        log.debug("Received request to stream content: contentId={}, userId={}, range={}", contentId, userId, rangeHeader);
         
-        return videoStreamingService.streamContent(contentId, userId, rangeHeader);
+        return videoStreamingService.streamContent(contentId, userId, rangeHeader, request);
+    }
+
+    /**
+     * Content için ?t=saniye'ye karşılık gelen keyframe byte aralığı (MP4 seek indeksi)
+     * Oynatıcı dönen range ile doğrudan keyframe'den okumaya başlar (moov'a göre offset tahmini gerekmez)
+     *
+     * GET /api/stream/content/{contentId}/seek?t=125.5
+     *
+     * Headers:
+     *   X-User-Id: user id (required, added by API Gateway)
+     */
+    @GetMapping("/content/{contentId}/seek")
+    public ResponseEntity<SeekResponse> seekContent(
+            @PathVariable Long contentId,
+            @RequestHeader(value = "X-User-Id") String userId,
+            @RequestParam(value = "t", required = false) Double seconds,
+            HttpServletRequest request) {
+
+        log.debug("Received seek request: contentId={}, userId={}, t={}", contentId, userId, seconds);
+
+        return ResponseEntity.ok(videoStreamingService.seekContent(contentId, seconds, request));
+    }
+
+    /**
+     * Content'in HLS manifest'ine yönlendir (segmentli teslim)
+     * Abonelik kontrolünden sonra sürümlü, süreli imzalı manifest URL'ine 302 döner
+     *
+     * GET /api/stream/content/{contentId}/hls/index.m3u8
+     *
+     * Headers:
+     *   X-User-Id: user id (required, added by API Gateway)
+     */
+    @GetMapping("/content/{contentId}/hls/index.m3u8")
+    public ResponseEntity<Void> streamContentHls(
+            @PathVariable Long contentId,
+            @RequestHeader(value = "X-User-Id") String userId,
+            HttpServletRequest request) {
+
+        log.info("Received request for HLS manifest: contentId={}, userId={}", contentId, userId);
+
+        return videoStreamingService.redirectToHlsManifest(contentId, userId, request);
+    }
+
+    /**
+     * HLS manifest / init / segment dosyası
+     * URL /content/{contentId}/hls/index.m3u8 yönlendirmesinden gelir; token süresi dolmuşsa
+     * veya imzası tutmuyorsa 403 döner (oynatıcı manifest'i yeniden istemelidir)
+     *
+     * GET /api/stream/hls/{token}/{packageId}/{version}/{fileName}
+     */
+    @GetMapping("/hls/{token}/{packageId}/{version}/{fileName:.+}")
+    public ResponseEntity<?> streamHlsResource(
+            @PathVariable String token,
+            @PathVariable String packageId,
+            @PathVariable String version,
+            @PathVariable String fileName,
+            HttpServletRequest request) {
+
+        log.debug("Received request for HLS resource: {}/{}/{}", packageId, version, fileName);
+
+        return hlsStreamingService.serve(token, packageId, version, fileName, request);
+    }
+
+    /**
+     * Oynatma oturumu heartbeat'i (ör. HLS oynatıcısı segmentleri CDN'den alırken)
+     * Oturum ttl içinde tazelenmezse ekran slotu boşalır
+     *
+     * PUT /api/stream/sessions/{sessionId}
+     */
+    @PutMapping("/sessions/{sessionId}")
+    public ResponseEntity<Void> heartbeat(
+            @PathVariable String sessionId,
+            @RequestHeader(value = "X-User-Id") String userId,
+            HttpServletRequest request) {
+
+        if (streamSessionRegistry.touch(userId, sessionId, request) == null) {
+            throw new ResourceNotFoundException("Playback session not found or expired: " + sessionId);
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Oynatma oturumunu sonlandır (ekran slotunu hemen boşaltır)
+     *
+     * DELETE /api/stream/sessions/{sessionId}
+     */
+    @DeleteMapping("/sessions/{sessionId}")
+    public ResponseEntity<Void> closeSession(
+            @PathVariable String sessionId,
+            @RequestHeader(value = "X-User-Id") String userId) {
+
+        log.info("Closing playback session {} for userId={}", sessionId, userId);
+        streamSessionRegistry.close(userId, sessionId);
+        return ResponseEntity.noContent().build();
     }
 
     /**
      * Episode ID'ye göre videoyu stream et
-     * HTTP Range Request desteği ile (206 Partial Content)
+     * Content streaming ile aynı Range / conditional / ekran limiti / hız sınırı kuralları uygulanır
+     * Oynatma oturumu sezon bazlıdır (art arda izlenen bölümler aynı ekran slotunu kullanır)
      * 
      * GET /api/stream/episode/{episodeId}
      * 
      * Headers:
      *   Range: bytes=0-1023 (optional)
+     *   X-Playback-Session-Id: oynatma oturumu (optional, yoksa türetilir ve yanıtta döner)
      *   X-User-Id: user id (required, added by API Gateway)
      */
     @GetMapping("/episode/{episodeId}")
-    public ResponseEntity<Resource> streamEpisode(
+    public ResponseEntity<?> streamEpisode(
             @PathVariable Long episodeId,
             @RequestHeader(value = "X-User-Id") String userId,
-            @RequestHeader(value = "Range", required = false) String rangeHeader) {
+            @RequestHeader(value = "Range", required = false) String rangeHeader,
+            HttpServletRequest request) {
         
-        log.info("Received request to stream episode: episodeId={}, userId={}, range={}", episodeId, userId, rangeHeader);
+        log.debug("Received request to stream episode: episodeId={}, userId={}, range={}", episodeId, userId, rangeHeader);
         
-        return videoStreamingService.streamEpisode(episodeId, userId, rangeHeader);
+        return videoStreamingService.streamEpisode(episodeId, userId, rangeHeader, request);
     }
-}
-
-
-
 
+    /**
+     * Episode için ?t=saniye'ye karşılık gelen keyframe byte aralığı (MP4 seek indeksi)
+     *
+     * GET /api/stream/episode/{episodeId}/seek?t=125.5
+     *
+     * Headers:
+     *   X-User-Id: user id (required, added by API Gateway)
+     */
+    @GetMapping("/episode/{episodeId}/seek")
+    public ResponseEntity<SeekResponse> seekEpisode(
+            @PathVariable Long episodeId,
+            @RequestHeader(value = "X-User-Id") String userId,
+            @RequestParam(value = "t", required = false) Double seconds,
+            HttpServletRequest request) {
 
+        log.debug("Received seek request: episodeId={}, userId={}, t={}", episodeId, userId, seconds);
 
+        return ResponseEntity.ok(videoStreamingService.seekEpisode(episodeId, seconds, request));
+    }
+}
@@ -0,0 +1,81 @@
+package com.microservices.video_streaming_service.controller;
+
+import com.microservices.video_streaming_service.dto.request.WatchProgressRequest;
+import com.microservices.video_streaming_service.dto.response.ContinueWatchingResponse;
+import com.microservices.video_streaming_service.dto.response.WatchHistorySummaryResponse;
+import com.microservices.video_streaming_service.service.WatchHistoryService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Watch History Controller - Video Streaming Service
+ * Oynatıcı ilerleme heartbeat'leri ve izleme geçmişi sorguları
+ */
+@RestController
+@RequestMapping("/api/stream/history")
+public class WatchHistoryController {
+
+    private static final Logger log = LoggerFactory.getLogger(WatchHistoryController.class);
+
+    private final WatchHistoryService watchHistoryService;
+
+    public WatchHistoryController(WatchHistoryService watchHistoryService) {
+        this.watchHistoryService = watchHistoryService;
+    }
+
+    /**
+     * İzleme ilerlemesi heartbeat'i (oynatıcı birkaç saniyede bir gönderir)
+     * Bellekte birleştirilir ve batch olarak yazılır; bu yüzden 202 döner
+     *
+     * POST /api/stream/history/progress
+     *
+     * Headers:
+     *   X-User-Id: user id (required, added by API Gateway)
+     */
+    @PostMapping("/progress")
+    public ResponseEntity<Void> recordProgress(
+            @RequestHeader(value = "X-User-Id") String userId,
+            @RequestBody WatchProgressRequest request) {
+
+        log.debug("Received watch progress: userId={}, profileId={}, contentId={}, position={}",
+                userId, request.getProfileId(), request.getContentId(), request.getPositionSeconds());
+
+        watchHistoryService.record(userId, request);
+        return ResponseEntity.accepted().build();
+    }
+
+    /**
+     * Profilin "izlemeye devam et" listesi (en son izlenen önce)
+     *
+     * GET /api/stream/history/profiles/{profileId}/continue-watching?limit=20
+     */
+    @GetMapping("/profiles/{profileId}/continue-watching")
+    public ResponseEntity<List<ContinueWatchingResponse>> getContinueWatching(
+            @PathVariable Long profileId,
+            @RequestHeader(value = "X-User-Id") String userId,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        log.info("Received request for continue watching: userId={}, profileId={}", userId, profileId);
+
+        return ResponseEntity.ok(watchHistoryService.getContinueWatching(userId, profileId, limit));
+    }
+
+    /**
+     * Hesabın izleme özeti (profileId verilirse yalnızca o profil)
+     *
+     * GET /api/stream/history/summary?profileId=1
+     */
+    @GetMapping("/summary")
+    public ResponseEntity<WatchHistorySummaryResponse> getSummary(
+            @RequestHeader(value = "X-User-Id") String userId,
+            @RequestParam(required = false) Long profileId) {
+
+        log.info("Received request for watch history summary: userId={}, profileId={}", userId, profileId);
+
+        return ResponseEntity.ok(watchHistoryService.getSummary(userId, profileId));
+    }
+}
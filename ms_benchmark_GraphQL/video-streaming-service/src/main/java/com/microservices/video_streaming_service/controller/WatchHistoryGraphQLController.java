@@ -0,0 +1,52 @@
+package com.microservices.video_streaming_service.controller;
+
+import com.microservices.video_streaming_service.dto.response.ContinueWatchingResponse;
+import com.microservices.video_streaming_service.dto.response.WatchHistorySummaryResponse;
+import com.microservices.video_streaming_service.service.WatchHistoryService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.stereotype.Controller;
+
+import java.util.List;
+
+/**
+ * Watch History - GraphQL Controller
+ * İzleme geçmişi sorguları (heartbeat'ler REST üzerinden alınır)
+ */
+@Controller
+public class WatchHistoryGraphQLController {
+
+    private static final Logger log = LoggerFactory.getLogger(WatchHistoryGraphQLController.class);
+
+    private static final int DEFAULT_CONTINUE_WATCHING_LIMIT = 20;
+
+    private final WatchHistoryService watchHistoryService;
+
+    public WatchHistoryGraphQLController(WatchHistoryService watchHistoryService) {
+        this.watchHistoryService = watchHistoryService;
+    }
+
+    /**
+     * GraphQL Query: getWatchHistorySummary
+     * Hesabın (profileId verilirse yalnızca o profilin) izleme özeti
+     */
+    @QueryMapping
+    public WatchHistorySummaryResponse getWatchHistorySummary(@Argument String userId, @Argument Long profileId) {
+        log.info("GraphQL Query: getWatchHistorySummary for userId: {}, profileId: {}", userId, profileId);
+        return watchHistoryService.getSummary(userId, profileId);
+    }
+
+    /**
+     * GraphQL Query: getContinueWatching
+     * Profilin yarıda bıraktığı içerikler (en son izlenen önce)
+     */
+    @QueryMapping
+    public List<ContinueWatchingResponse> getContinueWatching(@Argument String userId, @Argument Long profileId,
+                                                              @Argument Integer limit) {
+        log.info("GraphQL Query: getContinueWatching for userId: {}, profileId: {}", userId, profileId);
+        return watchHistoryService.getContinueWatching(userId, profileId,
+                limit != null ? limit : DEFAULT_CONTINUE_WATCHING_LIMIT);
+    }
+}
@@ -0,0 +1,23 @@
+package com.microservices.video_streaming_service.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Watch History Summary Response DTO
+ * Hesap (veya tek profil) için izleme özeti; alan adları User Service dashboard'undaki WatchHistoryInfo ile aynıdır
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WatchHistorySummaryResponse {
+
+    // İzlenen farklı içerik sayısı
+    private Integer totalWatched;
+    // video.watch-history.recent-window içinde izlenen farklı içerik sayısı
+    private Integer recentWatchCount;
+    private String lastWatchedDate;
+}
@@ -0,0 +1,436 @@
+package com.microservices.video_streaming_service.service;
+
+import com.microservices.video_streaming_service.service.StreamSessionRegistry.StreamSession;
+import com.microservices.video_streaming_service.service.StreamPacer.Part;
+import com.microservices.video_streaming_service.service.StreamTelemetry.StreamObservation;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.support.ResourceRegion;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.ResourceRegionHttpMessageConverter;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Byte Range Responder
+ * Dosyayı HTTP conditional ve Range kurallarına (RFC 9110) göre döndürür.
+ *
+ * - Strong ETag dosya kimliğinden (lastModified + boyut) türetilir; Last-Modified her yanıtta vardır.
+ * - If-None-Match / If-Modified-Since eşleşirse 304 (gövdesiz).
+ * - Range: açık (bytes=500-), suffix (bytes=-500) ve çoklu aralık; çoklu aralık multipart/byteranges döner.
+ * - If-Range eşleşmezse Range yok sayılır ve tüm dosya 200 ile gönderilir.
+ * - Hiçbir aralık karşılanamıyorsa 416 (Content-Range ile dosya boyutu bildirilir); geçersiz Range header'ı
+ *   yok sayılır.
+ * - Tüm dosya ve tek aralık Tomcat sendfile destekliyorsa kernel üzerinden (zero-copy) gönderilir.
+ * - Oturum verilirse gövde StreamPacer ile oturumun TokenBucket hızında, thread bekletmeden (Servlet
+ *   non-blocking I/O) yazılır (plan bazlı hız sınırı); sendfile kullanılmaz ve respond() null döner
+ *   (yanıt StreamPacer'a devredilmiştir, Spring MVC gövde yazmaz).
+ * - Sendfile kullanılmayan gövdeler VideoBlockCache üzerinden okunur (etkinse).
+ * - İstek StreamTelemetry ile gözleniyorsa gövde byte'ları ve ilk byte zamanı ölçülür (sendfile kullanılmaz).
+ */
+@Component
+public class ByteRangeResponder {
+
+    private static final Logger log = LoggerFactory.getLogger(ByteRangeResponder.class);
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final byte[] NO_BYTES = new byte[0];
+    private static final ResourceRegionHttpMessageConverter REGION_CONVERTER =
+            new ResourceRegionHttpMessageConverter();
+
+    private final VideoBlockCache blockCache;
+    private final StreamTelemetry streamTelemetry;
+    private final StreamPacer streamPacer;
+    private final long sendfileMinSize;
+
+    public ByteRangeResponder(VideoBlockCache blockCache,
+                              StreamTelemetry streamTelemetry,
+                              StreamPacer streamPacer,
+                              @Value("${video.streaming.sendfile-min-size:49152}") long sendfileMinSize) {
+        this.blockCache = blockCache;
+        this.streamTelemetry = streamTelemetry;
+        this.streamPacer = streamPacer;
+        this.sendfileMinSize = sendfileMinSize;
+    }
+
+    /**
+     * Dosyayı isteğin conditional ve Range header'larına göre döndür
+     *
+     * @param headers yanıta eklenecek ek header'lar (ör. Cache-Control); bu method tarafından doldurulur
+     */
+    public ResponseEntity<?> respond(File file, MediaType contentType, HttpHeaders headers,
+                                     HttpServletRequest request) {
+        return respond(file, contentType, headers, request, null);
+    }
+
+    /**
+     * Dosyayı döndür; session verilmişse gövde oturumun hızında asenkron yazılır (sendfile kullanılmaz, null döner)
+     * ve oturumun erişim düzeni read-ahead için izlenir
+     */
+    public ResponseEntity<?> respond(File file, MediaType contentType, HttpHeaders headers,
+                                     HttpServletRequest request, StreamSession session) {
+        long length = file.length();
+        long lastModified = file.lastModified();
+        String etag = etag(file);
+        StreamObservation observation = streamTelemetry.observation(request);
+
+        headers.setETag(etag);
+        headers.setLastModified(lastModified);
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (isNotModified(request, etag, lastModified)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(headers).build();
+        }
+
+        headers.setContentType(contentType);
+
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader == null || !isIfRangeSatisfied(request, etag, lastModified)) {
+            return full(file, length, headers, request, session, observation);
+        }
+
+        List<HttpRange> ranges;
+        try {
+            ranges = HttpRange.parseRanges(rangeHeader);
+        } catch (IllegalArgumentException e) {
+            // Geçersiz Range header'ı yok sayılır (RFC 9110 14.2)
+            log.debug("Ignoring invalid range header '{}': {}", rangeHeader, e.getMessage());
+            return full(file, length, headers, request, session, observation);
+        }
+        if (ranges.isEmpty()) {
+            return full(file, length, headers, request, session, observation);
+        }
+
+        // Karşılanamayan aralıklar atlanır; hiçbiri kalmazsa 416
+        long[] bounds = new long[ranges.size() * 2];
+        int count = 0;
+        long total = 0;
+        for (HttpRange range : ranges) {
+            long start = range.getRangeStart(length);
+            long end = range.getRangeEnd(length);
+            if (start >= length || start > end) {
+                continue;
+            }
+            bounds[count * 2] = start;
+            bounds[count * 2 + 1] = end;
+            total += end - start + 1;
+            count++;
+        }
+
+        if (count == 0) {
+            log.debug("Range not satisfiable: {} for length {}", rangeHeader, length);
+            headers.remove(HttpHeaders.CONTENT_TYPE);
+            headers.set(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE).headers(headers).build();
+        }
+
+        // Dosyadan büyük toplam (örtüşen çok sayıda aralık) tek seferde tüm dosya olarak gönderilir
+        if (total > length) {
+            return full(file, length, headers, request, session, observation);
+        }
+
+        if (count == 1) {
+            return single(file, bounds[0], bounds[1], length, headers, request, session, observation);
+        }
+
+        if (isPaced(request, session)) {
+            return pacedMultipart(file, bounds, count, length, headers, request, session, observation);
+        }
+
+        expect(observation, total, request);
+        FileSystemResource resource = resource(file, session, observation);
+        List<ResourceRegion> regions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            regions.add(new ResourceRegion(resource, bounds[i * 2], bounds[i * 2 + 1] - bounds[i * 2] + 1));
+        }
+        // Content-Type multipart/byteranges ve boundary ResourceRegionHttpMessageConverter tarafından yazılır
+        return writeRegions(regions, headers);
+    }
+
+    /**
+     * Dosya kimliğinden strong ETag
+     */
+    public String etag(File file) {
+        return "\"" + Long.toHexString(file.lastModified()) + "-" + Long.toHexString(file.length()) + "\"";
+    }
+
+    private ResponseEntity<?> full(File file, long length, HttpHeaders headers, HttpServletRequest request,
+                                   StreamSession session, StreamObservation observation) {
+        headers.setContentLength(length);
+        if (session == null && observation == null && trySendfile(file, 0, length, request)) {
+            return ResponseEntity.ok().headers(headers).build();
+        }
+        if (isPaced(request, session)) {
+            return paced(file, HttpStatus.OK, headers, List.of(new Part(NO_BYTES, 0, length)), NO_BYTES,
+                    request, session, observation);
+        }
+        expect(observation, length, request);
+        FileSystemResource resource = resource(file, session, observation);
+        if (request.getHeader(HttpHeaders.RANGE) != null) {
+            // Range yok sayıldı (If-Range uyuşmadı vb.); Spring MVC'nin Resource gövdesine Range'i
+            // kendiliğinden uygulamaması için InputStreamResource olarak döndürülür
+            return ResponseEntity.ok().headers(headers).body(new InputStreamResource(resource));
+        }
+        return ResponseEntity.ok().headers(headers).body(resource);
+    }
+
+    private ResponseEntity<?> single(File file, long start, long end, long length, HttpHeaders headers,
+                                     HttpServletRequest request, StreamSession session,
+                                     StreamObservation observation) {
+        long contentLength = end - start + 1;
+        if (session == null && observation == null && trySendfile(file, start, end + 1, request)) {
+            headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            headers.setContentLength(contentLength);
+            return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT).headers(headers).build();
+        }
+        if (isPaced(request, session)) {
+            headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            return paced(file, HttpStatus.PARTIAL_CONTENT, headers, List.of(new Part(NO_BYTES, start, contentLength)),
+                    NO_BYTES, request, session, observation);
+        }
+        expect(observation, contentLength, request);
+        // Content-Range ve Content-Length ResourceRegionHttpMessageConverter tarafından yazılır
+        return writeRegions(new ResourceRegion(resource(file, session, observation), start, contentLength), headers);
+    }
+
+    /**
+     * Çoklu aralık: multipart/byteranges gövdesi ResourceRegionHttpMessageConverter ile aynı biçimde
+     * (her parça için boundary, Content-Type ve Content-Range satırları) StreamPacer'a verilir
+     */
+    private ResponseEntity<?> pacedMultipart(File file, long[] bounds, int count, long length, HttpHeaders headers,
+                                             HttpServletRequest request, StreamSession session,
+                                             StreamObservation observation) {
+        String boundary = MimeTypeUtils.generateMultipartBoundaryString();
+        MediaType partType = headers.getContentType();
+        List<Part> parts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long start = bounds[i * 2];
+            long end = bounds[i * 2 + 1];
+            String preamble = "\r\n--" + boundary + "\r\n"
+                    + HttpHeaders.CONTENT_TYPE + ": " + partType + "\r\n"
+                    + HttpHeaders.CONTENT_RANGE + ": bytes " + start + "-" + end + "/" + length + "\r\n\r\n";
+            parts.add(new Part(preamble.getBytes(StandardCharsets.US_ASCII), start, end - start + 1));
+        }
+        headers.setContentType(new MediaType("multipart", "byteranges", Map.of("boundary", boundary)));
+        byte[] epilogue = ("\r\n--" + boundary + "--").getBytes(StandardCharsets.US_ASCII);
+        return paced(file, HttpStatus.PARTIAL_CONTENT, headers, parts, epilogue, request, session, observation);
+    }
+
+    /**
+     * Gövdeyi StreamPacer'a devret; status ve header'lar doğrudan servlet yanıtına yazılır
+     *
+     * @return null (Spring MVC yanıtı işlenmiş sayar, gövde asenkron tamamlanır)
+     */
+    private ResponseEntity<?> paced(File file, HttpStatus status, HttpHeaders headers, List<Part> parts,
+                                    byte[] epilogue, HttpServletRequest request, StreamSession session,
+                                    StreamObservation observation) {
+        long fileBytes = 0;
+        long bodyBytes = epilogue.length;
+        for (Part part : parts) {
+            fileBytes += part.length();
+            bodyBytes += part.preamble().length + part.length();
+        }
+        headers.setContentLength(bodyBytes);
+        expect(observation, fileBytes, request);
+
+        try {
+            streamPacer.write(request, currentResponse(), status, headers, resource(file, session, observation), parts,
+                    epilogue, session.getBandwidth());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return null;
+    }
+
+    /**
+     * 206 gövdesini (tek ResourceRegion veya liste) converter ile doğrudan yaz
+     * Controller'lar ResponseEntity<?> döndüğünden Spring MVC ResourceRegion gövdesi için converter seçemez
+     * (HttpMessageNotWritableException); bu yüzden yanıt burada yazılır.
+     *
+     * @return null (Spring MVC yanıtı işlenmiş sayar)
+     */
+    private ResponseEntity<?> writeRegions(Object regions, HttpHeaders headers) {
+        ServletServerHttpResponse output = new ServletServerHttpResponse(currentResponse());
+        output.setStatusCode(HttpStatus.PARTIAL_CONTENT);
+        output.getHeaders().putAll(headers);
+        try {
+            REGION_CONVERTER.write(regions, null, null, output);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return null;
+    }
+
+    private static HttpServletResponse currentResponse() {
+        return ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getResponse();
+    }
+
+    /**
+     * Oturumlu GET gövdeleri hız sınırlıdır (HEAD'de gövde yazılmaz)
+     */
+    private static boolean isPaced(HttpServletRequest request, StreamSession session) {
+        return session != null && !"HEAD".equals(request.getMethod());
+    }
+
+    private FileSystemResource resource(File file, StreamSession session, StreamObservation observation) {
+        if (session == null && observation == null && !blockCache.isEnabled()) {
+            return new FileSystemResource(file);
+        }
+        return new StreamingFileResource(file, blockCache.isEnabled() ? blockCache : null, session, observation);
+    }
+
+    /**
+     * Gövdede gönderilecek byte sayısını gözleme bildir (HEAD'de gövde yazılmaz)
+     */
+    private static void expect(StreamObservation observation, long bytes, HttpServletRequest request) {
+        if (observation != null && !"HEAD".equals(request.getMethod())) {
+            observation.expect(bytes);
+        }
+    }
+
+    /**
+     * Tomcat sendfile: gövde yazılmaz, connector [start, end) aralığını doğrudan socket'e aktarır
+     */
+    private boolean trySendfile(File file, long start, long end, HttpServletRequest request) {
+        if (end - start < sendfileMinSize || "HEAD".equals(request.getMethod())
+                || !Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            return false;
+        }
+        request.setAttribute(SENDFILE_FILENAME, file.getAbsolutePath());
+        request.setAttribute(SENDFILE_START, start);
+        request.setAttribute(SENDFILE_END, end);
+        return true;
+    }
+
+    /**
+     * If-None-Match (varsa) yoksa If-Modified-Since ile 304 kontrolü (sadece GET / HEAD)
+     */
+    private boolean isNotModified(HttpServletRequest request, String etag, long lastModified) {
+        String method = request.getMethod();
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            return false;
+        }
+
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            return matchesAny(ifNoneMatch, etag);
+        }
+
+        long ifModifiedSince = dateHeader(request, HttpHeaders.IF_MODIFIED_SINCE);
+        return ifModifiedSince >= 0 && lastModified / 1000 <= ifModifiedSince / 1000;
+    }
+
+    /**
+     * If-Range yoksa veya strong ETag / tam Last-Modified ile eşleşiyorsa true
+     */
+    private boolean isIfRangeSatisfied(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        ifRange = ifRange.trim();
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            // If-Range sadece strong karşılaştırma kabul eder
+            return ifRange.equals(etag);
+        }
+        long date = dateHeader(request, HttpHeaders.IF_RANGE);
+        return date >= 0 && date / 1000 == lastModified / 1000;
+    }
+
+    /**
+     * If-None-Match listesi için weak karşılaştırma (W/ öneki yok sayılır)
+     */
+    private static boolean matchesAny(String header, String etag) {
+        int length = header.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && (header.charAt(i) == ' ' || header.charAt(i) == ',')) {
+                i++;
+            }
+            if (i >= length) {
+                break;
+            }
+            if (header.charAt(i) == '*') {
+                return true;
+            }
+            if (header.startsWith("W/", i)) {
+                i += 2;
+            }
+            int end = header.indexOf(',', i);
+            if (end < 0) {
+                end = length;
+            }
+            int tokenEnd = end;
+            while (tokenEnd > i && header.charAt(tokenEnd - 1) == ' ') {
+                tokenEnd--;
+            }
+            if (tokenEnd - i == etag.length() && header.startsWith(etag, i)) {
+                return true;
+            }
+            i = end + 1;
+        }
+        return false;
+    }
+
+    private static long dateHeader(HttpServletRequest request, String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Blok cache'inden okuyan (oturumun erişim düzeni read-ahead için izlenir) ve/veya gözlenen dosya kaynağı
+     * Gözlem sayacı kaynağa en yakın katmandadır: ilk byte / file-open süresine hız sınırı beklemesi girmez.
+     */
+    private static final class StreamingFileResource extends FileSystemResource {
+
+        private final VideoBlockCache blockCache;
+        private final StreamSession session;
+        private final StreamObservation observation;
+
+        StreamingFileResource(File file, VideoBlockCache blockCache, StreamSession session,
+                              StreamObservation observation) {
+            super(file);
+            this.blockCache = blockCache;
+            this.session = session;
+            this.observation = observation;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            long openStart = System.nanoTime();
+            InputStream in = blockCache != null ? blockCache.open(getFile(), session) : super.getInputStream();
+            if (observation != null) {
+                in = observation.instrument(in, openStart);
+            }
+            return in;
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.microservices.video_streaming_service.service;
+
+import com.microservices.video_streaming_service.exception.BadRequestException;
+import com.microservices.video_streaming_service.exception.ForbiddenException;
+import com.microservices.video_streaming_service.exception.ResourceNotFoundException;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * HLS Streaming Service
+ * HlsPackager'ın ürettiği paketlerin dizin düzenini ve manifest / segment teslimini yönetir.
+ *
+ * Dizin düzeni: {video.hls.base-path}/{packageId}/{version}/index.m3u8, init.mp4, seg_00000.m4s ...
+ * - packageId: kaynak dosyanın video.base-path'e göre yolunun SHA-256 özeti (ilk 16 byte)
+ * - version: kaynak dosyanın lastModified ve boyutu; kaynak değişirse URL de değişir
+ *
+ * URL düzeni: /api/stream/hls/{token}/{packageId}/{version}/{fileName}
+ * - token: {expires}.{HMAC-SHA256(packageId/version/expires)}; abonelik kontrolünden sonra manifestUrl ile üretilir.
+ *   packageId tahmin edilebilir olduğu için erişimi token belirler; süresi dolan / imzası tutmayan istek 403 alır.
+ * - Token yol içinde olduğu için manifest'teki relative segment URI'leri de aynı token'ı taşır
+ *   ve segment isteklerinde Content Management / Subscription çağrısı yapılmaz.
+ * - Yanıtlar private olarak ve en fazla token'ın kalan süresi kadar cache'lenir.
+ * Gövde ByteRangeResponder ile gönderilir (conditional istekler, Range, sendfile).
+ */
+@Service
+public class HlsStreamingService {
+
+    private static final Logger log = LoggerFactory.getLogger(HlsStreamingService.class);
+
+    static final String MANIFEST_FILE = "index.m3u8";
+    static final String INIT_FILE = "init.mp4";
+    static final String SEGMENT_PATTERN = "seg_%05d.m4s";
+
+    private static final Profiles EPHEMERAL_KEY_PROFILES = Profiles.of("local", "dev");
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private static final Pattern TOKEN = Pattern.compile("([0-9a-f]{1,16})\\.([A-Za-z0-9_-]{43})");
+    private static final Pattern PACKAGE_ID = Pattern.compile("[0-9a-f]{32}");
+    private static final Pattern VERSION = Pattern.compile("[0-9a-f]{1,16}-[0-9a-f]{1,16}");
+    private static final Pattern FILE_NAME = Pattern.compile("index\\.m3u8|init\\.mp4|seg_\\d{5}\\.m4s");
+
+    private static final MediaType HLS_PLAYLIST = MediaType.parseMediaType("application/vnd.apple.mpegurl");
+
+    private final ByteRangeResponder byteRangeResponder;
+    private final Path videoBasePath;
+    private final Path hlsBasePath;
+    private final SecretKeySpec signingKey;
+    private final Duration urlTtl;
+
+    public HlsStreamingService(
+            ByteRangeResponder byteRangeResponder,
+            Environment environment,
+            @Value("${video.base-path:${user.home}/videos}") String videoBasePath,
+            @Value("${video.hls.base-path:${video.base-path:${user.home}/videos}/.hls}") String hlsBasePath,
+            @Value("${video.hls.signing-key:}") String signingKey,
+            @Value("${video.hls.url-ttl:6h}") Duration urlTtl) {
+        this.byteRangeResponder = byteRangeResponder;
+        this.videoBasePath = Paths.get(videoBasePath).toAbsolutePath().normalize();
+        this.hlsBasePath = Paths.get(hlsBasePath).toAbsolutePath().normalize();
+        this.urlTtl = urlTtl;
+
+        byte[] key;
+        if (signingKey.isBlank()) {
+            if (!environment.acceptsProfiles(EPHEMERAL_KEY_PROFILES)) {
+                throw new IllegalStateException("No HLS URL signing key configured: set video.hls.signing-key " +
+                        "(VIDEO_HLS_SIGNING_KEY); ephemeral keys are only allowed with the local or dev profile");
+            }
+            key = new byte[32];
+            new SecureRandom().nextBytes(key);
+            log.warn("No HLS URL signing key configured, generated ephemeral key. " +
+                    "HLS URLs will not survive restarts (profile local/dev only)");
+        } else {
+            key = Base64.getDecoder().decode(signingKey.trim());
+            if (key.length < 32) {
+                throw new IllegalStateException("video.hls.signing-key must be at least 32 bytes (base64)");
+            }
+        }
+        this.signingKey = new SecretKeySpec(key, HMAC_ALGORITHM);
+
+        log.info("HLS streaming: hlsBasePath={}, urlTtl={}", this.hlsBasePath, urlTtl);
+    }
+
+    /**
+     * Kaynak video için imzalı manifest URL'i (paket henüz yoksa ResourceNotFoundException)
+     * Çağıran abonelik kontrolünü yapmış olmalıdır; URL video.hls.url-ttl boyunca geçerlidir
+     */
+    public String manifestUrl(File videoFile) {
+        String packageId = packageId(videoFile.toPath());
+        String version = version(videoFile);
+
+        File manifest = packageDir(packageId, version).resolve(MANIFEST_FILE).toFile();
+        if (!manifest.isFile()) {
+            log.warn("HLS package not available for {} (packageId={}, version={})", videoFile, packageId, version);
+            throw new ResourceNotFoundException("HLS package not available for this content yet. Use progressive streaming.");
+        }
+
+        long expires = System.currentTimeMillis() / 1000 + urlTtl.toSeconds();
+        String token = Long.toHexString(expires) + "." + sign(packageId, version, expires);
+        return String.format("/api/stream/hls/%s/%s/%s/%s", token, packageId, version, MANIFEST_FILE);
+    }
+
+    /**
+     * Manifest / init / segment dosyasını döndür (token geçerliyse)
+     */
+    public ResponseEntity<?> serve(String token, String packageId, String version, String fileName,
+                                   HttpServletRequest request) {
+        if (!PACKAGE_ID.matcher(packageId).matches() || !VERSION.matcher(version).matches()
+                || !FILE_NAME.matcher(fileName).matches()) {
+            throw new BadRequestException("Invalid HLS resource path");
+        }
+
+        long remainingSeconds = verify(token, packageId, version);
+
+        File file = packageDir(packageId, version).resolve(fileName).toFile();
+        if (!file.isFile()) {
+            throw new ResourceNotFoundException("HLS resource not found: " + fileName);
+        }
+
+        // İçerik version'a bağlı ve değişmez ama erişim token'a bağlı: paylaşılan cache'e girmez,
+        // token'ın süresinden uzun tutulmaz. ETag / 304 / Range ByteRangeResponder'da
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl(CacheControl.maxAge(Duration.ofSeconds(remainingSeconds)).cachePrivate());
+        return byteRangeResponder.respond(file, contentType(fileName), headers, request);
+    }
+
+    /**
+     * İmzalı URL'lerin geçerlilik süresi (HlsPackager eski sürümleri en az bu kadar saklar)
+     */
+    Duration urlTtl() {
+        return urlTtl;
+    }
+
+    /**
+     * Paketin dizini
+     */
+    Path packageDir(String packageId, String version) {
+        return hlsBasePath.resolve(packageId).resolve(version);
+    }
+
+    Path hlsBasePath() {
+        return hlsBasePath;
+    }
+
+    /**
+     * Kaynak dosyanın paket kimliği (video.base-path altındaysa relative yol üzerinden)
+     */
+    String packageId(Path videoPath) {
+        Path normalized = videoPath.toAbsolutePath().normalize();
+        String key = normalized.startsWith(videoBasePath)
+                ? videoBasePath.relativize(normalized).toString().replace(File.separatorChar, '/')
+                : normalized.toString();
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Kaynak dosyanın sürümü (değişince yeni paket dizini kullanılır)
+     */
+    String version(File videoFile) {
+        return Long.toHexString(videoFile.lastModified()) + "-" + Long.toHexString(videoFile.length());
+    }
+
+    /**
+     * Token'ı doğrula; geçerliyse kalan süreyi (saniye) döndür
+     */
+    private long verify(String token, String packageId, String version) {
+        Matcher matcher = TOKEN.matcher(token);
+        if (!matcher.matches()) {
+            throw new ForbiddenException("Invalid HLS access token");
+        }
+        long expires = Long.parseUnsignedLong(matcher.group(1), 16);
+        byte[] expected = sign(packageId, version, expires).getBytes(StandardCharsets.US_ASCII);
+        if (!MessageDigest.isEqual(expected, matcher.group(2).getBytes(StandardCharsets.US_ASCII))) {
+            throw new ForbiddenException("Invalid HLS access token");
+        }
+        long remaining = expires - System.currentTimeMillis() / 1000;
+        if (remaining <= 0) {
+            throw new ForbiddenException("HLS access token expired. Request the manifest again.");
+        }
+        return remaining;
+    }
+
+    private String sign(String packageId, String version, long expires) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(signingKey);
+            byte[] signature = mac.doFinal((packageId + "/" + version + "/" + expires).getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 not available", e);
+        }
+    }
+
+    private MediaType contentType(String fileName) {
+        if (fileName.endsWith(".m3u8")) {
+            return HLS_PLAYLIST;
+        }
+        return MediaType.parseMediaType("video/mp4");
+    }
+}
@@ -0,0 +1,306 @@
+package com.microservices.video_streaming_service.service;
+
+import com.microservices.video_streaming_service.service.Mp4SeekIndex.SeekIndex;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * MP4 moov parser
+ * Dosyanın top-level box'ları arasında moov'u bulur (başta veya sonda olabilir, mdat okunmaz), moov'u tek
+ * seferde belleğe alır ve ilk video track'inin sample tablolarından (stts, stss, stsc, stsz, stco / co64)
+ * keyframe zaman -> byte offset tablosunu çıkarır.
+ *
+ * - Zamanlar decode zamanıdır (ctts / edit list uygulanmaz); seek için keyframe hassasiyeti yeterlidir.
+ * - stss yoksa tüm sample'lar keyframe kabul edilir (intra-only video).
+ * - Fragmented MP4 (moof) ve stz2 desteklenmez; bu dosyalar için IOException fırlatılır.
+ * - Box boyutları ve tablo entry sayıları okunmadan önce kapsayan box'a göre doğrulanır; bozuk / kesilmiş
+ *   dosyalar IOException ile reddedilir.
+ */
+final class Mp4IndexParser {
+
+    private static final int MOOV = type("moov");
+    private static final int TRAK = type("trak");
+    private static final int MDIA = type("mdia");
+    private static final int MDHD = type("mdhd");
+    private static final int HDLR = type("hdlr");
+    private static final int MINF = type("minf");
+    private static final int STBL = type("stbl");
+    private static final int STTS = type("stts");
+    private static final int STSS = type("stss");
+    private static final int STSC = type("stsc");
+    private static final int STSZ = type("stsz");
+    private static final int STCO = type("stco");
+    private static final int CO64 = type("co64");
+    private static final int VIDE = type("vide");
+
+    private Mp4IndexParser() {
+    }
+
+    /**
+     * Dosyanın keyframe indeksini çıkar
+     *
+     * @param maxMoovSize bu boyuttan büyük moov okunmaz (bozuk / beklenmeyen dosyalara karşı üst sınır)
+     */
+    static SeekIndex parse(File file, long maxMoovSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            ByteBuffer header = ByteBuffer.allocate(16);
+            long position = 0;
+
+            while (position + 8 <= fileSize) {
+                header.clear().limit(8);
+                readFully(channel, header, position);
+                header.flip();
+                long size = header.getInt() & 0xffffffffL;
+                int boxType = header.getInt();
+                int headerSize = 8;
+                if (size == 1) {
+                    header.clear().limit(8);
+                    readFully(channel, header, position + 8);
+                    header.flip();
+                    size = header.getLong();
+                    headerSize = 16;
+                } else if (size == 0) {
+                    size = fileSize - position;
+                }
+                // size 64 bit olabilir; position + size taşmasın
+                if (size < headerSize || size > fileSize - position) {
+                    throw new IOException("Malformed MP4 box at offset " + position);
+                }
+
+                if (boxType == MOOV) {
+                    long payloadSize = size - headerSize;
+                    if (payloadSize > maxMoovSize) {
+                        throw new IOException("moov box too large: " + payloadSize + " bytes");
+                    }
+                    ByteBuffer moov = ByteBuffer.allocate((int) payloadSize);
+                    readFully(channel, moov, position + headerSize);
+                    moov.flip();
+                    try {
+                        return parseMoov(moov, position, size, fileSize);
+                    } catch (IndexOutOfBoundsException e) {
+                        // Tablo boyutları box'ın kendisinden büyük (bozuk dosya)
+                        throw new IOException("Truncated MP4 sample table", e);
+                    }
+                }
+                position += size;
+            }
+            throw new IOException("No moov box found");
+        }
+    }
+
+    private static SeekIndex parseMoov(ByteBuffer moov, long moovOffset, long moovSize, long fileSize)
+            throws IOException {
+        for (ByteBuffer trak : children(moov, TRAK)) {
+            ByteBuffer mdia = child(trak, MDIA);
+            ByteBuffer hdlr = mdia != null ? child(mdia, HDLR) : null;
+            if (hdlr == null || hdlr.remaining() < 12 || hdlr.getInt(8) != VIDE) {
+                continue;
+            }
+            ByteBuffer mdhd = child(mdia, MDHD);
+            ByteBuffer minf = child(mdia, MINF);
+            ByteBuffer stbl = minf != null ? child(minf, STBL) : null;
+            if (mdhd == null || stbl == null) {
+                throw new IOException("Video track without mdhd / stbl");
+            }
+            return parseVideoTrack(mdhd, stbl, moovOffset, moovSize, fileSize);
+        }
+        throw new IOException("No video track found");
+    }
+
+    private static SeekIndex parseVideoTrack(ByteBuffer mdhd, ByteBuffer stbl, long moovOffset, long moovSize,
+                                             long fileSize) throws IOException {
+        if (mdhd.limit() < 4 || mdhd.limit() < (mdhd.get(0) == 1 ? 32 : 20)) {
+            throw new IOException("Truncated MP4 box: mdhd");
+        }
+        boolean mdhdV1 = mdhd.get(0) == 1;
+        long timescale = mdhd.getInt(mdhdV1 ? 20 : 12) & 0xffffffffL;
+        long duration = mdhdV1 ? mdhd.getLong(24) : mdhd.getInt(16) & 0xffffffffL;
+        if (timescale == 0) {
+            throw new IOException("Video track timescale is zero");
+        }
+
+        ByteBuffer stts = require(stbl, STTS);
+        ByteBuffer stsc = require(stbl, STSC);
+        ByteBuffer stsz = require(stbl, STSZ);
+        ByteBuffer stss = child(stbl, STSS);
+        ByteBuffer stco = child(stbl, STCO);
+        ByteBuffer co64 = stco == null ? child(stbl, CO64) : null;
+        if (stco == null && co64 == null) {
+            throw new IOException("Video track has no chunk offsets (fragmented MP4?)");
+        }
+
+        if (stsz.limit() < 8) {
+            throw new IOException("Truncated MP4 box: stsz");
+        }
+        int uniformSize = stsz.getInt(4);
+        int sampleCount = entryCount(stsz, 8, uniformSize == 0 ? 4 : 0, STSZ);
+        int chunkCount = stco != null ? entryCount(stco, 4, 4, STCO) : entryCount(co64, 4, 8, CO64);
+        int stscCount = entryCount(stsc, 4, 12, STSC);
+        int sttsCount = entryCount(stts, 4, 8, STTS);
+        int stssCount = stss != null ? entryCount(stss, 4, 4, STSS) : 0;
+        if (stscCount == 0 || sttsCount == 0) {
+            throw new IOException("Video track has empty sample tables");
+        }
+
+        int capacity = stss != null ? Math.max(stssCount, 1) : Math.max(sampleCount, 1);
+        long[] times = new long[Math.min(capacity, 1 << 16)];
+        long[] offsets = new long[times.length];
+        int keyframes = 0;
+
+        int run = 0;
+        int sttsEntry = 0;
+        long sttsRemaining = stts.getInt(8) & 0xffffffffL;
+        long sttsDelta = stts.getInt(12) & 0xffffffffL;
+        int syncEntry = 0;
+        long nextSync = stss != null && stssCount > 0 ? stss.getInt(8) & 0xffffffffL : -1;
+        long decodeTime = 0;
+        int sample = 0;
+
+        for (int chunk = 1; chunk <= chunkCount && sample < sampleCount; chunk++) {
+            while (run + 1 < stscCount && (stsc.getInt(8 + (run + 1) * 12) & 0xffffffffL) <= chunk) {
+                run++;
+            }
+            long samplesPerChunk = stsc.getInt(8 + run * 12 + 4) & 0xffffffffL;
+            long offset = stco != null ? stco.getInt(8 + (chunk - 1) * 4) & 0xffffffffL
+                    : co64.getLong(8 + (chunk - 1) * 8);
+            if (offset < 0 || offset > fileSize) {
+                throw new IOException("Chunk offset beyond end of file: " + offset);
+            }
+
+            for (long i = 0; i < samplesPerChunk && sample < sampleCount; i++) {
+                boolean sync = stss == null || sample + 1 == nextSync;
+                if (sync) {
+                    if (keyframes == times.length) {
+                        times = Arrays.copyOf(times, times.length * 2);
+                        offsets = Arrays.copyOf(offsets, offsets.length * 2);
+                    }
+                    times[keyframes] = decodeTime;
+                    offsets[keyframes] = offset;
+                    keyframes++;
+                    if (stss != null) {
+                        syncEntry++;
+                        nextSync = syncEntry < stssCount ? stss.getInt(8 + syncEntry * 4) & 0xffffffffL : -1;
+                    }
+                }
+
+                offset += uniformSize != 0 ? uniformSize & 0xffffffffL : stsz.getInt(12 + sample * 4) & 0xffffffffL;
+                if (offset > fileSize) {
+                    // Sample'lar dosyanın dışında; iddia edilen sample sayısı kadar dönülmez
+                    throw new IOException("Sample data beyond end of file");
+                }
+
+                while (sttsRemaining == 0 && sttsEntry + 1 < sttsCount) {
+                    sttsEntry++;
+                    sttsRemaining = stts.getInt(8 + sttsEntry * 8) & 0xffffffffL;
+                    sttsDelta = stts.getInt(8 + sttsEntry * 8 + 4) & 0xffffffffL;
+                }
+                decodeTime += sttsDelta;
+                sttsRemaining--;
+                sample++;
+            }
+        }
+
+        if (keyframes == 0) {
+            throw new IOException("Video track has no keyframes");
+        }
+
+        int[] keyframeMillis = new int[keyframes];
+        for (int i = 0; i < keyframes; i++) {
+            keyframeMillis[i] = (int) Math.min(Integer.MAX_VALUE, times[i] * 1000 / timescale);
+        }
+        return new SeekIndex(keyframeMillis, Arrays.copyOf(offsets, keyframes), moovOffset, moovSize, fileSize,
+                duration * 1000 / timescale);
+    }
+
+    /**
+     * Full box tablosunun entry sayısı (countOffset'teki unsigned 32 bit); tablo box'a sığmıyorsa IOException
+     *
+     * @param entrySize entry başına byte (0: tablo yok, sayı yalnızca int aralığında olmalı)
+     */
+    private static int entryCount(ByteBuffer box, int countOffset, int entrySize, int boxType) throws IOException {
+        if (box.limit() < countOffset + 4) {
+            throw new IOException("Truncated MP4 box: " + name(boxType));
+        }
+        long count = box.getInt(countOffset) & 0xffffffffL;
+        if (count > Integer.MAX_VALUE || countOffset + 4 + count * entrySize > box.limit()) {
+            throw new IOException("Truncated MP4 sample table: " + name(boxType) + " (" + count + " entries)");
+        }
+        return (int) count;
+    }
+
+    /**
+     * Verilen tipteki ilk çocuk box'ın payload'ı (0 tabanlı; yoksa null)
+     */
+    private static ByteBuffer child(ByteBuffer parent, int boxType) throws IOException {
+        List<ByteBuffer> boxes = children(parent, boxType);
+        return boxes.isEmpty() ? null : boxes.get(0);
+    }
+
+    private static ByteBuffer require(ByteBuffer parent, int boxType) throws IOException {
+        ByteBuffer box = child(parent, boxType);
+        if (box == null) {
+            throw new IOException("Missing MP4 box: " + name(boxType));
+        }
+        return box;
+    }
+
+    /**
+     * Verilen tipteki tüm çocuk box'ların payload'ları (parent 0 tabanlı olmalı)
+     */
+    private static List<ByteBuffer> children(ByteBuffer parent, int boxType) throws IOException {
+        List<ByteBuffer> boxes = new ArrayList<>(1);
+        int position = 0;
+        int end = parent.limit();
+        while (position + 8 <= end) {
+            long size = parent.getInt(position) & 0xffffffffL;
+            int type = parent.getInt(position + 4);
+            int headerSize = 8;
+            if (size == 1) {
+                if (position + 16 > end) {
+                    throw new IOException("Truncated MP4 box header");
+                }
+                size = parent.getLong(position + 8);
+                headerSize = 16;
+            } else if (size == 0) {
+                size = end - position;
+            }
+            if (size < headerSize || size > end - position) {
+                throw new IOException("Malformed MP4 box inside moov");
+            }
+            if (type == boxType) {
+                boxes.add(parent.duplicate().limit((int) (position + size)).position(position + headerSize).slice());
+            }
+            position += (int) size;
+        }
+        return boxes;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long current = position;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, current);
+            if (read < 0) {
+                throw new EOFException("Unexpected end of MP4 file at offset " + current);
+            }
+            current += read;
+        }
+    }
+
+    private static int type(String name) {
+        return ByteBuffer.wrap(name.getBytes(StandardCharsets.US_ASCII)).getInt();
+    }
+
+    private static String name(int boxType) {
+        return new String(ByteBuffer.allocate(4).putInt(boxType).array(), StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,55 @@
+package com.microservices.video_streaming_service.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token Bucket
+ * Byte/saniye hız sınırı; kilitsiz (GCRA: tek AtomicLong "teorik varış zamanı" üzerinde CAS).
+ *
+ * - burst kadar byte beklemeden gönderilebilir (oynatma başında hızlı buffer doldurma).
+ * - Sonrasında reserve() ortalama hız rate'i aşmayacak kadar bekleme süresi döner; bekleme çağıranın
+ *   işidir (StreamPacer thread park etmeden zamanlar).
+ * - Aynı bucket'ı paylaşan eşzamanlı istekler (aynı stream'in paralel Range istekleri) toplam hızı paylaşır.
+ */
+public final class TokenBucket {
+
+    private final long bytesPerSecond;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(long bytesPerSecond, long burstBytes) {
+        if (bytesPerSecond <= 0) {
+            throw new IllegalArgumentException("bytesPerSecond must be positive");
+        }
+        this.bytesPerSecond = bytesPerSecond;
+        this.burstNanos = nanosFor(Math.max(burstBytes, 0));
+        this.theoreticalArrival = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * bytes kadar token rezerve et (bloklamaz); dönen süre (ns) kadar sonra bir sonraki gönderim yapılmalıdır
+     * 0 dönerse beklemeden devam edilebilir
+     */
+    public long reserve(long bytes) {
+        long cost = nanosFor(bytes);
+        while (true) {
+            long now = System.nanoTime();
+            long current = theoreticalArrival.get();
+            // Boşta geçen süre en fazla burst kadar hak biriktirir (teorik varış zamanı şimdiden geriye gitmez)
+            long start = Math.max(current, now);
+            long next = start + cost;
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return Math.max(0, next - burstNanos - now);
+            }
+        }
+    }
+
+    public long getBytesPerSecond() {
+        return bytesPerSecond;
+    }
+
+    private long nanosFor(long bytes) {
+        return bytes * TimeUnit.SECONDS.toNanos(1) / bytesPerSecond;
+    }
+}
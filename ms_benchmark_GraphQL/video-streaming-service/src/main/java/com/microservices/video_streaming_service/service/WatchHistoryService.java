@@ -0,0 +1,404 @@
+package com.microservices.video_streaming_service.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.microservices.video_streaming_service.dto.request.WatchProgressRequest;
+import com.microservices.video_streaming_service.dto.response.ContinueWatchingResponse;
+import com.microservices.video_streaming_service.dto.response.WatchHistorySummaryResponse;
+import com.microservices.video_streaming_service.exception.BadRequestException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watch History Service
+ * Oynatıcı heartbeat'lerinden izleme geçmişi: "izlemeye devam et" listesi ve dashboard özeti.
+ *
+ * - Heartbeat'ler veritabanına tek tek yazılmaz; (hesap, profil, içerik) başına bellekte birleştirilir
+ *   (son durum kazanır) ve flush-interval-ms'te bir tek transaction'da batch upsert ile yazılır.
+ * - Tablo (watch_progress_events) (hesap, profil, içerik) başına tek satır tutar; INSERT ... ON CONFLICT
+ *   satırı günceller, daha eski bir heartbeat daha yenisinin üzerine yazmaz.
+ * - Sorgular hesap başına bellek içi indeksten cevaplanır (profil -> içerik -> son durum); indeks ilk
+ *   erişimde veritabanından yüklenir ve henüz yazılmamış (bekleyen / flush edilmekte olan) heartbeat'ler
+ *   üzerine uygulanır, heartbeat'lerle anında güncellenir.
+ * - İndeks refresh-after-write'ta arka planda yeniden yüklenir (diğer instance'lara gelen heartbeat'ler
+ *   görünür); expire-after-write boyunca erişilmeyen hesaplar düşer.
+ * - Flush başarısız olursa kayıtlar bekleyenlere geri konur (arada gelen daha yeni heartbeat korunur).
+ * - profileId hesabın kendi anahtarı altında tutulur; profilin hesaba ait olduğu her heartbeat'te
+ *   Profile Service'e sorulmaz (hesaplar birbirinin geçmişini göremez/değiştiremez).
+ *
+ * Metrikler: video.watch-history.heartbeats, video.watch-history.pending, video.watch-history.rows.written,
+ * video.watch-history.flush, video.watch-history.flush.failures, cache.* {cache=watch-history}
+ */
+@Service
+public class WatchHistoryService {
+
+    private static final Logger log = LoggerFactory.getLogger(WatchHistoryService.class);
+
+    private static final int MAX_CONTINUE_WATCHING = 100;
+    private static final int REFRESH_QUEUE_CAPACITY = 1024;
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO watch_progress_events (user_id, profile_id, content_id, episode_id, position_seconds, " +
+            "duration_seconds, completed, watched_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (user_id, profile_id, content_id) DO UPDATE SET episode_id = EXCLUDED.episode_id, " +
+            "position_seconds = EXCLUDED.position_seconds, duration_seconds = EXCLUDED.duration_seconds, " +
+            "completed = EXCLUDED.completed, watched_at = EXCLUDED.watched_at " +
+            "WHERE watch_progress_events.watched_at <= EXCLUDED.watched_at";
+
+    private static final String LOAD_ACCOUNT_SQL =
+            "SELECT profile_id, content_id, episode_id, position_seconds, duration_seconds, completed, watched_at " +
+            "FROM watch_progress_events WHERE user_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    // Hesap -> bekleyen kayıtlar; iç map'ler yalnızca dış map'in compute'u içinde değişir
+    private final Map<String, Map<ProgressKey, WatchEntry>> pending = new ConcurrentHashMap<>();
+    // Flush'ın yazmakta olduğu (henüz commit edilmemiş) kayıtlar; load() bunları da uygular
+    private final Map<String, Map<ProgressKey, WatchEntry>> inFlight = new ConcurrentHashMap<>();
+    private final LoadingCache<String, AccountHistory> index;
+    private final ThreadPoolTaskExecutor refreshExecutor;
+
+    private final int batchSize;
+    private final double completionThreshold;
+    private final long recentWindowMillis;
+
+    private final Counter heartbeatCounter;
+    private final Counter rowsWrittenCounter;
+    private final Counter flushFailureCounter;
+    private final Timer flushTimer;
+
+    public WatchHistoryService(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${video.watch-history.batch-size:500}") int batchSize,
+            @Value("${video.watch-history.completion-threshold:0.95}") double completionThreshold,
+            @Value("${video.watch-history.recent-window:30d}") Duration recentWindow,
+            @Value("${video.watch-history.index.maximum-accounts:100000}") long maximumAccounts,
+            @Value("${video.watch-history.index.refresh-after-write:1m}") Duration refreshAfterWrite,
+            @Value("${video.watch-history.index.expire-after-write:30m}") Duration expireAfterWrite,
+            @Value("${video.watch-history.index.refresh-threads:2}") int refreshThreads) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.completionThreshold = completionThreshold;
+        this.recentWindowMillis = recentWindow.toMillis();
+
+        // Refresh kuyruğu dolarsa refresh atlanır; eski indeks bir sonraki erişimde yeniden denenir
+        this.refreshExecutor = new ThreadPoolTaskExecutor();
+        refreshExecutor.setCorePoolSize(refreshThreads);
+        refreshExecutor.setMaxPoolSize(refreshThreads);
+        refreshExecutor.setQueueCapacity(REFRESH_QUEUE_CAPACITY);
+        refreshExecutor.setThreadNamePrefix("WatchHistoryRefresh-");
+        refreshExecutor.initialize();
+
+        this.index = Caffeine.newBuilder()
+                .maximumSize(maximumAccounts)
+                .refreshAfterWrite(refreshAfterWrite)
+                .expireAfterWrite(expireAfterWrite)
+                .executor(refreshExecutor)
+                .recordStats()
+                .build(this::load);
+
+        this.heartbeatCounter = meterRegistry.counter("video.watch-history.heartbeats");
+        this.rowsWrittenCounter = meterRegistry.counter("video.watch-history.rows.written");
+        this.flushFailureCounter = meterRegistry.counter("video.watch-history.flush.failures");
+        this.flushTimer = meterRegistry.timer("video.watch-history.flush");
+        meterRegistry.gauge("video.watch-history.pending", pending, WatchHistoryService::pendingRows);
+        CaffeineCacheMetrics.monitor(meterRegistry, index, "watch-history");
+
+        log.info("Watch history: batchSize={}, completionThreshold={}, recentWindow={}, maximumAccounts={}, "
+                        + "refreshAfterWrite={}, expireAfterWrite={}",
+                batchSize, completionThreshold, recentWindow, maximumAccounts, refreshAfterWrite, expireAfterWrite);
+    }
+
+    /**
+     * Heartbeat'i kaydet (veritabanına bir sonraki flush'ta yazılır)
+     */
+    public void record(String userId, WatchProgressRequest request) {
+        validate(request);
+
+        int position = request.getPositionSeconds();
+        int duration = request.getDurationSeconds() != null ? request.getDurationSeconds() : 0;
+        boolean completed = request.getCompleted() != null
+                ? request.getCompleted()
+                : duration > 0 && position >= duration * completionThreshold;
+        long episodeId = request.getEpisodeId() != null ? request.getEpisodeId() : 0;
+        WatchEntry entry = new WatchEntry(episodeId, position, duration, completed, System.currentTimeMillis());
+
+        ProgressKey key = new ProgressKey(userId, request.getProfileId(), request.getContentId());
+        pending.compute(userId, (id, entries) -> merge(entries, key, entry));
+        heartbeatCounter.increment();
+
+        AccountHistory history;
+        try {
+            history = index.get(userId);
+        } catch (RuntimeException e) {
+            // Heartbeat kaybolmaz (flush'ta yazılır); indeks sonraki erişimde yüklenir
+            log.warn("Failed to load watch history index for user {}: {}", userId, e.getMessage());
+            return;
+        }
+        history.apply(request.getProfileId(), request.getContentId(), entry);
+    }
+
+    /**
+     * Profilin yarıda bıraktığı içerikler (en son izlenen önce)
+     */
+    public List<ContinueWatchingResponse> getContinueWatching(String userId, Long profileId, int limit) {
+        int effectiveLimit = Math.max(1, Math.min(limit, MAX_CONTINUE_WATCHING));
+        return index.get(userId).continueWatching(profileId, effectiveLimit);
+    }
+
+    /**
+     * Hesabın (profileId verilirse yalnızca o profilin) izleme özeti
+     */
+    public WatchHistorySummaryResponse getSummary(String userId, Long profileId) {
+        long recentSince = System.currentTimeMillis() - recentWindowMillis;
+        return index.get(userId).summary(profileId, recentSince);
+    }
+
+    /**
+     * Bekleyen heartbeat'leri batch upsert ile yaz
+     */
+    @Scheduled(fixedDelayString = "${video.watch-history.flush-interval-ms:10000}",
+            initialDelayString = "${video.watch-history.flush-interval-ms:10000}")
+    public synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<Map.Entry<ProgressKey, WatchEntry>> batch = new ArrayList<>();
+        for (String userId : pending.keySet()) {
+            // Hesabın bekleyenleri atomik olarak in-flight'a taşınır; bu arada gelen heartbeat yeni map açar
+            // ve bir sonraki flush'a kalır
+            pending.computeIfPresent(userId, (id, entries) -> {
+                inFlight.put(id, entries);
+                batch.addAll(entries.entrySet());
+                return null;
+            });
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(UPSERT_SQL, batch, batchSize, (ps, entry) -> {
+                        ProgressKey key = entry.getKey();
+                        WatchEntry value = entry.getValue();
+                        ps.setString(1, key.userId());
+                        ps.setLong(2, key.profileId());
+                        ps.setLong(3, key.contentId());
+                        if (value.episodeId() != 0) {
+                            ps.setLong(4, value.episodeId());
+                        } else {
+                            ps.setNull(4, Types.BIGINT);
+                        }
+                        ps.setInt(5, value.positionSeconds());
+                        if (value.durationSeconds() > 0) {
+                            ps.setInt(6, value.durationSeconds());
+                        } else {
+                            ps.setNull(6, Types.INTEGER);
+                        }
+                        ps.setBoolean(7, value.completed());
+                        ps.setTimestamp(8, new Timestamp(value.watchedAt()));
+                    }));
+            rowsWrittenCounter.increment(batch.size());
+            log.debug("Flushed {} watch progress rows", batch.size());
+        } catch (RuntimeException e) {
+            for (Map.Entry<ProgressKey, WatchEntry> entry : batch) {
+                pending.compute(entry.getKey().userId(),
+                        (id, entries) -> merge(entries, entry.getKey(), entry.getValue()));
+            }
+            flushFailureCounter.increment();
+            log.error("Failed to flush {} watch progress rows, will retry: {}", batch.size(), e.getMessage());
+        } finally {
+            // Başarıda satırlar veritabanında, hatada tekrar bekleyenlerde
+            inFlight.clear();
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdown();
+        flush();
+        if (!pending.isEmpty()) {
+            log.warn("{} watch progress rows could not be flushed on shutdown", pendingRows(pending));
+        }
+    }
+
+    /**
+     * Hesabın profil/içerik başına son durumunu veritabanından yükle ve henüz yazılmamış kayıtları üzerine uygula
+     * Yazılmamışlar sorgudan önce ve sonra alınır: sorgu sırasında commit edilen de, gelen de kaçmaz.
+     */
+    private AccountHistory load(String userId) {
+        List<Map.Entry<ProgressKey, WatchEntry>> unflushed = unflushed(userId);
+        AccountHistory history = new AccountHistory();
+        jdbcTemplate.query(LOAD_ACCOUNT_SQL, rs -> {
+            Timestamp watchedAt = rs.getTimestamp("watched_at");
+            history.apply(rs.getLong("profile_id"), rs.getLong("content_id"), new WatchEntry(
+                    rs.getLong("episode_id"),
+                    rs.getInt("position_seconds"),
+                    rs.getInt("duration_seconds"),
+                    rs.getBoolean("completed"),
+                    watchedAt.getTime()));
+        }, userId);
+        unflushed.addAll(unflushed(userId));
+        for (Map.Entry<ProgressKey, WatchEntry> entry : unflushed) {
+            history.apply(entry.getKey().profileId(), entry.getKey().contentId(), entry.getValue());
+        }
+        return history;
+    }
+
+    /**
+     * Hesabın bekleyen ve flush edilmekte olan kayıtlarının kopyası
+     */
+    private List<Map.Entry<ProgressKey, WatchEntry>> unflushed(String userId) {
+        List<Map.Entry<ProgressKey, WatchEntry>> entries = new ArrayList<>();
+        pending.computeIfPresent(userId, (id, current) -> {
+            current.forEach((key, value) -> entries.add(Map.entry(key, value)));
+            return current;
+        });
+        Map<ProgressKey, WatchEntry> flushing = inFlight.get(userId);
+        if (flushing != null) {
+            entries.addAll(flushing.entrySet());
+        }
+        return entries;
+    }
+
+    private static Map<ProgressKey, WatchEntry> merge(Map<ProgressKey, WatchEntry> entries, ProgressKey key,
+                                                      WatchEntry entry) {
+        Map<ProgressKey, WatchEntry> merged = entries != null ? entries : new HashMap<>();
+        merged.merge(key, entry, WatchEntry::latest);
+        return merged;
+    }
+
+    /**
+     * Bekleyen kayıt sayısı (gauge; yaklaşık)
+     */
+    private static int pendingRows(Map<String, Map<ProgressKey, WatchEntry>> pending) {
+        int rows = 0;
+        for (Map<ProgressKey, WatchEntry> entries : pending.values()) {
+            rows += entries.size();
+        }
+        return rows;
+    }
+
+    private void validate(WatchProgressRequest request) {
+        if (request.getProfileId() == null || request.getContentId() == null) {
+            throw new BadRequestException("profileId and contentId are required");
+        }
+        if (request.getPositionSeconds() == null || request.getPositionSeconds() < 0) {
+            throw new BadRequestException("positionSeconds must be zero or positive");
+        }
+        if (request.getDurationSeconds() != null && request.getDurationSeconds() < 0) {
+            throw new BadRequestException("durationSeconds must be zero or positive");
+        }
+    }
+
+    private static String format(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault()).toString();
+    }
+
+    private record ProgressKey(String userId, long profileId, long contentId) {
+    }
+
+    /**
+     * İçeriğin son izleme durumu (episodeId / durationSeconds 0: yok)
+     */
+    private record WatchEntry(long episodeId, int positionSeconds, int durationSeconds, boolean completed,
+                              long watchedAt) {
+
+        static WatchEntry latest(WatchEntry current, WatchEntry candidate) {
+            return candidate.watchedAt >= current.watchedAt ? candidate : current;
+        }
+    }
+
+    /**
+     * Hesabın bellek içi indeksi: profil -> içerik -> son durum
+     */
+    private static final class AccountHistory {
+
+        private final Map<Long, Map<Long, WatchEntry>> profiles = new HashMap<>();
+
+        synchronized void apply(long profileId, long contentId, WatchEntry entry) {
+            profiles.computeIfAbsent(profileId, id -> new HashMap<>()).merge(contentId, entry, WatchEntry::latest);
+        }
+
+        synchronized List<ContinueWatchingResponse> continueWatching(Long profileId, int limit) {
+            Map<Long, WatchEntry> titles = profiles.get(profileId);
+            if (titles == null) {
+                return List.of();
+            }
+            return titles.entrySet().stream()
+                    .filter(title -> !title.getValue().completed() && title.getValue().positionSeconds() > 0)
+                    .sorted(Comparator.comparingLong(
+                            (Map.Entry<Long, WatchEntry> title) -> title.getValue().watchedAt()).reversed())
+                    .limit(limit)
+                    .map(title -> ContinueWatchingResponse.builder()
+                            .contentId(title.getKey())
+                            .episodeId(title.getValue().episodeId() != 0 ? title.getValue().episodeId() : null)
+                            .positionSeconds(title.getValue().positionSeconds())
+                            .durationSeconds(title.getValue().durationSeconds() > 0
+                                    ? title.getValue().durationSeconds() : null)
+                            .lastWatchedDate(format(title.getValue().watchedAt()))
+                            .build())
+                    .toList();
+        }
+
+        synchronized WatchHistorySummaryResponse summary(Long profileId, long recentSince) {
+            Set<Long> watched = new HashSet<>();
+            Set<Long> recent = new HashSet<>();
+            long lastWatched = 0;
+            for (Map.Entry<Long, Map<Long, WatchEntry>> profile : profiles.entrySet()) {
+                if (profileId != null && !profileId.equals(profile.getKey())) {
+                    continue;
+                }
+                for (Map.Entry<Long, WatchEntry> title : profile.getValue().entrySet()) {
+                    long watchedAt = title.getValue().watchedAt();
+                    watched.add(title.getKey());
+                    if (watchedAt >= recentSince) {
+                        recent.add(title.getKey());
+                    }
+                    lastWatched = Math.max(lastWatched, watchedAt);
+                }
+            }
+            return WatchHistorySummaryResponse.builder()
+                    .totalWatched(watched.size())
+                    .recentWatchCount(recent.size())
+                    .lastWatchedDate(lastWatched > 0 ? format(lastWatched) : null)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+-- İzleme ilerlemesi (yalnızca ekleme alan tablo)
+-- Heartbeat'ler bellekte (hesap, profil, içerik) başına birleştirilip batch olarak yazılır;
+-- bir içeriğin güncel durumu en yeni satırdır
+CREATE TABLE IF NOT EXISTS watch_progress_events (
+    id BIGSERIAL PRIMARY KEY,
+    user_id VARCHAR(64) NOT NULL,
+    profile_id BIGINT NOT NULL,
+    content_id BIGINT NOT NULL,
+    episode_id BIGINT,
+    position_seconds INTEGER NOT NULL,
+    duration_seconds INTEGER,
+    completed BOOLEAN NOT NULL DEFAULT FALSE,
+    watched_at TIMESTAMP NOT NULL
+);
+
+-- Hesap indeksinin yüklenmesi: DISTINCT ON (profile_id, content_id) ... ORDER BY watched_at DESC
+CREATE INDEX IF NOT EXISTS idx_watch_progress_user_profile_content
+    ON watch_progress_events (user_id, profile_id, content_id, watched_at DESC);
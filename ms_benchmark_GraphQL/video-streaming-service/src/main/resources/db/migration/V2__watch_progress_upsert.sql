@@ -0,0 +1,17 @@
+-- İzleme ilerlemesi (hesap, profil, içerik) başına tek satır: flush INSERT ... ON CONFLICT ile günceller.
+-- Yalnızca ekleme alınan dönemden kalan eski satırlar silinir; her anahtarın en yeni satırı kalır.
+WITH ranked AS (
+    SELECT id, row_number() OVER (PARTITION BY user_id, profile_id, content_id
+                                  ORDER BY watched_at DESC, id DESC) AS position
+    FROM watch_progress_events
+)
+DELETE FROM watch_progress_events w
+USING ranked r
+WHERE w.id = r.id
+  AND r.position > 1;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_watch_progress_user_profile_content
+    ON watch_progress_events (user_id, profile_id, content_id);
+
+-- Hesap indeksinin yüklenmesi artık WHERE user_id = ? (benzersiz indeksin ön eki)
+DROP INDEX IF EXISTS idx_watch_progress_user_profile_content;
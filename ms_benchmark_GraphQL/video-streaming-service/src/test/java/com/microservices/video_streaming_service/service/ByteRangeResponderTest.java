@@ -0,0 +1,203 @@
+package com.microservices.video_streaming_service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * ByteRangeResponder'ın conditional / Range davranışı; controller'lar gibi ResponseEntity<?> dönen bir
+ * handler üzerinden MockMvc ile (sendfile ve oturum yok: gövde Spring MVC / converter ile yazılır)
+ */
+class ByteRangeResponderTest {
+
+    private static final int LENGTH = 10_000;
+
+    @TempDir
+    Path tempDir;
+
+    private byte[] content;
+    private File file;
+    private String etag;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        content = new byte[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            content[i] = (byte) (i * 31);
+        }
+        file = Files.write(tempDir.resolve("video.mp4"), content).toFile();
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ByteRangeResponder responder = new ByteRangeResponder(
+                new VideoBlockCache(registry, false, DataSize.ofMegabytes(1), DataSize.ofKilobytes(4), 0, 1, 1),
+                new StreamTelemetry(registry, 10, DataSize.ofKilobytes(256), 0, Duration.ofSeconds(1)),
+                new StreamPacer(registry, 1, DataSize.ofKilobytes(64)),
+                49152);
+        etag = responder.etag(file);
+        mockMvc = MockMvcBuilders.standaloneSetup(new FileController(responder, file)).build();
+    }
+
+    @Test
+    void singleRangeReturnsPartialContent() throws Exception {
+        MockHttpServletResponse response = perform(HttpHeaders.RANGE, "bytes=100-199");
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 100-199/" + LENGTH);
+        assertThat(response.getContentLengthLong()).isEqualTo(100);
+        assertThat(response.getContentType()).isEqualTo("video/mp4");
+        assertThat(response.getContentAsByteArray()).isEqualTo(slice(100, 200));
+    }
+
+    @Test
+    void multipleRangesReturnMultipartByteranges() throws Exception {
+        MockHttpServletResponse response = perform(HttpHeaders.RANGE, "bytes=0-9,500-509");
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentType()).startsWith("multipart/byteranges; boundary=");
+        String boundary = response.getContentType().substring(response.getContentType().indexOf('=') + 1);
+        String body = new String(response.getContentAsByteArray(), StandardCharsets.ISO_8859_1);
+        assertThat(body)
+                .contains("--" + boundary + "\r\n")
+                .contains("Content-Range: bytes 0-9/" + LENGTH)
+                .contains("Content-Range: bytes 500-509/" + LENGTH)
+                .contains(new String(slice(0, 10), StandardCharsets.ISO_8859_1))
+                .contains(new String(slice(500, 510), StandardCharsets.ISO_8859_1))
+                .endsWith("--" + boundary + "--");
+    }
+
+    @Test
+    void suffixRangeReturnsLastBytes() throws Exception {
+        MockHttpServletResponse response = perform(HttpHeaders.RANGE, "bytes=-100");
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE))
+                .isEqualTo("bytes " + (LENGTH - 100) + "-" + (LENGTH - 1) + "/" + LENGTH);
+        assertThat(response.getContentAsByteArray()).isEqualTo(slice(LENGTH - 100, LENGTH));
+    }
+
+    @Test
+    void zeroLengthSuffixRangeIsNotSatisfiable() throws Exception {
+        MockHttpServletResponse response = perform(HttpHeaders.RANGE, "bytes=-0");
+
+        assertThat(response.getStatus()).isEqualTo(416);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */" + LENGTH);
+    }
+
+    @Test
+    void rangeBeyondEndIsNotSatisfiable() throws Exception {
+        MockHttpServletResponse response = perform(HttpHeaders.RANGE, "bytes=" + LENGTH + "-");
+
+        assertThat(response.getStatus()).isEqualTo(416);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */" + LENGTH);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void ifNoneMatchReturnsNotModified() throws Exception {
+        MockHttpServletResponse response = perform(HttpHeaders.IF_NONE_MATCH, etag);
+
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(etag);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void ifModifiedSinceReturnsNotModified() throws Exception {
+        MockHttpServletResponse response = perform(HttpHeaders.IF_MODIFIED_SINCE, httpDate(file.lastModified()));
+
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void ifRangeMismatchFallsBackToFullBody() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/file")
+                        .header(HttpHeaders.RANGE, "bytes=0-9")
+                        .header(HttpHeaders.IF_RANGE, "\"stale\""))
+                .andReturn().getResponse();
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isNull();
+        assertThat(response.getContentAsByteArray()).isEqualTo(content);
+    }
+
+    @Test
+    void ifRangeMatchServesRange() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/file")
+                        .header(HttpHeaders.RANGE, "bytes=5-9")
+                        .header(HttpHeaders.IF_RANGE, etag))
+                .andReturn().getResponse();
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentAsByteArray()).isEqualTo(slice(5, 10));
+    }
+
+    @Test
+    void invalidRangeHeaderIsIgnored() throws Exception {
+        MockHttpServletResponse response = perform(HttpHeaders.RANGE, "bytes=abc");
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentLengthLong()).isEqualTo(LENGTH);
+        assertThat(response.getContentAsByteArray()).isEqualTo(content);
+    }
+
+    private MockHttpServletResponse perform(String header, String value) throws Exception {
+        return mockMvc.perform(get("/file").header(header, value)).andReturn().getResponse();
+    }
+
+    private byte[] slice(int from, int to) {
+        return Arrays.copyOfRange(content, from, to);
+    }
+
+    private static String httpDate(long epochMillis) {
+        return DateTimeFormatter.RFC_1123_DATE_TIME.format(
+                ZonedDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC));
+    }
+
+    /**
+     * Streaming controller'ları gibi ResponseEntity<?> döner
+     */
+    @RestController
+    static class FileController {
+
+        private final ByteRangeResponder responder;
+        private final File file;
+
+        FileController(ByteRangeResponder responder, File file) {
+            this.responder = responder;
+            this.file = file;
+        }
+
+        @GetMapping("/file")
+        ResponseEntity<?> file(HttpServletRequest request) {
+            return responder.respond(file, MediaType.parseMediaType("video/mp4"), new HttpHeaders(), request);
+        }
+    }
+}
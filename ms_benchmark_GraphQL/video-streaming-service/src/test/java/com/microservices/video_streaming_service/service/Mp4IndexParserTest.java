@@ -0,0 +1,354 @@
+package com.microservices.video_streaming_service.service;
+
+import com.microservices.video_streaming_service.service.Mp4SeekIndex.SeekIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.LongFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Mp4IndexParser: sentetik moov box'larından keyframe tablosu (stco / co64, stsz, stsc, stts, stss, mdhd v0 / v1)
+ * ve bozuk / kesilmiş dosyaların IOException ile reddedilmesi
+ */
+class Mp4IndexParserTest {
+
+    private static final long MAX_MOOV = 1 << 20;
+    private static final byte[] FTYP = box("ftyp", ascii("isom"), ints(0x200), ascii("isomiso2"));
+    private static final int MDAT_PAYLOAD = 4096;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void everySampleIsKeyframeWithoutStss() throws IOException {
+        // 2 chunk x 2 sample, sabit 100 byte, 1 sn aralık
+        LongFunction<byte[]> moov = base -> moov(mdhd(1000, 4000), stbl(
+                stts(4, 1000),
+                stsc(1, 2),
+                stszUniform(100, 4),
+                stco(base, base + 500)));
+
+        Mp4 mp4 = writeMoovAfterMdat(moov);
+        SeekIndex index = Mp4IndexParser.parse(mp4.file(), MAX_MOOV);
+
+        assertThat(index.keyframeCount()).isEqualTo(4);
+        assertKeyframe(index, 0, 0, mp4.base());
+        assertKeyframe(index, 1, 1000, mp4.base() + 100);
+        assertKeyframe(index, 2, 2000, mp4.base() + 500);
+        assertKeyframe(index, 3, 3000, mp4.base() + 600);
+        assertThat(index.getDurationMillis()).isEqualTo(4000);
+    }
+
+    @Test
+    void co64OffsetsWithPerSampleSizesAndStss() throws IOException {
+        LongFunction<byte[]> moov = base -> moov(mdhd(1000, 4000), stbl(
+                stts(4, 1000),
+                stss(1, 3),
+                stsc(1, 4),
+                stszPerSample(10, 20, 30, 40),
+                co64(base)));
+
+        Mp4 mp4 = writeMoovAfterMdat(moov);
+        SeekIndex index = Mp4IndexParser.parse(mp4.file(), MAX_MOOV);
+
+        assertThat(index.keyframeCount()).isEqualTo(2);
+        assertKeyframe(index, 0, 0, mp4.base());
+        assertKeyframe(index, 1, 2000, mp4.base() + 30);
+    }
+
+    @Test
+    void multiEntryStscAndStts() throws IOException {
+        // stsc: chunk 1-2 üçer, chunk 3-4 birer sample (8 sample)
+        // stts: 5 sample x 512, 3 sample x 1024 (timescale 1024 -> 500 ms / 1000 ms)
+        LongFunction<byte[]> moov = base -> moov(mdhd(1024, 7168), stbl(
+                stts(5, 512, 3, 1024),
+                stss(1, 5, 7),
+                stsc(1, 3, 3, 1),
+                stszUniform(100, 8),
+                stco(base, base + 1000, base + 2000, base + 3000)));
+
+        Mp4 mp4 = writeMoovAfterMdat(moov);
+        SeekIndex index = Mp4IndexParser.parse(mp4.file(), MAX_MOOV);
+
+        assertThat(index.keyframeCount()).isEqualTo(3);
+        assertKeyframe(index, 0, 0, mp4.base());
+        // chunk 2'nin ikinci sample'ı
+        assertKeyframe(index, 1, 2000, mp4.base() + 1100);
+        assertKeyframe(index, 2, 3500, mp4.base() + 2000);
+        assertThat(index.getDurationMillis()).isEqualTo(7000);
+    }
+
+    @Test
+    void mdhdVersion1UsesSixtyFourBitDuration() throws IOException {
+        LongFunction<byte[]> moov = base -> moov(mdhdV1(90_000, 90_000L * 10), stbl(
+                stts(2, 45_000),
+                stsc(1, 1),
+                stszUniform(100, 2),
+                stco(base, base + 100)));
+
+        Mp4 mp4 = writeMoovAfterMdat(moov);
+        SeekIndex index = Mp4IndexParser.parse(mp4.file(), MAX_MOOV);
+
+        assertKeyframe(index, 1, 500, mp4.base() + 100);
+        assertThat(index.getDurationMillis()).isEqualTo(10_000);
+    }
+
+    @Test
+    void moovBeforeAndAfterMdatGiveSameKeyframes() throws IOException {
+        LongFunction<byte[]> moov = base -> moov(mdhd(1000, 2000), stbl(
+                stts(2, 1000),
+                stsc(1, 1),
+                stszUniform(100, 2),
+                stco(base, base + 100)));
+
+        Mp4 before = writeMoovBeforeMdat(moov);
+        Mp4 after = writeMoovAfterMdat(moov);
+        SeekIndex first = Mp4IndexParser.parse(before.file(), MAX_MOOV);
+        SeekIndex last = Mp4IndexParser.parse(after.file(), MAX_MOOV);
+
+        assertThat(first.getMoovOffset()).isEqualTo(FTYP.length);
+        assertThat(last.getMoovOffset()).isEqualTo(FTYP.length + 8 + MDAT_PAYLOAD);
+        assertThat(first.getMoovSize()).isEqualTo(last.getMoovSize()).isEqualTo(before.moovSize());
+        assertThat(first.getFileSize()).isEqualTo(before.file().length());
+        for (SeekIndex index : new SeekIndex[]{first, last}) {
+            assertThat(index.keyframeCount()).isEqualTo(2);
+            assertThat(index.keyframeMillis(1)).isEqualTo(1000);
+        }
+        assertThat(first.keyframeOffset(1)).isEqualTo(before.base() + 100);
+        assertThat(last.keyframeOffset(1)).isEqualTo(after.base() + 100);
+    }
+
+    @Test
+    void skipsNonVideoTracks() throws IOException {
+        LongFunction<byte[]> moov = base -> box("moov",
+                trak("soun", mdhd(48_000, 48_000), stbl(stts(1, 48_000), stsc(1, 1), stszUniform(10, 1),
+                        stco(base + 2000))),
+                trak("vide", mdhd(1000, 1000), stbl(stts(1, 1000), stsc(1, 1), stszUniform(100, 1),
+                        stco(base))));
+
+        Mp4 mp4 = writeMoovAfterMdat(moov);
+        SeekIndex index = Mp4IndexParser.parse(mp4.file(), MAX_MOOV);
+
+        assertThat(index.keyframeCount()).isEqualTo(1);
+        assertThat(index.keyframeOffset(0)).isEqualTo(mp4.base());
+    }
+
+    @Test
+    void sampleTableLargerThanItsBoxIsRejected() throws IOException {
+        // 10 sample iddia ediliyor, 4 boyut yazılı
+        byte[] stsz = box("stsz", ints(0, 0, 10, 10, 20, 30, 40));
+        LongFunction<byte[]> moov = base -> moov(mdhd(1000, 4000), stbl(
+                stts(4, 1000), stsc(1, 4), stsz, stco(base)));
+
+        assertRejected(writeMoovAfterMdat(moov).file());
+    }
+
+    @Test
+    void chunkTableLargerThanItsBoxIsRejected() throws IOException {
+        byte[] stco = box("stco", ints(0, 3), ints(100));
+        LongFunction<byte[]> moov = base -> moov(mdhd(1000, 1000), stbl(
+                stts(1, 1000), stsc(1, 1), stszUniform(100, 1), stco));
+
+        assertRejected(writeMoovAfterMdat(moov).file());
+    }
+
+    @Test
+    void truncatedMdhdIsRejected() throws IOException {
+        LongFunction<byte[]> moov = base -> moov(box("mdhd", ints(0, 0)), stbl(
+                stts(1, 1000), stsc(1, 1), stszUniform(100, 1), stco(base)));
+
+        assertRejected(writeMoovAfterMdat(moov).file());
+    }
+
+    @Test
+    void chunkOffsetBeyondFileIsRejected() throws IOException {
+        LongFunction<byte[]> moov = base -> moov(mdhd(1000, 1000), stbl(
+                stts(1, 1000), stsc(1, 1), stszUniform(100, 1), co64(1L << 40)));
+
+        assertRejected(writeMoovAfterMdat(moov).file());
+    }
+
+    @Test
+    void childBoxLargerThanParentIsRejected() throws IOException {
+        byte[] trak = ByteBuffer.wrap(box("trak", ints(0, 0))).putInt(0, 1000).array();
+
+        assertRejected(write(FTYP, box("moov", trak)));
+    }
+
+    @Test
+    void sixtyFourBitChildBoxSizeIsRejected() throws IOException {
+        // Önceki box yüzünden konum + boyut long aralığını taşar
+        byte[] trak = concat(ints(1), ascii("trak"), longs(Long.MAX_VALUE));
+
+        assertRejected(write(FTYP, box("moov", box("free"), trak)));
+    }
+
+    @Test
+    void sixtyFourBitTopLevelSizeIsRejected() throws IOException {
+        byte[] mdat = concat(ints(1), ascii("mdat"), longs(Long.MAX_VALUE - 8), new byte[64]);
+
+        assertRejected(write(FTYP, mdat));
+    }
+
+    @Test
+    void topLevelBoxPastEndOfFileIsRejected() throws IOException {
+        byte[] moov = ByteBuffer.wrap(box("moov", new byte[16])).putInt(0, 4096).array();
+
+        assertRejected(write(FTYP, moov));
+    }
+
+    @Test
+    void truncatedHeaderAndMissingMoovAreRejected() throws IOException {
+        assertRejected(write(FTYP, box("mdat", new byte[16])));
+        // 64 bit boyut alanı dosya sonunda kesilmiş
+        assertRejected(write(FTYP, concat(ints(1), ascii("mdat"), ints(0))));
+    }
+
+    private static void assertRejected(File file) {
+        assertThatThrownBy(() -> Mp4IndexParser.parse(file, MAX_MOOV)).isInstanceOf(IOException.class);
+    }
+
+    private static void assertKeyframe(SeekIndex index, int keyframe, long millis, long offset) {
+        assertThat(index.keyframeMillis(keyframe)).isEqualTo(millis);
+        assertThat(index.keyframeOffset(keyframe)).isEqualTo(offset);
+    }
+
+    /**
+     * ftyp + moov + mdat; chunk offset'leri moov boyutuna bağlı olduğundan moov iki kez üretilir
+     * (tablo boyutları offset değerinden bağımsızdır)
+     */
+    private Mp4 writeMoovBeforeMdat(LongFunction<byte[]> moov) throws IOException {
+        long base = FTYP.length + moov.apply(0).length + 8;
+        byte[] box = moov.apply(base);
+        return new Mp4(write(FTYP, box, mdat()), base, box.length);
+    }
+
+    /**
+     * ftyp + mdat + moov (moov sonda)
+     */
+    private Mp4 writeMoovAfterMdat(LongFunction<byte[]> moov) throws IOException {
+        long base = FTYP.length + 8;
+        byte[] box = moov.apply(base);
+        return new Mp4(write(FTYP, mdat(), box), base, box.length);
+    }
+
+    private File write(byte[]... boxes) throws IOException {
+        return Files.write(Files.createTempFile(tempDir, "video", ".mp4"), concat(boxes)).toFile();
+    }
+
+    private static byte[] mdat() {
+        return box("mdat", new byte[MDAT_PAYLOAD]);
+    }
+
+    private static byte[] moov(byte[] mdhd, byte[] stbl) {
+        return box("moov", trak("vide", mdhd, stbl));
+    }
+
+    private static byte[] trak(String handler, byte[] mdhd, byte[] stbl) {
+        byte[] hdlr = box("hdlr", ints(0, 0), ascii(handler), ints(0, 0, 0), new byte[1]);
+        return box("trak", box("mdia", mdhd, hdlr, box("minf", stbl)));
+    }
+
+    private static byte[] stbl(byte[]... tables) {
+        return box("stbl", tables);
+    }
+
+    private static byte[] mdhd(int timescale, int duration) {
+        return box("mdhd", ints(0, 0, 0, timescale, duration, 0));
+    }
+
+    private static byte[] mdhdV1(int timescale, long duration) {
+        return box("mdhd", ints(1 << 24), longs(0, 0), ints(timescale), longs(duration), ints(0));
+    }
+
+    /**
+     * (sample sayısı, delta) çiftleri
+     */
+    private static byte[] stts(int... entries) {
+        return box("stts", ints(0, entries.length / 2), ints(entries));
+    }
+
+    private static byte[] stss(int... samples) {
+        return box("stss", ints(0, samples.length), ints(samples));
+    }
+
+    /**
+     * (ilk chunk, chunk başına sample) çiftleri; sample description index 1
+     */
+    private static byte[] stsc(int... runs) {
+        ByteBuffer entries = ByteBuffer.allocate(runs.length / 2 * 12);
+        for (int i = 0; i < runs.length; i += 2) {
+            entries.putInt(runs[i]).putInt(runs[i + 1]).putInt(1);
+        }
+        return box("stsc", ints(0, runs.length / 2), entries.array());
+    }
+
+    private static byte[] stszUniform(int size, int count) {
+        return box("stsz", ints(0, size, count));
+    }
+
+    private static byte[] stszPerSample(int... sizes) {
+        return box("stsz", ints(0, 0, sizes.length), ints(sizes));
+    }
+
+    private static byte[] stco(long... offsets) {
+        int[] values = new int[offsets.length];
+        for (int i = 0; i < offsets.length; i++) {
+            values[i] = (int) offsets[i];
+        }
+        return box("stco", ints(0, offsets.length), ints(values));
+    }
+
+    private static byte[] co64(long... offsets) {
+        return box("co64", ints(0, offsets.length), longs(offsets));
+    }
+
+    private static byte[] box(String type, byte[]... payload) {
+        byte[] content = concat(payload);
+        return concat(ints(8 + content.length), ascii(type), content);
+    }
+
+    private static byte[] ints(int... values) {
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * Integer.BYTES);
+        for (int value : values) {
+            buffer.putInt(value);
+        }
+        return buffer.array();
+    }
+
+    private static byte[] longs(long... values) {
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * Long.BYTES);
+        for (long value : values) {
+            buffer.putLong(value);
+        }
+        return buffer.array();
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            out.writeBytes(part);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Yazılan dosya, mdat payload'ının offset'i ve moov box boyutu
+     */
+    private record Mp4(File file, long base, long moovSize) {
+    }
+}
@@ -0,0 +1,48 @@
+package com.microservices.video_streaming_service.service;
+
+import com.microservices.video_streaming_service.service.Mp4SeekIndex.SeekIndex;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * SeekIndex.floor: istenen zamandan önceki (veya tam o andaki) son keyframe
+ */
+class Mp4SeekIndexTest {
+
+    private final SeekIndex index = new SeekIndex(new int[]{0, 2000, 2000, 4000}, new long[]{48, 900, 950, 2000},
+            24, 16, 4096, 6000);
+
+    @Test
+    void floorAtZeroIsFirstKeyframe() {
+        assertThat(index.floor(0)).isZero();
+    }
+
+    @Test
+    void floorOnKeyframeTimeReturnsThatKeyframe() {
+        assertThat(index.floor(4000)).isEqualTo(3);
+        // Aynı zamanlı keyframe'lerden ilki
+        assertThat(index.floor(2000)).isEqualTo(1);
+    }
+
+    @Test
+    void floorBetweenKeyframesReturnsPreviousKeyframe() {
+        assertThat(index.floor(1999)).isZero();
+        assertThat(index.floor(3999)).isEqualTo(2);
+        assertThat(index.keyframeOffset(index.floor(3000))).isEqualTo(950);
+    }
+
+    @Test
+    void floorPastEndReturnsLastKeyframe() {
+        assertThat(index.floor(60_000)).isEqualTo(3);
+        assertThat(index.floor(Long.MAX_VALUE)).isEqualTo(3);
+    }
+
+    @Test
+    void floorBeforeFirstKeyframeReturnsFirstKeyframe() {
+        SeekIndex delayed = new SeekIndex(new int[]{40, 2040}, new long[]{48, 900}, 24, 16, 4096, 4000);
+
+        assertThat(delayed.floor(0)).isZero();
+        assertThat(delayed.floor(-1)).isZero();
+    }
+}
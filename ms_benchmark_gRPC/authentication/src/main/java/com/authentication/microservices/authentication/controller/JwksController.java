@@ -0,0 +1,70 @@
+package com.authentication.microservices.authentication.controller;
+
+import com.authentication.microservices.authentication.security.JwtKeyManager;
+import com.authentication.microservices.authentication.security.TokenDenylist;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JWKS Controller - Authentication Microservice
+ * Token doğrulama public key'lerini ve logout kayıtlarını yayınlar; gateway ve servisler periyodik olarak çeker.
+ * Gateway header'ı gerektirmez (bkz. GatewayVerificationFilter).
+ */
+@RestController
+@RequestMapping("/api/auth/.well-known")
+public class JwksController {
+
+    private final JwtKeyManager keyManager;
+    private final TokenDenylist tokenDenylist;
+
+    public JwksController(JwtKeyManager keyManager, TokenDenylist tokenDenylist) {
+        this.keyManager = keyManager;
+        this.tokenDenylist = tokenDenylist;
+    }
+
+    /**
+     * GET /api/auth/.well-known/jwks.json
+     */
+    @GetMapping("/jwks.json")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic())
+                .body(keyManager.getJwks());
+    }
+
+    /**
+     * GET /api/auth/.well-known/revocations?since={epochMillis}
+     * Sadece iç ağdan (gateway header'ı olmadan) erişilir. İstemci bir sonraki çağrıda
+     * dönen serverTime'ı since olarak gönderir; since yoksa süresi dolmamış tüm kayıtlar döner.
+     * revokedBefore / expiresAt epoch saniyedir.
+     */
+    @GetMapping("/revocations")
+    public ResponseEntity<Map<String, Object>> revocations(@RequestParam(required = false) Long since) {
+        long serverTime = System.currentTimeMillis();
+        List<Map<String, Object>> revocations = tokenDenylist
+                .changesSince(since != null ? Instant.ofEpochMilli(since) : null).stream()
+                .map(revocation -> Map.<String, Object>of(
+                        "userId", revocation.getUserId(),
+                        "revokedBefore", epochSeconds(revocation.getRevokedBefore()),
+                        "expiresAt", epochSeconds(revocation.getExpiresAt())))
+                .toList();
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(Map.of("serverTime", serverTime, "revocations", revocations));
+    }
+
+    private static long epochSeconds(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toEpochSecond();
+    }
+}
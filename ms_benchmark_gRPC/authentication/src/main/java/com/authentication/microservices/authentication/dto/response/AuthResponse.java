@@ -6,6 +6,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 /**
  * Auth Response DTO
  */
@@ -16,6 +18,7 @@ import lombok.NoArgsConstructor;
 public class AuthResponse {
     
     private String token;
+    private LocalDateTime tokenExpiresAt;
     private User user;
 }
 
@@ -0,0 +1,11 @@
+package com.authentication.microservices.authentication.exception;
+
+/**
+ * Too Many Requests Exception
+ */
+public class TooManyRequestsException extends RuntimeException {
+    
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,55 @@
+package com.authentication.microservices.authentication.repository;
+
+import com.authentication.microservices.authentication.entity.ProfileProvisioningOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * ProfileProvisioningOutbox Repository - Authentication Microservice
+ */
+@Repository
+public interface ProfileProvisioningOutboxRepository extends JpaRepository<ProfileProvisioningOutbox, Long> {
+
+    /**
+     * Zamanı gelmiş kayıtları kilitle; başka instance'ın kilitlediği satırlar atlanır
+     */
+    @Query(value = "SELECT * FROM profile_provisioning_outbox WHERE status = 'PENDING' AND next_attempt_at <= :now " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<ProfileProvisioningOutbox> findDueForUpdate(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE ProfileProvisioningOutbox o SET o.nextAttemptAt = :leaseUntil WHERE o.id IN :ids")
+    int lease(@Param("ids") Collection<Long> ids, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE ProfileProvisioningOutbox o SET o.status = :status, o.deliveredAt = :now, " +
+            "o.attempts = o.attempts + 1, o.lastError = null WHERE o.id = :id")
+    int markDelivered(@Param("id") Long id,
+                      @Param("status") ProfileProvisioningOutbox.Status status,
+                      @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE ProfileProvisioningOutbox o SET o.status = :status, o.attempts = o.attempts + 1, " +
+            "o.nextAttemptAt = :nextAttemptAt, o.lastError = :error WHERE o.id = :id")
+    int markAttemptFailed(@Param("id") Long id,
+                          @Param("status") ProfileProvisioningOutbox.Status status,
+                          @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                          @Param("error") String error);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ProfileProvisioningOutbox o WHERE o.status = :status AND o.deliveredAt < :before")
+    int purgeByStatusBefore(@Param("status") ProfileProvisioningOutbox.Status status,
+                             @Param("before") LocalDateTime before);
+}
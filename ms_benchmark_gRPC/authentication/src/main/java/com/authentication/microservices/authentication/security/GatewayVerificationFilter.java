@@ -36,6 +36,10 @@ public class GatewayVerificationFilter implements Filter {
     private static final Logger log = LoggerFactory.getLogger(GatewayVerificationFilter.class);
     private static final String GATEWAY_HEADER = "X-Gateway-Request";
     private static final String GATEWAY_HEADER_VALUE = "true";
+    // Public key'ler servisler tarafından doğrudan çekilir
+    private static final String JWKS_PATH = "/api/auth/.well-known/jwks.json";
+    // Logout kayıtları sadece iç ağdan çekilir; gateway üzerinden (dışarıdan) gelen istek reddedilir
+    private static final String REVOCATIONS_PATH = "/api/auth/.well-known/revocations";
 
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
@@ -49,12 +53,22 @@ public class GatewayVerificationFilter implements Filter {
         String method = httpRequest.getMethod();
 
         // Actuator health endpoint'leri ve Custom Health check için bypass
-        if (requestURI.startsWith("/actuator/health") || requestURI.equals("/api/auth/health")) {
+        if (requestURI.startsWith("/actuator/health") || requestURI.equals("/api/auth/health")
+                || requestURI.equals(JWKS_PATH)) {
             log.debug("Health check request - bypassing gateway verification");
             chain.doFilter(request, response);
             return;
         }
 
+        if (requestURI.equals(REVOCATIONS_PATH)) {
+            if (gatewayHeader != null) {
+                httpResponse.sendError(HttpServletResponse.SC_NOT_FOUND);
+                return;
+            }
+            chain.doFilter(request, response);
+            return;
+        }
+
         // Gateway header kontrolü
         if (!GATEWAY_HEADER_VALUE.equals(gatewayHeader)) {
             log.warn("⚠️ SECURITY ALERT: Direct service access attempt blocked! " +
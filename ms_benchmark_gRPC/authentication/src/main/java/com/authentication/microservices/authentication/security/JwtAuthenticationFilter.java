@@ -1,5 +1,6 @@
 package com.authentication.microservices.authentication.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -21,9 +22,11 @@ import java.util.ArrayList;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider tokenProvider;
+    private final TokenDenylist tokenDenylist;
 
-    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider) {
+    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider, TokenDenylist tokenDenylist) {
         this.tokenProvider = tokenProvider;
+        this.tokenDenylist = tokenDenylist;
     }
 
     @Override
@@ -33,9 +36,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String userId = tokenProvider.getUserIdFromToken(jwt);
-                String email = tokenProvider.getEmailFromToken(jwt);
+            Claims claims = StringUtils.hasText(jwt) ? tokenProvider.getValidClaims(jwt) : null;
+            String userId = claims != null ? claims.get("userId", String.class) : null;
+
+            // Logout ile geçersiz kılınan token'lar (stateless login) kabul edilmez
+            if (claims != null && !tokenDenylist.isRevoked(userId, claims.getIssuedAt())) {
+                String email = claims.getSubject();
 
                 // Create authentication object
                 UsernamePasswordAuthenticationToken authentication =
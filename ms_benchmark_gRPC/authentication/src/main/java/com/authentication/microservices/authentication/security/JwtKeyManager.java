@@ -0,0 +1,192 @@
+package com.authentication.microservices.authentication.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.stereotype.Component;
+
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * JWT Key Manager - Authentication Microservice
+ * Token'lar ES256 (P-256) ile imzalanır; header'daki kid doğrulayıcının hangi public key'i
+ * kullanacağını belirtir. Public key'ler JWKS olarak yayınlanır (bkz. JwksController), gateway ve
+ * servisler token'ı paylaşılan bir secret olmadan yerelde doğrular.
+ *
+ * Rotasyon: yeni key önce additional-public-keys ile yayınlanır, doğrulayıcılar cache'lerini
+ * yeniledikten sonra imzalama key'i değiştirilir; eski key token ömrü dolana kadar listede kalır.
+ *
+ * Key yapılandırılmamışsa uygulama açılmaz; sadece local / dev profilinde geçici bir key üretilir
+ * (token'lar restart sonrası geçersiz olur, birden fazla instance aynı key'i paylaşmaz).
+ */
+@Component
+public class JwtKeyManager {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtKeyManager.class);
+
+    private static final String CURVE = "secp256r1";
+    private static final int COORDINATE_LENGTH = 32;
+    private static final Profiles EPHEMERAL_KEY_PROFILES = Profiles.of("local", "dev");
+
+    private final String signingKeyId;
+    private final PrivateKey signingKey;
+    private final Map<String, PublicKey> verificationKeys;
+    private final Map<String, Object> jwks;
+
+    public JwtKeyManager(
+            Environment environment,
+            @Value("${app.jwt.signing.key-id:}") String keyId,
+            @Value("${app.jwt.signing.private-key:}") String privateKey,
+            @Value("${app.jwt.signing.public-key:}") String publicKey,
+            @Value("${app.jwt.signing.additional-public-keys:}") String additionalPublicKeys) {
+        Map<String, PublicKey> keys = new LinkedHashMap<>();
+
+        if (privateKey.isBlank()) {
+            if (!environment.acceptsProfiles(EPHEMERAL_KEY_PROFILES)) {
+                throw new IllegalStateException("No JWT signing key configured: set app.jwt.signing.key-id, " +
+                        "private-key and public-key (JWT_SIGNING_*); " +
+                        "ephemeral keys are only allowed with the local or dev profile");
+            }
+            KeyPair keyPair = generateKeyPair();
+            this.signingKeyId = keyId.isBlank() ? "ephemeral-" + UUID.randomUUID().toString().substring(0, 8) : keyId;
+            this.signingKey = keyPair.getPrivate();
+            keys.put(signingKeyId, keyPair.getPublic());
+            log.warn("No JWT signing key configured, generated ephemeral ES256 key (kid={}). " +
+                    "Tokens will not survive restarts (profile local/dev only)", signingKeyId);
+        } else {
+            if (keyId.isBlank() || publicKey.isBlank()) {
+                throw new IllegalStateException("app.jwt.signing.key-id and app.jwt.signing.public-key are required");
+            }
+            this.signingKeyId = keyId;
+            this.signingKey = decodePrivateKey(privateKey);
+            keys.put(signingKeyId, decodePublicKey(publicKey));
+        }
+
+        // Rotasyon: "kid1:base64,kid2:base64"
+        for (String entry : additionalPublicKeys.split(",")) {
+            String trimmed = entry.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            int separator = trimmed.indexOf(':');
+            if (separator <= 0) {
+                throw new IllegalStateException("Invalid app.jwt.signing.additional-public-keys entry: " + trimmed);
+            }
+            keys.putIfAbsent(trimmed.substring(0, separator), decodePublicKey(trimmed.substring(separator + 1)));
+        }
+
+        this.verificationKeys = Collections.unmodifiableMap(keys);
+        this.jwks = buildJwks(keys);
+        log.info("JWT signing: alg=ES256, kid={}, published keys={}", signingKeyId, keys.keySet());
+    }
+
+    public String getSigningKeyId() {
+        return signingKeyId;
+    }
+
+    public PrivateKey getSigningKey() {
+        return signingKey;
+    }
+
+    /**
+     * kid'e ait public key (bilinmiyorsa null)
+     */
+    public PublicKey getVerificationKey(String keyId) {
+        return keyId == null ? null : verificationKeys.get(keyId);
+    }
+
+    /**
+     * RFC 7517 JWK Set: {"keys": [...]}
+     */
+    public Map<String, Object> getJwks() {
+        return jwks;
+    }
+
+    private static Map<String, Object> buildJwks(Map<String, PublicKey> keys) {
+        List<Map<String, Object>> jwkList = new ArrayList<>();
+        keys.forEach((kid, key) -> {
+            ECPublicKey ecKey = (ECPublicKey) key;
+            Map<String, Object> jwk = new LinkedHashMap<>();
+            jwk.put("kty", "EC");
+            jwk.put("crv", "P-256");
+            jwk.put("alg", "ES256");
+            jwk.put("use", "sig");
+            jwk.put("kid", kid);
+            jwk.put("x", encodeCoordinate(ecKey.getW().getAffineX()));
+            jwk.put("y", encodeCoordinate(ecKey.getW().getAffineY()));
+            jwkList.add(Collections.unmodifiableMap(jwk));
+        });
+        return Map.of("keys", List.copyOf(jwkList));
+    }
+
+    /**
+     * Koordinatı sabit 32 byte (işaretsiz, big-endian) base64url olarak yaz
+     */
+    private static String encodeCoordinate(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        byte[] fixed = new byte[COORDINATE_LENGTH];
+        int length = Math.min(bytes.length, COORDINATE_LENGTH);
+        System.arraycopy(bytes, bytes.length - length, fixed, COORDINATE_LENGTH - length, length);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(fixed);
+    }
+
+    private static KeyPair generateKeyPair() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec(CURVE));
+            return generator.generateKeyPair();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("EC key pair could not be generated", e);
+        }
+    }
+
+    /**
+     * Base64 PKCS#8 (PEM başlıkları olmadan)
+     */
+    private static PrivateKey decodePrivateKey(String base64) {
+        try {
+            return KeyFactory.getInstance("EC").generatePrivate(new PKCS8EncodedKeySpec(decodeBase64(base64)));
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid JWT signing private key", e);
+        }
+    }
+
+    /**
+     * Base64 X.509 SubjectPublicKeyInfo (PEM başlıkları olmadan); sadece P-256 kabul edilir
+     */
+    private static PublicKey decodePublicKey(String base64) {
+        try {
+            PublicKey key = KeyFactory.getInstance("EC").generatePublic(new X509EncodedKeySpec(decodeBase64(base64)));
+            if (((ECPublicKey) key).getParams().getCurve().getField().getFieldSize() != 256) {
+                throw new IllegalStateException("JWT public key must be on curve P-256");
+            }
+            return key;
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid JWT public key", e);
+        }
+    }
+
+    private static byte[] decodeBase64(String value) {
+        String body = value.replaceAll("-----[A-Z ]+-----", "").replaceAll("\\s", "");
+        return Base64.getDecoder().decode(body);
+    }
+}
@@ -1,5 +1,6 @@
 package com.authentication.microservices.authentication.security;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -32,13 +33,16 @@ public class SecurityConfig {
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
     private final JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint;
     private final UserDetailsService userDetailsService;
+    private final int bcryptStrength;
 
     public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter,
                           JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint,
-                          UserDetailsService userDetailsService) {
+                          UserDetailsService userDetailsService,
+                          @Value("${app.auth.bcrypt.strength:4}") int bcryptStrength) {
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
         this.jwtAuthenticationEntryPoint = jwtAuthenticationEntryPoint;
         this.userDetailsService = userDetailsService;
+        this.bcryptStrength = bcryptStrength;
     }
 
     @Bean
@@ -58,6 +62,7 @@ public class SecurityConfig {
                         .requestMatchers("/api/auth/login").permitAll()
                         .requestMatchers("/api/auth/google/login").permitAll()
                         .requestMatchers("/api/auth/health").permitAll()
+                        .requestMatchers("/api/auth/.well-known/**").permitAll()
                         .requestMatchers("/auth/**").permitAll()
                         .requestMatchers("/actuator/**").permitAll()
                         .requestMatchers("/error").permitAll()
@@ -98,9 +103,12 @@ public class SecurityConfig {
         return source;
     }
 
+    /**
+     * BCrypt cost app.auth.bcrypt.strength ile ayarlanır; eski cost'lu hash'ler login'de yeniden üretilir
+     */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(4);
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
 }
 
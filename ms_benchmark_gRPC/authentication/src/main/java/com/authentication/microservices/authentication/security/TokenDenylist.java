@@ -0,0 +1,161 @@
+package com.authentication.microservices.authentication.security;
+
+import com.authentication.microservices.authentication.entity.TokenRevocation;
+import com.authentication.microservices.authentication.repository.TokenRevocationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Token Denylist - Authentication Microservice
+ * Stateless login'de logout sonrası token'ları geçersiz kılar.
+ *
+ * - Bellekte kullanıcı başına tek kayıt tutulur: userId -> revokedBefore. iat'i bu andan önce olan
+ *   token'lar reddedilir; kayıt token ömrü dolunca silinir.
+ * - DB'ye sadece logout'ta yazılır (token_revocations); diğer instance'lar updatedAt üzerinden
+ *   periyodik olarak senkronize olur (en fazla sync-interval gecikme).
+ * - JWT iat saniye hassasiyetinde olduğundan revokedBefore bir sonraki saniyeye yuvarlanır;
+ *   aynı saniyede yapılan yeni login'in iat'i issueTime ile bu sınıra çekilir.
+ * - Gateway ve servisler aynı kayıtları revocations endpoint'inden artımlı olarak çeker
+ *   (bkz. JwksController, changesSince); token'ı kendileri doğruladıkları için auth servisine sormazlar.
+ *
+ * Metrikler: auth.denylist.size
+ */
+@Component
+public class TokenDenylist {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenDenylist.class);
+
+    // Instance'lar arası saat farkı ve geç commit'ler için senkronizasyon penceresi payı
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
+    private final TokenRevocationRepository revocationRepository;
+    private final Duration tokenLifetime;
+    private final Map<String, Instant> revokedBefore = new ConcurrentHashMap<>();
+    private volatile LocalDateTime lastSync;
+
+    public TokenDenylist(TokenRevocationRepository revocationRepository,
+                         MeterRegistry meterRegistry,
+                         @Value("${app.jwt.expiration}") long jwtExpiration) {
+        this.revocationRepository = revocationRepository;
+        this.tokenLifetime = Duration.ofMillis(jwtExpiration);
+        meterRegistry.gaugeMapSize("auth.denylist.size", Tags.empty(), revokedBefore);
+    }
+
+    /**
+     * Açılışta süresi dolmamış tüm kayıtları yükle
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        LocalDateTime now = LocalDateTime.now();
+        revocationRepository.findByExpiresAtAfter(now).forEach(this::apply);
+        lastSync = now;
+        log.info("Token denylist loaded: {} entries", revokedBefore.size());
+    }
+
+    /**
+     * Token logout ile geçersiz kılınmış mı?
+     */
+    public boolean isRevoked(String userId, Date issuedAt) {
+        if (userId == null) {
+            return false;
+        }
+        Instant cutoff = revokedBefore.get(userId);
+        return cutoff != null && (issuedAt == null || issuedAt.toInstant().isBefore(cutoff));
+    }
+
+    /**
+     * Yeni token için iat: logout ile aynı saniyede üretilen token reddedilmesin
+     */
+    public Instant issueTime(String userId) {
+        Instant now = Instant.now();
+        Instant cutoff = revokedBefore.get(userId);
+        return cutoff != null && now.isBefore(cutoff) ? cutoff : now;
+    }
+
+    /**
+     * Kullanıcının şu ana kadar üretilmiş tüm token'larını geçersiz kıl (tek DB yazması)
+     */
+    public void revoke(String userId) {
+        Instant cutoff = Instant.now().truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+        revocationRepository.save(TokenRevocation.builder()
+                .userId(userId)
+                .revokedBefore(toLocalDateTime(cutoff))
+                .expiresAt(toLocalDateTime(cutoff.plus(tokenLifetime)))
+                .updatedAt(LocalDateTime.now())
+                .build());
+        revokedBefore.merge(userId, cutoff, (current, next) -> next.isAfter(current) ? next : current);
+    }
+
+    /**
+     * Verilen andan beri yazılmış kayıtlar (since null ise süresi dolmamış tüm kayıtlar)
+     * Senkronizasyon payı kadar geriden okunur; tekrar gelen kayıtlar istemcide merge edilir.
+     */
+    public List<TokenRevocation> changesSince(Instant since) {
+        LocalDateTime now = LocalDateTime.now();
+        if (since == null) {
+            return revocationRepository.findByExpiresAtAfter(now);
+        }
+        return revocationRepository.findByUpdatedAtAfter(toLocalDateTime(since.minus(SYNC_OVERLAP))).stream()
+                .filter(revocation -> revocation.getExpiresAt().isAfter(now))
+                .toList();
+    }
+
+    /**
+     * Diğer instance'larda yapılan logout'ları al, süresi dolan kayıtları bellekten at
+     */
+    @Scheduled(fixedDelayString = "${app.auth.denylist.sync-interval-ms:5000}",
+            initialDelayString = "${app.auth.denylist.sync-interval-ms:5000}")
+    public void sync() {
+        if (lastSync == null) {
+            return;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            revocationRepository.findByUpdatedAtAfter(lastSync.minus(SYNC_OVERLAP)).forEach(this::apply);
+            lastSync = now;
+
+            Instant expiredBefore = Instant.now().minus(tokenLifetime);
+            revokedBefore.values().removeIf(cutoff -> cutoff.isBefore(expiredBefore));
+        } catch (RuntimeException e) {
+            log.warn("Token denylist sync failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Süresi dolan kayıtları DB'den sil
+     */
+    @Scheduled(cron = "${app.auth.denylist.cleanup-cron:0 0 * * * *}")
+    public void purgeExpired() {
+        int deleted = revocationRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.info("Purged {} expired token revocations", deleted);
+        }
+    }
+
+    private void apply(TokenRevocation revocation) {
+        Instant cutoff = revocation.getRevokedBefore().atZone(ZoneId.systemDefault()).toInstant();
+        revokedBefore.merge(revocation.getUserId(), cutoff,
+                (current, next) -> next.isAfter(current) ? next : current);
+    }
+
+    private static LocalDateTime toLocalDateTime(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,234 @@
+package com.authentication.microservices.authentication.service;
+
+import com.authentication.microservices.authentication.grpc.UserServiceGrpcClient;
+import com.authentication.microservices.authentication.entity.ProfileProvisioningOutbox;
+import com.authentication.microservices.authentication.repository.ProfileProvisioningOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Profile Provisioning Relay - Authentication Microservice
+ * Kayıt sırasında outbox'a yazılan profil isteklerini User Service'e teslim eder.
+ *
+ * - register / googleLogin kullanıcıyı ve outbox kaydını tek transaction'da yazar; User Service
+ *   erişilemese de kayıt başarılı olur, compensating delete gerekmez.
+ * - Relay zamanı gelmiş kayıtları batch halinde FOR UPDATE SKIP LOCKED ile claim eder ve lease süresi
+ *   boyunca diğer instance'lardan saklar. Teslimat at-least-once'dır; User Service createUserProfile idempotent.
+ * - Hata alan kayıt üstel backoff (jitter'lı) ile tekrar denenir, max-attempts sonra FAILED olur.
+ *   Batch içinde art arda hata alınırsa (User Service down) kalan kayıtlar beklemeden bırakılır.
+ *
+ * Metrikler: auth.provisioning.outbox{result=delivered|retry|failed}
+ */
+@Service
+public class ProfileProvisioningRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(ProfileProvisioningRelay.class);
+
+    private static final int MAX_CONSECUTIVE_FAILURES = 3;
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final ProfileProvisioningOutboxRepository outboxRepository;
+    private final UserServiceGrpcClient userServiceGrpcClient;
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration lease;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration retention;
+    private final Counter deliveredCounter;
+    private final Counter retryCounter;
+    private final Counter failedCounter;
+
+    public ProfileProvisioningRelay(
+            ProfileProvisioningOutboxRepository outboxRepository,
+            UserServiceGrpcClient userServiceGrpcClient,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.auth.provisioning.enabled:true}") boolean enabled,
+            @Value("${app.auth.provisioning.batch-size:100}") int batchSize,
+            @Value("${app.auth.provisioning.max-attempts:20}") int maxAttempts,
+            @Value("${app.auth.provisioning.lease:1m}") Duration lease,
+            @Value("${app.auth.provisioning.initial-backoff:2s}") Duration initialBackoff,
+            @Value("${app.auth.provisioning.max-backoff:5m}") Duration maxBackoff,
+            @Value("${app.auth.provisioning.retention:7d}") Duration retention) {
+        this.outboxRepository = outboxRepository;
+        this.userServiceGrpcClient = userServiceGrpcClient;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.lease = lease;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.retention = retention;
+        this.deliveredCounter = meterRegistry.counter("auth.provisioning.outbox", "result", "delivered");
+        this.retryCounter = meterRegistry.counter("auth.provisioning.outbox", "result", "retry");
+        this.failedCounter = meterRegistry.counter("auth.provisioning.outbox", "result", "failed");
+    }
+
+    /**
+     * Profil isteğini outbox'a yaz (çağıranın transaction'ına katılır)
+     */
+    public void enqueue(String userId, String email, String firstName, String lastName) {
+        LocalDateTime now = LocalDateTime.now();
+        outboxRepository.save(ProfileProvisioningOutbox.builder()
+                .userId(userId)
+                .email(email)
+                .firstName(firstName)
+                .lastName(lastName)
+                .status(ProfileProvisioningOutbox.Status.PENDING)
+                .attempts(0)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build());
+    }
+
+    /**
+     * Periyodik çalıştırma
+     */
+    @Scheduled(fixedDelayString = "${app.auth.provisioning.relay-interval-ms:500}",
+            initialDelayString = "${app.auth.provisioning.relay-interval-ms:500}")
+    public void relayScheduled() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            relay();
+        } catch (RuntimeException e) {
+            log.error("Profile provisioning relay failed", e);
+        }
+    }
+
+    /**
+     * Zamanı gelmiş tüm kayıtları batch batch teslim et
+     *
+     * @return teslim edilen kayıt sayısı
+     */
+    public int relay() {
+        int delivered = 0;
+        while (true) {
+            List<ProfileProvisioningOutbox> batch = claimBatch();
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            int consecutiveFailures = 0;
+            for (int i = 0; i < batch.size(); i++) {
+                if (process(batch.get(i))) {
+                    delivered++;
+                    consecutiveFailures = 0;
+                } else if (++consecutiveFailures >= MAX_CONSECUTIVE_FAILURES) {
+                    // User Service büyük ihtimalle erişilemez: kalan kayıtları lease beklemeden ertele
+                    List<Long> remaining = batch.subList(i + 1, batch.size()).stream()
+                            .map(ProfileProvisioningOutbox::getId)
+                            .toList();
+                    if (!remaining.isEmpty()) {
+                        outboxRepository.lease(remaining, LocalDateTime.now().plus(initialBackoff));
+                    }
+                    return delivered;
+                }
+            }
+
+            if (batch.size() < batchSize) {
+                break;
+            }
+        }
+        return delivered;
+    }
+
+    /**
+     * Teslim edilmiş kayıtları saklama süresi sonunda sil
+     */
+    @Scheduled(cron = "${app.auth.provisioning.cleanup-cron:0 30 * * * *}")
+    public void purgeDelivered() {
+        int deleted = outboxRepository.purgeByStatusBefore(ProfileProvisioningOutbox.Status.DELIVERED,
+                LocalDateTime.now().minus(retention));
+        if (deleted > 0) {
+            log.info("Purged {} delivered profile provisioning records", deleted);
+        }
+    }
+
+    /**
+     * Batch'i kilitle ve lease süresi kadar ileri at (kısa transaction; teslimat transaction dışında)
+     */
+    private List<ProfileProvisioningOutbox> claimBatch() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<ProfileProvisioningOutbox> due = outboxRepository.findDueForUpdate(now, batchSize);
+            if (!due.isEmpty()) {
+                outboxRepository.lease(due.stream().map(ProfileProvisioningOutbox::getId).toList(), now.plus(lease));
+            }
+            return due;
+        });
+    }
+
+    /**
+     * Tek kaydı teslim et; sonucu outbox'a yaz
+     */
+    private boolean process(ProfileProvisioningOutbox entry) {
+        try {
+            deliver(entry);
+            outboxRepository.markDelivered(entry.getId(), ProfileProvisioningOutbox.Status.DELIVERED, LocalDateTime.now());
+            deliveredCounter.increment();
+            return true;
+        } catch (RuntimeException e) {
+            int attempts = entry.getAttempts() + 1;
+            boolean exhausted = attempts >= maxAttempts;
+            outboxRepository.markAttemptFailed(entry.getId(),
+                    exhausted ? ProfileProvisioningOutbox.Status.FAILED : ProfileProvisioningOutbox.Status.PENDING,
+                    LocalDateTime.now().plus(backoff(attempts)),
+                    truncate(e.getMessage()));
+
+            if (exhausted) {
+                failedCounter.increment();
+                log.error("Profile provisioning failed permanently for userId: {} after {} attempts",
+                        entry.getUserId(), attempts, e);
+            } else {
+                retryCounter.increment();
+                log.warn("Profile provisioning attempt {} failed for userId: {}: {}",
+                        attempts, entry.getUserId(), e.getMessage());
+            }
+            return false;
+        }
+    }
+
+    /**
+     * User Service'te profili oluştur (idempotent: profil zaten varsa mevcut profil döner)
+     */
+    private void deliver(ProfileProvisioningOutbox entry) {
+        userServiceGrpcClient.createUserProfile(entry.getUserId(), entry.getEmail(),
+                entry.getFirstName(), entry.getLastName());
+    }
+
+    /**
+     * initial-backoff * 2^(attempts-1), max-backoff ile sınırlı, ±%20 jitter
+     */
+    private Duration backoff(int attempts) {
+        long base = initialBackoff.toMillis() << Math.min(attempts - 1, 20);
+        long capped = Math.min(base, maxBackoff.toMillis());
+        long jitter = (long) (capped * 0.2 * (ThreadLocalRandom.current().nextDouble() * 2 - 1));
+        return Duration.ofMillis(Math.max(capped + jitter, 0));
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+}
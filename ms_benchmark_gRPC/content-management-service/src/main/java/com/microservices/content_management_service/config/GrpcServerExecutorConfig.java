@@ -0,0 +1,114 @@
+package com.microservices.content_management_service.config;
+
+import com.microservices.content_management_service.grpc.ServerLoadSheddingInterceptor;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallExecutorSupplier;
+import io.grpc.ServerStreamTracer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import net.devh.boot.grpc.server.serverfactory.GrpcServerConfigurer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded Executor for gRPC Server Handlers
+ * grpc-java'nın varsayılan sınırsız cached executor'ı yerine sabit boyutlu havuz kullanır.
+ *
+ * Sunucunun varsayılan executor'ı direct'tir; her çağrı için executor ServerLoadSheddingInterceptor.admit()
+ * kararına göre transport thread'inde seçilir (ServerCallExecutorSupplier). Kabul edilen çağrılar bu havuzda
+ * çalışır, reddedilenler kuyruğa girmeden transport thread'inde RESOURCE_EXHAUSTED ile kapatılır.
+ * Kabul edilen her çağrının havuzda en fazla bir görevi bulunduğundan (SerializingExecutor) kuyruk kapasitesi
+ * grpc.executor.max-concurrent-calls kadardır ve dolmaz; rejection handler yalnızca bu varsayımı korur.
+ *
+ * Metrikler: grpc.server.executor.queue, grpc.server.executor.active,
+ * grpc.server.executor.wait{service}, grpc.server.executor.rejected
+ */
+@Configuration
+public class GrpcServerExecutorConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(GrpcServerExecutorConfig.class);
+
+    private final ThreadPoolTaskExecutor executor;
+    private final Counter rejectedCounter;
+
+    public GrpcServerExecutorConfig(
+            MeterRegistry meterRegistry,
+            @Value("${grpc.executor.pool-size:64}") int poolSize,
+            @Value("${grpc.executor.max-concurrent-calls:256}") int maxConcurrentCalls) {
+        this.rejectedCounter = meterRegistry.counter("grpc.server.executor.rejected");
+
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(maxConcurrentCalls);
+        executor.setThreadNamePrefix("GrpcServer-");
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            rejectedCounter.increment();
+            log.error("gRPC server executor saturated beyond admitted calls (queue={})", pool.getQueue().size());
+            throw new RejectedExecutionException("gRPC server executor saturated");
+        });
+        executor.initialize();
+
+        ThreadPoolExecutor pool = executor.getThreadPoolExecutor();
+        meterRegistry.gauge("grpc.server.executor.queue", pool, p -> p.getQueue().size());
+        meterRegistry.gauge("grpc.server.executor.active", pool, ThreadPoolExecutor::getActiveCount);
+
+        log.info("gRPC server executor: poolSize={}, maxConcurrentCalls={}", poolSize, maxConcurrentCalls);
+    }
+
+    @Bean
+    public GrpcServerConfigurer executorServerConfigurer(MeterRegistry meterRegistry,
+                                                         ServerLoadSheddingInterceptor loadShedding) {
+        ServerStreamTracer.Factory queueWaitTracer = new ServerStreamTracer.Factory() {
+            @Override
+            public ServerStreamTracer newServerStreamTracer(String fullMethodName, Metadata headers) {
+                long createdAt = System.nanoTime();
+                return new ServerStreamTracer() {
+                    @Override
+                    public void serverCallStarted(ServerCallInfo<?, ?> callInfo) {
+                        // Transport thread'de oluşturuldu, handler thread'inde başladı: aradaki süre kuyruk bekleme süresi
+                        Timer.builder("grpc.server.executor.wait")
+                                .tag("service", String.valueOf(MethodDescriptor.extractFullServiceName(fullMethodName)))
+                                .register(meterRegistry)
+                                .record(System.nanoTime() - createdAt, TimeUnit.NANOSECONDS);
+                    }
+                };
+            }
+        };
+
+        Executor handlerExecutor = executor.getThreadPoolExecutor();
+        ServerCallExecutorSupplier admission = new ServerCallExecutorSupplier() {
+            @Override
+            public <ReqT, RespT> Executor getExecutor(ServerCall<ReqT, RespT> call, Metadata metadata) {
+                // null: varsayılan (direct) executor, yani reddedilen çağrı transport thread'inde kapatılır
+                return loadShedding.admit(call, metadata) ? handlerExecutor : null;
+            }
+        };
+
+        return serverBuilder -> {
+            // Method lookup ve executor seçimi varsayılan executor'da çalışır; direct olmalı ki
+            // karar kuyruktan önce verilsin
+            serverBuilder.directExecutor();
+            serverBuilder.callExecutor(admission);
+            serverBuilder.addStreamTracerFactory(queueWaitTracer);
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
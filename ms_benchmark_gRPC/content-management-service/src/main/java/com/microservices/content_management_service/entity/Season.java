@@ -13,6 +13,7 @@ import java.util.Set;
 /**
  * Season Entity - Content Management Service
  * TV dizilerinin sezonlarını temsil eder
+ * İndeksler Flyway migration'larındadır (db/migration)
  */
 @Entity
 @Table(name = "seasons")
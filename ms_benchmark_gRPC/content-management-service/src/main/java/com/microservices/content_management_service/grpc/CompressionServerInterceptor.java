@@ -0,0 +1,45 @@
+package com.microservices.content_management_service.grpc;
+
+import com.microservices.content_management_service.config.GrpcCompressionConfig;
+import io.grpc.ForwardingServerCall;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import net.devh.boot.grpc.server.interceptor.GrpcGlobalServerInterceptor;
+
+/**
+ * gRPC Server Compression Interceptor
+ * Yanıt codec'ini method adına göre seçer; eşiğin altındaki mesajları sıkıştırmaz.
+ * Client codec'i desteklemiyorsa (grpc-accept-encoding) gRPC otomatik olarak identity'ye düşer.
+ */
+@GrpcGlobalServerInterceptor
+public class CompressionServerInterceptor implements ServerInterceptor {
+
+    private final GrpcCompressionConfig compressionConfig;
+
+    public CompressionServerInterceptor(GrpcCompressionConfig compressionConfig) {
+        this.compressionConfig = compressionConfig;
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(
+            ServerCall<ReqT, RespT> call,
+            Metadata headers,
+            ServerCallHandler<ReqT, RespT> next) {
+
+        String codec = compressionConfig.codecFor(call.getMethodDescriptor().getFullMethodName());
+        if (codec == null) {
+            return next.startCall(call, headers);
+        }
+
+        call.setCompression(codec);
+        return next.startCall(new ForwardingServerCall.SimpleForwardingServerCall<>(call) {
+            @Override
+            public void sendMessage(RespT message) {
+                delegate().setMessageCompression(compressionConfig.shouldCompress(message));
+                super.sendMessage(message);
+            }
+        }, headers);
+    }
+}
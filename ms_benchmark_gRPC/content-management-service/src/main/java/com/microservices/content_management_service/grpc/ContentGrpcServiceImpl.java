@@ -1,8 +1,10 @@
 package com.microservices.content_management_service.grpc;
 
 import com.microservices.content_management_service.dto.response.ContentResponse;
+import com.microservices.content_management_service.exception.ResourceNotFoundException;
 import com.microservices.content_management_service.grpc.proto.*;
 import com.microservices.content_management_service.service.ContentService;
+import com.microservices.content_management_service.service.EpisodeService;
 import io.grpc.Status;
 import io.grpc.stub.StreamObserver;
 import net.devh.boot.grpc.server.service.GrpcService;
@@ -22,9 +24,11 @@ public class ContentGrpcServiceImpl extends ContentGrpcServiceGrpc.ContentGrpcSe
     private static final Logger log = LoggerFactory.getLogger(ContentGrpcServiceImpl.class);
 
     private final ContentService contentService;
+    private final EpisodeService episodeService;
 
-    public ContentGrpcServiceImpl(ContentService contentService) {
+    public ContentGrpcServiceImpl(ContentService contentService, EpisodeService episodeService) {
         this.contentService = contentService;
+        this.episodeService = episodeService;
     }
 
     /**
@@ -150,4 +154,75 @@ public class ContentGrpcServiceImpl extends ContentGrpcServiceGrpc.ContentGrpcSe
                             .asRuntimeException());
         }
     }
+
+    /**
+     * gRPC üzerinden episode ID'ye göre streaming bilgisi getir (hafif projection)
+     */
+    @Override
+    public void getEpisodeById(
+            GetEpisodeRequest request,
+            StreamObserver<com.microservices.content_management_service.grpc.proto.EpisodeFileResponse> responseObserver) {
+
+        log.debug("gRPC: Getting episode file for episodeId: {}", request.getEpisodeId());
+
+        try {
+            com.microservices.content_management_service.dto.response.EpisodeFileResponse result =
+                    episodeService.getEpisodeFile(request.getEpisodeId());
+
+            responseObserver.onNext(toGrpcEpisodeFile(result));
+            responseObserver.onCompleted();
+
+        } catch (ResourceNotFoundException e) {
+            responseObserver.onError(
+                    Status.NOT_FOUND
+                            .withDescription(e.getMessage())
+                            .asRuntimeException());
+        } catch (Exception e) {
+            log.error("gRPC: Failed to get episode file for episodeId: {}", request.getEpisodeId(), e);
+            responseObserver.onError(
+                    Status.INTERNAL
+                            .withDescription("Failed to get episode: " + e.getMessage())
+                            .asRuntimeException());
+        }
+    }
+
+    /**
+     * gRPC üzerinden season ID'ye göre aktif bölümlerin streaming bilgisini getir (sezon prefetch'i)
+     */
+    @Override
+    public void getEpisodesBySeasonId(
+            GetSeasonEpisodesRequest request,
+            StreamObserver<EpisodeFileListResponse> responseObserver) {
+
+        log.debug("gRPC: Getting episode files for seasonId: {}", request.getSeasonId());
+
+        try {
+            List<com.microservices.content_management_service.grpc.proto.EpisodeFileResponse> episodes = episodeService
+                    .getActiveEpisodeFilesBySeasonId(request.getSeasonId())
+                    .stream()
+                    .map(ContentGrpcServiceImpl::toGrpcEpisodeFile)
+                    .collect(Collectors.toList());
+
+            responseObserver.onNext(EpisodeFileListResponse.newBuilder().addAllEpisodes(episodes).build());
+            responseObserver.onCompleted();
+
+        } catch (Exception e) {
+            log.error("gRPC: Failed to get episode files for seasonId: {}", request.getSeasonId(), e);
+            responseObserver.onError(
+                    Status.INTERNAL
+                            .withDescription("Failed to get episodes: " + e.getMessage())
+                            .asRuntimeException());
+        }
+    }
+
+    private static com.microservices.content_management_service.grpc.proto.EpisodeFileResponse toGrpcEpisodeFile(
+            com.microservices.content_management_service.dto.response.EpisodeFileResponse episode) {
+        return com.microservices.content_management_service.grpc.proto.EpisodeFileResponse.newBuilder()
+                .setId(episode.getId())
+                .setSeasonId(episode.getSeasonId() != null ? episode.getSeasonId() : 0L)
+                .setEpisodeNumber(episode.getEpisodeNumber() != null ? episode.getEpisodeNumber() : 0)
+                .setVideoFilePath(episode.getVideoFilePath() != null ? episode.getVideoFilePath() : "")
+                .setIsActive(episode.getIsActive() != null ? episode.getIsActive() : false)
+                .build();
+    }
 }
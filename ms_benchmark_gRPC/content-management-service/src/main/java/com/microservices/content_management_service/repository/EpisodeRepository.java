@@ -1,5 +1,6 @@
 package com.microservices.content_management_service.repository;
 
+import com.microservices.content_management_service.dto.response.EpisodeFileResponse;
 import com.microservices.content_management_service.entity.Episode;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -32,6 +33,23 @@ public interface EpisodeRepository extends JpaRepository<Episode, Long> {
      */
     @Query("SELECT e FROM Episode e WHERE e.season.id = :seasonId AND e.episodeNumber = :episodeNumber AND e.deletedAt IS NULL")
     Optional<Episode> findBySeasonIdAndEpisodeNumber(@Param("seasonId") Long seasonId, @Param("episodeNumber") Integer episodeNumber);
+
+    /**
+     * Silinmemiş bölümün streaming bilgisi (projection, join yok)
+     */
+    @Query("SELECT new com.microservices.content_management_service.dto.response.EpisodeFileResponse(" +
+           "e.id, e.season.id, e.episodeNumber, e.videoFilePath, e.isActive) " +
+           "FROM Episode e WHERE e.id = :id AND e.deletedAt IS NULL")
+    Optional<EpisodeFileResponse> findEpisodeFileById(@Param("id") Long id);
+
+    /**
+     * Season ID'ye göre aktif bölümlerin streaming bilgisi (projection, join yok)
+     */
+    @Query("SELECT new com.microservices.content_management_service.dto.response.EpisodeFileResponse(" +
+           "e.id, e.season.id, e.episodeNumber, e.videoFilePath, e.isActive) " +
+           "FROM Episode e WHERE e.season.id = :seasonId AND e.deletedAt IS NULL AND e.isActive = true " +
+           "ORDER BY e.episodeNumber ASC")
+    List<EpisodeFileResponse> findActiveEpisodeFilesBySeasonId(@Param("seasonId") Long seasonId);
 }
 
 
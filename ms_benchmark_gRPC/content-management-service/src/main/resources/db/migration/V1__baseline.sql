@@ -0,0 +1,110 @@
+-- Content Management Service baseline şeması
+-- ddl-auto=update ile oluşturulmuş mevcut veritabanlarında bu dosya çalışmaz (baseline-on-migrate, baseline-version=1)
+
+create table contents (
+    id bigint generated by default as identity,
+    title varchar(255) not null,
+    description TEXT,
+    content_type varchar(20) not null check (content_type in ('MOVIE','TV_SERIES')),
+    release_year integer,
+    duration_minutes integer,
+    video_file_path TEXT not null,
+    poster_url TEXT,
+    thumbnail_url TEXT,
+    trailer_url TEXT,
+    rating NUMERIC(3,1),
+    age_rating varchar(10),
+    language varchar(10),
+    status varchar(20) not null check (status in ('DRAFT','PUBLISHED','COMING_SOON','ARCHIVED')),
+    is_featured boolean,
+    view_count bigint,
+    total_seasons integer,
+    is_active boolean,
+    created_at timestamp(6) not null,
+    updated_at timestamp(6),
+    deleted_at timestamp(6),
+    primary key (id)
+);
+
+create table genres (
+    id bigint generated by default as identity,
+    name varchar(100) not null,
+    description TEXT,
+    is_active boolean,
+    created_at timestamp(6) not null,
+    updated_at timestamp(6),
+    deleted_at timestamp(6),
+    primary key (id),
+    constraint uk_genres_name unique (name)
+);
+
+create table cast_crew (
+    id bigint generated by default as identity,
+    name varchar(255) not null,
+    biography TEXT,
+    profile_image_url TEXT,
+    role_type varchar(20) not null check (role_type in ('ACTOR','DIRECTOR','WRITER','PRODUCER')),
+    date_of_birth timestamp(6),
+    nationality varchar(100),
+    is_active boolean,
+    created_at timestamp(6) not null,
+    updated_at timestamp(6),
+    deleted_at timestamp(6),
+    primary key (id)
+);
+
+create table content_genres (
+    id bigint generated by default as identity,
+    content_id bigint not null,
+    genre_id bigint not null,
+    primary key (id),
+    constraint uk_content_genres_content_genre unique (content_id, genre_id),
+    constraint fk_content_genres_content foreign key (content_id) references contents,
+    constraint fk_content_genres_genre foreign key (genre_id) references genres
+);
+
+create table content_cast (
+    id bigint generated by default as identity,
+    content_id bigint not null,
+    cast_crew_id bigint not null,
+    character_name varchar(255),
+    role_type varchar(20) check (role_type in ('ACTOR','DIRECTOR','WRITER','PRODUCER')),
+    primary key (id),
+    constraint uk_content_cast_content_cast_crew unique (content_id, cast_crew_id),
+    constraint fk_content_cast_content foreign key (content_id) references contents,
+    constraint fk_content_cast_cast_crew foreign key (cast_crew_id) references cast_crew
+);
+
+create table seasons (
+    id bigint generated by default as identity,
+    content_id bigint not null,
+    season_number integer not null,
+    title varchar(255),
+    description TEXT,
+    release_year integer,
+    poster_url TEXT,
+    is_active boolean,
+    created_at timestamp(6) not null,
+    updated_at timestamp(6),
+    deleted_at timestamp(6),
+    primary key (id),
+    constraint fk_seasons_content foreign key (content_id) references contents
+);
+
+create table episodes (
+    id bigint generated by default as identity,
+    season_id bigint not null,
+    episode_number integer not null,
+    title varchar(255) not null,
+    description TEXT,
+    duration_minutes integer,
+    video_file_path TEXT not null,
+    thumbnail_url TEXT,
+    release_date timestamp(6),
+    is_active boolean,
+    created_at timestamp(6) not null,
+    updated_at timestamp(6),
+    deleted_at timestamp(6),
+    primary key (id),
+    constraint fk_episodes_season foreign key (season_id) references seasons
+);
@@ -0,0 +1,35 @@
+-- Listeleme sorguları yalnızca silinmemiş ve aktif kayıtları döner; partial indeksler bu kayıtları
+-- istenen sırada tutar (sort gerekmez, arşivlenen / silinen kayıtlar indekste yer kaplamaz)
+
+-- findAllActiveContents
+create index if not exists idx_content_live_created
+    on contents (created_at desc)
+    where deleted_at is null and is_active;
+
+-- findByContentTypeAndActive / findByStatusAndContentType
+create index if not exists idx_content_live_type_created
+    on contents (content_type, created_at desc)
+    where deleted_at is null and is_active;
+
+-- findFeaturedContents
+create index if not exists idx_content_live_featured_created
+    on contents (created_at desc)
+    where is_featured and deleted_at is null and is_active;
+
+-- findActiveSeasonsByContentId
+create index if not exists idx_season_content_live
+    on seasons (content_id, season_number)
+    where deleted_at is null and is_active;
+
+-- findActiveEpisodesBySeasonId / findActiveEpisodeFilesBySeasonId
+create index if not exists idx_episode_season_live
+    on episodes (season_id, episode_number)
+    where deleted_at is null and is_active;
+
+-- findAllActiveCastCrew / findByRoleType
+create index if not exists idx_cast_crew_live_name
+    on cast_crew (name)
+    where deleted_at is null and is_active;
+create index if not exists idx_cast_crew_live_role_name
+    on cast_crew (role_type, name)
+    where deleted_at is null and is_active;
@@ -0,0 +1,227 @@
+package com.microservices.benchmark.grpc;
+
+import io.grpc.Codec;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * gRPC codec benchmark'ı: mesaj boyutuna göre wire byte vs CPU
+ * Servislerde kayıtlı codec'ler (identity, gzip, BEST_SPEED deflate) katalog benzeri bir payload
+ * üzerinde ölçülür. grpc.compression.min-message-bytes eşiği ve grpc.compression.methods eşlemesi
+ * bu sonuçlara göre seçilir: sıkıştırmanın mesaj başına CPU maliyeti kazanılan wire byte'ına değmiyorsa
+ * eşiğin altında kalır.
+ *
+ * Çalıştırma:
+ *   mvn -B package && java -jar target/benchmarks.jar CompressionBenchmark
+ *
+ * Sonuçta ns/op CPU maliyetidir; wireBytes / uncompressedBytes ikincil metrikleri (op başına) sıkıştırma
+ * oranını verir.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class CompressionBenchmark {
+
+    @Param({"identity", "gzip", "deflate"})
+    public String codec;
+
+    @Param({"256", "1024", "4096", "65536"})
+    public int messageBytes;
+
+    private Codec selected;
+    private byte[] message;
+    private byte[] compressed;
+    private ByteArrayOutputStream sink;
+    private byte[] readBuffer;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        selected = switch (codec) {
+            case "identity" -> Codec.Identity.NONE;
+            case "gzip" -> new Codec.Gzip();
+            case "deflate" -> new FastDeflateCodec();
+            default -> throw new IllegalArgumentException("Unknown codec: " + codec);
+        };
+        message = CatalogPayload.generate(messageBytes);
+        sink = new ByteArrayOutputStream(messageBytes + 64);
+        compressed = compress(message);
+        readBuffer = new byte[8192];
+    }
+
+    @Benchmark
+    public int compress(WireCounters counters) throws IOException {
+        byte[] wire = compress(message);
+        counters.wireBytes += wire.length;
+        counters.uncompressedBytes += message.length;
+        return wire.length;
+    }
+
+    @Benchmark
+    public int decompress() throws IOException {
+        int total = 0;
+        try (InputStream in = selected.decompress(new ByteArrayInputStream(compressed))) {
+            int read;
+            while ((read = in.read(readBuffer)) > 0) {
+                total += read;
+            }
+        }
+        return total;
+    }
+
+    private byte[] compress(byte[] payload) throws IOException {
+        sink.reset();
+        try (OutputStream out = selected.compress(sink)) {
+            out.write(payload);
+        }
+        return sink.toByteArray();
+    }
+
+    /**
+     * Op başına wire / sıkıştırılmamış byte (JMH ikincil sonuç olarak raporlar)
+     */
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class WireCounters {
+
+        public long wireBytes;
+        public long uncompressedBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            wireBytes = 0;
+            uncompressedBytes = 0;
+        }
+    }
+
+    /**
+     * Servislerdeki FastDeflateCodec ile aynı (Deflater.BEST_SPEED); servis jar'ı Spring Boot fat jar
+     * olduğu için bağımlılık olarak eklenmez
+     */
+    static final class FastDeflateCodec implements Codec {
+
+        @Override
+        public String getMessageEncoding() {
+            return "deflate";
+        }
+
+        @Override
+        public OutputStream compress(OutputStream os) {
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            return new DeflaterOutputStream(os, deflater) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        deflater.end();
+                    }
+                }
+            };
+        }
+
+        @Override
+        public InputStream decompress(InputStream is) {
+            return new InflaterInputStream(is);
+        }
+    }
+
+    /**
+     * GetAllContents yanıtına benzer payload: protobuf string alanları (tag + uzunluk + UTF-8) olarak
+     * başlık, açıklama, tür, poster URL'i ve sayısal alanlar. Sabit seed ile tekrarlanabilir.
+     */
+    static final class CatalogPayload {
+
+        private static final String[] GENRES = {"Drama", "Comedy", "Action", "Documentary", "Thriller", "Sci-Fi"};
+        private static final String[] WORDS = {"the", "story", "of", "a", "family", "city", "journey", "secret",
+                "war", "love", "detective", "series", "season", "world", "young", "mystery", "life", "new"};
+
+        private CatalogPayload() {
+        }
+
+        static byte[] generate(int size) {
+            Random random = new Random(42);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(size + 512);
+            int id = 1;
+            while (out.size() < size) {
+                ByteArrayOutputStream content = new ByteArrayOutputStream();
+                varintField(content, 1, id);
+                stringField(content, 2, sentence(random, 2 + random.nextInt(4)));
+                stringField(content, 3, sentence(random, 15 + random.nextInt(30)));
+                stringField(content, 4, GENRES[random.nextInt(GENRES.length)]);
+                stringField(content, 5, "https://cdn.example.com/posters/" + id + "/w780.jpg");
+                varintField(content, 6, 1970 + random.nextInt(55));
+                varintField(content, 7, 60 + random.nextInt(120));
+                byte[] bytes = content.toByteArray();
+                tag(out, 1, 2);
+                varint(out, bytes.length);
+                out.write(bytes, 0, bytes.length);
+                id++;
+            }
+            byte[] all = out.toByteArray();
+            byte[] sized = new byte[size];
+            System.arraycopy(all, 0, sized, 0, size);
+            return sized;
+        }
+
+        private static String sentence(Random random, int words) {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < words; i++) {
+                if (i > 0) {
+                    sb.append(' ');
+                }
+                sb.append(WORDS[random.nextInt(WORDS.length)]);
+            }
+            return sb.toString();
+        }
+
+        private static void stringField(ByteArrayOutputStream out, int field, String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            tag(out, field, 2);
+            varint(out, bytes.length);
+            out.write(bytes, 0, bytes.length);
+        }
+
+        private static void varintField(ByteArrayOutputStream out, int field, long value) {
+            tag(out, field, 0);
+            varint(out, value);
+        }
+
+        private static void tag(ByteArrayOutputStream out, int field, int wireType) {
+            varint(out, ((long) field << 3) | wireType);
+        }
+
+        private static void varint(ByteArrayOutputStream out, long value) {
+            while ((value & ~0x7FL) != 0) {
+                out.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            out.write((int) value);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.microservices.jwt_verification;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * JWT Identity Filter
+ *
+ * Authorization: Bearer token taşıyan istekleri yerelde doğrular (ES256, JWKS public key cache'i)
+ * ve kimliği token'dan alır: X-User-Id / X-User-Email header'ları token claim'leriyle ezilir,
+ * böylece controller'lar gateway'in eklediği header'a güvenmek zorunda kalmaz.
+ * Geçersiz veya logout edilmiş (TokenRevocationCache) token 401 alır. Token taşımayan servisler arası
+ * çağrılar (Feign/gRPC) değişmeden geçer.
+ * Servlet tabanlı servislerde JwtVerificationAutoConfiguration ile kaydolur.
+ */
+@Order(2) // Servislerin GatewayVerificationFilter'ından (@Order(1)) sonra
+public class JwtIdentityFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtIdentityFilter.class);
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String USER_ID_HEADER = "X-User-Id";
+    private static final String USER_EMAIL_HEADER = "X-User-Email";
+
+    private final JwtParser jwtParser;
+    private final TokenRevocationCache revocationCache;
+    private final boolean enabled;
+
+    public JwtIdentityFilter(JwksKeyCache jwksKeyCache,
+                             TokenRevocationCache revocationCache,
+                             @Value("${app.jwt.issuer:netflix-clone-auth}") String issuer,
+                             @Value("${app.jwt.audience:netflix-clone-users}") String audience,
+                             @Value("${app.jwt.local-verification.enabled:true}") boolean enabled) {
+        this.jwtParser = Jwts.parser()
+                .keyLocator(jwksKeyCache)
+                .requireIssuer(issuer)
+                .requireAudience(audience)
+                .build();
+        this.revocationCache = revocationCache;
+        this.enabled = enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String authHeader = request.getHeader("Authorization");
+        if (!enabled || authHeader == null || !authHeader.startsWith(BEARER_PREFIX)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        Claims claims;
+        try {
+            claims = jwtParser.parseSignedClaims(authHeader.substring(BEARER_PREFIX.length())).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("JWT verification failed for {}: {}", request.getRequestURI(), e.getMessage());
+            reject(request, response);
+            return;
+        }
+
+        String userId = claims.get("userId", String.class);
+        if (userId == null || revocationCache.isRevoked(userId, claims.getIssuedAt())) {
+            reject(request, response);
+            return;
+        }
+
+        Map<String, String> identity = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        identity.put(USER_ID_HEADER, userId);
+        if (claims.getSubject() != null) {
+            identity.put(USER_EMAIL_HEADER, claims.getSubject());
+        }
+        chain.doFilter(new VerifiedIdentityRequest(request, identity), response);
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        response.getWriter().write(String.format(
+                "{\"error\": \"Unauthorized\", \"message\": \"Invalid or expired token\", " +
+                "\"status\": 401, \"path\": \"%s\", \"timestamp\": \"%s\"}",
+                request.getRequestURI(), java.time.Instant.now()));
+    }
+
+    /**
+     * Kimlik header'larını doğrulanmış token değerleriyle döndürür
+     */
+    private static class VerifiedIdentityRequest extends HttpServletRequestWrapper {
+
+        private final Map<String, String> identity;
+
+        VerifiedIdentityRequest(HttpServletRequest request, Map<String, String> identity) {
+            super(request);
+            this.identity = identity;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            String value = identity.get(name);
+            return value != null ? value : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            String value = identity.get(name);
+            return value != null ? Collections.enumeration(Set.of(value)) : super.getHeaders(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            Set<String> names = new LinkedHashSet<>(Collections.list(super.getHeaderNames()));
+            names.addAll(identity.keySet());
+            return Collections.enumeration(names);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.microservices.jwt_verification;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * JWT Verification Auto-Configuration
+ * Gateway ve servislerin ortak token doğrulama bileşenlerini kaydeder: JwksKeyCache (imza key'leri)
+ * ve TokenRevocationCache (logout kayıtları); servlet servislerinde ayrıca JwtIdentityFilter.
+ * Servis modülüne jwt-verification bağımlılığını eklemek yeterlidir; ayarlar app.jwt.* property'leriyle verilir.
+ */
+@AutoConfiguration(after = JacksonAutoConfiguration.class)
+@Import({JwksKeyCache.class, TokenRevocationCache.class})
+public class JwtVerificationAutoConfiguration {
+
+    /**
+     * Kimlik filter'ı sadece servlet uygulamalarında (API Gateway WebFlux'tır, token'ı kendi filter'ında doğrular)
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    @Import(JwtIdentityFilter.class)
+    static class ServletIdentityFilterConfiguration {
+    }
+}
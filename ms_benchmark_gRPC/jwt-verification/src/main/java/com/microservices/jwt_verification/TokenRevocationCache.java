@@ -0,0 +1,120 @@
+package com.microservices.jwt_verification;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token Revocation Cache
+ * Authentication servisindeki logout kayıtlarının (userId -> revokedBefore) yerel kopyası; logout
+ * edilmiş token'lar imzası geçerli olsa da reddedilir, request thread'i ağa çıkmaz.
+ *
+ * - Kayıtlar refresh-interval ile artımlı çekilir (since = bir önceki cevabın serverTime'ı); logout
+ *   en fazla bu kadar gecikmeyle etkili olur.
+ * - Süresi dolan kayıtlar (token ömrü geçmiş) bellekten atılır.
+ * - Liste henüz yüklenemediyse token'lar sadece imza ile doğrulanır (auth servisi ayakta değilken
+ *   tüm trafik durmasın); yenileme hataları loglanır.
+ */
+public class TokenRevocationCache {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationCache.class);
+
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final String revocationsUri;
+    private final long refreshIntervalMillis;
+    private final ScheduledExecutorService scheduler;
+    private final Map<String, Revocation> revocations = new ConcurrentHashMap<>();
+
+    private volatile Long serverTime;
+
+    public TokenRevocationCache(
+            ObjectMapper objectMapper,
+            @Value("${app.jwt.revocations-uri:http://authentication-service:8000/api/auth/.well-known/revocations}") String revocationsUri,
+            @Value("${app.jwt.revocations-refresh-interval:5s}") Duration refreshInterval) {
+        this.objectMapper = objectMapper;
+        this.revocationsUri = revocationsUri;
+        this.refreshIntervalMillis = refreshInterval.toMillis();
+        this.httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "RevocationRefresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::refresh, 0, refreshIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Token logout ile geçersiz kılınmış mı? (iat kullanıcının revokedBefore'undan önceyse)
+     */
+    public boolean isRevoked(String userId, Date issuedAt) {
+        if (userId == null) {
+            return false;
+        }
+        Revocation revocation = revocations.get(userId);
+        return revocation != null && (issuedAt == null || issuedAt.getTime() / 1000 < revocation.revokedBefore());
+    }
+
+    private void refresh() {
+        Long since = serverTime;
+        try {
+            URI uri = URI.create(since != null ? revocationsUri + "?since=" + since : revocationsUri);
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                    .timeout(Duration.ofSeconds(3))
+                    .GET()
+                    .build();
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                log.warn("Token revocation fetch failed: {} returned {}", revocationsUri, response.statusCode());
+                return;
+            }
+
+            JsonNode body = objectMapper.readTree(response.body());
+            for (JsonNode entry : body.path("revocations")) {
+                Revocation next = new Revocation(entry.path("revokedBefore").asLong(), entry.path("expiresAt").asLong());
+                revocations.merge(entry.path("userId").asText(), next,
+                        (current, candidate) -> candidate.revokedBefore() > current.revokedBefore() ? candidate : current);
+            }
+            long nowSeconds = System.currentTimeMillis() / 1000;
+            revocations.values().removeIf(revocation -> revocation.expiresAt() < nowSeconds);
+
+            if (since == null) {
+                log.info("Token revocations loaded: {} entries", revocations.size());
+            }
+            serverTime = body.path("serverTime").asLong();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Token revocation fetch failed from {}: {}", revocationsUri, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Revocation(long revokedBefore, long expiresAt) {
+    }
+}
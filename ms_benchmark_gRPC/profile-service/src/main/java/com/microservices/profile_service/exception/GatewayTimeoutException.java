@@ -0,0 +1,12 @@
+package com.microservices.profile_service.exception;
+
+/**
+ * Gateway Timeout Exception
+ * Bağımlı servis zamanında cevap vermediğinde fırlatılır (504)
+ */
+public class GatewayTimeoutException extends RuntimeException {
+    
+    public GatewayTimeoutException(String message) {
+        super(message);
+    }
+}
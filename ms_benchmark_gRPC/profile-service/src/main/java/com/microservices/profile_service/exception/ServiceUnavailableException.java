@@ -0,0 +1,12 @@
+package com.microservices.profile_service.exception;
+
+/**
+ * Service Unavailable Exception
+ * Bağımlı servis erişilemez veya hata döndüğünde fırlatılır (503)
+ */
+public class ServiceUnavailableException extends RuntimeException {
+    
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
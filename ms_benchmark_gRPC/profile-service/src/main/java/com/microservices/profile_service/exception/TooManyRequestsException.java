@@ -0,0 +1,12 @@
+package com.microservices.profile_service.exception;
+
+/**
+ * Too Many Requests Exception
+ * Sunucu kapasitesi dolduğunda fırlatılır (429)
+ */
+public class TooManyRequestsException extends RuntimeException {
+    
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+}
@@ -7,9 +7,12 @@ import io.grpc.StatusRuntimeException;
 import net.devh.boot.grpc.client.inject.GrpcClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
 
 /**
  * gRPC Client for Subscription Service
@@ -24,6 +27,10 @@ public class SubscriptionServiceGrpcClient {
     @GrpcClient("subscription-service")
     private SubscriptionGrpcServiceGrpc.SubscriptionGrpcServiceBlockingStub subscriptionStub;
 
+    // Çağrı deadline'ı (AccountValidationService ile aynı timeout); sunucu tarafına da iletilir
+    @Value("${profile.validation.timeout:2s}")
+    private Duration deadline;
+
     /**
      * gRPC üzerinden kullanıcının aktif aboneliğini getir
      * 
@@ -41,6 +48,7 @@ public class SubscriptionServiceGrpcClient {
 
             // gRPC çağrısı yap
             com.microservices.profile_service.grpc.proto.SubscriptionResponse grpcResponse = subscriptionStub
+                    .withDeadlineAfter(deadline.toMillis(), TimeUnit.MILLISECONDS)
                     .getActiveSubscription(request);
 
             log.info("gRPC Client: Active subscription retrieved successfully for userId: {}", userId);
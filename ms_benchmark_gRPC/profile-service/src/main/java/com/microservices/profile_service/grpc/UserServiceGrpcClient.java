@@ -7,8 +7,12 @@ import io.grpc.StatusRuntimeException;
 import net.devh.boot.grpc.client.inject.GrpcClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
 /**
  * gRPC Client for User Service
  * User Service'e gRPC üzerinden bağlanır ve profil işlemlerini gerçekleştirir
@@ -21,6 +25,10 @@ public class UserServiceGrpcClient {
     @GrpcClient("user-service")
     private UserProfileGrpcServiceGrpc.UserProfileGrpcServiceBlockingStub userProfileStub;
 
+    // Çağrı deadline'ı (AccountValidationService ile aynı timeout); sunucu tarafına da iletilir
+    @Value("${profile.validation.timeout:2s}")
+    private Duration deadline;
+
     /**
      * gRPC üzerinden kullanıcı profilini getir
      * 
@@ -38,6 +46,7 @@ public class UserServiceGrpcClient {
 
             // gRPC çağrısı yap
             com.microservices.profile_service.grpc.proto.UserProfileResponse grpcResponse = userProfileStub
+                    .withDeadlineAfter(deadline.toMillis(), TimeUnit.MILLISECONDS)
                     .getUserProfileByUserId(request);
 
             log.info("gRPC Client: User profile retrieved successfully for userId: {}", grpcResponse.getUserId());
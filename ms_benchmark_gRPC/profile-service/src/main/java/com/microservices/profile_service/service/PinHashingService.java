@@ -0,0 +1,98 @@
+package com.microservices.profile_service.service;
+
+import com.microservices.profile_service.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PIN Hashing Service
+ * Profil PIN'lerini BCrypt ile Tomcat thread'leri yerine ayrı, çekirdek sayısıyla sınırlı bir havuzda
+ * hash'ler. Havuz doluysa veya iş timeout içinde başlayamazsa istek 429 ile hızlıca reddedilir.
+ * Sonuç CompletableFuture olarak döner; request thread'i hash'i beklemez.
+ *
+ * Metrikler: profile.pin-hashing.queue, profile.pin-hashing.active, profile.pin-hashing.wait,
+ * profile.pin-hashing.rejected{reason}
+ */
+@Service
+public class PinHashingService {
+
+    private static final Logger log = LoggerFactory.getLogger(PinHashingService.class);
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolTaskExecutor executor;
+    private final Duration timeout;
+    private final Timer waitTimer;
+    private final Counter queueFullCounter;
+    private final Counter timeoutCounter;
+
+    public PinHashingService(
+            MeterRegistry meterRegistry,
+            @Value("${profile.pin.bcrypt-strength:10}") int strength,
+            @Value("${profile.pin.hashing.threads:0}") int threads,
+            @Value("${profile.pin.hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${profile.pin.hashing.timeout:2s}") Duration timeout) {
+        this.passwordEncoder = new BCryptPasswordEncoder(strength);
+        this.timeout = timeout;
+        this.waitTimer = meterRegistry.timer("profile.pin-hashing.wait");
+        this.queueFullCounter = meterRegistry.counter("profile.pin-hashing.rejected", "reason", "queue-full");
+        this.timeoutCounter = meterRegistry.counter("profile.pin-hashing.rejected", "reason", "timeout");
+
+        // 0: çekirdeklerin yarısı
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("PinHash-");
+        executor.initialize();
+
+        ThreadPoolExecutor pool = executor.getThreadPoolExecutor();
+        meterRegistry.gauge("profile.pin-hashing.queue", pool, p -> p.getQueue().size());
+        meterRegistry.gauge("profile.pin-hashing.active", pool, ThreadPoolExecutor::getActiveCount);
+
+        log.info("PIN hashing executor: poolSize={}, queueCapacity={}, timeout={}, bcryptStrength={}",
+                poolSize, queueCapacity, timeout, strength);
+    }
+
+    /**
+     * PIN'i hash'le
+     */
+    public CompletableFuture<String> encode(String pin) {
+        long queuedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                long waited = System.nanoTime() - queuedAt;
+                waitTimer.record(waited, TimeUnit.NANOSECONDS);
+                if (waited > timeout.toNanos()) {
+                    timeoutCounter.increment();
+                    throw new TooManyRequestsException("Too many concurrent PIN updates, retry later");
+                }
+                return passwordEncoder.encode(pin);
+            }, executor);
+        } catch (TaskRejectedException e) {
+            queueFullCounter.increment();
+            throw new TooManyRequestsException("Too many concurrent PIN updates, retry later");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
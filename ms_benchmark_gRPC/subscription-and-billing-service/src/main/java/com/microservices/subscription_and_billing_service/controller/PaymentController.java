@@ -2,6 +2,7 @@ package com.microservices.subscription_and_billing_service.controller;
 
 import com.microservices.subscription_and_billing_service.dto.request.AddPaymentMethodRequest;
 import com.microservices.subscription_and_billing_service.dto.response.PaymentMethodResponse;
+import com.microservices.subscription_and_billing_service.service.IdempotencyService;
 import com.microservices.subscription_and_billing_service.service.PaymentService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
@@ -23,9 +24,11 @@ public class PaymentController {
     private static final Logger log = LoggerFactory.getLogger(PaymentController.class);
 
     private final PaymentService paymentService;
+    private final IdempotencyService idempotencyService;
 
-    public PaymentController(PaymentService paymentService) {
+    public PaymentController(PaymentService paymentService, IdempotencyService idempotencyService) {
         this.paymentService = paymentService;
+        this.idempotencyService = idempotencyService;
     }
 
     /**
@@ -49,14 +52,18 @@ public class PaymentController {
      * PROTECTED ENDPOINT - JWT token gerektirir
      * 
      * POST /api/payment/methods
+     * Opsiyonel Idempotency-Key header'ı: aynı key ile tekrar gelen istek kaydedilmiş yanıtı alır
      */
     @PostMapping("/methods")
     public ResponseEntity<PaymentMethodResponse> addPaymentMethod(
             @RequestHeader("X-User-Id") String userId,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @Valid @RequestBody AddPaymentMethodRequest request) {
         log.info("Received request to add payment method for userId: {}", userId);
         
-        PaymentMethodResponse paymentMethod = paymentService.addPaymentMethod(userId, request);
+        PaymentMethodResponse paymentMethod = idempotencyService.execute(userId, idempotencyKey,
+                "add-payment-method", request, PaymentMethodResponse.class,
+                () -> paymentService.addPaymentMethod(userId, request));
         
         return new ResponseEntity<>(paymentMethod, HttpStatus.CREATED);
     }
@@ -14,13 +14,10 @@ import java.time.LocalDateTime;
 /**
  * BillingHistory Entity
  * Kullanıcıların ödeme ve fatura geçmişini tutar
+ * İndeksler Flyway migration'larındadır (db/migration)
  */
 @Entity
-@Table(name = "billing_history", indexes = {
-    @Index(name = "idx_billing_user_id", columnList = "userId"),
-    @Index(name = "idx_billing_subscription_id", columnList = "subscriptionId"),
-    @Index(name = "idx_billing_payment_status", columnList = "paymentStatus")
-})
+@Table(name = "billing_history")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,67 @@
+package com.microservices.subscription_and_billing_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * BillingMonthlyAggregate Entity
+ * billing_history'nin aylık özeti: kullanıcı ve plan bazında ödeme sayısı, toplam tutar ve
+ * başarısız ödemeler. BillingRollupService tarafından artımlı olarak güncellenir;
+ * gelir / harcama sorguları ham tabloyu taramak yerine bu tablodan okunur.
+ * İndeksler Flyway migration'larındadır (db/migration)
+ */
+@Entity
+@Table(name = "billing_monthly_aggregates")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BillingMonthlyAggregate {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ScopeType scopeType;
+
+    @Column(nullable = false, length = 100)
+    private String scopeKey; // USER: userId, PLAN: planId
+
+    @Column(nullable = false)
+    private LocalDate periodMonth; // Ayın ilk günü
+
+    @Column(nullable = false, length = 3)
+    private String currency;
+
+    @Column(nullable = false)
+    private Long paymentCount; // Tüm ödeme denemeleri
+
+    @Column(nullable = false)
+    private Long successCount;
+
+    @Column(nullable = false)
+    private Long failureCount;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal successAmount; // Başarılı ödemelerin toplamı
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal failedAmount; // Başarısız ödemelerin toplamı
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    public enum ScopeType {
+        USER,
+        PLAN
+    }
+}
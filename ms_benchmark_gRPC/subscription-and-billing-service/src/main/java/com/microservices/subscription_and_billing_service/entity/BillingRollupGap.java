@@ -0,0 +1,31 @@
+package com.microservices.subscription_and_billing_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * BillingRollupGap Entity
+ * Rollup cursor'ının atladığı billing_history id'leri. IDENTITY id'ler commit sırasıyla görünmez:
+ * cursor ilerlerken henüz commit edilmemiş (veya rollback olmuş) id'ler burada tutulur ve
+ * sonraki çalıştırmalarda tekrar kontrol edilir. gap-timeout'tan eski kayıtlar rollback kabul edilip silinir.
+ * İndeksler Flyway migration'larındadır (db/migration)
+ */
+@Entity
+@Table(name = "billing_rollup_gaps")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BillingRollupGap {
+
+    @Id
+    private Long id; // billing_history.id
+
+    @Column(nullable = false)
+    private LocalDateTime detectedAt;
+}
@@ -0,0 +1,59 @@
+package com.microservices.subscription_and_billing_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * IdempotencyRecord Entity
+ * Idempotency-Key ile gelen subscribe / ödeme isteklerinin sonucunu tutar.
+ * (userId, idempotencyKey) unique index'i aynı isteğin iki kez çalışmasını engeller;
+ * tekrar gelen istekler kaydedilmiş yanıtı alır.
+ * İndeksler Flyway migration'larındadır (db/migration)
+ */
+@Entity
+@Table(name = "idempotency_keys")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String userId;
+
+    @Column(nullable = false, length = 100)
+    private String idempotencyKey;
+
+    @Column(nullable = false, length = 50)
+    private String operation; // subscribe, add-payment-method
+
+    @Column(nullable = false, length = 64)
+    private String requestHash; // SHA-256 (aynı key farklı istekle kullanılamaz)
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status;
+
+    @Column(columnDefinition = "TEXT")
+    private String responseBody; // JSON olarak saklanan yanıt
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column
+    private LocalDateTime completedAt;
+
+    public enum Status {
+        PENDING,    // İşleniyor
+        COMPLETED   // Yanıt kaydedildi
+    }
+}
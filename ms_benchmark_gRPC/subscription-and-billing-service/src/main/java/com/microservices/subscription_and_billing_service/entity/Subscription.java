@@ -5,6 +5,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -14,12 +16,10 @@ import java.time.LocalDateTime;
 /**
  * Subscription Entity
  * Kullanıcıların abonelik bilgilerini tutar
+ * İndeksler Flyway migration'larındadır (db/migration)
  */
 @Entity
-@Table(name = "subscriptions", indexes = {
-    @Index(name = "idx_subscription_user_id", columnList = "userId"),
-    @Index(name = "idx_subscription_status", columnList = "status")
-})
+@Table(name = "subscriptions")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -34,7 +34,9 @@ public class Subscription {
     @Column(nullable = false)
     private String userId; // Auth service'deki user_id
 
+    // JOIN yerine ayrı SELECT: plan second-level cache'ten okunur
     @ManyToOne(fetch = FetchType.EAGER)
+    @Fetch(FetchMode.SELECT)
     @JoinColumn(name = "plan_id", nullable = false)
     private SubscriptionPlan plan;
 
@@ -70,6 +72,9 @@ public class Subscription {
     @Column
     private Integer failedPaymentAttempts = 0; // Başarısız ödeme denemesi
 
+    @Column
+    private LocalDateTime nextRetryAt; // Başarısız yenilemeden sonra en erken tekrar deneme zamanı
+
     @CreatedDate
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
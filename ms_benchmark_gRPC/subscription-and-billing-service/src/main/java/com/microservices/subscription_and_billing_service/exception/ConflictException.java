@@ -0,0 +1,10 @@
+package com.microservices.subscription_and_billing_service.exception;
+
+/**
+ * Conflict Exception
+ */
+public class ConflictException extends RuntimeException {
+    public ConflictException(String message) {
+        super(message);
+    }
+}
@@ -1,16 +1,19 @@
 package com.microservices.subscription_and_billing_service.grpc;
 
-import com.microservices.subscription_and_billing_service.dto.response.PaymentMethodResponse;
+import com.microservices.subscription_and_billing_service.dto.response.BillingHistoryPage;
+import com.microservices.subscription_and_billing_service.exception.BadRequestException;
 import com.microservices.subscription_and_billing_service.grpc.proto.GetPaymentsRequest;
 import com.microservices.subscription_and_billing_service.grpc.proto.PaymentGrpcServiceGrpc;
 import com.microservices.subscription_and_billing_service.grpc.proto.PaymentListResponse;
 import com.microservices.subscription_and_billing_service.grpc.proto.PaymentResponse;
-import com.microservices.subscription_and_billing_service.service.PaymentService;
+import com.microservices.subscription_and_billing_service.service.BillingService;
 import io.grpc.stub.StreamObserver;
 import net.devh.boot.grpc.server.service.GrpcService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -23,40 +26,53 @@ public class PaymentGrpcServiceImpl extends PaymentGrpcServiceGrpc.PaymentGrpcSe
 
     private static final Logger log = LoggerFactory.getLogger(PaymentGrpcServiceImpl.class);
 
-    private final PaymentService paymentService;
+    private static final int DEFAULT_LIMIT = 5;
 
-    public PaymentGrpcServiceImpl(PaymentService paymentService) {
-        this.paymentService = paymentService;
+    private final BillingService billingService;
+
+    public PaymentGrpcServiceImpl(BillingService billingService) {
+        this.billingService = billingService;
     }
 
     /**
      * gRPC üzerinden kullanıcının son ödemelerini getir
+     * REST'teki /api/billing/history ile aynı tablo; LIMIT veritabanında uygulanır
      */
     @Override
     public void getRecentPayments(
             GetPaymentsRequest request,
             StreamObserver<PaymentListResponse> responseObserver) {
 
-        log.info("gRPC: Getting recent payments for userId: {}", request.getUserId());
+        log.info("gRPC: Getting recent payments for userId: {}, limit: {}", request.getUserId(), request.getLimit());
 
+        LocalDateTime since;
         try {
-            // Mevcut service'i kullan (payment methods döndürüyor, mock payment olarak
-            // kullanacağız)
-            List<PaymentMethodResponse> paymentMethods = paymentService.getPaymentMethods(request.getUserId());
-
-            // Payment method'ları payment history gibi dönüştür (mock)
-            List<PaymentResponse> grpcPayments = paymentMethods.stream()
-                    .limit(5) // Son 5 ödeme
-                    .map(pm -> PaymentResponse.newBuilder()
-                            .setId(pm.getId())
-                            .setAmount(29.99) // Mock amount
-                            .setStatus("SUCCESS")
-                            .setPaymentDate("2026-01-01") // Mock date
+            since = request.getSince().isEmpty() ? null : LocalDateTime.parse(request.getSince());
+        } catch (DateTimeParseException e) {
+            responseObserver.onError(io.grpc.Status.INVALID_ARGUMENT
+                    .withDescription("Invalid since: " + request.getSince())
+                    .asRuntimeException());
+            return;
+        }
+
+        try {
+            int limit = request.getLimit() > 0 ? request.getLimit() : DEFAULT_LIMIT;
+            BillingHistoryPage billingHistory =
+                    billingService.getBillingHistory(request.getUserId(), limit, since);
+
+            List<PaymentResponse> grpcPayments = billingHistory.getItems().stream()
+                    .map(billing -> PaymentResponse.newBuilder()
+                            .setId(billing.getId())
+                            .setAmount(billing.getAmount() != null ? billing.getAmount().doubleValue() : 0)
+                            .setStatus(billing.getPaymentStatus() != null ? billing.getPaymentStatus() : "")
+                            .setPaymentDate(billing.getPaymentDate() != null ? billing.getPaymentDate().toString()
+                                    : billing.getCreatedAt() != null ? billing.getCreatedAt().toString() : "")
                             .build())
                     .collect(Collectors.toList());
 
             PaymentListResponse grpcResponse = PaymentListResponse.newBuilder()
                     .addAllPayments(grpcPayments)
+                    .setHasMore(billingHistory.isHasMore())
                     .build();
 
             log.info("gRPC: {} payments retrieved successfully for userId: {}", grpcPayments.size(),
@@ -65,6 +81,10 @@ public class PaymentGrpcServiceImpl extends PaymentGrpcServiceGrpc.PaymentGrpcSe
             responseObserver.onNext(grpcResponse);
             responseObserver.onCompleted();
 
+        } catch (BadRequestException e) {
+            responseObserver.onError(io.grpc.Status.INVALID_ARGUMENT
+                    .withDescription(e.getMessage())
+                    .asRuntimeException());
         } catch (Exception e) {
             log.error("gRPC: Failed to get payments for userId: {}", request.getUserId(), e);
             responseObserver.onError(
@@ -0,0 +1,125 @@
+package com.microservices.subscription_and_billing_service.grpc;
+
+import io.grpc.Context;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import net.devh.boot.grpc.server.interceptor.GrpcGlobalServerInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * gRPC Server Load Shedding Interceptor
+ * Eşzamanlı çağrı sayısını toplamda ve servis başına sınırlar.
+ *
+ * Kabul kararı admit() içinde, çağrı handler executor'ına verilmeden önce transport thread'inde verilir
+ * (GrpcServerExecutorConfig bunu ServerCallExecutorSupplier olarak bağlar). Limit aşılan çağrı executor
+ * kuyruğuna hiç girmez: interceptor transport thread'inde çalışır ve çağrıyı RESOURCE_EXHAUSTED ile kapatır.
+ * Kabul edilen çağrının permit'i çağrı Context'i kapanınca (complete / cancel / deadline) bırakılır.
+ * En dıştaki interceptor'dır: reddedilen çağrı diğer interceptor'lara uğramadan kapatılır.
+ *
+ * Metrikler: grpc.server.inflight{service}, grpc.server.handler{service},
+ * grpc.server.shed{service}
+ */
+@GrpcGlobalServerInterceptor
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServerLoadSheddingInterceptor implements ServerInterceptor {
+
+    private final MeterRegistry meterRegistry;
+    private final int maxConcurrentCallsPerService;
+    private final Semaphore callPermits;
+    private final Map<String, ServiceLimiter> limiters = new ConcurrentHashMap<>();
+    // Reddedilen çağrıların header'ları (Metadata equals tanımlamaz, kimlik ile eşleşir)
+    private final Set<Metadata> shedCalls = ConcurrentHashMap.newKeySet();
+
+    public ServerLoadSheddingInterceptor(
+            MeterRegistry meterRegistry,
+            @Value("${grpc.executor.max-concurrent-calls:256}") int maxConcurrentCalls,
+            @Value("${grpc.executor.max-concurrent-calls-per-service:256}") int maxConcurrentCallsPerService) {
+        this.meterRegistry = meterRegistry;
+        this.maxConcurrentCallsPerService = maxConcurrentCallsPerService;
+        this.callPermits = new Semaphore(maxConcurrentCalls);
+    }
+
+    /**
+     * Çağrıyı kabul et veya reddet (transport thread'inde, executor'a vermeden önce çağrılır)
+     *
+     * @return true: çağrı handler executor'ında çalışır; false: interceptor RESOURCE_EXHAUSTED ile kapatır
+     */
+    public boolean admit(ServerCall<?, ?> call, Metadata headers) {
+        ServiceLimiter limiter = limiters.computeIfAbsent(
+                call.getMethodDescriptor().getServiceName(), ServiceLimiter::new);
+
+        if (!callPermits.tryAcquire()) {
+            return shed(limiter, headers);
+        }
+        if (!limiter.permits.tryAcquire()) {
+            callPermits.release();
+            return shed(limiter, headers);
+        }
+
+        long startTime = System.nanoTime();
+        AtomicBoolean released = new AtomicBoolean();
+        // Supplier çağrının Context'i içinde çalışır; Context çağrı hangi yolla biterse bitsin iptal edilir
+        Context.current().addListener(context -> {
+            if (released.compareAndSet(false, true)) {
+                limiter.permits.release();
+                callPermits.release();
+                limiter.handlerTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+            }
+        }, Runnable::run);
+        return true;
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(
+            ServerCall<ReqT, RespT> call,
+            Metadata headers,
+            ServerCallHandler<ReqT, RespT> next) {
+
+        if (shedCalls.remove(headers)) {
+            call.close(Status.RESOURCE_EXHAUSTED.withDescription("Server overloaded, retry later"), new Metadata());
+            return new ServerCall.Listener<>() {
+            };
+        }
+        return next.startCall(call, headers);
+    }
+
+    private boolean shed(ServiceLimiter limiter, Metadata headers) {
+        limiter.shed.increment();
+        shedCalls.add(headers);
+        return false;
+    }
+
+    /**
+     * Servis başına permit havuzu ve metrikler
+     */
+    private class ServiceLimiter {
+
+        private final Semaphore permits = new Semaphore(maxConcurrentCallsPerService);
+        private final Timer handlerTimer;
+        private final Counter shed;
+
+        ServiceLimiter(String service) {
+            String serviceTag = String.valueOf(service);
+            this.handlerTimer = Timer.builder("grpc.server.handler").tag("service", serviceTag).register(meterRegistry);
+            this.shed = Counter.builder("grpc.server.shed").tag("service", serviceTag).register(meterRegistry);
+            meterRegistry.gauge("grpc.server.inflight", Tags.of("service", serviceTag),
+                    permits, p -> maxConcurrentCallsPerService - p.availablePermits());
+        }
+    }
+}
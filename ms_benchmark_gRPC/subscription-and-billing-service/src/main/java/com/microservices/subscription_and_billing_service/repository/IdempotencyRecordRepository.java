@@ -0,0 +1,50 @@
+package com.microservices.subscription_and_billing_service.repository;
+
+import com.microservices.subscription_and_billing_service.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * IdempotencyRecord Repository
+ */
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    /**
+     * Kullanıcı ve key'e göre kayıt bul
+     */
+    Optional<IdempotencyRecord> findByUserIdAndIdempotencyKey(String userId, String idempotencyKey);
+
+    /**
+     * Takılı kalmış (süresi geçmiş) PENDING kaydı yeniden sahiplen
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE IdempotencyRecord r SET r.createdAt = :now, r.requestHash = :requestHash " +
+           "WHERE r.id = :id AND r.status = 'PENDING' AND r.createdAt < :staleBefore")
+    int reclaimStalePending(@Param("id") Long id, @Param("requestHash") String requestHash,
+                            @Param("now") LocalDateTime now, @Param("staleBefore") LocalDateTime staleBefore);
+
+    /**
+     * Başarısız isteğin PENDING kaydını sil (istemci aynı key ile tekrar deneyebilsin)
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.id = :id AND r.status = 'PENDING'")
+    int deletePending(@Param("id") Long id);
+
+    /**
+     * Saklama süresi dolmuş kayıtları sil
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :before")
+    int deleteOlderThan(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,336 @@
+package com.microservices.subscription_and_billing_service.service;
+
+import com.microservices.subscription_and_billing_service.entity.BillingHistory;
+import com.microservices.subscription_and_billing_service.entity.BillingJobCheckpoint;
+import com.microservices.subscription_and_billing_service.entity.BillingMonthlyAggregate;
+import com.microservices.subscription_and_billing_service.repository.BillingJobCheckpointRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Billing Rollup Service
+ * billing_history satırlarını kullanıcı ve plan bazında aylık özetlere (billing_monthly_aggregates)
+ * artımlı olarak işler.
+ *
+ * - billing_history sadece insert alır; job id > lastProcessedId olan yeni satırları chunk chunk okur.
+ * - Chunk bellekte (kapsam, ay, para birimi) bazında toplanır ve tek transaction'da
+ *   INSERT ... ON CONFLICT DO UPDATE ile eklenir; checkpoint aynı transaction'da ilerler (exactly-once).
+ * - IDENTITY id'ler commit sırasıyla görünmez: cursor'ın atladığı id'ler (henüz commit edilmemiş veya
+ *   rollback olmuş) billing_rollup_gaps tablosuna yazılır. Sonraki chunk'lar önce bu id'lerden commit
+ *   edilmiş olanları işler ve gap kaydını aynı transaction'da siler; gap-timeout'tan eski gap'ler
+ *   rollback kabul edilip silinir.
+ * - Checkpoint satır kilidi aynı anda tek instance'ın yazmasını sağlar. İlk çalıştırma tüm geçmişi
+ *   chunk chunk işler (backfill).
+ *
+ * Metrikler: billing.rollup.rows, billing.rollup.chunk, billing.rollup.lag (saniye),
+ * billing.rollup.gaps{result=detected|filled|expired}
+ */
+@Service
+public class BillingRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(BillingRollupService.class);
+
+    static final String ROLLUP_JOB = "billing-monthly-rollup";
+
+    private static final String SELECT_BILLING_SQL =
+            "SELECT id, user_id, plan_id, amount, currency, payment_status, created_at FROM billing_history " +
+            "WHERE id > ? ORDER BY id LIMIT ?";
+
+    private static final String SELECT_GAP_ROWS_SQL =
+            "SELECT b.id, b.user_id, b.plan_id, b.amount, b.currency, b.payment_status, b.created_at " +
+            "FROM billing_rollup_gaps g JOIN billing_history b ON b.id = g.id ORDER BY b.id LIMIT ?";
+
+    private static final String INSERT_GAP_SQL =
+            "INSERT INTO billing_rollup_gaps (id, detected_at) VALUES (?, ?) ON CONFLICT (id) DO NOTHING";
+
+    private static final String DELETE_GAP_SQL = "DELETE FROM billing_rollup_gaps WHERE id = ?";
+
+    private static final String EXPIRE_GAPS_SQL = "DELETE FROM billing_rollup_gaps WHERE detected_at < ?";
+
+    private static final RowMapper<BillingRow> BILLING_ROW_MAPPER = (rs, rowNum) -> new BillingRow(
+            rs.getLong("id"),
+            rs.getString("user_id"),
+            rs.getLong("plan_id"),
+            rs.getBigDecimal("amount"),
+            rs.getString("currency"),
+            BillingHistory.PaymentStatus.valueOf(rs.getString("payment_status")),
+            rs.getTimestamp("created_at").toLocalDateTime());
+
+    private static final String UPSERT_AGGREGATE_SQL =
+            "INSERT INTO billing_monthly_aggregates (scope_type, scope_key, period_month, currency, payment_count, " +
+            "success_count, failure_count, success_amount, failed_amount, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (scope_type, scope_key, period_month, currency) DO UPDATE SET " +
+            "payment_count = billing_monthly_aggregates.payment_count + EXCLUDED.payment_count, " +
+            "success_count = billing_monthly_aggregates.success_count + EXCLUDED.success_count, " +
+            "failure_count = billing_monthly_aggregates.failure_count + EXCLUDED.failure_count, " +
+            "success_amount = billing_monthly_aggregates.success_amount + EXCLUDED.success_amount, " +
+            "failed_amount = billing_monthly_aggregates.failed_amount + EXCLUDED.failed_amount, " +
+            "updated_at = EXCLUDED.updated_at";
+
+    private final BillingJobCheckpointRepository checkpointRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+    private final int chunkSize;
+    private final Duration gapTimeout;
+    private final int maxGapSpan;
+    private final Counter rowCounter;
+    private final Counter gapsDetected;
+    private final Counter gapsFilled;
+    private final Counter gapsExpired;
+    private final Timer chunkTimer;
+    private final AtomicLong lagSeconds;
+
+    public BillingRollupService(
+            BillingJobCheckpointRepository checkpointRepository,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${billing.rollup.enabled:true}") boolean enabled,
+            @Value("${billing.rollup.chunk-size:5000}") int chunkSize,
+            @Value("${billing.rollup.gap-timeout:1h}") Duration gapTimeout,
+            @Value("${billing.rollup.max-gap-span:10000}") int maxGapSpan) {
+        this.checkpointRepository = checkpointRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.chunkSize = chunkSize;
+        this.gapTimeout = gapTimeout;
+        this.maxGapSpan = maxGapSpan;
+        this.rowCounter = meterRegistry.counter("billing.rollup.rows");
+        this.gapsDetected = meterRegistry.counter("billing.rollup.gaps", "result", "detected");
+        this.gapsFilled = meterRegistry.counter("billing.rollup.gaps", "result", "filled");
+        this.gapsExpired = meterRegistry.counter("billing.rollup.gaps", "result", "expired");
+        this.chunkTimer = meterRegistry.timer("billing.rollup.chunk");
+        this.lagSeconds = meterRegistry.gauge("billing.rollup.lag", new AtomicLong());
+
+        log.info("Billing rollup: enabled={}, chunkSize={}, gapTimeout={}", enabled, chunkSize, gapTimeout);
+    }
+
+    /**
+     * Periyodik çalıştırma
+     */
+    @Scheduled(fixedDelayString = "${billing.rollup.interval-ms:30000}",
+            initialDelayString = "${billing.rollup.interval-ms:30000}")
+    public void runScheduled() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            rollup();
+        } catch (RuntimeException e) {
+            log.error("Billing rollup failed", e);
+        }
+    }
+
+    /**
+     * Bekleyen tüm satırları işle
+     *
+     * @return işlenen billing_history satırı sayısı
+     */
+    public long rollup() {
+        ensureCheckpoint();
+
+        long processed = 0;
+        while (true) {
+            long chunkStart = System.nanoTime();
+            ChunkResult result = transactionTemplate.execute(status -> rollupChunk());
+            chunkTimer.record(System.nanoTime() - chunkStart, TimeUnit.NANOSECONDS);
+
+            processed += result.processed();
+            if (!result.hasMore()) {
+                break;
+            }
+        }
+
+        // Bu kadar süre commit edilmeyen id'ler rollback olmuştur (IDENTITY geri alınmaz)
+        int expired = jdbcTemplate.update(EXPIRE_GAPS_SQL, Timestamp.valueOf(LocalDateTime.now().minus(gapTimeout)));
+        if (expired > 0) {
+            gapsExpired.increment(expired);
+            log.debug("Billing rollup dropped {} expired id gaps", expired);
+        }
+
+        if (processed > 0) {
+            log.info("Billing rollup processed {} billing rows", processed);
+        }
+        return processed;
+    }
+
+    /**
+     * Tek chunk: oku, topla, upsert et, checkpoint'i ilerlet (çağıran transaction içinde)
+     */
+    private ChunkResult rollupChunk() {
+        BillingJobCheckpoint checkpoint = checkpointRepository.findForUpdate(ROLLUP_JOB)
+                .orElseThrow(() -> new IllegalStateException("Missing checkpoint: " + ROLLUP_JOB));
+
+        // Önce cursor'ın geride bıraktığı ve o zamandan beri commit edilmiş satırlar, sonra yeni satırlar
+        List<BillingRow> lateRows = jdbcTemplate.query(SELECT_GAP_ROWS_SQL, BILLING_ROW_MAPPER, chunkSize);
+        long cursor = checkpoint.getLastProcessedId();
+        List<BillingRow> newRows = jdbcTemplate.query(SELECT_BILLING_SQL, BILLING_ROW_MAPPER, cursor, chunkSize);
+
+        LocalDateTime now = LocalDateTime.now();
+        if (lateRows.isEmpty() && newRows.isEmpty()) {
+            lagSeconds.set(0);
+            return new ChunkResult(0, false);
+        }
+
+        List<BillingRow> rows = new ArrayList<>(lateRows.size() + newRows.size());
+        rows.addAll(lateRows);
+        rows.addAll(newRows);
+
+        Map<AggregateKey, AggregateDelta> deltas = new LinkedHashMap<>();
+        for (BillingRow row : rows) {
+            LocalDate month = row.createdAt().toLocalDate().withDayOfMonth(1);
+            deltas.computeIfAbsent(new AggregateKey(BillingMonthlyAggregate.ScopeType.USER, row.userId(),
+                    month, row.currency()), key -> new AggregateDelta()).add(row);
+            deltas.computeIfAbsent(new AggregateKey(BillingMonthlyAggregate.ScopeType.PLAN,
+                    String.valueOf(row.planId()), month, row.currency()), key -> new AggregateDelta()).add(row);
+        }
+
+        Timestamp updatedAt = Timestamp.valueOf(now);
+        List<Map.Entry<AggregateKey, AggregateDelta>> entries = new ArrayList<>(deltas.entrySet());
+        jdbcTemplate.batchUpdate(UPSERT_AGGREGATE_SQL, entries, entries.size(), (ps, entry) -> {
+            AggregateKey key = entry.getKey();
+            AggregateDelta delta = entry.getValue();
+            ps.setString(1, key.scopeType().name());
+            ps.setString(2, key.scopeKey());
+            ps.setDate(3, Date.valueOf(key.month()));
+            ps.setString(4, key.currency());
+            ps.setLong(5, delta.paymentCount);
+            ps.setLong(6, delta.successCount);
+            ps.setLong(7, delta.failureCount);
+            ps.setBigDecimal(8, delta.successAmount);
+            ps.setBigDecimal(9, delta.failedAmount);
+            ps.setTimestamp(10, updatedAt);
+        });
+
+        // Gelen late satırların gap kayıtları ve yeni satırlar arasındaki boşluklar aynı transaction'da
+        jdbcTemplate.batchUpdate(DELETE_GAP_SQL, lateRows, lateRows.size(),
+                (ps, row) -> ps.setLong(1, row.id()));
+        List<Long> gaps = findGaps(cursor, newRows);
+        jdbcTemplate.batchUpdate(INSERT_GAP_SQL, gaps, gaps.size(), (ps, id) -> {
+            ps.setLong(1, id);
+            ps.setTimestamp(2, updatedAt);
+        });
+
+        if (!newRows.isEmpty()) {
+            BillingRow last = newRows.get(newRows.size() - 1);
+            checkpoint.setLastProcessedId(last.id());
+            lagSeconds.set(Duration.between(last.createdAt(), now).toSeconds());
+        }
+        checkpoint.setProcessedCount(checkpoint.getProcessedCount() + rows.size());
+        checkpoint.setUpdatedAt(now);
+
+        rowCounter.increment(rows.size());
+        gapsFilled.increment(lateRows.size());
+        gapsDetected.increment(gaps.size());
+        return new ChunkResult(rows.size(), lateRows.size() == chunkSize || newRows.size() == chunkSize);
+    }
+
+    /**
+     * Cursor ile okunan id'ler arasındaki eksik id'ler (commit edilmemiş veya rollback olmuş insert'ler)
+     * max-gap-span'den büyük atlamalar (ör. sequence restart) kaydedilmez
+     */
+    private List<Long> findGaps(long cursor, List<BillingRow> rows) {
+        List<Long> gaps = new ArrayList<>();
+        long expected = cursor + 1;
+        for (BillingRow row : rows) {
+            long span = row.id() - expected;
+            if (span > maxGapSpan) {
+                log.warn("Billing rollup skipped id gap {}..{} ({} ids)", expected, row.id() - 1, span);
+            } else {
+                for (long id = expected; id < row.id(); id++) {
+                    gaps.add(id);
+                }
+            }
+            expected = row.id() + 1;
+        }
+        return gaps;
+    }
+
+    /**
+     * İlk çalıştırmada checkpoint satırını oluştur
+     */
+    private void ensureCheckpoint() {
+        if (checkpointRepository.existsById(ROLLUP_JOB)) {
+            return;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            checkpointRepository.saveAndFlush(BillingJobCheckpoint.builder()
+                    .jobName(ROLLUP_JOB)
+                    .status(BillingJobCheckpoint.JobStatus.COMPLETED)
+                    .lastProcessedId(0L)
+                    .processedCount(0L)
+                    .startedAt(now)
+                    .updatedAt(now)
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            // Başka bir instance aynı anda oluşturdu
+            log.debug("Rollup checkpoint created concurrently");
+        }
+    }
+
+    /**
+     * Rollup için okunan billing_history kolonları
+     */
+    private record BillingRow(long id, String userId, long planId, BigDecimal amount, String currency,
+                              BillingHistory.PaymentStatus status, LocalDateTime createdAt) {
+    }
+
+    private record AggregateKey(BillingMonthlyAggregate.ScopeType scopeType, String scopeKey,
+                                LocalDate month, String currency) {
+    }
+
+    private record ChunkResult(int processed, boolean hasMore) {
+    }
+
+    /**
+     * Chunk içindeki tek bir özet satırına eklenecek değerler
+     */
+    private static class AggregateDelta {
+
+        private long paymentCount;
+        private long successCount;
+        private long failureCount;
+        private BigDecimal successAmount = BigDecimal.ZERO;
+        private BigDecimal failedAmount = BigDecimal.ZERO;
+
+        void add(BillingRow row) {
+            paymentCount++;
+            if (row.status() == BillingHistory.PaymentStatus.SUCCESS) {
+                successCount++;
+                successAmount = successAmount.add(row.amount());
+            } else if (row.status() == BillingHistory.PaymentStatus.FAILED) {
+                failureCount++;
+                failedAmount = failedAmount.add(row.amount());
+            }
+        }
+    }
+}
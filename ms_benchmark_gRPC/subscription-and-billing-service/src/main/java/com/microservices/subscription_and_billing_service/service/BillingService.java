@@ -1,13 +1,23 @@
 package com.microservices.subscription_and_billing_service.service;
 
+import com.microservices.subscription_and_billing_service.dto.response.BillingHistoryPage;
 import com.microservices.subscription_and_billing_service.dto.response.BillingHistoryResponse;
+import com.microservices.subscription_and_billing_service.dto.response.BillingMonthlySummaryResponse;
 import com.microservices.subscription_and_billing_service.entity.BillingHistory;
+import com.microservices.subscription_and_billing_service.entity.BillingMonthlyAggregate;
+import com.microservices.subscription_and_billing_service.exception.BadRequestException;
 import com.microservices.subscription_and_billing_service.repository.BillingHistoryRepository;
+import com.microservices.subscription_and_billing_service.repository.BillingMonthlyAggregateRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -20,41 +30,153 @@ public class BillingService {
 
     private static final Logger log = LoggerFactory.getLogger(BillingService.class);
 
+    private static final int DEFAULT_SUMMARY_MONTHS = 12;
+    private static final int MAX_SUMMARY_MONTHS = 36;
+
     private final BillingHistoryRepository billingHistoryRepository;
+    private final BillingMonthlyAggregateRepository aggregateRepository;
+    private final int maxLimit;
 
-    public BillingService(BillingHistoryRepository billingHistoryRepository) {
+    public BillingService(
+            BillingHistoryRepository billingHistoryRepository,
+            BillingMonthlyAggregateRepository aggregateRepository,
+            @Value("${billing.history.max-limit:100}") int maxLimit) {
         this.billingHistoryRepository = billingHistoryRepository;
+        this.aggregateRepository = aggregateRepository;
+        this.maxLimit = maxLimit;
     }
 
     /**
-     * Kullanıcının fatura geçmişini getir
+     * Kullanıcının fatura geçmişini getir (tamamı)
      */
     @Transactional(readOnly = true)
     public List<BillingHistoryResponse> getBillingHistory(String userId) {
-        log.info("Fetching billing history for userId: {}", userId);
+        return getBillingHistory(userId, null, null).getItems();
+    }
+
+    /**
+     * Kullanıcının faturalarını getir (en yeni en üstte)
+     * Limit opsiyoneldir: verilmezse tüm geçmiş döner; verilirse en fazla billing.history.max-limit olabilir
+     * ve LIMIT veritabanında uygulanır. Daha fazla kayıt varsa hasMore=true döner.
+     * since verilirse sadece o tarihten sonraki kayıtlar döner.
+     */
+    @Transactional(readOnly = true)
+    public BillingHistoryPage getBillingHistory(String userId, Integer limit, LocalDateTime since) {
+        Limit fetchLimit = fetchLimit(limit);
+        log.info("Fetching billing history for userId: {} (limit: {}, since: {})", userId, limit, since);
         
-        List<BillingHistory> billingHistory = billingHistoryRepository.findByUserIdOrderByCreatedAtDesc(userId);
+        List<BillingHistory> billingHistory = since == null
+                ? billingHistoryRepository.findByUserIdOrderByCreatedAtDesc(userId, fetchLimit)
+                : billingHistoryRepository.findByUserIdAndCreatedAtAfterOrderByCreatedAtDesc(userId, since, fetchLimit);
         
-        return billingHistory.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        return toPage(billingHistory, limit);
     }
 
     /**
-     * Başarılı ödemeleri getir
+     * Başarılı ödemeleri getir (tamamı)
      */
     @Transactional(readOnly = true)
     public List<BillingHistoryResponse> getSuccessfulPayments(String userId) {
-        log.info("Fetching successful payments for userId: {}", userId);
+        return getSuccessfulPayments(userId, null, null).getItems();
+    }
+
+    /**
+     * Başarılı ödemeleri getir (limit / since getBillingHistory ile aynı kurallarla)
+     */
+    @Transactional(readOnly = true)
+    public BillingHistoryPage getSuccessfulPayments(String userId, Integer limit, LocalDateTime since) {
+        Limit fetchLimit = fetchLimit(limit);
+        log.info("Fetching successful payments for userId: {} (limit: {}, since: {})", userId, limit, since);
         
-        List<BillingHistory> payments = billingHistoryRepository.findByUserIdAndPaymentStatusOrderByCreatedAtDesc(
-                userId, BillingHistory.PaymentStatus.SUCCESS);
+        BillingHistory.PaymentStatus status = BillingHistory.PaymentStatus.SUCCESS;
+        List<BillingHistory> payments = since == null
+                ? billingHistoryRepository.findByUserIdAndPaymentStatusOrderByCreatedAtDesc(userId, status, fetchLimit)
+                : billingHistoryRepository.findByUserIdAndPaymentStatusAndCreatedAtAfterOrderByCreatedAtDesc(
+                        userId, status, since, fetchLimit);
         
-        return payments.stream()
-                .map(this::convertToResponse)
+        return toPage(payments, limit);
+    }
+
+    /**
+     * Kullanıcının aylık harcama özeti (billing_monthly_aggregates'ten okunur)
+     * from / to verilmezse son 12 ay; rollup gecikmesi kadar (bkz. BillingRollupService) geriden gelir
+     */
+    @Transactional(readOnly = true)
+    public List<BillingMonthlySummaryResponse> getMonthlySummary(String userId, YearMonth from, YearMonth to) {
+        YearMonth end = to != null ? to : YearMonth.now();
+        YearMonth start = resolveStart(from, end);
+        log.info("Fetching monthly billing summary for userId: {} ({} - {})", userId, start, end);
+
+        return aggregateRepository.findByScopeTypeAndScopeKeyAndPeriodMonthBetweenOrderByPeriodMonthAsc(
+                        BillingMonthlyAggregate.ScopeType.USER, userId, start.atDay(1), end.atDay(1))
+                .stream()
+                .map(this::convertToSummary)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Plan bazında aylık gelir özeti (finans raporları)
+     */
+    @Transactional(readOnly = true)
+    public List<BillingMonthlySummaryResponse> getPlanMonthlySummary(YearMonth from, YearMonth to) {
+        YearMonth end = to != null ? to : YearMonth.now();
+        YearMonth start = resolveStart(from, end);
+        log.info("Fetching monthly plan revenue summary ({} - {})", start, end);
+
+        return aggregateRepository.findByScopeTypeAndPeriodMonthBetweenOrderByPeriodMonthAscScopeKeyAsc(
+                        BillingMonthlyAggregate.ScopeType.PLAN, start.atDay(1), end.atDay(1))
+                .stream()
+                .map(this::convertToSummary)
+                .collect(Collectors.toList());
+    }
+
+    private YearMonth resolveStart(YearMonth from, YearMonth end) {
+        YearMonth start = from != null ? from : end.minusMonths(DEFAULT_SUMMARY_MONTHS - 1);
+        if (start.isAfter(end)) {
+            throw new BadRequestException("'from' must not be after 'to'");
+        }
+        if (ChronoUnit.MONTHS.between(start, end) >= MAX_SUMMARY_MONTHS) {
+            throw new BadRequestException("Summary range must be at most " + MAX_SUMMARY_MONTHS + " months");
+        }
+        return start;
+    }
+
+    /**
+     * Veritabanından okunacak satır sayısı: limit + 1 (kesilip kesilmediğini anlamak için)
+     */
+    private Limit fetchLimit(Integer limit) {
+        if (limit == null) {
+            return Limit.unlimited();
+        }
+        if (limit <= 0 || limit > maxLimit) {
+            throw new BadRequestException("limit must be between 1 and " + maxLimit);
+        }
+        return Limit.of(limit + 1);
+    }
+
+    private BillingHistoryPage toPage(List<BillingHistory> rows, Integer limit) {
+        boolean hasMore = limit != null && rows.size() > limit;
+        List<BillingHistory> items = hasMore ? rows.subList(0, limit) : rows;
+        return BillingHistoryPage.builder()
+                .items(items.stream().map(this::convertToResponse).collect(Collectors.toList()))
+                .hasMore(hasMore)
+                .build();
+    }
+
+    private BillingMonthlySummaryResponse convertToSummary(BillingMonthlyAggregate aggregate) {
+        return BillingMonthlySummaryResponse.builder()
+                .scopeType(aggregate.getScopeType().name())
+                .scopeKey(aggregate.getScopeKey())
+                .month(YearMonth.from(aggregate.getPeriodMonth()).toString())
+                .currency(aggregate.getCurrency())
+                .paymentCount(aggregate.getPaymentCount())
+                .successCount(aggregate.getSuccessCount())
+                .failureCount(aggregate.getFailureCount())
+                .successAmount(aggregate.getSuccessAmount())
+                .failedAmount(aggregate.getFailedAmount())
+                .build();
+    }
+
     /**
      * Entity'yi Response DTO'ya çevir
      */
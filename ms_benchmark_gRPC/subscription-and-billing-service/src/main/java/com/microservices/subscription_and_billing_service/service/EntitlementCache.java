@@ -0,0 +1,118 @@
+package com.microservices.subscription_and_billing_service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.microservices.subscription_and_billing_service.dto.response.SubscriptionResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Entitlement Cache
+ * userId -> aktif abonelik (status, plan limitleri, endDate) önbelleği.
+ *
+ * - Kayıt en geç endDate anında düşer (en fazla max-ttl kadar tutulur; diğer replica'larda
+ *   yapılan değişiklikler için üst sınır).
+ * - Aboneliği olmayan kullanıcılar kısa süre negatif olarak tutulur.
+ * - subscribe / cancel hem anında hem de transaction tamamlandıktan sonra invalidate eder;
+ *   böylece commit öncesi okunan eski değer cache'te kalamaz.
+ * - Boyut sınırlıdır (W-TinyLFU eviction).
+ *
+ * Metrikler: cache.gets / cache.evictions / cache.size {cache=entitlements}
+ */
+@Component
+public class EntitlementCache {
+
+    private static final Logger log = LoggerFactory.getLogger(EntitlementCache.class);
+
+    private final Cache<String, Optional<SubscriptionResponse>> cache;
+
+    public EntitlementCache(
+            MeterRegistry meterRegistry,
+            @Value("${subscription.entitlement-cache.maximum-size:500000}") long maximumSize,
+            @Value("${subscription.entitlement-cache.max-ttl:10m}") Duration maxTtl,
+            @Value("${subscription.entitlement-cache.negative-ttl:30s}") Duration negativeTtl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new EndDateExpiry(maxTtl, negativeTtl))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "entitlements");
+        log.info("Entitlement cache: maximumSize={}, maxTtl={}, negativeTtl={}", maximumSize, maxTtl, negativeTtl);
+    }
+
+    /**
+     * Cache'ten oku, yoksa loader ile yükle (aynı userId için tek loader çalışır)
+     */
+    public Optional<SubscriptionResponse> get(String userId,
+                                              Function<String, Optional<SubscriptionResponse>> loader) {
+        return cache.get(userId, loader);
+    }
+
+    /**
+     * Kullanıcının kaydını hemen ve (varsa) transaction tamamlandıktan sonra tekrar sil
+     */
+    public void invalidate(String userId) {
+        cache.invalidate(userId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(userId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Aktif abonelik endDate'e kadar, negatif kayıt negativeTtl kadar yaşar
+     */
+    private static class EndDateExpiry implements Expiry<String, Optional<SubscriptionResponse>> {
+
+        private final Duration maxTtl;
+        private final long negativeTtlNanos;
+
+        EndDateExpiry(Duration maxTtl, Duration negativeTtl) {
+            this.maxTtl = maxTtl;
+            this.negativeTtlNanos = negativeTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(String userId, Optional<SubscriptionResponse> value, long currentTime) {
+            if (value.isEmpty()) {
+                return negativeTtlNanos;
+            }
+            LocalDateTime endDate = value.get().getEndDate();
+            Duration untilEnd = endDate == null ? maxTtl : Duration.between(LocalDateTime.now(), endDate);
+            if (untilEnd.isNegative()) {
+                return 0;
+            }
+            return untilEnd.compareTo(maxTtl) < 0 ? untilEnd.toNanos() : maxTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String userId, Optional<SubscriptionResponse> value,
+                                      long currentTime, long currentDuration) {
+            return expireAfterCreate(userId, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String userId, Optional<SubscriptionResponse> value,
+                                    long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
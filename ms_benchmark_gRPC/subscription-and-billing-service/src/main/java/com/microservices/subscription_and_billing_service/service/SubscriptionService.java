@@ -35,29 +35,37 @@ public class SubscriptionService {
     private final BillingHistoryRepository billingHistoryRepository;
     private final SubscriptionPlanService subscriptionPlanService;
     private final PaymentService paymentService;
+    private final EntitlementCache entitlementCache;
+    private final TransactionIdGenerator transactionIdGenerator;
 
     public SubscriptionService(
             SubscriptionRepository subscriptionRepository,
             BillingHistoryRepository billingHistoryRepository,
             SubscriptionPlanService subscriptionPlanService,
-            PaymentService paymentService) {
+            PaymentService paymentService,
+            EntitlementCache entitlementCache,
+            TransactionIdGenerator transactionIdGenerator) {
         this.subscriptionRepository = subscriptionRepository;
         this.billingHistoryRepository = billingHistoryRepository;
         this.subscriptionPlanService = subscriptionPlanService;
         this.paymentService = paymentService;
+        this.entitlementCache = entitlementCache;
+        this.transactionIdGenerator = transactionIdGenerator;
     }
 
     /**
      * Kullanıcının aktif aboneliğini getir
+     * En yüksek QPS'li sorgu: EntitlementCache üzerinden okunur, miss durumunda DB'ye gider.
+     * Dönen nesne cache'teki örnektir, çağıranlar değiştirmemelidir.
+     * Cache hit'te bağlantı almamak için method transactional değildir; plan EAGER yüklendiğinden
+     * dönüşüm repository transaction'ı dışında güvenlidir.
      */
-    @Transactional(readOnly = true)
     public SubscriptionResponse getActiveSubscription(String userId) {
-        log.info("Fetching active subscription for userId: {}", userId);
+        log.debug("Fetching active subscription for userId: {}", userId);
         
-        Subscription subscription = subscriptionRepository.findActiveSubscriptionByUserId(userId)
+        return entitlementCache.get(userId, id -> subscriptionRepository.findActiveSubscriptionByUserId(id)
+                        .map(this::convertToResponse))
                 .orElseThrow(() -> new ResourceNotFoundException("No active subscription found for user: " + userId));
-        
-        return convertToResponse(subscription);
     }
 
     /**
@@ -127,6 +135,7 @@ public class SubscriptionService {
                 .build();
         
         subscription = subscriptionRepository.save(subscription);
+        entitlementCache.invalidate(userId);
         
         // Fatura kaydı oluştur
         createBillingHistory(subscription, plan, amount, BillingHistory.PaymentStatus.SUCCESS);
@@ -163,6 +172,7 @@ public class SubscriptionService {
         subscription.setCancellationReason(request.getReason());
         
         subscription = subscriptionRepository.save(subscription);
+        entitlementCache.invalidate(userId);
         
         log.info("Subscription cancelled for userId: {}, immediate: {}", userId, request.getImmediate());
         
@@ -183,7 +193,7 @@ public class SubscriptionService {
                 .currency("TRY")
                 .paymentStatus(status)
                 .paymentMethod(BillingHistory.PaymentMethod.CREDIT_CARD)
-                .transactionId("TXN-" + System.currentTimeMillis())
+                .transactionId(transactionIdGenerator.nextTransactionId())
                 .paymentDate(LocalDateTime.now())
                 .billingPeriodStart(subscription.getStartDate())
                 .billingPeriodEnd(subscription.getEndDate())
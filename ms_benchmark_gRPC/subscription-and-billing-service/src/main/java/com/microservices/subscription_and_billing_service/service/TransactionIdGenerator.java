@@ -0,0 +1,40 @@
+package com.microservices.subscription_and_billing_service.service;
+
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Transaction ID Generator
+ * "TXN-" + currentTimeMillis aynı milisaniyedeki isteklerde çakışıyordu;
+ * rastgele UUID (122 bit) instance ve thread'den bağımsız olarak çakışmasızdır.
+ */
+@Component
+public class TransactionIdGenerator {
+
+    /**
+     * Yeni ödeme transaction ID'si
+     */
+    public String nextTransactionId() {
+        return "TXN-" + UUID.randomUUID();
+    }
+
+    /**
+     * Yenileme ödemesinin deterministik transaction ID'si (aynı zamanda gateway idempotency key'i)
+     * Aynı abonelik, dönem ve deneme için her zaman aynı ID üretilir: commit edilmemiş bir chunk
+     * tekrar işlendiğinde gateway ikinci kez tahsil etmez, billing_history'ye ikinci satır yazılamaz.
+     */
+    public String renewalTransactionId(Long subscriptionId, LocalDateTime periodStart, int attempt) {
+        String name = "renewal:" + subscriptionId + ":" + periodStart + ":" + attempt;
+        return "TXN-" + UUID.nameUUIDFromBytes(name.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Yeni (simüle) payment gateway token'ı
+     */
+    public String nextPaymentToken() {
+        return "TOKEN_" + UUID.randomUUID();
+    }
+}
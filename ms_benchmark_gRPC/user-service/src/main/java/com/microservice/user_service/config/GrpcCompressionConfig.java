@@ -0,0 +1,158 @@
+package com.microservice.user_service.config;
+
+import com.google.protobuf.MessageLite;
+import com.microservice.user_service.grpc.FastDeflateCodec;
+import com.microservice.user_service.grpc.TimedCodec;
+import io.grpc.Codec;
+import io.grpc.CompressorRegistry;
+import io.grpc.DecompressorRegistry;
+import io.grpc.Metadata;
+import io.grpc.ServerStreamTracer;
+import io.grpc.Status;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.devh.boot.grpc.client.channelfactory.GrpcChannelConfigurer;
+import net.devh.boot.grpc.server.serverfactory.GrpcServerConfigurer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * gRPC Payload Compression Configuration
+ * Method bazlı codec seçimi (gzip / deflate) ve boyut eşiği
+ *
+ * Aynı liste hem server'ın sunduğu hem de client'ın çağırdığı method'lar için kullanılır
+ * (full method name'ler servisler arasında benzersizdir).
+ * Client kanalları deflate'i advertise eder; böylece content-service katalog yanıtlarını
+ * deflate ile sıkıştırabilir.
+ * Codec başına CPU süresi grpc.compression.cpu olarak ölçülür (bkz. grpc-compression-benchmark).
+ */
+@Configuration
+public class GrpcCompressionConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(GrpcCompressionConfig.class);
+
+    private final Map<String, String> methodCodecs;
+    private final int minMessageBytes;
+    private final CompressorRegistry compressorRegistry;
+    private final DecompressorRegistry decompressorRegistry;
+
+    public GrpcCompressionConfig(
+            @Value("${grpc.compression.methods:}") String methodsConfig,
+            @Value("${grpc.compression.min-message-bytes:1024}") int minMessageBytes,
+            MeterRegistry meterRegistry) {
+        this.minMessageBytes = minMessageBytes;
+
+        // Codec'ler CPU süresi ölçülerek kaydedilir (grpc.compression.cpu)
+        Codec gzip = new TimedCodec(new Codec.Gzip(), meterRegistry);
+        Codec deflate = new TimedCodec(new FastDeflateCodec(), meterRegistry);
+        this.compressorRegistry = CompressorRegistry.newEmptyInstance();
+        this.compressorRegistry.register(gzip);
+        this.compressorRegistry.register(deflate);
+        // advertised=true: karşı tarafa grpc-accept-encoding ile bildirilir
+        this.decompressorRegistry = DecompressorRegistry.getDefaultInstance()
+                .with(gzip, true)
+                .with(deflate, true);
+
+        // "method=codec" çiftlerini virgülle ayrılmış listeden oku
+        this.methodCodecs = Arrays.stream(methodsConfig.split(","))
+                .map(String::trim)
+                .filter(entry -> entry.contains("="))
+                .map(entry -> entry.split("=", 2))
+                .filter(pair -> isSupported(pair[1].trim()))
+                .collect(Collectors.toUnmodifiableMap(pair -> pair[0].trim(), pair -> pair[1].trim()));
+
+        log.info("gRPC compression: methods={}, minMessageBytes={}", methodCodecs, minMessageBytes);
+    }
+
+    /**
+     * Method için yapılandırılmış codec adı, yoksa null (sıkıştırma yok)
+     */
+    public String codecFor(String fullMethodName) {
+        return methodCodecs.get(fullMethodName);
+    }
+
+    /**
+     * Küçük mesajlar için sıkıştırma maliyeti kazançtan büyüktür
+     */
+    public boolean shouldCompress(Object message) {
+        return !(message instanceof MessageLite lite) || lite.getSerializedSize() >= minMessageBytes;
+    }
+
+    @Bean
+    public GrpcServerConfigurer compressionServerConfigurer(MeterRegistry meterRegistry) {
+        ServerStreamTracer.Factory tracerFactory = new WireSizeTracerFactory(meterRegistry);
+        return serverBuilder -> {
+            serverBuilder.compressorRegistry(compressorRegistry);
+            serverBuilder.decompressorRegistry(decompressorRegistry);
+            serverBuilder.addStreamTracerFactory(tracerFactory);
+        };
+    }
+
+    @Bean
+    public GrpcChannelConfigurer compressionChannelConfigurer() {
+        return (channelBuilder, name) -> {
+            channelBuilder.compressorRegistry(compressorRegistry);
+            channelBuilder.decompressorRegistry(decompressorRegistry);
+        };
+    }
+
+    private boolean isSupported(String codec) {
+        if (compressorRegistry.lookupCompressor(codec) == null) {
+            log.warn("gRPC compression: unknown codec '{}' ignored", codec);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Yanıt başına wire / sıkıştırılmamış byte sayısını method bazında sayar
+     */
+    private static class WireSizeTracerFactory extends ServerStreamTracer.Factory {
+
+        private final MeterRegistry meterRegistry;
+        private final Map<String, Counter[]> counters = new ConcurrentHashMap<>();
+
+        WireSizeTracerFactory(MeterRegistry meterRegistry) {
+            this.meterRegistry = meterRegistry;
+        }
+
+        @Override
+        public ServerStreamTracer newServerStreamTracer(String fullMethodName, Metadata headers) {
+            Counter[] methodCounters = counters.computeIfAbsent(fullMethodName, method -> new Counter[] {
+                    Counter.builder("grpc.server.message.bytes").tag("method", method).tag("size", "wire")
+                            .register(meterRegistry),
+                    Counter.builder("grpc.server.message.bytes").tag("method", method).tag("size", "uncompressed")
+                            .register(meterRegistry)
+            });
+
+            return new ServerStreamTracer() {
+                private long wireBytes;
+                private long uncompressedBytes;
+
+                @Override
+                public void outboundWireSize(long bytes) {
+                    wireBytes += bytes;
+                }
+
+                @Override
+                public void outboundUncompressedSize(long bytes) {
+                    uncompressedBytes += bytes;
+                }
+
+                @Override
+                public void streamClosed(Status status) {
+                    methodCounters[0].increment(wireBytes);
+                    methodCounters[1].increment(uncompressedBytes);
+                }
+            };
+        }
+    }
+}
@@ -7,6 +7,7 @@ import com.microservice.user_service.grpc.client.ContentServiceGrpcClient;
 import com.microservice.user_service.grpc.client.PaymentServiceGrpcClient;
 import com.microservice.user_service.grpc.client.ProfileServiceGrpcClient;
 import com.microservice.user_service.grpc.client.SubscriptionServiceGrpcClient;
+import com.microservice.user_service.grpc.client.WatchHistoryServiceGrpcClient;
 import com.microservice.user_service.service.UserProfileService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -14,7 +15,6 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
@@ -37,6 +37,7 @@ public class UserDashboardController {
         private final SubscriptionServiceGrpcClient subscriptionServiceGrpcClient;
         private final PaymentServiceGrpcClient paymentServiceGrpcClient;
         private final ContentServiceGrpcClient contentServiceGrpcClient;
+        private final WatchHistoryServiceGrpcClient watchHistoryServiceGrpcClient;
         private final Executor grpcExecutor;
 
         public UserDashboardController(
@@ -45,12 +46,14 @@ public class UserDashboardController {
                         SubscriptionServiceGrpcClient subscriptionServiceGrpcClient,
                         PaymentServiceGrpcClient paymentServiceGrpcClient,
                         ContentServiceGrpcClient contentServiceGrpcClient,
+                        WatchHistoryServiceGrpcClient watchHistoryServiceGrpcClient,
                         @Qualifier("grpcExecutor") Executor grpcExecutor) {
                 this.userProfileService = userProfileService;
                 this.profileServiceGrpcClient = profileServiceGrpcClient;
                 this.subscriptionServiceGrpcClient = subscriptionServiceGrpcClient;
                 this.paymentServiceGrpcClient = paymentServiceGrpcClient;
                 this.contentServiceGrpcClient = contentServiceGrpcClient;
+                this.watchHistoryServiceGrpcClient = watchHistoryServiceGrpcClient;
                 this.grpcExecutor = grpcExecutor;
         }
 
@@ -123,13 +126,12 @@ public class UserDashboardController {
                                         .supplyAsync(() -> {
                                                 try {
                                                         long start = System.currentTimeMillis();
-                                                        List<PaymentInfo> allPayments = paymentServiceGrpcClient
-                                                                        .getRecentPayments(userId);
-                                                        List<PaymentInfo> filtered = allPayments.stream().limit(5)
-                                                                        .collect(Collectors.toList());
+                                                        // Son 5 ödeme (LIMIT server tarafında)
+                                                        List<PaymentInfo> recentPayments = paymentServiceGrpcClient
+                                                                        .getRecentPayments(userId, 5);
                                                         log.info("    ✓ Parallel [gRPC->Payment] - {}ms",
                                                                         System.currentTimeMillis() - start);
-                                                        return filtered;
+                                                        return recentPayments;
                                                 } catch (Exception e) {
                                                         log.warn("    ⚠ Parallel [gRPC->Payment] FAILED: {} - Returning empty list",
                                                                         e.getMessage());
@@ -156,28 +158,38 @@ public class UserDashboardController {
                                                 }
                                         }, grpcExecutor);
 
+                        // 6. gRPC CALL: Video Streaming Service - watch history summary
+                        CompletableFuture<WatchHistoryInfo> watchHistoryFuture = CompletableFuture
+                                        .supplyAsync(() -> {
+                                                try {
+                                                        long start = System.currentTimeMillis();
+                                                        WatchHistoryInfo summary = watchHistoryServiceGrpcClient
+                                                                        .getSummary(userId);
+                                                        log.info("    ✓ Parallel [gRPC->WatchHistory] - {}ms",
+                                                                        System.currentTimeMillis() - start);
+                                                        return summary;
+                                                } catch (Exception e) {
+                                                        log.warn("    ⚠ Parallel [gRPC->WatchHistory] FAILED: {} - Returning empty history",
+                                                                        e.getMessage());
+                                                        return emptyWatchHistory();
+                                                }
+                                        }, grpcExecutor);
+
                         // Wait for all to complete
                         CompletableFuture
-                                        .allOf(profilesFuture, subFuture, paymentsFuture, contentsFuture).join();
+                                        .allOf(profilesFuture, subFuture, paymentsFuture, contentsFuture,
+                                                        watchHistoryFuture)
+                                        .join();
 
                         List<ProfileInfo> profiles = profilesFuture.get();
                         SubscriptionInfo subscription = subFuture.get();
                         List<PaymentInfo> payments = paymentsFuture.get();
                         List<ContentInfo> recommendedContents = contentsFuture.get();
+                        WatchHistoryInfo watchHistory = watchHistoryFuture.get();
 
                         log.info("  🚀 All parallel calls completed in {}ms (Truly Parallelized)",
                                         System.currentTimeMillis() - parallelStartTime);
 
-                        // 6. LOCAL: Mock watch history
-                        long step6Start = System.currentTimeMillis();
-                        WatchHistoryInfo watchHistory = WatchHistoryInfo.builder()
-                                        .totalWatched(42)
-                                        .recentWatchCount(12)
-                                        .lastWatchedDate(LocalDateTime.now().toString())
-                                        .build();
-                        log.info("  ✓ Step 6 [LOCAL] Watch history created - {}ms",
-                                        System.currentTimeMillis() - step6Start);
-
                         // Build final response
                         UserDashboardResponse response = UserDashboardResponse.builder()
                                         .user(userInfo)
@@ -202,6 +214,16 @@ public class UserDashboardController {
                 }
         }
 
+        /**
+         * İzleme geçmişi alınamazsa dashboard boş özetle döner
+         */
+        private static WatchHistoryInfo emptyWatchHistory() {
+                return WatchHistoryInfo.builder()
+                                .totalWatched(0)
+                                .recentWatchCount(0)
+                                .build();
+        }
+
         /**
          * Health check endpoint
          */
@@ -0,0 +1,157 @@
+package com.microservice.user_service.grpc;
+
+import io.grpc.Codec;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CPU süresi ölçülen codec sarmalayıcısı
+ * Mesaj başına compress / decompress stream'lerinde harcanan thread CPU süresini codec bazında yayınlar
+ * (grpc.compression.cpu{codec, operation}). Method bazlı wire / uncompressed byte sayılarının
+ * (grpc.server.message.bytes) maliyet tarafıdır: eşik ve method -> codec eşlemesi bu ikisine göre ayarlanır.
+ *
+ * Ölçüm her okuma / yazma çağrısında yapılır (gRPC stream'i farklı thread'lerde okuyabilir);
+ * thread CPU süresi desteklenmiyorsa duvar saati kullanılır.
+ */
+public class TimedCodec implements Codec {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final boolean CPU_TIME_SUPPORTED = THREADS.isCurrentThreadCpuTimeSupported();
+
+    private final Codec delegate;
+    private final Timer compressTimer;
+    private final Timer decompressTimer;
+
+    public TimedCodec(Codec delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.compressTimer = timer(meterRegistry, delegate.getMessageEncoding(), "compress");
+        this.decompressTimer = timer(meterRegistry, delegate.getMessageEncoding(), "decompress");
+    }
+
+    @Override
+    public String getMessageEncoding() {
+        return delegate.getMessageEncoding();
+    }
+
+    @Override
+    public OutputStream compress(OutputStream os) throws IOException {
+        return new TimedOutputStream(delegate.compress(os), compressTimer);
+    }
+
+    @Override
+    public InputStream decompress(InputStream is) throws IOException {
+        return new TimedInputStream(delegate.decompress(is), decompressTimer);
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String codec, String operation) {
+        return Timer.builder("grpc.compression.cpu")
+                .description("CPU time spent in gRPC message compression per message")
+                .tag("codec", codec)
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    private static long cpuNanos() {
+        return CPU_TIME_SUPPORTED ? THREADS.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    private static final class TimedOutputStream extends FilterOutputStream {
+
+        private final Timer timer;
+        private long nanos;
+        private boolean recorded;
+
+        TimedOutputStream(OutputStream out, Timer timer) {
+            super(out);
+            this.timer = timer;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            long start = cpuNanos();
+            out.write(b);
+            nanos += cpuNanos() - start;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            long start = cpuNanos();
+            out.write(b, off, len);
+            nanos += cpuNanos() - start;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            long start = cpuNanos();
+            out.flush();
+            nanos += cpuNanos() - start;
+        }
+
+        @Override
+        public void close() throws IOException {
+            long start = cpuNanos();
+            try {
+                out.close();
+            } finally {
+                nanos += cpuNanos() - start;
+                if (!recorded) {
+                    recorded = true;
+                    timer.record(nanos, TimeUnit.NANOSECONDS);
+                }
+            }
+        }
+    }
+
+    private static final class TimedInputStream extends FilterInputStream {
+
+        private final Timer timer;
+        private long nanos;
+        private boolean recorded;
+
+        TimedInputStream(InputStream in, Timer timer) {
+            super(in);
+            this.timer = timer;
+        }
+
+        @Override
+        public int read() throws IOException {
+            long start = cpuNanos();
+            try {
+                return in.read();
+            } finally {
+                nanos += cpuNanos() - start;
+            }
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            long start = cpuNanos();
+            try {
+                return in.read(b, off, len);
+            } finally {
+                nanos += cpuNanos() - start;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                in.close();
+            } finally {
+                if (!recorded) {
+                    recorded = true;
+                    timer.record(nanos, TimeUnit.NANOSECONDS);
+                }
+            }
+        }
+    }
+}
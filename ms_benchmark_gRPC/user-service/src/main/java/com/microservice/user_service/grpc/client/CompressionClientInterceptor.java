@@ -0,0 +1,46 @@
+package com.microservice.user_service.grpc.client;
+
+import com.microservice.user_service.config.GrpcCompressionConfig;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ForwardingClientCall;
+import io.grpc.MethodDescriptor;
+import net.devh.boot.grpc.client.interceptor.GrpcGlobalClientInterceptor;
+
+/**
+ * gRPC Client Compression Interceptor
+ * Request codec'ini method adına göre seçer; eşiğin altındaki mesajları sıkıştırmaz.
+ * Yanıt codec'ini server seçer, client sadece desteklediklerini advertise eder.
+ */
+@GrpcGlobalClientInterceptor
+public class CompressionClientInterceptor implements ClientInterceptor {
+
+    private final GrpcCompressionConfig compressionConfig;
+
+    public CompressionClientInterceptor(GrpcCompressionConfig compressionConfig) {
+        this.compressionConfig = compressionConfig;
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(
+            MethodDescriptor<ReqT, RespT> method,
+            CallOptions callOptions,
+            Channel next) {
+
+        String codec = compressionConfig.codecFor(method.getFullMethodName());
+        if (codec == null) {
+            return next.newCall(method, callOptions);
+        }
+
+        return new ForwardingClientCall.SimpleForwardingClientCall<>(
+                next.newCall(method, callOptions.withCompression(codec))) {
+            @Override
+            public void sendMessage(ReqT message) {
+                delegate().setMessageCompression(compressionConfig.shouldCompress(message));
+                super.sendMessage(message);
+            }
+        };
+    }
+}
@@ -27,15 +27,17 @@ public class PaymentServiceGrpcClient {
 
     /**
      * gRPC üzerinden kullanıcının son ödemelerini getir
+     * limit server tarafında veritabanı sorgusuna uygulanır
      */
-    public List<PaymentInfo> getRecentPayments(String userId) {
+    public List<PaymentInfo> getRecentPayments(String userId, int limit) {
         long startTime = System.currentTimeMillis();
-        log.info("gRPC Client: Getting payments for userId: {} (REAL gRPC CALL)", userId);
+        log.info("gRPC Client: Getting last {} payments for userId: {} (REAL gRPC CALL)", limit, userId);
 
         try {
             // REAL gRPC stub call
             GetPaymentsRequest request = GetPaymentsRequest.newBuilder()
                     .setUserId(userId)
+                    .setLimit(limit)
                     .build();
 
             PaymentListResponse response = paymentStub.getRecentPayments(request);
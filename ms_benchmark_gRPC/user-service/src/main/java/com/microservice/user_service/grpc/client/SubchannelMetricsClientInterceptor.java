@@ -0,0 +1,89 @@
+package com.microservice.user_service.grpc.client;
+
+import io.grpc.Attributes;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ClientStreamTracer;
+import io.grpc.Grpc;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import net.devh.boot.grpc.client.interceptor.GrpcGlobalClientInterceptor;
+
+import java.net.SocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * gRPC Subchannel Metrics Interceptor
+ * Her backend adresi (subchannel) için anlık in-flight çağrı sayısını yayınlar:
+ * grpc.client.subchannel.inflight{service, address}
+ * Load balancing'in yükü replica'lara gerçekten dağıttığını doğrulamak için kullanılır.
+ */
+@GrpcGlobalClientInterceptor
+public class SubchannelMetricsClientInterceptor implements ClientInterceptor {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+
+    public SubchannelMetricsClientInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(
+            MethodDescriptor<ReqT, RespT> method,
+            CallOptions callOptions,
+            Channel next) {
+
+        String service = method.getServiceName();
+        ClientStreamTracer.Factory tracerFactory = new ClientStreamTracer.Factory() {
+            @Override
+            public ClientStreamTracer newClientStreamTracer(ClientStreamTracer.StreamInfo info, Metadata headers) {
+                return new InFlightTracer(service);
+            }
+        };
+        return next.newCall(method, callOptions.withStreamTracerFactory(tracerFactory));
+    }
+
+    private AtomicInteger gaugeFor(String service, SocketAddress address) {
+        String addr = String.valueOf(address);
+        return inFlight.computeIfAbsent(service + "|" + addr, key -> meterRegistry.gauge(
+                "grpc.client.subchannel.inflight",
+                Tags.of("service", String.valueOf(service), "address", addr),
+                new AtomicInteger()));
+    }
+
+    /**
+     * Stream bir subchannel üzerinde oluşturulduğunda artırır, kapandığında azaltır
+     */
+    private class InFlightTracer extends ClientStreamTracer {
+
+        private final String service;
+        private volatile AtomicInteger counter;
+
+        InFlightTracer(String service) {
+            this.service = service;
+        }
+
+        @Override
+        public void streamCreated(Attributes transportAttrs, Metadata headers) {
+            AtomicInteger gauge = gaugeFor(service, transportAttrs.get(Grpc.TRANSPORT_ATTR_REMOTE_ADDR));
+            gauge.incrementAndGet();
+            counter = gauge;
+        }
+
+        @Override
+        public void streamClosed(Status status) {
+            AtomicInteger gauge = counter;
+            if (gauge != null) {
+                gauge.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.microservice.user_service.grpc.client;
+
+import com.microservice.user_service.dto.response.UserDashboardResponse.WatchHistoryInfo;
+import com.microservice.user_service.grpc.proto.GetWatchHistorySummaryRequest;
+import com.microservice.user_service.grpc.proto.WatchHistoryGrpcServiceGrpc;
+import com.microservice.user_service.grpc.proto.WatchHistorySummary;
+import net.devh.boot.grpc.client.inject.GrpcClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * gRPC Client for Watch History (Video Streaming Service)
+ *
+ * REAL gRPC implementation using @GrpcClient stub
+ */
+@Service
+public class WatchHistoryServiceGrpcClient {
+
+    private static final Logger log = LoggerFactory.getLogger(WatchHistoryServiceGrpcClient.class);
+
+    @GrpcClient("watch-history-service")
+    private WatchHistoryGrpcServiceGrpc.WatchHistoryGrpcServiceBlockingStub watchHistoryStub;
+
+    /**
+     * gRPC üzerinden hesabın izleme özetini getir
+     */
+    public WatchHistoryInfo getSummary(String userId) {
+        long startTime = System.currentTimeMillis();
+        log.info("gRPC Client: Getting watch history summary for userId: {} (REAL gRPC CALL)", userId);
+
+        try {
+            GetWatchHistorySummaryRequest request = GetWatchHistorySummaryRequest.newBuilder()
+                    .setUserId(userId)
+                    .build();
+
+            WatchHistorySummary response = watchHistoryStub.getWatchHistorySummary(request);
+
+            WatchHistoryInfo watchHistory = WatchHistoryInfo.builder()
+                    .totalWatched(response.getTotalWatched())
+                    .recentWatchCount(response.getRecentWatchCount())
+                    .lastWatchedDate(response.getLastWatchedDate().isEmpty() ? null : response.getLastWatchedDate())
+                    .build();
+
+            long duration = System.currentTimeMillis() - startTime;
+            log.info("gRPC Client: Watch history summary retrieved successfully - {}ms (REAL gRPC)", duration);
+
+            return watchHistory;
+
+        } catch (Exception e) {
+            long duration = System.currentTimeMillis() - startTime;
+            log.error("gRPC Client: Failed after {}ms - {}", duration, e.getMessage());
+            throw new RuntimeException("Failed to get watch history via gRPC", e);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+-- User Service baseline şeması
+-- ddl-auto=update ile oluşturulmuş mevcut veritabanlarında bu dosya çalışmaz (baseline-on-migrate, baseline-version=1)
+
+create table user_profiles (
+    id bigint generated by default as identity,
+    user_id varchar(255) not null,
+    email varchar(100) not null,
+    first_name varchar(50),
+    last_name varchar(50),
+    phone_number varchar(20),
+    date_of_birth date,
+    profile_picture_url TEXT,
+    bio TEXT,
+    country varchar(100),
+    city varchar(100),
+    address TEXT,
+    postal_code varchar(20),
+    is_active boolean,
+    is_verified boolean,
+    created_at timestamp(6) not null,
+    updated_at timestamp(6),
+    deleted_at timestamp(6),
+    primary key (id),
+    constraint uk_user_profiles_user_id unique (user_id),
+    constraint uk_user_profiles_email unique (email)
+);
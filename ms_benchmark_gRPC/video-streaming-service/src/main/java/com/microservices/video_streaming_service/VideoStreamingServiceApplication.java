@@ -3,15 +3,18 @@ package com.microservices.video_streaming_service;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Video Streaming Service Application
  * Netflix klonu için video streaming servisi
  * 
  * @EnableDiscoveryClient: Eureka Server'a servis kaydını aktif eder
+ * @EnableScheduling: Oynatma oturumlarının periyodik temizliğini aktif eder
  */
 @SpringBootApplication
 @EnableDiscoveryClient
+@EnableScheduling
 public class VideoStreamingServiceApplication {
 
 	public static void main(String[] args) {
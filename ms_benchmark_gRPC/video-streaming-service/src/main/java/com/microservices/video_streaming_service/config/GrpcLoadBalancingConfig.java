@@ -0,0 +1,67 @@
+package com.microservices.video_streaming_service.config;
+
+import net.devh.boot.grpc.client.channelfactory.GrpcChannelConfigurer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * gRPC Client-Side Load Balancing Configuration
+ * Her grpc.client.* kanalı için LB policy ve outlier detection ayarlarını uygular.
+ *
+ * Policy: grpc.client.<name>.default-load-balancing-policy (round_robin, pick_first)
+ * Outlier detection: grpc.client.<name>.outlier-detection.* (enabled, interval, ...)
+ * Outlier detection açıksa, seçilen policy outlier_detection_experimental'ın child policy'si olur:
+ * sürekli hata dönen replica'lar geçici olarak rotasyondan çıkarılır.
+ */
+@Configuration
+public class GrpcLoadBalancingConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(GrpcLoadBalancingConfig.class);
+
+    private final Environment environment;
+
+    public GrpcLoadBalancingConfig(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Bean
+    public GrpcChannelConfigurer loadBalancingChannelConfigurer() {
+        return (channelBuilder, name) -> {
+            String prefix = "grpc.client." + name + ".";
+            if (!environment.getProperty(prefix + "outlier-detection.enabled", Boolean.class, false)) {
+                return;
+            }
+
+            String policy = environment.getProperty(prefix + "default-load-balancing-policy", "round_robin");
+            channelBuilder.defaultServiceConfig(outlierDetectionServiceConfig(prefix + "outlier-detection.", policy));
+            log.info("gRPC channel '{}': outlier detection enabled (child policy: {})", name, policy);
+        };
+    }
+
+    /**
+     * gRPC service config JSON'unun Map karşılığı (sayılar Double olmalı)
+     */
+    private Map<String, ?> outlierDetectionServiceConfig(String prefix, String childPolicy) {
+        Map<String, Object> failurePercentageEjection = Map.of(
+                "threshold", environment.getProperty(prefix + "failure-percentage-threshold", Double.class, 50.0),
+                "enforcementPercentage", 100.0,
+                "minimumHosts", environment.getProperty(prefix + "minimum-hosts", Double.class, 2.0),
+                "requestVolume", environment.getProperty(prefix + "request-volume", Double.class, 20.0));
+
+        Map<String, Object> outlierDetection = Map.of(
+                "interval", environment.getProperty(prefix + "interval", "10s"),
+                "baseEjectionTime", environment.getProperty(prefix + "base-ejection-time", "30s"),
+                "maxEjectionTime", environment.getProperty(prefix + "max-ejection-time", "300s"),
+                "maxEjectionPercentage", environment.getProperty(prefix + "max-ejection-percentage", Double.class, 50.0),
+                "failurePercentageEjection", failurePercentageEjection,
+                "childPolicy", List.of(Map.of(childPolicy, Map.of())));
+
+        return Map.of("loadBalancingConfig", List.of(Map.of("outlier_detection_experimental", outlierDetection)));
+    }
+}
@@ -0,0 +1,27 @@
+package com.microservices.video_streaming_service.config;
+
+import com.microservices.video_streaming_service.service.StreamTelemetry;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Stream Telemetry Configuration
+ * Progressive streaming endpoint'leri StreamTelemetry interceptor'ı ile gözlenir
+ * (HLS manifest / segment ve oturum endpoint'leri hariç)
+ */
+@Configuration
+public class StreamTelemetryConfig implements WebMvcConfigurer {
+
+    private final StreamTelemetry streamTelemetry;
+
+    public StreamTelemetryConfig(StreamTelemetry streamTelemetry) {
+        this.streamTelemetry = streamTelemetry;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(streamTelemetry)
+                .addPathPatterns("/api/stream/content/*", "/api/stream/episode/*");
+    }
+}
@@ -0,0 +1,26 @@
+package com.microservices.video_streaming_service.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Watch Progress Request DTO
+ * Oynatıcının periyodik izleme ilerlemesi heartbeat'i
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WatchProgressRequest {
+
+    private Long profileId;
+    private Long contentId;
+    // Dizilerde izlenen bölüm (filmlerde null)
+    private Long episodeId;
+    private Integer positionSeconds;
+    private Integer durationSeconds;
+    // Verilmezse position / duration oranından hesaplanır
+    private Boolean completed;
+}
@@ -0,0 +1,23 @@
+package com.microservices.video_streaming_service.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Continue Watching Response DTO
+ * Profilin yarıda bıraktığı içerik ve kaldığı konum
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContinueWatchingResponse {
+
+    private Long contentId;
+    private Long episodeId;
+    private Integer positionSeconds;
+    private Integer durationSeconds;
+    private String lastWatchedDate;
+}
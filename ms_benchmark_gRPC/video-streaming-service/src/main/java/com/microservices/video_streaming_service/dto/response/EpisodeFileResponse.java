@@ -0,0 +1,23 @@
+package com.microservices.video_streaming_service.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Episode File Response DTO
+ * Content Management Service'ten gelen hafif bölüm bilgisi (bölüm -> video dosyası çözümlemesi)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EpisodeFileResponse {
+
+    private Long id;
+    private Long seasonId;
+    private Integer episodeNumber;
+    private String videoFilePath;
+    private Boolean isActive;
+}
@@ -0,0 +1,22 @@
+package com.microservices.video_streaming_service.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Subscription Plan Response DTO
+ * Streaming limitleri için kullanılan plan alanları (ekran sayısı, görüntü kalitesi)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SubscriptionPlanResponse {
+
+    private Long id;
+    private String planName;
+    private Integer maxScreens;
+    private String videoQuality;
+}
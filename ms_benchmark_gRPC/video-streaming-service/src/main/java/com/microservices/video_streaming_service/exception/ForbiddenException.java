@@ -0,0 +1,11 @@
+package com.microservices.video_streaming_service.exception;
+
+/**
+ * Exception thrown when a signed resource URL is invalid or expired
+ */
+public class ForbiddenException extends RuntimeException {
+
+    public ForbiddenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.microservices.video_streaming_service.exception;
+
+/**
+ * Exception thrown when an account exceeds the concurrent screen limit of its plan
+ */
+public class StreamLimitExceededException extends RuntimeException {
+
+    public StreamLimitExceededException(String message) {
+        super(message);
+    }
+}
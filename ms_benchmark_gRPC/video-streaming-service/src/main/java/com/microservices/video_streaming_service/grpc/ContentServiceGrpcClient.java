@@ -1,14 +1,19 @@
 package com.microservices.video_streaming_service.grpc;
 
 import com.microservices.video_streaming_service.dto.response.ContentResponse;
+import com.microservices.video_streaming_service.dto.response.EpisodeFileResponse;
 import com.microservices.video_streaming_service.grpc.proto.ContentGrpcServiceGrpc;
 import com.microservices.video_streaming_service.grpc.proto.GetContentRequest;
+import com.microservices.video_streaming_service.grpc.proto.GetEpisodeRequest;
+import com.microservices.video_streaming_service.grpc.proto.GetSeasonEpisodesRequest;
 import io.grpc.StatusRuntimeException;
 import net.devh.boot.grpc.client.inject.GrpcClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 /**
  * gRPC Client for Content Management Service
  * Content Management Service'e gRPC üzerinden bağlanır ve içerik bilgilerini
@@ -58,4 +63,61 @@ public class ContentServiceGrpcClient {
             throw new RuntimeException("Failed to get content via gRPC: " + e.getStatus().getDescription(), e);
         }
     }
+
+    /**
+     * gRPC üzerinden hafif bölüm bilgisini getir (videoFilePath ve seasonId için)
+     *
+     * @param episodeId Bölüm ID
+     * @return EpisodeFileResponse
+     */
+    public EpisodeFileResponse getEpisodeFile(Long episodeId) {
+        log.debug("gRPC Client: Getting episode file for episodeId: {}", episodeId);
+
+        try {
+            com.microservices.video_streaming_service.grpc.proto.EpisodeFileResponse grpcResponse = contentStub
+                    .getEpisodeById(GetEpisodeRequest.newBuilder().setEpisodeId(episodeId).build());
+
+            return toEpisodeFile(grpcResponse);
+
+        } catch (StatusRuntimeException e) {
+            log.error("gRPC Client: Failed to get episode file for episodeId: {}. Status: {}",
+                    episodeId, e.getStatus());
+            throw new RuntimeException("Failed to get episode via gRPC: " + e.getStatus().getDescription(), e);
+        }
+    }
+
+    /**
+     * gRPC üzerinden sezonun aktif bölümlerinin hafif bilgisini getir (sezon prefetch'i)
+     *
+     * @param seasonId Sezon ID
+     * @return bölüm numarasına göre sıralı liste
+     */
+    public List<EpisodeFileResponse> getActiveEpisodeFilesBySeasonId(Long seasonId) {
+        log.debug("gRPC Client: Getting episode files for seasonId: {}", seasonId);
+
+        try {
+            return contentStub
+                    .getEpisodesBySeasonId(GetSeasonEpisodesRequest.newBuilder().setSeasonId(seasonId).build())
+                    .getEpisodesList()
+                    .stream()
+                    .map(ContentServiceGrpcClient::toEpisodeFile)
+                    .toList();
+
+        } catch (StatusRuntimeException e) {
+            log.error("gRPC Client: Failed to get episode files for seasonId: {}. Status: {}",
+                    seasonId, e.getStatus());
+            throw new RuntimeException("Failed to get season episodes via gRPC: " + e.getStatus().getDescription(), e);
+        }
+    }
+
+    private static EpisodeFileResponse toEpisodeFile(
+            com.microservices.video_streaming_service.grpc.proto.EpisodeFileResponse grpcResponse) {
+        return EpisodeFileResponse.builder()
+                .id(grpcResponse.getId())
+                .seasonId(grpcResponse.getSeasonId() != 0 ? grpcResponse.getSeasonId() : null)
+                .episodeNumber(grpcResponse.getEpisodeNumber())
+                .videoFilePath(grpcResponse.getVideoFilePath().isEmpty() ? null : grpcResponse.getVideoFilePath())
+                .isActive(grpcResponse.getIsActive())
+                .build();
+    }
 }
@@ -1,5 +1,6 @@
 package com.microservices.video_streaming_service.grpc;
 
+import com.microservices.video_streaming_service.dto.response.SubscriptionPlanResponse;
 import com.microservices.video_streaming_service.dto.response.SubscriptionResponse;
 import com.microservices.video_streaming_service.grpc.proto.GetActiveSubscriptionRequest;
 import com.microservices.video_streaming_service.grpc.proto.SubscriptionGrpcServiceGrpc;
@@ -50,6 +51,12 @@ public class SubscriptionServiceGrpcClient {
                     .status(grpcResponse.getStatus())
                     .billingCycle(grpcResponse.getBillingCycle())
                     .autoRenew(grpcResponse.getAutoRenew())
+                    .plan(grpcResponse.hasPlan() ? SubscriptionPlanResponse.builder()
+                            .id(grpcResponse.getPlan().getId())
+                            .planName(grpcResponse.getPlan().getPlanName())
+                            .maxScreens(grpcResponse.getPlan().getMaxScreens())
+                            .videoQuality(grpcResponse.getPlan().getVideoQuality())
+                            .build() : null)
                     .build();
 
         } catch (StatusRuntimeException e) {
@@ -0,0 +1,66 @@
+package com.microservices.video_streaming_service.grpc;
+
+import com.microservices.video_streaming_service.dto.response.WatchHistorySummaryResponse;
+import com.microservices.video_streaming_service.grpc.proto.GetWatchHistorySummaryRequest;
+import com.microservices.video_streaming_service.grpc.proto.WatchHistoryGrpcServiceGrpc;
+import com.microservices.video_streaming_service.grpc.proto.WatchHistorySummary;
+import com.microservices.video_streaming_service.service.WatchHistoryService;
+import io.grpc.stub.StreamObserver;
+import net.devh.boot.grpc.server.service.GrpcService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * gRPC Server Implementation for Watch History
+ * User Service dashboard'u izleme geçmişi özetini bu endpoint üzerinden alır
+ */
+@GrpcService
+public class WatchHistoryGrpcServiceImpl extends WatchHistoryGrpcServiceGrpc.WatchHistoryGrpcServiceImplBase {
+
+    private static final Logger log = LoggerFactory.getLogger(WatchHistoryGrpcServiceImpl.class);
+
+    private final WatchHistoryService watchHistoryService;
+
+    public WatchHistoryGrpcServiceImpl(WatchHistoryService watchHistoryService) {
+        this.watchHistoryService = watchHistoryService;
+    }
+
+    /**
+     * gRPC üzerinden hesabın izleme özetini getir
+     * REST'teki /api/stream/history/summary ile aynı bellek içi indeks
+     */
+    @Override
+    public void getWatchHistorySummary(
+            GetWatchHistorySummaryRequest request,
+            StreamObserver<WatchHistorySummary> responseObserver) {
+
+        log.info("gRPC: Getting watch history summary for userId: {}", request.getUserId());
+
+        if (request.getUserId().isEmpty()) {
+            responseObserver.onError(io.grpc.Status.INVALID_ARGUMENT
+                    .withDescription("user_id is required")
+                    .asRuntimeException());
+            return;
+        }
+
+        try {
+            WatchHistorySummaryResponse summary = watchHistoryService.getSummary(request.getUserId(), null);
+
+            WatchHistorySummary grpcResponse = WatchHistorySummary.newBuilder()
+                    .setTotalWatched(summary.getTotalWatched())
+                    .setRecentWatchCount(summary.getRecentWatchCount())
+                    .setLastWatchedDate(summary.getLastWatchedDate() != null ? summary.getLastWatchedDate() : "")
+                    .build();
+
+            responseObserver.onNext(grpcResponse);
+            responseObserver.onCompleted();
+
+        } catch (Exception e) {
+            log.error("gRPC: Failed to get watch history summary for userId: {}", request.getUserId(), e);
+            responseObserver.onError(
+                    io.grpc.Status.UNAVAILABLE
+                            .withDescription("Watch history unavailable: " + e.getMessage())
+                            .asRuntimeException());
+        }
+    }
+}
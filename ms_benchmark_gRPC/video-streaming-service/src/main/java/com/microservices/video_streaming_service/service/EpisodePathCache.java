@@ -0,0 +1,139 @@
+package com.microservices.video_streaming_service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.microservices.video_streaming_service.dto.response.EpisodeFileResponse;
+import com.microservices.video_streaming_service.exception.ResourceNotFoundException;
+import com.microservices.video_streaming_service.grpc.ContentServiceGrpcClient;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Episode Path Cache
+ * episodeId -> bölüm dosya bilgisi (seasonId, episodeNumber, videoFilePath, isActive) önbelleği.
+ *
+ * - Cache'te olmayan bölüm Content Management Service'in hafif endpoint'inden tek seferde alınır
+ *   (aynı episodeId için tek loader çalışır).
+ * - İlk lookup'tan sonra bölümün sezonundaki tüm aktif bölümler arka planda yüklenir (sezon prefetch'i);
+ *   böylece art arda izlenen bölümler uzak servise gitmeden çözülür.
+ * - Kayıtlar ttl kadar tutulur (dosya yolu / aktiflik değişiklikleri için üst sınır); sezon da ttl dolunca
+ *   tekrar prefetch edilir.
+ *
+ * Metrikler: cache.* {cache=episodes}, video.episodes.prefetch {result=loaded|failed|dropped}
+ */
+@Component
+public class EpisodePathCache {
+
+    private static final Logger log = LoggerFactory.getLogger(EpisodePathCache.class);
+
+    private final ContentServiceGrpcClient contentServiceGrpcClient;
+    private final Cache<Long, EpisodeFileResponse> episodes;
+    private final Cache<Long, Boolean> prefetchedSeasons;
+    private final ThreadPoolTaskExecutor prefetchExecutor;
+
+    private final Counter prefetchLoadedCounter;
+    private final Counter prefetchFailedCounter;
+    private final Counter prefetchDroppedCounter;
+
+    public EpisodePathCache(
+            ContentServiceGrpcClient contentServiceGrpcClient,
+            MeterRegistry meterRegistry,
+            @Value("${video.episode-cache.maximum-size:100000}") long maximumSize,
+            @Value("${video.episode-cache.ttl:10m}") Duration ttl,
+            @Value("${video.episode-cache.prefetch.threads:2}") int prefetchThreads,
+            @Value("${video.episode-cache.prefetch.queue-capacity:64}") int prefetchQueueCapacity) {
+        this.contentServiceGrpcClient = contentServiceGrpcClient;
+        this.episodes = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.prefetchedSeasons = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+
+        this.prefetchLoadedCounter = meterRegistry.counter("video.episodes.prefetch", "result", "loaded");
+        this.prefetchFailedCounter = meterRegistry.counter("video.episodes.prefetch", "result", "failed");
+        this.prefetchDroppedCounter = meterRegistry.counter("video.episodes.prefetch", "result", "dropped");
+        CaffeineCacheMetrics.monitor(meterRegistry, episodes, "episodes");
+
+        this.prefetchExecutor = new ThreadPoolTaskExecutor();
+        prefetchExecutor.setCorePoolSize(prefetchThreads);
+        prefetchExecutor.setMaxPoolSize(prefetchThreads);
+        prefetchExecutor.setQueueCapacity(prefetchQueueCapacity);
+        prefetchExecutor.setThreadNamePrefix("EpisodePrefetch-");
+        prefetchExecutor.initialize();
+
+        log.info("Episode path cache: maximumSize={}, ttl={}, prefetchThreads={}", maximumSize, ttl, prefetchThreads);
+    }
+
+    /**
+     * Bölüm dosya bilgisini getir (cache'te yoksa yükle); bölümün sezonu prefetch edilir
+     */
+    public EpisodeFileResponse get(Long episodeId) {
+        EpisodeFileResponse episode = episodes.get(episodeId, this::lookup);
+        prefetchSeason(episode.getSeasonId());
+        return episode;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        prefetchExecutor.shutdown();
+    }
+
+    private EpisodeFileResponse lookup(Long episodeId) {
+        EpisodeFileResponse episode;
+        try {
+            episode = contentServiceGrpcClient.getEpisodeFile(episodeId);
+        } catch (Exception e) {
+            log.error("Failed to fetch episode from Content Management Service: {}", e.getMessage());
+            throw new ResourceNotFoundException("Episode not found for episode ID: " + episodeId);
+        }
+        if (episode == null || episode.getId() == null) {
+            throw new ResourceNotFoundException("Episode not found for episode ID: " + episodeId);
+        }
+        return episode;
+    }
+
+    /**
+     * Sezonun aktif bölümlerini arka planda cache'e yükle (ttl içinde sezon başına bir kez)
+     */
+    private void prefetchSeason(Long seasonId) {
+        if (seasonId == null || prefetchedSeasons.asMap().putIfAbsent(seasonId, Boolean.TRUE) != null) {
+            return;
+        }
+        try {
+            prefetchExecutor.execute(() -> {
+                try {
+                    List<EpisodeFileResponse> seasonEpisodes =
+                            contentServiceGrpcClient.getActiveEpisodeFilesBySeasonId(seasonId);
+                    for (EpisodeFileResponse episode : seasonEpisodes) {
+                        episodes.put(episode.getId(), episode);
+                    }
+                    prefetchLoadedCounter.increment();
+                    log.debug("Prefetched {} episodes for seasonId: {}", seasonEpisodes.size(), seasonId);
+                } catch (Exception e) {
+                    // Sonraki lookup'ta tekrar denenir
+                    prefetchedSeasons.invalidate(seasonId);
+                    prefetchFailedCounter.increment();
+                    log.warn("Failed to prefetch episodes for seasonId {}: {}", seasonId, e.getMessage());
+                }
+            });
+        } catch (TaskRejectedException e) {
+            prefetchedSeasons.invalidate(seasonId);
+            prefetchDroppedCounter.increment();
+        }
+    }
+}
@@ -0,0 +1,392 @@
+package com.microservices.video_streaming_service.service;
+
+import com.microservices.video_streaming_service.dto.response.SubscriptionPlanResponse;
+import com.microservices.video_streaming_service.dto.response.SubscriptionResponse;
+import com.microservices.video_streaming_service.exception.StreamLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Stream Session Registry
+ * Hesap başına aktif oynatma oturumlarının bellek içi kaydı; planın maxScreens limitini uygular
+ * ve her oturuma plan kalitesine göre bir TokenBucket (hız sınırı) verir.
+ *
+ * - Oturum kimliğini sunucu verir (yanıttaki X-Playback-Session-Id). Oturum açan istemciye (adres + User-Agent)
+ *   bağlıdır; başka bir istemcinin gönderdiği aynı id eşleşmez ve yeni oturum (yeni ekran slotu) açılır.
+ *   Header göndermeyen istemcinin kimliği content + istemci adresi + User-Agent'tan türetilir.
+ * - Her streaming isteği oturumu tazeler (heartbeat); ttl boyunca istek gelmeyen oturum düşer.
+ * - Slot sayacı kilitsizdir (AtomicInteger CAS); boşalan hesap kaydı sayaç -1 yapılarak emekliye ayrılır.
+ * - Kayıt instance başınadır; gateway aynı hesabı farklı replica'lara dağıtırsa limit replica başına uygulanır.
+ *
+ * Metrikler: video.sessions.active, video.sessions.rejected
+ */
+@Component
+public class StreamSessionRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(StreamSessionRegistry.class);
+
+    public static final String SESSION_HEADER = "X-Playback-Session-Id";
+
+    private static final Pattern SESSION_ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+    private static final String DERIVED_PREFIX = "d-";
+    private static final String ISSUED_PREFIX = "s-";
+    static final int FULL = -1;
+    static final int RETIRED = -2;
+
+    private final Map<String, AccountSessions> accounts = new ConcurrentHashMap<>();
+    private final SecureRandom random = new SecureRandom();
+    private final AtomicInteger activeSessions = new AtomicInteger();
+    private final Counter rejectedCounter;
+
+    private final long ttlNanos;
+    private final int defaultMaxScreens;
+    private final long burstBytes;
+    private final long hdBytesPerSecond;
+    private final long fullHdBytesPerSecond;
+    private final long uhdBytesPerSecond;
+    private final long defaultBytesPerSecond;
+
+    public StreamSessionRegistry(
+            MeterRegistry meterRegistry,
+            @Value("${video.streaming.sessions.ttl:90s}") Duration ttl,
+            @Value("${video.streaming.sessions.default-max-screens:1}") int defaultMaxScreens,
+            @Value("${video.streaming.bandwidth.burst:8MB}") DataSize burst,
+            @Value("${video.streaming.bandwidth.hd:1MB}") DataSize hd,
+            @Value("${video.streaming.bandwidth.full-hd:2MB}") DataSize fullHd,
+            @Value("${video.streaming.bandwidth.uhd:5MB}") DataSize uhd,
+            @Value("${video.streaming.bandwidth.default:1MB}") DataSize defaultRate) {
+        this.ttlNanos = ttl.toNanos();
+        this.defaultMaxScreens = defaultMaxScreens;
+        this.burstBytes = burst.toBytes();
+        this.hdBytesPerSecond = hd.toBytes();
+        this.fullHdBytesPerSecond = fullHd.toBytes();
+        this.uhdBytesPerSecond = uhd.toBytes();
+        this.defaultBytesPerSecond = defaultRate.toBytes();
+        this.rejectedCounter = meterRegistry.counter("video.sessions.rejected");
+        meterRegistry.gauge("video.sessions.active", activeSessions);
+
+        log.info("Stream sessions: ttl={}, defaultMaxScreens={}, burst={}, rates(hd={}, fullHd={}, uhd={}, default={})",
+                ttl, defaultMaxScreens, burst, hd, fullHd, uhd, defaultRate);
+    }
+
+    /**
+     * İstemcinin istediği oturum kimliği (header yoksa türetilir); oturumu bulmak için kullanılır,
+     * yeni oturuma header'daki değer değil open()'ın verdiği kimlik atanır
+     */
+    public String sessionId(HttpServletRequest request, String resourceKey) {
+        String explicit = request.getHeader(SESSION_HEADER);
+        if (explicit != null && SESSION_ID.matcher(explicit).matches()) {
+            return explicit;
+        }
+
+        String raw = resourceKey + "|" + fingerprint(request);
+        return DERIVED_PREFIX + HexFormat.of().toHexDigits(fnv1a(raw.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Aktif oturumu tazele; oturum yoksa veya başka bir istemciye aitse null
+     * (çağıran aboneliği doğrulayıp open() çağırmalı)
+     */
+    public StreamSession touch(String userId, String sessionId, HttpServletRequest request) {
+        AccountSessions account = accounts.get(userId);
+        if (account == null) {
+            return null;
+        }
+        StreamSession session = account.sessions.get(sessionId);
+        if (session == null || !session.belongsTo(fingerprint(request))
+                || session.isExpired(System.nanoTime(), ttlNanos)) {
+            return null;
+        }
+        session.touch();
+        return session;
+    }
+
+    /**
+     * Oturumu aç (aynı istemcinin oturumu varsa tazele); plan limitine ulaşılmışsa StreamLimitExceededException
+     * İstemcinin header ile gönderdiği, bu istemciye ait olmayan kimlik kullanılmaz: yeni kimlik üretilir
+     */
+    public StreamSession open(String userId, String sessionId, HttpServletRequest request,
+                              SubscriptionResponse subscription) {
+        SubscriptionPlanResponse plan = subscription != null ? subscription.getPlan() : null;
+        int maxScreens = plan != null && plan.getMaxScreens() != null && plan.getMaxScreens() > 0
+                ? plan.getMaxScreens() : defaultMaxScreens;
+        long bytesPerSecond = rateFor(plan != null ? plan.getVideoQuality() : null);
+        String planName = plan != null && plan.getPlanName() != null ? plan.getPlanName() : "unknown";
+        String fingerprint = fingerprint(request);
+        // Türetilmiş kimlik istemcinin kendisinden hesaplanır; header'dan gelen kimliği sunucu yeniden verir
+        boolean clientSupplied = sessionId.equals(request.getHeader(SESSION_HEADER));
+
+        while (true) {
+            AccountSessions account = accounts.computeIfAbsent(userId, key -> new AccountSessions());
+
+            StreamSession existing = account.sessions.get(sessionId);
+            if (existing != null && existing.belongsTo(fingerprint)) {
+                existing.touch();
+                return existing;
+            }
+
+            int reserved = account.reserve(maxScreens);
+            if (reserved == RETIRED) {
+                continue;
+            }
+            if (reserved == FULL) {
+                // Süresi dolmuş oturum varsa temizleyip tekrar dene
+                if (expire(account, System.nanoTime()) > 0) {
+                    continue;
+                }
+                rejectedCounter.increment();
+                log.warn("Concurrent stream limit reached for user {} (maxScreens={})", userId, maxScreens);
+                throw new StreamLimitExceededException(
+                        "Concurrent stream limit reached for your plan (" + maxScreens + " screens)");
+            }
+            String id = clientSupplied || existing != null ? issueId() : sessionId;
+            return register(userId, account, id, fingerprint, planName, bytesPerSecond);
+        }
+    }
+
+    /**
+     * Oturumu sonlandır (oynatma durduğunda)
+     */
+    public boolean close(String userId, String sessionId) {
+        AccountSessions account = accounts.get(userId);
+        if (account == null) {
+            return false;
+        }
+        StreamSession session = account.sessions.get(sessionId);
+        return session != null && remove(account, sessionId, session);
+    }
+
+    /**
+     * Süresi dolmuş oturumları ve boşalan hesap kayıtlarını temizle
+     */
+    @Scheduled(fixedDelayString = "${video.streaming.sessions.sweep-interval-ms:15000}")
+    public void sweep() {
+        long now = System.nanoTime();
+        int expired = 0;
+        for (Map.Entry<String, AccountSessions> entry : accounts.entrySet()) {
+            AccountSessions account = entry.getValue();
+            expired += expire(account, now);
+            if (account.retire()) {
+                accounts.remove(entry.getKey(), account);
+            }
+        }
+        if (expired > 0) {
+            log.debug("Expired {} stream sessions", expired);
+        }
+    }
+
+    private StreamSession register(String userId, AccountSessions account, String sessionId, String fingerprint,
+                                   String planName, long bytesPerSecond) {
+        TokenBucket bandwidth = new TokenBucket(bytesPerSecond, burstBytes);
+        StreamSession session = new StreamSession(sessionId, fingerprint, planName, bandwidth);
+        while (true) {
+            StreamSession previous = account.sessions.putIfAbsent(session.getId(), session);
+            if (previous == null) {
+                break;
+            }
+            if (previous.belongsTo(fingerprint)) {
+                // Aynı oturum eşzamanlı açıldı; ayrılan slotu geri ver
+                account.release();
+                previous.touch();
+                return previous;
+            }
+            // Türetilmiş kimlik başka bir istemcinin oturumuyla çakıştı
+            session = new StreamSession(issueId(), fingerprint, planName, bandwidth);
+        }
+        activeSessions.incrementAndGet();
+        log.debug("Opened stream session {} for user {} ({} B/s)", session.getId(), userId, bytesPerSecond);
+        return session;
+    }
+
+    private int expire(AccountSessions account, long now) {
+        int expired = 0;
+        for (Map.Entry<String, StreamSession> entry : account.sessions.entrySet()) {
+            if (entry.getValue().isExpired(now, ttlNanos) && remove(account, entry.getKey(), entry.getValue())) {
+                expired++;
+            }
+        }
+        return expired;
+    }
+
+    private boolean remove(AccountSessions account, String sessionId, StreamSession session) {
+        if (account.sessions.remove(sessionId, session)) {
+            account.release();
+            activeSessions.decrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Plan kalitesine göre byte/saniye ("HD", "Full HD", "4K Ultra HD")
+     */
+    private long rateFor(String videoQuality) {
+        if (videoQuality == null) {
+            return defaultBytesPerSecond;
+        }
+        String quality = videoQuality.toUpperCase(Locale.ROOT);
+        if (quality.contains("4K") || quality.contains("ULTRA") || quality.contains("UHD")) {
+            return uhdBytesPerSecond;
+        }
+        if (quality.contains("FULL")) {
+            return fullHdBytesPerSecond;
+        }
+        if (quality.contains("HD")) {
+            return hdBytesPerSecond;
+        }
+        return defaultBytesPerSecond;
+    }
+
+    /**
+     * Sunucunun verdiği oturum kimliği (128 bit rastgele)
+     */
+    private String issueId() {
+        byte[] bytes = new byte[16];
+        random.nextBytes(bytes);
+        return ISSUED_PREFIX + Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * İstemci: gateway'in eklediği son X-Forwarded-For adresi (yoksa bağlantı adresi) + User-Agent
+     * İlk X-Forwarded-For değerini istemci kendisi yazabildiği için kullanılmaz
+     */
+    private static String fingerprint(HttpServletRequest request) {
+        String forwardedFor = request.getHeader("X-Forwarded-For");
+        String client = forwardedFor != null
+                ? forwardedFor.substring(forwardedFor.lastIndexOf(',') + 1).trim() : request.getRemoteAddr();
+        String userAgent = request.getHeader("User-Agent");
+        return client + "|" + (userAgent != null ? userAgent : "");
+    }
+
+    private static long fnv1a(byte[] data) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : data) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Hesabın oturumları; active = ayrılmış slot sayısı (-1: kayıt emekli, yenisi oluşturulmalı)
+     */
+    static final class AccountSessions {
+
+        private final Map<String, StreamSession> sessions = new ConcurrentHashMap<>();
+        private final AtomicInteger active = new AtomicInteger();
+
+        /**
+         * Slot ayır: yeni slot sayısı, FULL veya RETIRED
+         */
+        int reserve(int maxScreens) {
+            while (true) {
+                int current = active.get();
+                if (current < 0) {
+                    return RETIRED;
+                }
+                if (current >= maxScreens) {
+                    return FULL;
+                }
+                if (active.compareAndSet(current, current + 1)) {
+                    return current + 1;
+                }
+            }
+        }
+
+        /**
+         * Slotu geri ver (oturum kapandı veya eşzamanlı açılışta fazladan ayrıldı)
+         */
+        void release() {
+            active.decrementAndGet();
+        }
+
+        /**
+         * Oturum kalmadıysa kaydı emekliye ayır (sonraki open() yeni kayıt oluşturur)
+         */
+        boolean retire() {
+            return active.compareAndSet(0, -1);
+        }
+    }
+
+    /**
+     * Aktif oynatma oturumu
+     */
+    public static final class StreamSession {
+
+        private final String id;
+        private final String fingerprint;
+        private final String planName;
+        private final TokenBucket bandwidth;
+        private final AtomicLong lastSeen;
+        private final AtomicLong lastReadEnd = new AtomicLong(-1);
+
+        private StreamSession(String id, String fingerprint, String planName, TokenBucket bandwidth) {
+            this.id = id;
+            this.fingerprint = fingerprint;
+            this.planName = planName;
+            this.bandwidth = bandwidth;
+            this.lastSeen = new AtomicLong(System.nanoTime());
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        /**
+         * Oturumu açan aboneliğin plan adı (telemetri etiketi)
+         */
+        public String getPlanName() {
+            return planName;
+        }
+
+        public TokenBucket getBandwidth() {
+            return bandwidth;
+        }
+
+        void touch() {
+            lastSeen.set(System.nanoTime());
+        }
+
+        /**
+         * Oturumu açan istemciden mi
+         */
+        boolean belongsTo(String clientFingerprint) {
+            return fingerprint.equals(clientFingerprint);
+        }
+
+        boolean isExpired(long now, long ttlNanos) {
+            return now - lastSeen.get() > ttlNanos;
+        }
+
+        /**
+         * Önceki okuma bu konumun (tolerance kadar) yakınında bittiyse true (ardışık erişim)
+         */
+        boolean continuesAt(long position, long tolerance) {
+            long previousEnd = lastReadEnd.get();
+            return previousEnd >= 0 && Math.abs(position - previousEnd) <= tolerance;
+        }
+
+        void recordEnd(long position) {
+            lastReadEnd.set(position);
+        }
+    }
+}
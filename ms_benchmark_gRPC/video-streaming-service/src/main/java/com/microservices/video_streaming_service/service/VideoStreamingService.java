@@ -3,15 +3,20 @@ package com.microservices.video_streaming_service.service;
 import com.microservices.video_streaming_service.grpc.ContentServiceGrpcClient;
 import com.microservices.video_streaming_service.grpc.SubscriptionServiceGrpcClient;
 import com.microservices.video_streaming_service.dto.response.ContentResponse;
+import com.microservices.video_streaming_service.dto.response.EpisodeFileResponse;
+import com.microservices.video_streaming_service.dto.response.SeekResponse;
 import com.microservices.video_streaming_service.dto.response.SubscriptionResponse;
 import com.microservices.video_streaming_service.exception.BadRequestException;
 import com.microservices.video_streaming_service.exception.ResourceNotFoundException;
 import com.microservices.video_streaming_service.exception.SubscriptionRequiredException;
+import com.microservices.video_streaming_service.service.Mp4SeekIndex.SeekIndex;
+import com.microservices.video_streaming_service.service.StreamSessionRegistry.StreamSession;
+import com.microservices.video_streaming_service.service.StreamTelemetry.StreamObservation;
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.FileSystemResource;
-import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -19,8 +24,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
-import java.io.IOException;
-import java.io.RandomAccessFile;
+import java.net.URI;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 
@@ -35,35 +39,197 @@ public class VideoStreamingService {
 
     private final ContentServiceGrpcClient contentServiceGrpcClient;
     private final SubscriptionServiceGrpcClient subscriptionServiceGrpcClient;
+    private final HlsStreamingService hlsStreamingService;
+    private final ByteRangeResponder byteRangeResponder;
+    private final StreamSessionRegistry streamSessionRegistry;
+    private final EpisodePathCache episodePathCache;
+    private final StreamTelemetry streamTelemetry;
+    private final Mp4SeekIndex mp4SeekIndex;
 
     @Value("${video.base-path:${user.home}/videos}")
     private String videoBasePath;
 
     public VideoStreamingService(ContentServiceGrpcClient contentServiceGrpcClient,
-            SubscriptionServiceGrpcClient subscriptionServiceGrpcClient) {
+            SubscriptionServiceGrpcClient subscriptionServiceGrpcClient,
+            HlsStreamingService hlsStreamingService,
+            ByteRangeResponder byteRangeResponder,
+            StreamSessionRegistry streamSessionRegistry,
+            EpisodePathCache episodePathCache,
+            StreamTelemetry streamTelemetry,
+            Mp4SeekIndex mp4SeekIndex) {
         this.contentServiceGrpcClient = contentServiceGrpcClient;
         this.subscriptionServiceGrpcClient = subscriptionServiceGrpcClient;
+        this.hlsStreamingService = hlsStreamingService;
+        this.byteRangeResponder = byteRangeResponder;
+        this.streamSessionRegistry = streamSessionRegistry;
+        this.episodePathCache = episodePathCache;
+        this.streamTelemetry = streamTelemetry;
+        this.mp4SeekIndex = mp4SeekIndex;
     }
 
     /**
      * Content ID'ye göre videoyu stream et
      * HTTP Range Request desteği ile (206 Partial Content)
-     * Önce abonelik kontrolü yapılır
+     * Önce abonelik kontrolü yapılır; istek başına ölçümler StreamTelemetry'de (örneklenmiş event log)
      */
-    public ResponseEntity<Resource> streamContent(Long contentId, String userId, String rangeHeader) {
-        log.info("Streaming content for contentId: {}, userId: {}, range: {}", contentId, userId, rangeHeader);
-
-        // Abonelik kontrolü - sadece ilk istekte (Range header yoksa)
-        // Sonraki chunk isteklerinde (Range: bytes=...) kontrol yapılmaz (performans
-        // optimizasyonu)
-        if (rangeHeader == null || !rangeHeader.startsWith("bytes=")) {
-            verifySubscription(userId);
+    public ResponseEntity<?> streamContent(Long contentId, String userId, String rangeHeader,
+                                           HttpServletRequest request) {
+        log.debug("Streaming content for contentId: {}, userId: {}, range: {}", contentId, userId, rangeHeader);
+
+        // Abonelik kontrolü - ilk istekte (Range header yoksa) veya oynatma oturumu açık değilse
+        // Açık oturumun sonraki chunk isteklerinde (Range: bytes=...) kontrol yapılmaz (performans optimizasyonu)
+        String sessionId = streamSessionRegistry.sessionId(request, "content:" + contentId);
+        StreamSession session = rangeHeader != null && rangeHeader.startsWith("bytes=")
+                ? streamSessionRegistry.touch(userId, sessionId, request) : null;
+        SubscriptionResponse subscription = session == null ? verifySubscription(userId, request) : null;
+
+        File videoFile = resolveVideoFile(contentId, request);
+        return respond(videoFile, "content:" + contentId, userId, sessionId, session, subscription, request);
+    }
+
+    /**
+     * Content'in HLS manifest'ine yönlendir (segmentli teslim)
+     * Abonelik kontrolü ve oynatma oturumu burada açılır; dönen URL süreli imza taşır (bkz. HlsStreamingService)
+     */
+    public ResponseEntity<Void> redirectToHlsManifest(Long contentId, String userId, HttpServletRequest request) {
+        log.info("Resolving HLS manifest for contentId: {}, userId: {}", contentId, userId);
+
+        SubscriptionResponse subscription = verifySubscription(userId, request);
+        String manifestUrl = hlsStreamingService.manifestUrl(resolveVideoFile(contentId, request));
+
+        String sessionId = streamSessionRegistry.sessionId(request, "content:" + contentId);
+        StreamSession session = streamSessionRegistry.open(userId, sessionId, request, subscription);
+
+        return ResponseEntity.status(HttpStatus.FOUND)
+                .cacheControl(CacheControl.noStore())
+                .header(StreamSessionRegistry.SESSION_HEADER, session.getId())
+                .location(URI.create(manifestUrl))
+                .build();
+    }
+
+    /**
+     * Episode ID'ye göre videoyu stream et
+     * HTTP Range Request desteği ile (206 Partial Content)
+     * Önce abonelik kontrolü yapılır; bölüm -> dosya çözümlemesi EpisodePathCache üzerinden yapılır
+     * (sezonun bölümleri ilk lookup'ta prefetch edilir, art arda izlenen bölümler uzak servise gitmez)
+     */
+    public ResponseEntity<?> streamEpisode(Long episodeId, String userId, String rangeHeader,
+                                           HttpServletRequest request) {
+        log.debug("Streaming episode for episodeId: {}, userId: {}, range: {}", episodeId, userId, rangeHeader);
+
+        EpisodeFileResponse episode = resolveEpisode(episodeId, request);
+
+        // Oturum sezon bazlıdır: bölüm geçişlerinde aynı ekran slotu kullanılır
+        String resourceKey = episode.getSeasonId() != null
+                ? "season:" + episode.getSeasonId() : "episode:" + episodeId;
+        String sessionId = streamSessionRegistry.sessionId(request, resourceKey);
+        StreamSession session = rangeHeader != null && rangeHeader.startsWith("bytes=")
+                ? streamSessionRegistry.touch(userId, sessionId, request) : null;
+        SubscriptionResponse subscription = session == null ? verifySubscription(userId, request) : null;
+
+        File videoFile = toVideoFile(episode.getVideoFilePath());
+        return respond(videoFile, "episode:" + episodeId, userId, sessionId, session, subscription, request);
+    }
+
+    /**
+     * Content'in ?t=saniye için keyframe byte aralığı (MP4 seek indeksi)
+     * Sadece dosya konumu döner; abonelik ve ekran limiti aralık isteğinin kendisinde uygulanır
+     */
+    public SeekResponse seekContent(Long contentId, Double seconds, HttpServletRequest request) {
+        log.debug("Seek request for contentId: {}, t={}", contentId, seconds);
+        validateSeekTime(seconds);
+        return seek(resolveVideoFile(contentId, request), seconds);
+    }
+
+    /**
+     * Bölümün ?t=saniye için keyframe byte aralığı (MP4 seek indeksi)
+     */
+    public SeekResponse seekEpisode(Long episodeId, Double seconds, HttpServletRequest request) {
+        log.debug("Seek request for episodeId: {}, t={}", episodeId, seconds);
+        validateSeekTime(seconds);
+        EpisodeFileResponse episode = resolveEpisode(episodeId, request);
+        return seek(toVideoFile(episode.getVideoFilePath()), seconds);
+    }
+
+    /**
+     * Oturumu aç (gerekirse) ve dosyayı Range / conditional kurallarına göre döndür
+     */
+    private ResponseEntity<?> respond(File videoFile, String contentKey, String userId, String sessionId,
+                                      StreamSession session, SubscriptionResponse subscription,
+                                      HttpServletRequest request) {
+        if (session == null) {
+            // Planın ekran limiti burada uygulanır; oturum plan kalitesine göre hız sınırı taşır
+            session = streamSessionRegistry.open(userId, sessionId, request, subscription);
+            // Yeni oynatmada seek indeksi arka planda hazırlanır (ilk seek moov parse'ını beklemez)
+            if (mp4SeekIndex.isIndexable(videoFile)) {
+                mp4SeekIndex.warm(videoFile);
+            }
+        }
+        StreamObservation observation = streamTelemetry.observation(request);
+        if (observation != null) {
+            observation.describe(contentKey, session.getPlanName(), session.getId());
         }
+        MediaType contentType = MediaType.parseMediaType(determineContentType(videoFile.getPath()));
 
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(StreamSessionRegistry.SESSION_HEADER, session.getId());
+
+        // ETag / 304, If-Range, tekli ve çoklu Range, 416 ByteRangeResponder'da; gövde plan hızında yazılır
+        return byteRangeResponder.respond(videoFile, contentType, headers, request, session);
+    }
+
+    private SeekResponse seek(File videoFile, double seconds) {
+        if (!mp4SeekIndex.isIndexable(videoFile)) {
+            throw new BadRequestException("Seeking by time is only supported for MP4 videos");
+        }
+        SeekIndex index = mp4SeekIndex.get(videoFile);
+        if (index.keyframeCount() == 0) {
+            throw new ResourceNotFoundException("Seek index not available for this video");
+        }
+
+        int keyframe = index.floor(Math.round(seconds * 1000));
+        long offset = index.keyframeOffset(keyframe);
+        long moovEnd = index.getMoovOffset() + index.getMoovSize() - 1;
+        return SeekResponse.builder()
+                .requestedSeconds(seconds)
+                .keyframeSeconds(index.keyframeMillis(keyframe) / 1000.0)
+                .byteOffset(offset)
+                .range("bytes=" + offset + "-")
+                .nextKeyframeOffset(keyframe + 1 < index.keyframeCount() ? index.keyframeOffset(keyframe + 1) : null)
+                .moovRange("bytes=" + index.getMoovOffset() + "-" + moovEnd)
+                .fileSize(index.getFileSize())
+                .durationSeconds(index.getDurationMillis() / 1000.0)
+                .etag(byteRangeResponder.etag(videoFile))
+                .build();
+    }
+
+    private void validateSeekTime(Double seconds) {
+        if (seconds == null || !(seconds >= 0) || seconds.isInfinite()) {
+            throw new BadRequestException("Query parameter t must be a non-negative number of seconds");
+        }
+    }
+
+    /**
+     * Bölüm dosya bilgisini EpisodePathCache'ten al (aktif ve dosya yolu olan bölüm)
+     */
+    private EpisodeFileResponse resolveEpisode(Long episodeId, HttpServletRequest request) {
+        EpisodeFileResponse episode = streamTelemetry.timeUpstream(request, "episode",
+                () -> episodePathCache.get(episodeId));
+        if (!Boolean.TRUE.equals(episode.getIsActive()) || episode.getVideoFilePath() == null) {
+            throw new ResourceNotFoundException("Episode or video file path not found for episode ID: " + episodeId);
+        }
+        return episode;
+    }
+
+    /**
+     * Content Management Service'ten video dosya yolunu alıp dosyayı çözümle
+     */
+    private File resolveVideoFile(Long contentId, HttpServletRequest request) {
         // Content Management Service'ten video dosya yolunu al
         ContentResponse content;
         try {
-            content = contentServiceGrpcClient.getContentById(contentId);
+            content = streamTelemetry.timeUpstream(request, "content",
+                    () -> contentServiceGrpcClient.getContentById(contentId));
         } catch (Exception e) {
             log.error("Failed to fetch content from Content Management Service: {}", e.getMessage());
             throw new ResourceNotFoundException("Content not found for content ID: " + contentId);
@@ -73,10 +239,15 @@ public class VideoStreamingService {
             throw new ResourceNotFoundException("Content or video file path not found for content ID: " + contentId);
         }
 
-        // Video dosyasını bul
-        String videoFilePath = content.getVideoFilePath();
-        Path videoPath = Paths.get(videoFilePath);
+        return toVideoFile(content.getVideoFilePath());
+    }
 
+    /**
+     * Video dosya yolunu (relative ise video.base-path altında) okunabilir dosyaya çözümle
+     */
+    private File toVideoFile(String videoFilePath) {
+        Path videoPath = Paths.get(videoFilePath);
+        
         // Eğer relative path ise base path'i ekle
         if (!videoPath.isAbsolute()) {
             videoPath = Paths.get(videoBasePath, videoFilePath);
@@ -94,100 +265,25 @@ public class VideoStreamingService {
             throw new BadRequestException("Video file is not accessible");
         }
 
-        long fileSize = videoFile.length();
-        long start = 0;
-        long end = fileSize - 1;
-        long contentLength = fileSize;
-
-        // Range header kontrolü
-        if (rangeHeader != null && rangeHeader.startsWith("bytes=")) {
-            String[] ranges = rangeHeader.substring(6).split("-");
-            try {
-                if (ranges.length > 0 && !ranges[0].isEmpty()) {
-                    start = Long.parseLong(ranges[0]);
-                }
-                if (ranges.length > 1 && !ranges[1].isEmpty()) {
-                    end = Long.parseLong(ranges[1]);
-                }
-            } catch (NumberFormatException e) {
-                log.warn("Invalid range header: {}", rangeHeader);
-                throw new BadRequestException("Invalid range header format");
-            }
-
-            // Range validation
-            if (start < 0 || start >= fileSize || end >= fileSize || start > end) {
-                throw new BadRequestException("Range not satisfiable");
-            }
-
-            contentLength = end - start + 1;
-        }
-
-        // Content type belirleme
-        String contentType = determineContentType(videoFilePath);
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.parseMediaType(contentType));
-        headers.setContentLength(contentLength);
-        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
-
-        // Range request ise 206 Partial Content, değilse 200 OK
-        if (rangeHeader != null && rangeHeader.startsWith("bytes=")) {
-            headers.set(HttpHeaders.CONTENT_RANGE, String.format("bytes %d-%d/%d", start, end, fileSize));
-            headers.setContentLength(contentLength);
-
-            log.info("Streaming partial content: bytes {}-{}/{}", start, end, fileSize);
-
-            return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
-                    .headers(headers)
-                    .body(new RangeAwareResource(videoFile, start, end));
-        } else {
-            log.info("Streaming full content: size={}", fileSize);
-
-            Resource resource = new FileSystemResource(videoFile);
-            return ResponseEntity.ok()
-                    .headers(headers)
-                    .body(resource);
-        }
-    }
-
-    /**
-     * Episode ID'ye göre videoyu stream et
-     * HTTP Range Request desteği ile (206 Partial Content)
-     * Önce abonelik kontrolü yapılır
-     */
-    public ResponseEntity<Resource> streamEpisode(Long episodeId, String userId, String rangeHeader) {
-        log.info("Streaming episode for episodeId: {}, userId: {}, range: {}", episodeId, userId, rangeHeader);
-
-        // Abonelik kontrolü - sadece ilk istekte (Range header yoksa)
-        if (rangeHeader == null || !rangeHeader.startsWith("bytes=")) {
-            verifySubscription(userId);
-        }
-
-        // Content Management Service'ten episode bilgilerini al
-        // Not: Episode için özel endpoint yoksa, episode ID'yi content ID gibi
-        // kullanabiliriz
-        // veya Content Management Service'e episode endpoint'i eklenebilir
-        // Şimdilik episode ID'yi direkt videoFilePath olarak kullanmayacağız
-        // Content Management Service'e episode endpoint'i eklenene kadar bu method'u
-        // kullanmayabiliriz
-
-        throw new BadRequestException("Episode streaming not yet implemented. Please use content streaming.");
+        return videoFile;
     }
 
     /**
      * Kullanıcının aktif aboneliğini kontrol et
      * Abonelik yoksa SubscriptionRequiredException fırlat
      */
-    private void verifySubscription(String userId) {
+    private SubscriptionResponse verifySubscription(String userId, HttpServletRequest request) {
         try {
-            SubscriptionResponse subscription = subscriptionServiceGrpcClient.getActiveSubscription(userId);
+            SubscriptionResponse subscription = streamTelemetry.timeUpstream(request, "subscription",
+                    () -> subscriptionServiceGrpcClient.getActiveSubscription(userId));
 
             if (subscription == null || !"ACTIVE".equals(subscription.getStatus())) {
                 log.warn("User {} does not have an active subscription", userId);
                 throw new SubscriptionRequiredException("Active subscription required to stream content");
             }
-
+            
             log.debug("User {} has active subscription: {}", userId, subscription.getId());
+            return subscription;
         } catch (SubscriptionRequiredException e) {
             throw e;
         } catch (Exception e) {
@@ -215,73 +311,4 @@ public class VideoStreamingService {
             return "video/mp4";
         }
     }
-
-    /**
-     * Range-aware Resource wrapper
-     * Sadece belirtilen byte range'ini okur
-     */
-    private static class RangeAwareResource extends FileSystemResource {
-        private final long start;
-        private final long end;
-
-        public RangeAwareResource(File file, long start, long end) {
-            super(file);
-            this.start = start;
-            this.end = end;
-        }
-
-        @Override
-        public long contentLength() throws IOException {
-            return end - start + 1;
-        }
-
-        @Override
-        public java.io.InputStream getInputStream() throws IOException {
-            RandomAccessFile randomAccessFile = new RandomAccessFile(getFile(), "r");
-            randomAccessFile.seek(start);
-
-            return new java.io.InputStream() {
-                private long bytesRead = 0;
-                private final long maxBytes = end - start + 1;
-
-                @Override
-                public int read() throws IOException {
-                    if (bytesRead >= maxBytes) {
-                        close();
-                        return -1;
-                    }
-                    bytesRead++;
-                    return randomAccessFile.read();
-                }
-
-                @Override
-                public int read(byte[] b, int off, int len) throws IOException {
-                    if (bytesRead >= maxBytes) {
-                        close();
-                        return -1;
-                    }
-                    long remaining = maxBytes - bytesRead;
-                    int toRead = (int) Math.min(len, remaining);
-                    int read = randomAccessFile.read(b, off, toRead);
-                    if (read > 0) {
-                        bytesRead += read;
-                    }
-                    if (bytesRead >= maxBytes) {
-                        close();
-                    }
-                    return read;
-                }
-
-                @Override
-                public void close() throws IOException {
-                    randomAccessFile.close();
-                }
-
-                @Override
-                public int available() throws IOException {
-                    return (int) Math.min(maxBytes - bytesRead, Integer.MAX_VALUE);
-                }
-            };
-        }
-    }
 }
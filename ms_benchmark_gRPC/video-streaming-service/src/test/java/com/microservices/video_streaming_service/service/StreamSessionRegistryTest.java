@@ -0,0 +1,133 @@
+package com.microservices.video_streaming_service.service;
+
+import com.microservices.video_streaming_service.dto.response.SubscriptionPlanResponse;
+import com.microservices.video_streaming_service.dto.response.SubscriptionResponse;
+import com.microservices.video_streaming_service.exception.StreamLimitExceededException;
+import com.microservices.video_streaming_service.service.StreamSessionRegistry.AccountSessions;
+import com.microservices.video_streaming_service.service.StreamSessionRegistry.StreamSession;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Ekran slotu muhasebesi (AccountSessions) ve oturum kimliklerinin istemciye bağlanması
+ */
+class StreamSessionRegistryTest {
+
+    private static final String USER = "user-1";
+    private static final String CONTENT = "content:42";
+
+    private StreamSessionRegistry registry;
+    private SubscriptionResponse singleScreen;
+
+    @BeforeEach
+    void setUp() {
+        registry = new StreamSessionRegistry(new SimpleMeterRegistry(), Duration.ofSeconds(90), 1,
+                DataSize.ofMegabytes(8), DataSize.ofMegabytes(1), DataSize.ofMegabytes(2), DataSize.ofMegabytes(5),
+                DataSize.ofMegabytes(1));
+        singleScreen = SubscriptionResponse.builder()
+                .plan(SubscriptionPlanResponse.builder().planName("BASIC").maxScreens(1).videoQuality("HD").build())
+                .build();
+    }
+
+    @Test
+    void reserveCountsSlotsUpToMaxScreens() {
+        AccountSessions account = new AccountSessions();
+
+        assertThat(account.reserve(2)).isEqualTo(1);
+        assertThat(account.reserve(2)).isEqualTo(2);
+        assertThat(account.reserve(2)).isEqualTo(StreamSessionRegistry.FULL);
+
+        account.release();
+        assertThat(account.reserve(2)).isEqualTo(2);
+    }
+
+    @Test
+    void retireOnlySucceedsWithoutActiveSlots() {
+        AccountSessions account = new AccountSessions();
+        account.reserve(1);
+
+        assertThat(account.retire()).isFalse();
+
+        account.release();
+        assertThat(account.retire()).isTrue();
+        // Emekli kayıt slot vermez; open() yeni kayıt oluşturur
+        assertThat(account.reserve(1)).isEqualTo(StreamSessionRegistry.RETIRED);
+        assertThat(account.retire()).isFalse();
+    }
+
+    @Test
+    void sameClientResumesItsDerivedSession() {
+        MockHttpServletRequest request = client("10.0.0.1", "TV");
+        StreamSession opened = open(request);
+
+        assertThat(opened.getId()).startsWith("d-");
+        assertThat(registry.touch(USER, registry.sessionId(request, CONTENT), request)).isSameAs(opened);
+        assertThat(open(client("10.0.0.1", "TV"))).isSameAs(opened);
+    }
+
+    @Test
+    void clientSuppliedIdIsReplacedByIssuedId() {
+        MockHttpServletRequest request = client("10.0.0.1", "TV");
+        request.addHeader(StreamSessionRegistry.SESSION_HEADER, "chosen-by-client");
+
+        StreamSession opened = open(request);
+
+        assertThat(opened.getId()).startsWith("s-").isNotEqualTo("chosen-by-client");
+        MockHttpServletRequest next = client("10.0.0.1", "TV");
+        next.addHeader(StreamSessionRegistry.SESSION_HEADER, opened.getId());
+        assertThat(registry.touch(USER, registry.sessionId(next, CONTENT), next)).isSameAs(opened);
+    }
+
+    @Test
+    void sessionIdSharedWithAnotherClientDoesNotBypassMaxScreens() {
+        StreamSession opened = open(client("10.0.0.1", "TV"));
+
+        MockHttpServletRequest other = client("10.0.0.2", "Phone");
+        other.addHeader(StreamSessionRegistry.SESSION_HEADER, opened.getId());
+
+        assertThat(registry.touch(USER, registry.sessionId(other, CONTENT), other)).isNull();
+        assertThatThrownBy(() -> open(other)).isInstanceOf(StreamLimitExceededException.class);
+    }
+
+    @Test
+    void spoofedForwardedForDoesNotMatchAnotherClient() {
+        MockHttpServletRequest victim = client("10.0.0.1", "TV");
+        victim.addHeader("X-Forwarded-For", "203.0.113.7");
+        StreamSession opened = open(victim);
+
+        // İstemcinin yazdığı ilk değer aynı, gateway'in eklediği son adres farklı
+        MockHttpServletRequest other = client("10.0.0.1", "TV");
+        other.addHeader("X-Forwarded-For", "203.0.113.7, 198.51.100.9");
+        other.addHeader(StreamSessionRegistry.SESSION_HEADER, opened.getId());
+
+        assertThat(registry.touch(USER, registry.sessionId(other, CONTENT), other)).isNull();
+    }
+
+    @Test
+    void closingSessionFreesTheSlot() {
+        StreamSession opened = open(client("10.0.0.1", "TV"));
+
+        assertThat(registry.close(USER, opened.getId())).isTrue();
+
+        assertThat(open(client("10.0.0.2", "Phone"))).isNotSameAs(opened);
+    }
+
+    private StreamSession open(MockHttpServletRequest request) {
+        return registry.open(USER, registry.sessionId(request, CONTENT), request, singleScreen);
+    }
+
+    private static MockHttpServletRequest client(String address, String userAgent) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/stream/content/42");
+        request.setRemoteAddr(address);
+        request.addHeader("User-Agent", userAgent);
+        return request;
+    }
+}
@@ -0,0 +1,68 @@
+package com.microservices.video_streaming_service.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * TokenBucket.reserve: burst kadar byte beklemeden, sonrası rate hızında (1 byte/µs ile süreler okunaklı)
+ */
+class TokenBucketTest {
+
+    private static final long RATE = 1_000_000;
+    private static final long BURST = 10_000;
+
+    @Test
+    void burstIsSentWithoutWaiting() {
+        TokenBucket bucket = new TokenBucket(RATE, BURST);
+
+        assertThat(bucket.reserve(BURST / 2)).isZero();
+        assertThat(bucket.reserve(BURST / 2)).isZero();
+    }
+
+    @Test
+    void reservationsAfterBurstWaitAtTheSteadyRate() {
+        TokenBucket bucket = new TokenBucket(RATE, BURST);
+        bucket.reserve(BURST);
+
+        // Her 10_000 byte 10 ms ekler; bekleme süreleri birikir
+        long first = bucket.reserve(10_000);
+        long second = bucket.reserve(10_000);
+
+        assertThat(first).isBetween(millis(5), millis(10));
+        assertThat(second - first).isBetween(millis(9), millis(11));
+    }
+
+    @Test
+    void idleTimeRefillsAtMostTheBurst() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(RATE, BURST);
+        bucket.reserve(BURST);
+
+        // 50 ms boşta 50_000 byte'lık hak birikmez; sadece burst kadarı
+        Thread.sleep(50);
+
+        assertThat(bucket.reserve(BURST)).isZero();
+        assertThat(bucket.reserve(10_000)).isBetween(millis(5), millis(10));
+    }
+
+    @Test
+    void zeroBurstPacesFromTheFirstByte() {
+        TokenBucket bucket = new TokenBucket(RATE, 0);
+
+        bucket.reserve(10_000);
+
+        assertThat(bucket.reserve(10_000)).isBetween(millis(5), millis(20));
+    }
+
+    @Test
+    void nonPositiveRateIsRejected() {
+        assertThatThrownBy(() -> new TokenBucket(0, BURST)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
@@ -15,6 +15,8 @@ import org.springframework.web.server.ServerWebExchange;
 
 import com.microservices.api_gateway.util.JwtUtil;
 
+import io.jsonwebtoken.Claims;
+
 import reactor.core.publisher.Mono;
 
 /**
@@ -70,16 +72,17 @@ public class AuthenticationFilter implements GatewayFilter {
         
         String token = authHeader.substring(7);
         
-        // Token validation
-        if (!jwtUtil.isTokenValid(token)) {
+        // Token validation (tek parse; imza JWKS public key'i ile yerelde doğrulanır, logout kayıtları yerel cache'ten)
+        Claims claims = jwtUtil.getValidClaims(token);
+        if (claims == null) {
             log.warn("Invalid JWT token for path: {}", path);
             exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
             return exchange.getResponse().setComplete();
         }
         
         // Token geçerli, user bilgilerini header'a ekle
-        String email = jwtUtil.getEmailFromToken(token);
-        String userId = jwtUtil.getUserIdFromToken(token);
+        String email = claims.getSubject();
+        String userId = claims.get("userId", String.class);
         
         if (email != null && userId != null) {
             ServerHttpRequest modifiedRequest = request.mutate()
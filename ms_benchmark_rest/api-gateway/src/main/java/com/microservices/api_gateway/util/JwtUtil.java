@@ -1,109 +1,80 @@
 package com.microservices.api_gateway.util;
 
-import java.nio.charset.StandardCharsets;
-
-import javax.crypto.SecretKey;
-
+import com.microservices.jwt_verification.JwksKeyCache;
+import com.microservices.jwt_verification.TokenRevocationCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
 
 /**
  * JWT Utility Class
  * JWT token validation için kullanılır
- * Secret key Config Server'dan alınır (hard-coded değil)
+ * Token'lar ES256 ile imzalıdır; public key'ler authentication servisinin JWKS endpoint'inden
+ * JwksKeyCache ile alınır (paylaşılan secret yok). Parser bir kez oluşturulur.
+ * Logout edilmiş token'lar TokenRevocationCache ile reddedilir.
  */
 @Component
 public class JwtUtil {
 
     private static final Logger log = LoggerFactory.getLogger(JwtUtil.class);
 
-    @Value("${app.jwt.secret}")
-    private String secret;
-
-    @Value("${app.jwt.issuer:netflix-clone-auth}")
-    private String issuer;
-
-    @Value("${app.jwt.audience:netflix-clone-users}")
-    private String audience;
-
-    /**
-     * JWT secret'tan signing key oluşturur
-     */
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    private final JwtParser jwtParser;
+    private final TokenRevocationCache revocationCache;
+
+    public JwtUtil(JwksKeyCache jwksKeyCache,
+                   TokenRevocationCache revocationCache,
+                   @Value("${app.jwt.issuer:netflix-clone-auth}") String issuer,
+                   @Value("${app.jwt.audience:netflix-clone-users}") String audience) {
+        this.jwtParser = Jwts.parser()
+                .keyLocator(jwksKeyCache)
+                .requireIssuer(issuer)
+                .requireAudience(audience)
+                .build();
+        this.revocationCache = revocationCache;
     }
 
     /**
      * JWT token'ı validate eder ve claims döndürür
      * @param token JWT token
      * @return Claims
-     * @throws Exception Invalid token durumunda
+     * @throws JwtException Invalid token durumunda
      */
     public Claims validateToken(String token) {
-        try {
-            return Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .requireIssuer(issuer)
-                    .requireAudience(audience)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-        } catch (Exception e) {
-            log.error("JWT validation failed: {}", e.getMessage());
-            throw e;
-        }
+        return jwtParser.parseSignedClaims(token).getPayload();
     }
 
     /**
-     * JWT token'ın geçerli olup olmadığını kontrol eder
+     * Token'ı tek seferde doğrular ve claims döndürür
      * @param token JWT token
-     * @return true if valid, false otherwise
+     * @return Claims, geçersiz veya logout edilmişse null
      */
-    public boolean isTokenValid(String token) {
+    public Claims getValidClaims(String token) {
+        Claims claims;
         try {
-            validateToken(token);
-            return true;
-        } catch (Exception e) {
+            claims = validateToken(token);
+        } catch (JwtException | IllegalArgumentException e) {
             log.debug("Token validation failed: {}", e.getMessage());
-            return false;
+            return null;
         }
-    }
-
-    /**
-     * JWT token'dan email bilgisini çıkarır
-     * @param token JWT token
-     * @return email
-     */
-    public String getEmailFromToken(String token) {
-        try {
-            Claims claims = validateToken(token);
-            return claims.getSubject();
-        } catch (Exception e) {
-            log.error("Failed to extract email from token: {}", e.getMessage());
+        if (revocationCache.isRevoked(claims.get("userId", String.class), claims.getIssuedAt())) {
+            log.debug("Token revoked by logout for user {}", claims.get("userId", String.class));
             return null;
         }
+        return claims;
     }
 
     /**
-     * JWT token'dan user ID bilgisini çıkarır
+     * JWT token'ın geçerli olup olmadığını kontrol eder
      * @param token JWT token
-     * @return user ID
+     * @return true if valid, false otherwise
      */
-    public String getUserIdFromToken(String token) {
-        try {
-            Claims claims = validateToken(token);
-            return claims.get("userId", String.class);
-        } catch (Exception e) {
-            log.error("Failed to extract userId from token: {}", e.getMessage());
-            return null;
-        }
+    public boolean isTokenValid(String token) {
+        return getValidClaims(token) != null;
     }
 }
-
-
@@ -0,0 +1,13 @@
+package com.authentication.microservices.authentication.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Scheduling Configuration
+ * Token denylist senkronizasyonu / temizliği için @Scheduled'ı aktif eder
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -13,9 +13,12 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Authentication Controller - Authentication Microservice
  * Endpoints: /api/auth/register, /api/auth/login, /api/auth/google
+ * register / login async döner: BCrypt hashing havuzunda çalışırken Tomcat thread'i serbest kalır.
  */
 @RestController
 @RequestMapping("/api/auth")
@@ -34,10 +37,10 @@ public class AuthController {
      * POST /auth/register
      */
     @PostMapping("/register")
-    public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest request) {
+    public CompletableFuture<ResponseEntity<AuthResponse>> register(@Valid @RequestBody RegisterRequest request) {
         log.info("Register request received for email: {}", request.getEmail());
-        AuthResponse response = authService.register(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        return authService.register(request)
+                .thenApply(response -> ResponseEntity.status(HttpStatus.CREATED).body(response));
     }
 
     /**
@@ -45,10 +48,9 @@ public class AuthController {
      * POST /auth/login
      */
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
+    public CompletableFuture<ResponseEntity<AuthResponse>> login(@Valid @RequestBody LoginRequest request) {
         log.info("Login request received for email: {}", request.getEmail());
-        AuthResponse response = authService.login(request);
-        return ResponseEntity.ok(response);
+        return authService.login(request).thenApply(ResponseEntity::ok);
     }
 
     /**
@@ -0,0 +1,36 @@
+package com.authentication.microservices.authentication.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * TokenRevocation Entity - Authentication Microservice
+ * Logout kaydı: kullanıcının revokedBefore'dan önce üretilmiş tüm token'ları geçersizdir.
+ * Sadece logout'ta yazılır; diğer instance'lar TokenDenylist ile updatedAt üzerinden senkronize olur.
+ */
+@Entity
+@Table(name = "token_revocations")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenRevocation {
+
+    @Id
+    @Column(name = "user_id")
+    private String userId;
+
+    @Column(name = "revoked_before", nullable = false)
+    private LocalDateTime revokedBefore;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt; // revokedBefore + token ömrü; sonrasında kayıt gereksiz
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
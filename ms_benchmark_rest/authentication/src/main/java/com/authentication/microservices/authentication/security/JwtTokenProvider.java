@@ -1,41 +1,52 @@
 package com.authentication.microservices.authentication.security;
 
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
-import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.Date;
 
 /**
  * JWT Token Provider - Authentication Microservice
+ * Token'lar ES256 ile imzalanır (kid header'lı, bkz. JwtKeyManager); parser bir kez oluşturulur.
  */
 @Component
 public class JwtTokenProvider {
 
-    @Value("${app.jwt.secret}")
-    private String jwtSecret;
-
-    @Value("${app.jwt.expiration}")
-    private long jwtExpiration;
-
-    @Value("${app.jwt.issuer}")
-    private String jwtIssuer;
-
-    @Value("${app.jwt.audience}")
-    private String jwtAudience;
-
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+    private final JwtKeyManager keyManager;
+    private final JwtParser jwtParser;
+    private final long jwtExpiration;
+    private final String jwtIssuer;
+    private final String jwtAudience;
+
+    public JwtTokenProvider(JwtKeyManager keyManager,
+                            @Value("${app.jwt.expiration}") long jwtExpiration,
+                            @Value("${app.jwt.issuer}") String jwtIssuer,
+                            @Value("${app.jwt.audience}") String jwtAudience) {
+        this.keyManager = keyManager;
+        this.jwtExpiration = jwtExpiration;
+        this.jwtIssuer = jwtIssuer;
+        this.jwtAudience = jwtAudience;
+        this.jwtParser = Jwts.parser()
+                .keyLocator(header -> header instanceof ProtectedHeader protectedHeader
+                        ? keyManager.getVerificationKey(protectedHeader.getKeyId())
+                        : null)
+                .build();
     }
 
     /**
      * Generate JWT token
      */
     public String generateToken(String userId, String email) {
-        Date now = new Date();
+        return generateToken(userId, email, Instant.now());
+    }
+
+    /**
+     * Generate JWT token with explicit issue time (bkz. TokenDenylist.issueTime)
+     */
+    public String generateToken(String userId, String email, Instant issuedAt) {
+        Date now = Date.from(issuedAt);
         Date expiryDate = new Date(now.getTime() + jwtExpiration);
 
         return Jwts.builder()
@@ -45,19 +56,23 @@ public class JwtTokenProvider {
                 .audience().add(jwtAudience).and()
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .header().keyId(keyManager.getSigningKeyId()).and()
+                .signWith(keyManager.getSigningKey(), Jwts.SIG.ES256)
                 .compact();
     }
 
+    /**
+     * Expiration time of a token issued at the given instant
+     */
+    public Instant getExpirationFor(Instant issuedAt) {
+        return issuedAt.plusMillis(jwtExpiration);
+    }
+
     /**
      * Get user ID from JWT token
      */
     public String getUserIdFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        Claims claims = jwtParser.parseSignedClaims(token).getPayload();
 
         return claims.get("userId", String.class);  // "userId" claim'inden oku
     }
@@ -66,11 +81,7 @@ public class JwtTokenProvider {
      * Get email from JWT token
      */
     public String getEmailFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        Claims claims = jwtParser.parseSignedClaims(token).getPayload();
 
         return claims.getSubject();  // Subject'ten email'i oku
     }
@@ -80,10 +91,7 @@ public class JwtTokenProvider {
      */
     public boolean validateToken(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
+            jwtParser.parseSignedClaims(token);
             return true;
         } catch (JwtException | IllegalArgumentException e) {
             // Invalid JWT signature, expired, malformed, etc.
@@ -91,15 +99,22 @@ public class JwtTokenProvider {
         }
     }
 
+    /**
+     * Validate JWT token and return its claims in a single parse (null if invalid)
+     */
+    public Claims getValidClaims(String token) {
+        try {
+            return jwtParser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     /**
      * Get expiration date from JWT token
      */
     public Date getExpirationDateFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        Claims claims = jwtParser.parseSignedClaims(token).getPayload();
 
         return claims.getExpiration();
     }
@@ -1,31 +1,39 @@
 package com.authentication.microservices.authentication.service;
 
-import com.authentication.microservices.authentication.client.UserServiceClient;
-import com.authentication.microservices.authentication.dto.request.CreateUserProfileRequest;
 import com.authentication.microservices.authentication.dto.request.GoogleLoginRequest;
 import com.authentication.microservices.authentication.dto.request.LoginRequest;
 import com.authentication.microservices.authentication.dto.request.RegisterRequest;
 import com.authentication.microservices.authentication.dto.response.AuthResponse;
-import com.authentication.microservices.authentication.dto.response.UserProfileResponse;
 import com.authentication.microservices.authentication.entity.User;
 import com.authentication.microservices.authentication.exception.BadRequestException;
+import com.authentication.microservices.authentication.exception.TooManyRequestsException;
 import com.authentication.microservices.authentication.repository.UserRepository;
 import com.authentication.microservices.authentication.security.JwtTokenProvider;
+import com.authentication.microservices.authentication.security.PasswordHashingService;
+import com.authentication.microservices.authentication.security.TokenDenylist;
 import com.authentication.microservices.authentication.util.GoogleAuthUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.Date;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Authentication Service - Authentication Microservice
+ *
+ * app.auth.stateless-login=true iken login / googleLogin DB'ye yazmaz: activeToken saklanmaz,
+ * her girişte yeni token üretilir. Logout, TokenDenylist üzerinden kullanıcının önceki
+ * token'larını geçersiz kılar (sadece logout'ta tek DB yazması).
  */
 @Service
 public class AuthService {
@@ -33,33 +41,48 @@ public class AuthService {
     private static final Logger log = LoggerFactory.getLogger(AuthService.class);
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final JwtTokenProvider jwtTokenProvider;
     private final GoogleAuthUtil googleAuthUtil;
-    private final UserServiceClient userServiceClient;
+    private final ProfileProvisioningRelay profileProvisioningRelay;
+    private final TokenDenylist tokenDenylist;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean statelessLogin;
 
     public AuthService(UserRepository userRepository,
-                       PasswordEncoder passwordEncoder,
+                       PasswordHashingService passwordHashingService,
                        JwtTokenProvider jwtTokenProvider,
                        GoogleAuthUtil googleAuthUtil,
-                       UserServiceClient userServiceClient) {
+                       ProfileProvisioningRelay profileProvisioningRelay,
+                       TokenDenylist tokenDenylist,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${app.auth.stateless-login:false}") boolean statelessLogin) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingService = passwordHashingService;
         this.jwtTokenProvider = jwtTokenProvider;
         this.googleAuthUtil = googleAuthUtil;
-        this.userServiceClient = userServiceClient;
+        this.profileProvisioningRelay = profileProvisioningRelay;
+        this.tokenDenylist = tokenDenylist;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.statelessLogin = statelessLogin;
     }
 
     /**
      * Register new user
+     * Şifre hashing havuzunda hash'lenir; kullanıcı kaydı hash hazır olunca kısa bir transaction'da yazılır
+     * (request thread'i ve DB bağlantısı BCrypt'i beklemez)
      */
-    @Transactional
-    public AuthResponse register(RegisterRequest request) {
-        // Check if email already exists
+    public CompletableFuture<AuthResponse> register(RegisterRequest request) {
+        // Check if email already exists (hash'ten önce; mevcut e-posta için CPU harcanmaz)
         if (userRepository.existsByEmail(request.getEmail())) {
             throw new BadRequestException("Email already exists");
         }
 
+        return passwordHashingService.encode(request.getPassword())
+                .thenApply(passwordHash -> transactionTemplate.execute(status -> createUser(request, passwordHash)));
+    }
+
+    private AuthResponse createUser(RegisterRequest request, String passwordHash) {
         // Generate new user ID
         String nextUserId = UUID.randomUUID().toString();
 
@@ -67,28 +90,20 @@ public class AuthService {
         User user = User.builder()
                 .userId(nextUserId)
                 .email(request.getEmail())
-                .password(passwordEncoder.encode(request.getPassword()))
+                .password(passwordHash)
                 .isGoogleUser(false)
                 .build();
 
         user = userRepository.save(user);
 
-        // OpenFeign ile User Service'e kullanıcı profili oluşturma isteği gönder
-        try {
-            CreateUserProfileRequest userProfileRequest = CreateUserProfileRequest.builder()
-                    .userId(user.getUserId())
-                    .email(user.getEmail())
-                    .firstName(request.getFirstName())
-                    .lastName(request.getLastName())
-                    .build();
-            
-            UserProfileResponse userProfile = userServiceClient.createUserProfile(userProfileRequest);
-            log.info("User profile created successfully in User Service for userId: {}", userProfile.getUserId());
-        } catch (Exception e) {
-            log.error("Failed to create user profile in User Service for userId: {}", user.getUserId(), e);
-            // Eğer User Service'te profil oluşturulamazsa, kullanıcıyı Auth DB'den de sil
-            userRepository.delete(user);
-            throw new BadRequestException("Failed to create user profile: " + e.getMessage());
+        // Profil oluşturma isteği aynı transaction'da outbox'a yazılır;
+        // ProfileProvisioningRelay arka planda User Service'e teslim eder
+        profileProvisioningRelay.enqueue(user.getUserId(), user.getEmail(),
+                request.getFirstName(), request.getLastName());
+
+        if (statelessLogin) {
+            log.info("User registered successfully: {}", user.getEmail());
+            return issueStatelessToken(user);
         }
 
         // Generate JWT token
@@ -104,24 +119,30 @@ public class AuthService {
 
         return AuthResponse.builder()
                 .token(token)
+                .tokenExpiresAt(user.getTokenExpiresAt())
                 .user(user)
                 .build();
     }
 
     /**
      * Login user
+     * Kullanıcı tek SELECT ile okunur, şifre hashing havuzunda doğrulanır; request thread'i beklemez.
+     * Stateless modda transaction açılmaz; stateful modda token kaydı doğrulamadan sonra kısa bir transaction'dır.
      */
-    @Transactional
-    public AuthResponse login(LoginRequest request) {
-        // Find user by email
-        User user = userRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> new BadCredentialsException("Invalid credentials"));
-
-        // Check password
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
-            throw new BadCredentialsException("Invalid credentials");
-        }
+    public CompletableFuture<AuthResponse> login(LoginRequest request) {
+        return authenticate(request).thenApply(user -> {
+            if (statelessLogin) {
+                log.info("User logged in with stateless token: {}", user.getEmail());
+                return issueStatelessToken(user);
+            }
+            return transactionTemplate.execute(status -> loginWithActiveToken(user));
+        });
+    }
 
+    /**
+     * Stateful login: geçerli activeToken varsa onu döndür, yoksa yenisini kaydet
+     */
+    private AuthResponse loginWithActiveToken(User user) {
         // Check if user has a valid active token
         String token = user.getActiveToken();
         if (token != null && user.getTokenExpiresAt() != null) {
@@ -131,13 +152,14 @@ public class AuthService {
                 log.info("User logged in with existing token: {}", user.getEmail());
                 return AuthResponse.builder()
                         .token(token)
+                        .tokenExpiresAt(user.getTokenExpiresAt())
                         .user(user)
                         .build();
             }
         }
 
         // Generate new JWT token
-        token = jwtTokenProvider.generateToken(user.getUserId(), user.getEmail());
+        token = generateToken(user);
         
         // Update user with new token info
         Date expirationDate = jwtTokenProvider.getExpirationDateFromToken(token);
@@ -149,6 +171,7 @@ public class AuthService {
 
         return AuthResponse.builder()
                 .token(token)
+                .tokenExpiresAt(user.getTokenExpiresAt())
                 .user(user)
                 .build();
     }
@@ -175,28 +198,21 @@ public class AuthService {
 
                     newUser = userRepository.save(newUser);
 
-                    // OpenFeign ile User Service'e kullanıcı profili oluşturma isteği gönder
-                    try {
-                        CreateUserProfileRequest userProfileRequest = CreateUserProfileRequest.builder()
-                                .userId(newUser.getUserId())
-                                .email(newUser.getEmail())
-                                .firstName(googleUser.getGivenName())
-                                .lastName(googleUser.getFamilyName())
-                                .build();
-                        
-                        UserProfileResponse userProfile = userServiceClient.createUserProfile(userProfileRequest);
-                        log.info("User profile created successfully in User Service for Google user userId: {}", userProfile.getUserId());
-                    } catch (Exception e) {
-                        log.error("Failed to create user profile in User Service for Google user userId: {}", newUser.getUserId(), e);
-                        // Eğer User Service'te profil oluşturulamazsa, kullanıcıyı Auth DB'den de sil
-                        userRepository.delete(newUser);
-                        throw new BadRequestException("Failed to create user profile: " + e.getMessage());
-                    }
+                    // Profil oluşturma isteği aynı transaction'da outbox'a yazılır;
+                    // ProfileProvisioningRelay arka planda User Service'e teslim eder
+                    profileProvisioningRelay.enqueue(newUser.getUserId(), newUser.getEmail(),
+                            googleUser.getGivenName(), googleUser.getFamilyName());
 
                     log.info("New Google user created: {}", newUser.getEmail());
                     return newUser;
                 });
 
+        // Stateless: mevcut kullanıcı için DB'ye yazılmaz
+        if (statelessLogin) {
+            log.info("User logged in with Google using stateless token: {}", user.getEmail());
+            return issueStatelessToken(user);
+        }
+
         // Check if user has a valid active token
         String token = user.getActiveToken();
         if (token != null && user.getTokenExpiresAt() != null) {
@@ -206,13 +222,14 @@ public class AuthService {
                 log.info("User logged in with Google using existing token: {}", user.getEmail());
                 return AuthResponse.builder()
                         .token(token)
+                        .tokenExpiresAt(user.getTokenExpiresAt())
                         .user(user)
                         .build();
             }
         }
 
         // Generate new JWT token
-        token = jwtTokenProvider.generateToken(user.getUserId(), user.getEmail());
+        token = generateToken(user);
         
         // Update user with new token info
         Date expirationDate = jwtTokenProvider.getExpirationDateFromToken(token);
@@ -224,24 +241,91 @@ public class AuthService {
 
         return AuthResponse.builder()
                 .token(token)
+                .tokenExpiresAt(user.getTokenExpiresAt())
                 .user(user)
                 .build();
     }
 
     /**
      * Logout user - invalidate current token
+     * Kullanıcının şu ana kadar aldığı tüm token'lar denylist'e girer
      */
     @Transactional
     public void logout(String userId) {
         User user = userRepository.findByUserId(userId)
                 .orElseThrow(() -> new BadCredentialsException("User not found"));
         
-        // Clear active token
-        user.setActiveToken(null);
-        user.setTokenExpiresAt(null);
-        userRepository.save(user);
+        // Stateless modda activeToken tutulmaz; sadece denylist kaydı yazılır
+        if (!statelessLogin) {
+            // Clear active token
+            user.setActiveToken(null);
+            user.setTokenExpiresAt(null);
+            userRepository.save(user);
+        }
+        tokenDenylist.revoke(userId);
         
         log.info("User logged out successfully: {}", user.getEmail());
     }
-}
 
+    /**
+     * E-posta / şifre doğrula
+     */
+    private CompletableFuture<User> authenticate(LoginRequest request) {
+        // Find user by email
+        User user = userRepository.findByEmail(request.getEmail())
+                .orElseThrow(() -> new BadCredentialsException("Invalid credentials"));
+
+        // Check password
+        return passwordHashingService.matches(request.getPassword(), user.getPassword()).thenApply(matches -> {
+            if (!matches) {
+                throw new BadCredentialsException("Invalid credentials");
+            }
+
+            // Cost değiştiyse şifreyi yeni cost ile tekrar hash'le (login cevabını beklemez)
+            if (passwordHashingService.needsRehash(user.getPassword())) {
+                rehashPassword(user, request.getPassword());
+            }
+            return user;
+        });
+    }
+
+    /**
+     * Şifreyi yapılandırılmış cost ile yeniden hash'le (best-effort; hashing havuzu doluysa sonraki login'e kalır)
+     */
+    private void rehashPassword(User user, String rawPassword) {
+        String oldHash = user.getPassword();
+        try {
+            passwordHashingService.encode(rawPassword).whenComplete((newHash, error) -> {
+                if (error != null) {
+                    log.debug("Skipping password rehash for userId: {} ({})", user.getUserId(), error.getMessage());
+                } else if (userRepository.updatePasswordHash(user.getUserId(), oldHash, newHash) > 0) {
+                    log.info("Password rehashed with updated cost for userId: {}", user.getUserId());
+                }
+            });
+        } catch (TooManyRequestsException e) {
+            log.debug("Skipping password rehash for userId: {} (hashing pool busy)", user.getUserId());
+        }
+    }
+
+    /**
+     * DB'ye yazmadan token üret (activeToken / tokenExpiresAt güncellenmez, token tekrar parse edilmez)
+     */
+    private AuthResponse issueStatelessToken(User user) {
+        Instant issuedAt = tokenDenylist.issueTime(user.getUserId());
+        String token = jwtTokenProvider.generateToken(user.getUserId(), user.getEmail(), issuedAt);
+
+        return AuthResponse.builder()
+                .token(token)
+                .tokenExpiresAt(LocalDateTime.ofInstant(jwtTokenProvider.getExpirationFor(issuedAt), ZoneId.systemDefault()))
+                .user(user)
+                .build();
+    }
+
+    /**
+     * Yeni token üret; iat logout sınırının gerisinde kalmaz (bkz. TokenDenylist.issueTime)
+     */
+    private String generateToken(User user) {
+        return jwtTokenProvider.generateToken(user.getUserId(), user.getEmail(),
+                tokenDenylist.issueTime(user.getUserId()));
+    }
+}
@@ -0,0 +1,18 @@
+-- Authentication Service baseline şeması
+-- ddl-auto=update ile oluşturulmuş mevcut veritabanlarında bu dosya çalışmaz (baseline-on-migrate, baseline-version=1)
+
+create table users (
+    id bigint generated by default as identity,
+    user_id varchar(255) not null,
+    email varchar(100) not null,
+    password varchar(255),
+    is_google_user boolean,
+    active_token TEXT,
+    token_expires_at timestamp(6),
+    created_at timestamp(6) not null,
+    updated_at timestamp(6),
+    deleted_at timestamp(6),
+    primary key (id),
+    constraint uk_users_user_id unique (user_id),
+    constraint uk_users_email unique (email)
+);
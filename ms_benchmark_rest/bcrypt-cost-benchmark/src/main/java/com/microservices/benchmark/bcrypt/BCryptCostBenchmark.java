@@ -0,0 +1,69 @@
+package com.microservices.benchmark.bcrypt;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BCrypt cost benchmark'ı: cost faktörüne göre encode / matches süresi
+ * Authentication (app.auth.bcrypt.strength) ve profile-service (profile.pin.bcrypt-strength) aynı
+ * BCryptPasswordEncoder'ı kullanır. Cost her artışta süreyi yaklaşık ikiye katlar.
+ *
+ * Çalıştırma:
+ *   mvn -B package && java -jar target/benchmarks.jar BCryptCostBenchmark
+ *
+ * Sonuçtaki ms/op, hashing havuzunun tek thread'inin login başına harcadığı CPU'dur; bir node'un saniyede
+ * karşılayabileceği login sayısı yaklaşık app.auth.hashing.threads x 1000 / (ms/op) olur. Dolu kuyruğun
+ * boşalma süresi queue-capacity x ms/op / threads'tir; app.auth.hashing.timeout bundan kısaysa kuyruğun
+ * sonundaki işler hash'lenmeden 429 alır.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class BCryptCostBenchmark {
+
+    @Param({"4", "6", "8", "10", "12"})
+    public int cost;
+
+    private BCryptPasswordEncoder encoder;
+    private String password;
+    private String hash;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(cost);
+        password = "correct-horse-battery-staple";
+        hash = encoder.encode(password);
+    }
+
+    /**
+     * Register / PIN değişikliği / rehash-on-login
+     */
+    @Benchmark
+    public String encode() {
+        return encoder.encode(password);
+    }
+
+    /**
+     * Login
+     */
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches(password, hash);
+    }
+}
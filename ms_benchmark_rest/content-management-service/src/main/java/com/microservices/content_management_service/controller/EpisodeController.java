@@ -1,5 +1,6 @@
 package com.microservices.content_management_service.controller;
 
+import com.microservices.content_management_service.dto.response.EpisodeFileResponse;
 import com.microservices.content_management_service.dto.response.EpisodeResponse;
 import com.microservices.content_management_service.service.EpisodeService;
 import org.slf4j.Logger;
@@ -39,6 +40,28 @@ public class EpisodeController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Season ID'ye göre aktif bölümlerin streaming bilgisi (Video Streaming Service sezon prefetch'i)
+     * GET /api/episodes/season/{seasonId}/files
+     */
+    @GetMapping("/season/{seasonId}/files")
+    public ResponseEntity<List<EpisodeFileResponse>> getActiveEpisodeFilesBySeasonId(@PathVariable Long seasonId) {
+        log.debug("Received request to get active episode files for seasonId: {}", seasonId);
+
+        return ResponseEntity.ok(episodeService.getActiveEpisodeFilesBySeasonId(seasonId));
+    }
+
+    /**
+     * Episode ID'ye göre streaming bilgisi (Video Streaming Service bölüm -> dosya çözümlemesi)
+     * GET /api/episodes/{episodeId}/file
+     */
+    @GetMapping("/{episodeId}/file")
+    public ResponseEntity<EpisodeFileResponse> getEpisodeFile(@PathVariable Long episodeId) {
+        log.debug("Received request to get episode file for episodeId: {}", episodeId);
+
+        return ResponseEntity.ok(episodeService.getEpisodeFile(episodeId));
+    }
+
     /**
      * Episode ID'ye göre bölüm getir
      * GET /api/episodes/{episodeId}
@@ -0,0 +1,24 @@
+package com.microservices.content_management_service.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Episode File Response DTO
+ * Streaming için hafif bölüm bilgisi (Video Streaming Service'in bölüm -> dosya çözümlemesi için)
+ * Repository'de doğrudan projection olarak seçilir; Season / açıklama alanları yüklenmez
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EpisodeFileResponse {
+
+    private Long id;
+    private Long seasonId;
+    private Integer episodeNumber;
+    private String videoFilePath;
+    private Boolean isActive;
+}
@@ -6,6 +6,7 @@ import lombok.*;
 /**
  * ContentCast Entity - Content Management Service
  * Content ve CastCrew arasındaki many-to-many ilişkiyi temsil eder
+ * İndeksler Flyway migration'larındadır (db/migration)
  */
 @Entity
 @Table(name = "content_cast", uniqueConstraints = {
@@ -0,0 +1,13 @@
+-- ddl-auto döneminde eklenen indeksler; o dönemde güncellenmiş veritabanlarında zaten vardır
+
+-- findByCastCrewId (content_id sorguları unique constraint index'ini kullanır)
+create index if not exists idx_content_cast_cast_crew_id on content_cast (cast_crew_id);
+
+-- findByGenreId (content_id sorguları unique constraint index'ini kullanır)
+create index if not exists idx_content_genre_genre_id on content_genres (genre_id);
+
+-- findByContentIdAndSeasonNumber ve içerik detayındaki seasons fetch join'i
+create index if not exists idx_season_content_number on seasons (content_id, season_number);
+
+-- findBySeasonIdAndEpisodeNumber ve içerik detayındaki episodes fetch join'i
+create index if not exists idx_episode_season_number on episodes (season_id, episode_number);
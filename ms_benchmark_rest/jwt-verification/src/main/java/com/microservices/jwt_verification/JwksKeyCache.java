@@ -0,0 +1,179 @@
+package com.microservices.jwt_verification;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Header;
+import io.jsonwebtoken.Locator;
+import io.jsonwebtoken.ProtectedHeader;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * JWKS Key Cache
+ * Authentication servisinin yayınladığı ES256 public key'lerini (kid -> key) bellekte tutar;
+ * JWT imzası her istekte ağa çıkmadan yerelde doğrulanır.
+ *
+ * - Key'ler arka planda refresh-interval ile yenilenir; henüz yüklenemediyse (auth servisi ayakta
+ *   değil) birkaç saniyede bir tekrar denenir.
+ * - Bilinmeyen kid (key rotasyonu) arka planda hemen yenileme tetikler (min-refresh-interval ile sınırlı);
+ *   o token reddedilir, request thread'i bloklanmaz.
+ */
+public class JwksKeyCache implements Locator<Key> {
+
+    private static final Logger log = LoggerFactory.getLogger(JwksKeyCache.class);
+
+    private static final long RETRY_SECONDS = 5;
+
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final URI jwksUri;
+    private final long refreshIntervalNanos;
+    private final long minRefreshIntervalNanos;
+    private final ScheduledExecutorService scheduler;
+    private final AtomicBoolean refreshQueued = new AtomicBoolean();
+    private final ECParameterSpec p256;
+
+    private volatile Map<String, PublicKey> keys = Map.of();
+    private volatile long lastSuccess;
+    private volatile long lastAttempt;
+
+    public JwksKeyCache(
+            ObjectMapper objectMapper,
+            @Value("${app.jwt.jwks-uri:http://authentication-service:8000/api/auth/.well-known/jwks.json}") String jwksUri,
+            @Value("${app.jwt.jwks-refresh-interval:5m}") Duration refreshInterval,
+            @Value("${app.jwt.jwks-min-refresh-interval:10s}") Duration minRefreshInterval) {
+        this.objectMapper = objectMapper;
+        this.jwksUri = URI.create(jwksUri);
+        this.refreshIntervalNanos = refreshInterval.toNanos();
+        this.minRefreshIntervalNanos = minRefreshInterval.toNanos();
+        this.httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "JwksRefresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.p256 = p256Parameters();
+        this.lastAttempt = System.nanoTime() - minRefreshIntervalNanos;
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::refreshIfDue, 0, RETRY_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * jjwt parser'ı için kid'e göre doğrulama key'i
+     */
+    @Override
+    public Key locate(Header header) {
+        String keyId = header instanceof ProtectedHeader protectedHeader ? protectedHeader.getKeyId() : null;
+        if (keyId == null) {
+            return null;
+        }
+        PublicKey key = keys.get(keyId);
+        if (key == null) {
+            requestRefresh();
+        }
+        return key;
+    }
+
+    /**
+     * Bilinmeyen kid: en fazla min-refresh-interval'da bir arka planda yenile
+     */
+    private void requestRefresh() {
+        if (System.nanoTime() - lastAttempt < minRefreshIntervalNanos || !refreshQueued.compareAndSet(false, true)) {
+            return;
+        }
+        scheduler.execute(() -> {
+            refreshQueued.set(false);
+            refresh();
+        });
+    }
+
+    private void refreshIfDue() {
+        if (!keys.isEmpty() && System.nanoTime() - lastSuccess < refreshIntervalNanos) {
+            return;
+        }
+        refresh();
+    }
+
+    private void refresh() {
+        lastAttempt = System.nanoTime();
+        try {
+            HttpRequest request = HttpRequest.newBuilder(jwksUri)
+                    .timeout(Duration.ofSeconds(3))
+                    .GET()
+                    .build();
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                log.warn("JWKS fetch failed: {} returned {}", jwksUri, response.statusCode());
+                return;
+            }
+
+            Map<String, PublicKey> loaded = new HashMap<>();
+            for (JsonNode jwk : objectMapper.readTree(response.body()).path("keys")) {
+                if ("EC".equals(jwk.path("kty").asText()) && "P-256".equals(jwk.path("crv").asText())
+                        && jwk.hasNonNull("kid")) {
+                    loaded.put(jwk.get("kid").asText(), toPublicKey(jwk.path("x").asText(), jwk.path("y").asText()));
+                }
+            }
+            if (!loaded.keySet().equals(keys.keySet())) {
+                log.info("JWKS keys loaded: {}", loaded.keySet());
+            }
+            keys = Map.copyOf(loaded);
+            lastSuccess = System.nanoTime();
+        } catch (IOException | GeneralSecurityException | RuntimeException e) {
+            log.warn("JWKS fetch failed from {}: {}", jwksUri, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private PublicKey toPublicKey(String x, String y) throws GeneralSecurityException {
+        Base64.Decoder decoder = Base64.getUrlDecoder();
+        ECPoint point = new ECPoint(new BigInteger(1, decoder.decode(x)), new BigInteger(1, decoder.decode(y)));
+        return KeyFactory.getInstance("EC").generatePublic(new ECPublicKeySpec(point, p256));
+    }
+
+    private static ECParameterSpec p256Parameters() {
+        try {
+            AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+            parameters.init(new ECGenParameterSpec("secp256r1"));
+            return parameters.getParameterSpec(ECParameterSpec.class);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("P-256 parameters unavailable", e);
+        }
+    }
+}
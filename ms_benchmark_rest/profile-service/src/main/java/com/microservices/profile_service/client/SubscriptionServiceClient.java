@@ -2,6 +2,7 @@ package com.microservices.profile_service.client;
 
 import com.microservices.profile_service.config.FeignClientConfiguration;
 import com.microservices.profile_service.dto.response.SubscriptionResponse;
+import feign.Request;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestHeader;
@@ -21,7 +22,8 @@ public interface SubscriptionServiceClient {
     /**
      * User ID'ye göre aktif aboneliği getir
      * Not: Subscription service'te userId header'dan alınıyor
+     * options: bu çağrıya özel connect / read timeout (bkz. AccountValidationService)
      */
     @GetMapping("/my-subscription")
-    SubscriptionResponse getActiveSubscription(@RequestHeader("X-User-Id") String userId);
+    SubscriptionResponse getActiveSubscription(@RequestHeader("X-User-Id") String userId, Request.Options options);
 }
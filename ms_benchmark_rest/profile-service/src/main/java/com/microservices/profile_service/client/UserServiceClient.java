@@ -2,6 +2,7 @@ package com.microservices.profile_service.client;
 
 import com.microservices.profile_service.config.FeignClientConfiguration;
 import com.microservices.profile_service.dto.response.UserProfileResponse;
+import feign.Request;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -20,7 +21,8 @@ public interface UserServiceClient {
 
     /**
      * User ID'ye göre kullanıcı profilini getir
+     * options: bu çağrıya özel connect / read timeout (bkz. AccountValidationService)
      */
     @GetMapping("/profile/{userId}")
-    UserProfileResponse getUserProfile(@PathVariable("userId") String userId);
+    UserProfileResponse getUserProfile(@PathVariable("userId") String userId, Request.Options options);
 }
@@ -12,6 +12,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Profile Controller - Profile Service
@@ -35,13 +36,12 @@ public class ProfileController {
      * POST /api/profiles
      */
     @PostMapping
-    public ResponseEntity<ProfileResponse> createProfile(
+    public CompletableFuture<ResponseEntity<ProfileResponse>> createProfile(
             @Valid @RequestBody CreateProfileRequest request) {
         log.info("Received request to create profile for accountId: {}", request.getAccountId());
         
-        ProfileResponse response = profileService.createProfile(request);
-        
-        return new ResponseEntity<>(response, HttpStatus.CREATED);
+        return profileService.createProfile(request)
+                .thenApply(response -> new ResponseEntity<>(response, HttpStatus.CREATED));
     }
 
     /**
@@ -96,16 +96,14 @@ public class ProfileController {
      * PUT /api/profiles/{profileId}/account/{accountId}
      */
     @PutMapping("/{profileId}/account/{accountId}")
-    public ResponseEntity<ProfileResponse> updateProfile(
+    public CompletableFuture<ResponseEntity<ProfileResponse>> updateProfile(
             @PathVariable Long profileId,
             @PathVariable String accountId,
             @Valid @RequestBody UpdateProfileRequest request) {
         log.info("Received request to update profile for profileId: {} and accountId: {}", 
                 profileId, accountId);
         
-        ProfileResponse response = profileService.updateProfile(profileId, accountId, request);
-        
-        return ResponseEntity.ok(response);
+        return profileService.updateProfile(profileId, accountId, request).thenApply(ResponseEntity::ok);
     }
 
     /**
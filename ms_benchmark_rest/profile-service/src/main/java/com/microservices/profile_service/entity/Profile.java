@@ -15,6 +15,7 @@ import java.time.LocalDateTime;
  * Profile Entity - Profile Service
  * Bu entity bir ana hesaba (accountId) bağlı profilleri tutar
  * Netflix benzeri profil yönetimi için kullanılır
+ * İndeksler Flyway migration'larındadır (db/migration)
  */
 @Entity
 @Table(name = "profiles")
@@ -0,0 +1,100 @@
+package com.microservices.profile_service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.microservices.profile_service.dto.response.ProfileResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Account Profiles Cache
+ * accountId -> aktif profil listesi önbelleği. Profil sayısı, varsayılan profil ve
+ * "profil var mı" bilgisi aynı listeden (tek sorgu) türetilir.
+ *
+ * - Aynı accountId için eşzamanlı okumalarda tek loader çalışır.
+ * - create / update / delete hem anında hem de transaction tamamlandıktan sonra invalidate eder.
+ *   Caffeine invalidate devam eden yüklemeyi bekleyip siler; commit öncesi okunan eski liste
+ *   cache'te kalamaz.
+ * - Diğer replica'larda yapılan değişiklikler için üst sınır ttl'dir.
+ *
+ * Metrikler: cache.gets / cache.evictions / cache.size {cache=account-profiles}
+ */
+@Component
+public class AccountProfilesCache {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountProfilesCache.class);
+
+    private final Cache<String, AccountProfiles> cache;
+
+    public AccountProfilesCache(
+            MeterRegistry meterRegistry,
+            @Value("${profile.account-cache.maximum-size:200000}") long maximumSize,
+            @Value("${profile.account-cache.ttl:5m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "account-profiles");
+        log.info("Account profiles cache: maximumSize={}, ttl={}", maximumSize, ttl);
+    }
+
+    /**
+     * Cache'ten oku, yoksa loader ile yükle
+     */
+    public AccountProfiles get(String accountId, Function<String, AccountProfiles> loader) {
+        return cache.get(accountId, loader);
+    }
+
+    /**
+     * Hesabın kaydını hemen ve (varsa) transaction tamamlandıktan sonra tekrar sil
+     */
+    public void invalidate(String accountId) {
+        cache.invalidate(accountId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(accountId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Hesabın aktif profilleri (varsayılan önce, sonra oluşturulma sırası)
+     */
+    public record AccountProfiles(List<ProfileResponse> profiles) {
+
+        public AccountProfiles {
+            profiles = List.copyOf(profiles);
+        }
+
+        public long count() {
+            return profiles.size();
+        }
+
+        public boolean exists() {
+            return !profiles.isEmpty();
+        }
+
+        public Optional<ProfileResponse> defaultProfile() {
+            return profiles.stream()
+                    .filter(profile -> Boolean.TRUE.equals(profile.getIsDefault()))
+                    .findFirst();
+        }
+    }
+}
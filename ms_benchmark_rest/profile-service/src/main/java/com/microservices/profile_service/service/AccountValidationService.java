@@ -0,0 +1,247 @@
+package com.microservices.profile_service.service;
+
+import com.microservices.profile_service.client.SubscriptionServiceClient;
+import com.microservices.profile_service.client.UserServiceClient;
+import com.microservices.profile_service.dto.response.SubscriptionResponse;
+import com.microservices.profile_service.dto.response.UserProfileResponse;
+import com.microservices.profile_service.exception.BadRequestException;
+import com.microservices.profile_service.exception.GatewayTimeoutException;
+import com.microservices.profile_service.exception.ServiceUnavailableException;
+import com.microservices.profile_service.exception.TooManyRequestsException;
+import feign.FeignException;
+import feign.Request;
+import feign.RetryableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Account Validation Service
+ * Profil oluştururken User Service (hesap) ve Subscription Service (abonelik) çağrılarını
+ * ayrı, sınırlı bir havuzda paralel başlatır; çağıran bu sırada kendi DB sorgularını çalıştırır.
+ *
+ * - İki çağrı tek bir deadline'ı paylaşır (timeout, start() anından itibaren).
+ * - Biri hata verirse veya deadline aşılırsa diğeri iptal edilir (thread interrupt edilir).
+ * - Feign connect / read timeout'ları sadece bu çağrılara uygulanır (Request.Options parametresi).
+ * - Hesap / abonelik yoksa (upstream 4xx) 400; upstream erişilemez veya 5xx dönerse 503,
+ *   deadline / read timeout aşılırsa 504 döner.
+ * - Havuz doluysa istek 429 ile hızlıca reddedilir.
+ *
+ * Metrikler: profile.validation.queue, profile.validation.active, profile.validation.latency,
+ * profile.validation.rejected{reason}
+ */
+@Service
+public class AccountValidationService {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountValidationService.class);
+
+    private final UserServiceClient userServiceClient;
+    private final SubscriptionServiceClient subscriptionServiceClient;
+    private final ThreadPoolTaskExecutor executor;
+    private final Duration timeout;
+    private final Request.Options requestOptions;
+    private final Timer latencyTimer;
+    private final Counter queueFullCounter;
+    private final Counter timeoutCounter;
+
+    public AccountValidationService(
+            UserServiceClient userServiceClient,
+            SubscriptionServiceClient subscriptionServiceClient,
+            MeterRegistry meterRegistry,
+            @Value("${profile.validation.threads:32}") int threads,
+            @Value("${profile.validation.queue-capacity:256}") int queueCapacity,
+            @Value("${profile.validation.timeout:2s}") Duration timeout,
+            @Value("${profile.validation.connect-timeout:1s}") Duration connectTimeout) {
+        this.userServiceClient = userServiceClient;
+        this.subscriptionServiceClient = subscriptionServiceClient;
+        this.timeout = timeout;
+        this.requestOptions = new Request.Options(connectTimeout.toMillis(), TimeUnit.MILLISECONDS,
+                timeout.toMillis(), TimeUnit.MILLISECONDS, true);
+        this.latencyTimer = meterRegistry.timer("profile.validation.latency");
+        this.queueFullCounter = meterRegistry.counter("profile.validation.rejected", "reason", "queue-full");
+        this.timeoutCounter = meterRegistry.counter("profile.validation.rejected", "reason", "timeout");
+
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("AccountValidation-");
+        executor.initialize();
+
+        ThreadPoolExecutor pool = executor.getThreadPoolExecutor();
+        meterRegistry.gauge("profile.validation.queue", pool, p -> p.getQueue().size());
+        meterRegistry.gauge("profile.validation.active", pool, ThreadPoolExecutor::getActiveCount);
+
+        log.info("Account validation executor: threads={}, queueCapacity={}, timeout={}",
+                threads, queueCapacity, timeout);
+    }
+
+    /**
+     * Hesap ve abonelik çağrılarını paralel başlat
+     */
+    public PendingValidation start(String accountId) {
+        long startedAt = System.nanoTime();
+        CompletableFuture<UserProfileResponse> account =
+                submit(() -> userServiceClient.getUserProfile(accountId, requestOptions));
+        CompletableFuture<SubscriptionResponse> subscription;
+        try {
+            subscription = submit(() -> subscriptionServiceClient.getActiveSubscription(accountId, requestOptions));
+        } catch (TooManyRequestsException e) {
+            account.cancel(true);
+            throw e;
+        }
+        return new PendingValidation(account, subscription, startedAt);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * İşi havuza gönder; dönen future iptal edilirse çalışan thread interrupt edilir
+     */
+    private <T> CompletableFuture<T> submit(Supplier<T> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> task;
+        try {
+            task = executor.submit(() -> {
+                try {
+                    result.complete(call.get());
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            queueFullCounter.increment();
+            throw new TooManyRequestsException("Too many concurrent profile creations, retry later");
+        }
+        result.whenComplete((value, error) -> {
+            if (error instanceof CancellationException) {
+                task.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException || error instanceof ExecutionException
+                ? error.getCause() : error;
+    }
+
+    /**
+     * Upstream hatasını istemciye dönecek hataya çevir: 4xx cevap (kayıt yok / pasif) 400,
+     * timeout 504, bağlantı hatası / 5xx / diğer hatalar 503
+     */
+    private static RuntimeException translate(Throwable cause, String service, String badRequestMessage) {
+        if (cause instanceof RetryableException && cause.getCause() instanceof SocketTimeoutException) {
+            return new GatewayTimeoutException(service + " did not respond in time");
+        }
+        if (cause instanceof FeignException feign && feign.status() >= 400 && feign.status() < 500
+                && feign.status() != 408 && feign.status() != 429) {
+            return new BadRequestException(badRequestMessage + cause.getMessage());
+        }
+        return new ServiceUnavailableException(service + " is unavailable, retry later");
+    }
+
+    /**
+     * Devam eden doğrulama çağrıları
+     */
+    public final class PendingValidation {
+
+        private final CompletableFuture<UserProfileResponse> account;
+        private final CompletableFuture<SubscriptionResponse> subscription;
+        private final long startedAt;
+
+        private PendingValidation(CompletableFuture<UserProfileResponse> account,
+                                  CompletableFuture<SubscriptionResponse> subscription,
+                                  long startedAt) {
+            this.account = account;
+            this.subscription = subscription;
+            this.startedAt = startedAt;
+        }
+
+        /**
+         * İki çağrının da bitmesini deadline'a kadar bekle; ilk hatada diğerini iptal et
+         */
+        public Result await() {
+            CompletableFuture<Void> settled = new CompletableFuture<>();
+            CompletableFuture.allOf(account, subscription).whenComplete((value, error) -> settled.complete(null));
+            account.whenComplete((value, error) -> {
+                if (error != null) {
+                    settled.complete(null);
+                }
+            });
+            subscription.whenComplete((value, error) -> {
+                if (error != null) {
+                    settled.complete(null);
+                }
+            });
+
+            long remaining = timeout.toNanos() - (System.nanoTime() - startedAt);
+            try {
+                settled.get(Math.max(remaining, 0), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                cancel();
+                timeoutCounter.increment();
+                throw new GatewayTimeoutException("Account validation timed out after " + timeout.toMillis() + "ms");
+            } catch (InterruptedException e) {
+                cancel();
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while validating account", e);
+            } catch (ExecutionException e) {
+                // settled sadece normal tamamlanır
+                throw new IllegalStateException(e);
+            } finally {
+                latencyTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            }
+
+            if (account.isCompletedExceptionally()) {
+                cancel();
+                Throwable cause = unwrap(account.handle((value, error) -> error).join());
+                log.error("Failed to validate account: {}", cause.getMessage());
+                throw translate(cause, "User Service", "Account not found or inactive: ");
+            }
+            if (subscription.isCompletedExceptionally()) {
+                cancel();
+                Throwable cause = unwrap(subscription.handle((value, error) -> error).join());
+                log.error("Failed to validate subscription: {}", cause.getMessage());
+                throw translate(cause, "Subscription Service", "Subscription validation failed: ");
+            }
+            return new Result(account.join(), subscription.join());
+        }
+
+        /**
+         * Tamamlanmamış çağrıları iptal et
+         */
+        public void cancel() {
+            account.cancel(true);
+            subscription.cancel(true);
+        }
+    }
+
+    /**
+     * Doğrulama sonuçları
+     */
+    public record Result(UserProfileResponse userProfile, SubscriptionResponse subscription) {
+    }
+}
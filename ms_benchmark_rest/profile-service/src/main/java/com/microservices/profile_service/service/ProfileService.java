@@ -1,7 +1,5 @@
 package com.microservices.profile_service.service;
 
-import com.microservices.profile_service.client.SubscriptionServiceClient;
-import com.microservices.profile_service.client.UserServiceClient;
 import com.microservices.profile_service.dto.request.CreateProfileRequest;
 import com.microservices.profile_service.dto.request.UpdateProfileRequest;
 import com.microservices.profile_service.dto.response.ProfileResponse;
@@ -14,13 +12,14 @@ import com.microservices.profile_service.config.ProfileServiceConfig;
 import com.microservices.profile_service.repository.ProfileRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 /**
@@ -33,102 +32,109 @@ public class ProfileService {
     private static final Logger log = LoggerFactory.getLogger(ProfileService.class);
 
     private final ProfileRepository profileRepository;
-    private final UserServiceClient userServiceClient;
-    private final SubscriptionServiceClient subscriptionServiceClient;
-    private final PasswordEncoder passwordEncoder;
+    private final AccountValidationService accountValidationService;
+    private final PinHashingService pinHashingService;
+    private final AccountProfilesCache accountProfilesCache;
     private final ProfileServiceConfig profileServiceConfig;
+    private final TransactionTemplate transactionTemplate;
 
     public ProfileService(
             ProfileRepository profileRepository,
-            UserServiceClient userServiceClient,
-            SubscriptionServiceClient subscriptionServiceClient,
-            ProfileServiceConfig profileServiceConfig) {
+            AccountValidationService accountValidationService,
+            ProfileServiceConfig profileServiceConfig,
+            PinHashingService pinHashingService,
+            AccountProfilesCache accountProfilesCache,
+            PlatformTransactionManager transactionManager) {
         this.profileRepository = profileRepository;
-        this.userServiceClient = userServiceClient;
-        this.subscriptionServiceClient = subscriptionServiceClient;
+        this.accountValidationService = accountValidationService;
         this.profileServiceConfig = profileServiceConfig;
-        this.passwordEncoder = new BCryptPasswordEncoder();
+        this.pinHashingService = pinHashingService;
+        this.accountProfilesCache = accountProfilesCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     /**
      * Yeni profil oluştur
+     * Doğrulamalar request thread'inde yapılır; PIN hashing havuzunda hash'lenir ve profil, hash hazır olunca
+     * kısa bir transaction'da yazılır (request thread'i ve DB bağlantısı BCrypt'i beklemez)
      */
-    @Transactional
-    public ProfileResponse createProfile(CreateProfileRequest request) {
+    public CompletableFuture<ProfileResponse> createProfile(CreateProfileRequest request) {
         log.info("Creating profile for accountId: {}, profileName: {}", 
                 request.getAccountId(), request.getProfileName());
 
-        // 1. Ana hesabın (User Service) var olduğunu ve aktif olduğunu kontrol et
+        // 1. Hesap (User Service) ve abonelik (Subscription Service) doğrulamaları paralel başlar;
+        // bu sırada hesabın aktif profilleri tek sorguda okunur (sayı, varsayılan profil ve ilk profil kontrolü)
+        AccountValidationService.PendingValidation validation =
+                accountValidationService.start(request.getAccountId());
+        List<Profile> activeProfiles;
         try {
-            UserProfileResponse userProfile = userServiceClient.getUserProfile(request.getAccountId());
-            if (!userProfile.getIsActive()) {
-                throw new BadRequestException("Account is not active");
-            }
-            log.debug("Account validated: userId={}, email={}", userProfile.getUserId(), userProfile.getEmail());
-        } catch (Exception e) {
-            log.error("Failed to validate account: {}", e.getMessage());
-            throw new BadRequestException("Account not found or inactive: " + e.getMessage());
+            activeProfiles = profileRepository.findActiveProfilesByAccountId(request.getAccountId());
+        } catch (RuntimeException e) {
+            validation.cancel();
+            throw e;
+        }
+        AccountValidationService.Result validated = validation.await();
+
+        UserProfileResponse userProfile = validated.userProfile();
+        if (!Boolean.TRUE.equals(userProfile.getIsActive())) {
+            throw new BadRequestException("Account not found or inactive: Account is not active");
         }
+        log.debug("Account validated: userId={}, email={}", userProfile.getUserId(), userProfile.getEmail());
 
         // 2. Aktif aboneliği kontrol et ve profil limitini kontrol et
-        try {
-            SubscriptionResponse subscription = subscriptionServiceClient.getActiveSubscription(request.getAccountId());
-            if (!profileServiceConfig.getSubscriptionActiveStatus().equals(subscription.getStatus())) {
-                throw new BadRequestException("No active subscription found");
-            }
+        SubscriptionResponse subscription = validated.subscription();
+        if (!profileServiceConfig.getSubscriptionActiveStatus().equals(subscription.getStatus())) {
+            throw new BadRequestException("No active subscription found");
+        }
+        if (subscription.getPlan() == null) {
+            throw new BadRequestException("Subscription validation failed: plan information is missing");
+        }
 
-            // Mevcut profil sayısını kontrol et
-            long currentProfileCount = profileRepository.countActiveProfilesByAccountId(request.getAccountId());
-            
-            // Subscription service'ten plan bilgisini al ve maxProfiles'ı kullan
-            Integer maxProfiles = subscription.getPlan().getMaxProfiles();
-            if (maxProfiles == null || maxProfiles < 1) {
-                // Fallback: Plan bilgisinde maxProfiles yoksa default değer kullan
-                maxProfiles = 1;
-                log.warn("maxProfiles not found in plan, using default value: 1 for plan: {}", 
-                        subscription.getPlan().getPlanName());
-            }
+        // Mevcut profil sayısını kontrol et
+        long currentProfileCount = activeProfiles.size();
 
-            if (currentProfileCount >= maxProfiles) {
-                throw new BadRequestException(
-                        String.format("Maximum profile limit reached for plan %s. Maximum allowed: %d", 
-                                subscription.getPlan().getPlanName(), maxProfiles));
-            }
+        // Subscription service'ten plan bilgisini al ve maxProfiles'ı kullan
+        Integer maxProfiles = subscription.getPlan().getMaxProfiles();
+        if (maxProfiles == null || maxProfiles < 1) {
+            // Fallback: Plan bilgisinde maxProfiles yoksa default değer kullan
+            maxProfiles = 1;
+            log.warn("maxProfiles not found in plan, using default value: 1 for plan: {}",
+                    subscription.getPlan().getPlanName());
+        }
 
-            log.debug("Subscription validated: plan={}, maxProfiles={}, currentProfiles={}", 
-                    subscription.getPlan().getPlanName(), maxProfiles, currentProfileCount);
-        } catch (BadRequestException e) {
-            throw e;
-        } catch (Exception e) {
-            log.error("Failed to validate subscription: {}", e.getMessage());
-            throw new BadRequestException("Subscription validation failed: " + e.getMessage());
+        if (currentProfileCount >= maxProfiles) {
+            throw new BadRequestException(
+                    String.format("Maximum profile limit reached for plan %s. Maximum allowed: %d",
+                            subscription.getPlan().getPlanName(), maxProfiles));
         }
 
+        log.debug("Subscription validated: plan={}, maxProfiles={}, currentProfiles={}",
+                subscription.getPlan().getPlanName(), maxProfiles, currentProfileCount);
+
         // 3. PIN şifreleme
-        String pinHash = null;
-        if (request.getIsPinProtected() != null && request.getIsPinProtected() && request.getPin() != null) {
-            int pinLength = request.getPin().length();
-            if (pinLength < profileServiceConfig.getPinMinLength() || 
-                pinLength > profileServiceConfig.getPinMaxLength()) {
-                throw new BadRequestException(
-                        String.format("PIN must be between %d and %d characters", 
-                                profileServiceConfig.getPinMinLength(), 
-                                profileServiceConfig.getPinMaxLength()));
-            }
-            pinHash = passwordEncoder.encode(request.getPin());
-        }
+        CompletableFuture<String> pinHash =
+                Boolean.TRUE.equals(request.getIsPinProtected()) && request.getPin() != null
+                        ? hashPin(request.getPin())
+                        : CompletableFuture.completedFuture(null);
+
+        return pinHash.thenApply(hash ->
+                transactionTemplate.execute(status -> saveNewProfile(request, activeProfiles, hash)));
+    }
 
+    private ProfileResponse saveNewProfile(CreateProfileRequest request, List<Profile> activeProfiles,
+                                           String pinHash) {
         // 4. Varsayılan profil kontrolü
         if (request.getIsDefault() != null && request.getIsDefault()) {
             // Mevcut varsayılan profili kaldır
-            profileRepository.findDefaultProfileByAccountId(request.getAccountId())
-                    .ifPresent(existingDefault -> {
+            activeProfiles.stream()
+                    .filter(existing -> Boolean.TRUE.equals(existing.getIsDefault()))
+                    .forEach(existingDefault -> {
                         existingDefault.setIsDefault(false);
                         profileRepository.save(existingDefault);
                     });
         } else {
             // Eğer ilk profil ise varsayılan yap
-            if (!profileRepository.existsByAccountId(request.getAccountId())) {
+            if (activeProfiles.isEmpty()) {
                 request.setIsDefault(true);
             }
         }
@@ -148,6 +154,7 @@ public class ProfileService {
                 .build();
 
         profile = profileRepository.save(profile);
+        accountProfilesCache.invalidate(profile.getAccountId());
 
         log.info("Profile created successfully: profileId={}, accountId={}", 
                 profile.getId(), profile.getAccountId());
@@ -158,15 +165,10 @@ public class ProfileService {
     /**
      * Account ID'ye göre aktif profilleri getir
      */
-    @Transactional(readOnly = true)
     public List<ProfileResponse> getActiveProfilesByAccountId(String accountId) {
         log.info("Fetching active profiles for accountId: {}", accountId);
 
-        List<Profile> profiles = profileRepository.findActiveProfilesByAccountId(accountId);
-
-        return profiles.stream()
-                .map(ProfileResponse::fromEntity)
-                .collect(Collectors.toList());
+        return getAccountProfiles(accountId).profiles();
     }
 
     /**
@@ -204,11 +206,23 @@ public class ProfileService {
 
     /**
      * Profil güncelle
+     * Yeni PIN varsa önce hashing havuzunda hash'lenir; güncelleme hash hazır olunca kısa bir transaction'dır
      */
-    @Transactional
-    public ProfileResponse updateProfile(Long profileId, String accountId, UpdateProfileRequest request) {
+    public CompletableFuture<ProfileResponse> updateProfile(Long profileId, String accountId,
+                                                            UpdateProfileRequest request) {
         log.info("Updating profile for profileId: {} and accountId: {}", profileId, accountId);
 
+        CompletableFuture<String> pinHash =
+                Boolean.TRUE.equals(request.getIsPinProtected()) && request.getPin() != null
+                        ? hashPin(request.getPin())
+                        : CompletableFuture.completedFuture(null);
+
+        return pinHash.thenApply(hash ->
+                transactionTemplate.execute(status -> applyUpdate(profileId, accountId, request, hash)));
+    }
+
+    private ProfileResponse applyUpdate(Long profileId, String accountId, UpdateProfileRequest request,
+                                        String pinHash) {
         Profile profile = profileRepository.findByIdAndAccountId(profileId, accountId)
                 .orElseThrow(() -> {
                     log.error("Profile not found for profileId: {} and accountId: {}", profileId, accountId);
@@ -244,16 +258,8 @@ public class ProfileService {
         // PIN koruması güncelle
         if (request.getIsPinProtected() != null) {
             profile.setIsPinProtected(request.getIsPinProtected());
-            if (request.getIsPinProtected() && request.getPin() != null) {
-                int pinLength = request.getPin().length();
-                if (pinLength < profileServiceConfig.getPinMinLength() || 
-                    pinLength > profileServiceConfig.getPinMaxLength()) {
-                    throw new BadRequestException(
-                            String.format("PIN must be between %d and %d characters", 
-                                    profileServiceConfig.getPinMinLength(), 
-                                    profileServiceConfig.getPinMaxLength()));
-                }
-                profile.setPinHash(passwordEncoder.encode(request.getPin()));
+            if (pinHash != null) {
+                profile.setPinHash(pinHash);
             } else if (!request.getIsPinProtected()) {
                 profile.setPinHash(null);
             }
@@ -273,12 +279,28 @@ public class ProfileService {
         }
 
         profile = profileRepository.save(profile);
+        accountProfilesCache.invalidate(accountId);
 
         log.info("Profile updated successfully: profileId={}", profileId);
 
         return ProfileResponse.fromEntity(profile);
     }
 
+    /**
+     * PIN uzunluğunu doğrula ve hashing havuzunda hash'le
+     */
+    private CompletableFuture<String> hashPin(String pin) {
+        int pinLength = pin.length();
+        if (pinLength < profileServiceConfig.getPinMinLength() || 
+            pinLength > profileServiceConfig.getPinMaxLength()) {
+            throw new BadRequestException(
+                    String.format("PIN must be between %d and %d characters", 
+                            profileServiceConfig.getPinMinLength(), 
+                            profileServiceConfig.getPinMaxLength()));
+        }
+        return pinHashingService.encode(pin);
+    }
+
     /**
      * Profil sil (soft delete)
      */
@@ -313,6 +335,7 @@ public class ProfileService {
         profile.setDeletedAt(LocalDateTime.now());
         profile.setIsActive(false);
         profileRepository.save(profile);
+        accountProfilesCache.invalidate(accountId);
 
         log.info("Profile deleted successfully: profileId={}", profileId);
     }
@@ -320,24 +343,30 @@ public class ProfileService {
     /**
      * Varsayılan profili getir
      */
-    @Transactional(readOnly = true)
     public ProfileResponse getDefaultProfile(String accountId) {
         log.info("Fetching default profile for accountId: {}", accountId);
 
-        Profile profile = profileRepository.findDefaultProfileByAccountId(accountId)
+        return getAccountProfiles(accountId).defaultProfile()
                 .orElseThrow(() -> {
                     log.error("Default profile not found for accountId: {}", accountId);
                     return new ResourceNotFoundException("Default profile not found for account ID: " + accountId);
                 });
-
-        return ProfileResponse.fromEntity(profile);
     }
 
     /**
      * Profil sayısını getir
      */
-    @Transactional(readOnly = true)
     public long getProfileCount(String accountId) {
-        return profileRepository.countActiveProfilesByAccountId(accountId);
+        return getAccountProfiles(accountId).count();
+    }
+
+    /**
+     * Hesabın aktif profilleri (AccountProfilesCache üzerinden; cache miss'te tek sorgu)
+     */
+    private AccountProfilesCache.AccountProfiles getAccountProfiles(String accountId) {
+        return accountProfilesCache.get(accountId, id -> new AccountProfilesCache.AccountProfiles(
+                profileRepository.findActiveProfilesByAccountId(id).stream()
+                        .map(ProfileResponse::fromEntity)
+                        .collect(Collectors.toList())));
     }
 }
@@ -0,0 +1,20 @@
+-- Profile Service baseline şeması
+-- ddl-auto=update ile oluşturulmuş mevcut veritabanlarında bu dosya çalışmaz (baseline-on-migrate, baseline-version=1)
+
+create table profiles (
+    id bigint generated by default as identity,
+    account_id varchar(255) not null,
+    profile_name varchar(50) not null,
+    avatar_url TEXT,
+    is_child_profile boolean,
+    maturity_level varchar(20),
+    language varchar(10),
+    is_pin_protected boolean,
+    pin_hash varchar(255),
+    is_active boolean,
+    is_default boolean,
+    created_at timestamp(6) not null,
+    updated_at timestamp(6),
+    deleted_at timestamp(6),
+    primary key (id)
+);
@@ -0,0 +1,9 @@
+-- Silinmiş / pasif profiller indekse girmez; sıralama (is_default DESC, created_at) indeksten okunur
+-- findActiveProfilesByAccountId / findDefaultProfileByAccountId
+
+-- ddl-auto döneminde oluşturulan tam indeks
+drop index if exists idx_profile_account_active;
+
+create index if not exists idx_profile_account_live
+    on profiles (account_id, is_default desc, created_at)
+    where deleted_at is null and is_active;
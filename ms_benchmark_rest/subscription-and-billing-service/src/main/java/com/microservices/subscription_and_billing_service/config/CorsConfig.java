@@ -25,6 +25,9 @@ public class CorsConfig {
     @Value("${cors.allowed-headers:Origin,Content-Type,Accept,Authorization}")
     private String allowedHeaders;
 
+    @Value("${cors.exposed-headers:X-Has-More}")
+    private String exposedHeaders;
+
     @Value("${cors.max-age:3600}")
     private Long maxAge;
 
@@ -37,6 +40,7 @@ public class CorsConfig {
         config.setAllowedOriginPatterns(Arrays.asList(allowedOrigins.split(",")));
         config.setAllowedMethods(Arrays.asList(allowedMethods.split(",")));
         config.setAllowedHeaders(Arrays.asList(allowedHeaders.split(",")));
+        config.setExposedHeaders(Arrays.asList(exposedHeaders.split(",")));
         config.setMaxAge(maxAge);
         
         source.registerCorsConfiguration("/**", config);
@@ -0,0 +1,13 @@
+package com.microservices.subscription_and_billing_service.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Scheduling Configuration
+ * Abonelik yenileme / süre sonu job'ları için @Scheduled'ı aktif eder
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
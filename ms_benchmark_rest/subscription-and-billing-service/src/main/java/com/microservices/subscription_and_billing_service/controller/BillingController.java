@@ -1,15 +1,21 @@
 package com.microservices.subscription_and_billing_service.controller;
 
+import com.microservices.subscription_and_billing_service.dto.response.BillingHistoryPage;
 import com.microservices.subscription_and_billing_service.dto.response.BillingHistoryResponse;
+import com.microservices.subscription_and_billing_service.dto.response.BillingMonthlySummaryResponse;
 import com.microservices.subscription_and_billing_service.service.BillingService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.List;
 
 /**
@@ -22,6 +28,9 @@ public class BillingController {
 
     private static final Logger log = LoggerFactory.getLogger(BillingController.class);
 
+    // limit verildiğinde listenin kesilip kesilmediği (true: daha eski kayıtlar var)
+    private static final String HAS_MORE_HEADER = "X-Has-More";
+
     private final BillingService billingService;
 
     public BillingController(BillingService billingService) {
@@ -32,35 +41,83 @@ public class BillingController {
      * Kullanıcının fatura geçmişini getir
      * PROTECTED ENDPOINT - JWT token gerektirir
      * 
-     * GET /api/billing/history
+     * GET /api/billing/history?limit=5&since=2025-01-01T00:00:00
+     * limit ve since opsiyoneldir; limit verilmezse tüm geçmiş döner, verilirse en fazla
+     * billing.history.max-limit olabilir ve X-Has-More header'ı döner
      */
     @GetMapping("/history")
     public ResponseEntity<List<BillingHistoryResponse>> getBillingHistory(
-            @RequestHeader("X-User-Id") String userId) {
+            @RequestHeader("X-User-Id") String userId,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since) {
         log.info("Received request to get billing history for userId: {}", userId);
         
-        List<BillingHistoryResponse> billingHistory = billingService.getBillingHistory(userId);
+        BillingHistoryPage billingHistory = billingService.getBillingHistory(userId, limit, since);
         
-        return ResponseEntity.ok(billingHistory);
+        return toResponse(billingHistory, limit);
     }
 
     /**
      * Başarılı ödemeleri getir
      * PROTECTED ENDPOINT - JWT token gerektirir
      * 
-     * GET /api/billing/successful-payments
+     * GET /api/billing/successful-payments?limit=5&since=2025-01-01T00:00:00
      */
     @GetMapping("/successful-payments")
     public ResponseEntity<List<BillingHistoryResponse>> getSuccessfulPayments(
-            @RequestHeader("X-User-Id") String userId) {
+            @RequestHeader("X-User-Id") String userId,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since) {
         log.info("Received request to get successful payments for userId: {}", userId);
         
-        List<BillingHistoryResponse> payments = billingService.getSuccessfulPayments(userId);
+        BillingHistoryPage payments = billingService.getSuccessfulPayments(userId, limit, since);
         
-        return ResponseEntity.ok(payments);
+        return toResponse(payments, limit);
+    }
+
+    /**
+     * Kullanıcının aylık harcama özeti
+     * PROTECTED ENDPOINT - JWT token gerektirir
+     * 
+     * GET /api/billing/summary?from=2025-01&to=2025-12
+     * from / to opsiyoneldir (varsayılan son 12 ay, en fazla 36 ay)
+     */
+    @GetMapping("/summary")
+    public ResponseEntity<List<BillingMonthlySummaryResponse>> getMonthlySummary(
+            @RequestHeader("X-User-Id") String userId,
+            @RequestParam(required = false) YearMonth from,
+            @RequestParam(required = false) YearMonth to) {
+        log.info("Received request to get monthly billing summary for userId: {}", userId);
+        
+        List<BillingMonthlySummaryResponse> summary = billingService.getMonthlySummary(userId, from, to);
+        
+        return ResponseEntity.ok(summary);
     }
-}
 
+    /**
+     * Plan bazında aylık gelir özeti (finans dashboard'ları)
+     * INTERNAL ENDPOINT - sadece iç ağdan; gateway üzerinden gelen istek 404 alır (GatewayVerificationFilter)
+     * 
+     * GET /api/billing/reports/plans?from=2025-01&to=2025-12
+     */
+    @GetMapping("/reports/plans")
+    public ResponseEntity<List<BillingMonthlySummaryResponse>> getPlanMonthlySummary(
+            @RequestParam(required = false) YearMonth from,
+            @RequestParam(required = false) YearMonth to) {
+        log.info("Received request to get monthly plan revenue summary");
+        
+        List<BillingMonthlySummaryResponse> summary = billingService.getPlanMonthlySummary(from, to);
+        
+        return ResponseEntity.ok(summary);
+    }
 
+    private ResponseEntity<List<BillingHistoryResponse>> toResponse(BillingHistoryPage page, Integer limit) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (limit != null) {
+            response.header(HAS_MORE_HEADER, String.valueOf(page.isHasMore()));
+        }
+        return response.body(page.getItems());
+    }
+}
 
 
@@ -3,6 +3,7 @@ package com.microservices.subscription_and_billing_service.controller;
 import com.microservices.subscription_and_billing_service.dto.request.CancelSubscriptionRequest;
 import com.microservices.subscription_and_billing_service.dto.request.SubscribeRequest;
 import com.microservices.subscription_and_billing_service.dto.response.SubscriptionResponse;
+import com.microservices.subscription_and_billing_service.service.IdempotencyService;
 import com.microservices.subscription_and_billing_service.service.SubscriptionService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
@@ -24,9 +25,11 @@ public class SubscriptionController {
     private static final Logger log = LoggerFactory.getLogger(SubscriptionController.class);
 
     private final SubscriptionService subscriptionService;
+    private final IdempotencyService idempotencyService;
 
-    public SubscriptionController(SubscriptionService subscriptionService) {
+    public SubscriptionController(SubscriptionService subscriptionService, IdempotencyService idempotencyService) {
         this.subscriptionService = subscriptionService;
+        this.idempotencyService = idempotencyService;
     }
 
     /**
@@ -66,15 +69,18 @@ public class SubscriptionController {
      * PROTECTED ENDPOINT - JWT token gerektirir
      * 
      * POST /api/subscription/subscribe
+     * Opsiyonel Idempotency-Key header'ı: aynı key ile tekrar gelen istek kaydedilmiş yanıtı alır
      */
     @PostMapping("/subscribe")
     public ResponseEntity<SubscriptionResponse> subscribe(
             @RequestHeader("X-User-Id") String userId,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @Valid @RequestBody SubscribeRequest request) {
         log.info("Received request to create subscription for userId: {} with plan: {}", 
                 userId, request.getPlanName());
         
-        SubscriptionResponse subscription = subscriptionService.subscribe(userId, request);
+        SubscriptionResponse subscription = idempotencyService.execute(userId, idempotencyKey, "subscribe",
+                request, SubscriptionResponse.class, () -> subscriptionService.subscribe(userId, request));
         
         return new ResponseEntity<>(subscription, HttpStatus.CREATED);
     }
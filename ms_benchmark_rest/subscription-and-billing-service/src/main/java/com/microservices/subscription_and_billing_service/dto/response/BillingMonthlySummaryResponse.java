@@ -0,0 +1,28 @@
+package com.microservices.subscription_and_billing_service.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Aylık fatura özeti Response DTO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BillingMonthlySummaryResponse {
+
+    private String scopeType;
+    private String scopeKey;
+    private String month; // yyyy-MM
+    private String currency;
+    private Long paymentCount;
+    private Long successCount;
+    private Long failureCount;
+    private BigDecimal successAmount;
+    private BigDecimal failedAmount;
+}
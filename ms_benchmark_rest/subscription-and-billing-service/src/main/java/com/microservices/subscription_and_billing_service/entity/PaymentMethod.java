@@ -15,11 +15,10 @@ import java.time.LocalDateTime;
  * PaymentMethod Entity
  * Kullanıcıların kayıtlı ödeme yöntemlerini tutar
  * Güvenlik için gerçek kart bilgileri saklanmaz, sadece payment gateway token'ı saklanır
+ * İndeksler Flyway migration'larındadır (db/migration)
  */
 @Entity
-@Table(name = "payment_methods", indexes = {
-    @Index(name = "idx_payment_method_user_id", columnList = "userId")
-})
+@Table(name = "payment_methods")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
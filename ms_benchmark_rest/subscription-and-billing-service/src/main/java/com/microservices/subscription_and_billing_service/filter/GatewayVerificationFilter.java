@@ -20,6 +20,8 @@ public class GatewayVerificationFilter implements Filter {
 
     private static final Logger log = LoggerFactory.getLogger(GatewayVerificationFilter.class);
     private static final String GATEWAY_HEADER = "X-Gateway-Request";
+    // Şirket geneli gelir raporları sadece iç ağdan çekilir; gateway üzerinden (dışarıdan) gelen istek reddedilir
+    private static final String REPORTS_PATH = "/api/billing/reports/";
 
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
@@ -37,6 +39,15 @@ public class GatewayVerificationFilter implements Filter {
             return;
         }
 
+        if (requestURI.startsWith(REPORTS_PATH)) {
+            if (gatewayHeader != null) {
+                httpResponse.sendError(HttpServletResponse.SC_NOT_FOUND);
+                return;
+            }
+            chain.doFilter(request, response);
+            return;
+        }
+
         // Gateway header kontrolü
         if (!"true".equals(gatewayHeader)) {
             log.warn("Blocked request without gateway header: {} from IP: {}", 
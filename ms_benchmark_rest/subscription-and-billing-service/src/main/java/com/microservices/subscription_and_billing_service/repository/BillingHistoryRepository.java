@@ -1,6 +1,7 @@
 package com.microservices.subscription_and_billing_service.repository;
 
 import com.microservices.subscription_and_billing_service.entity.BillingHistory;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -20,6 +21,16 @@ public interface BillingHistoryRepository extends JpaRepository<BillingHistory,
      */
     List<BillingHistory> findByUserIdOrderByCreatedAtDesc(String userId);
 
+    /**
+     * Kullanıcının son N faturası (idx_billing_user_created_at üzerinden LIMIT'li okuma)
+     */
+    List<BillingHistory> findByUserIdOrderByCreatedAtDesc(String userId, Limit limit);
+
+    /**
+     * Kullanıcının since'ten sonraki son N faturası
+     */
+    List<BillingHistory> findByUserIdAndCreatedAtAfterOrderByCreatedAtDesc(String userId, LocalDateTime since, Limit limit);
+
     /**
      * Kullanıcının belirli bir aboneliğe ait faturalarını getir
      */
@@ -30,6 +41,17 @@ public interface BillingHistoryRepository extends JpaRepository<BillingHistory,
      */
     List<BillingHistory> findByUserIdAndPaymentStatusOrderByCreatedAtDesc(String userId, BillingHistory.PaymentStatus paymentStatus);
 
+    /**
+     * Belirli durumdaki son N ödeme
+     */
+    List<BillingHistory> findByUserIdAndPaymentStatusOrderByCreatedAtDesc(String userId, BillingHistory.PaymentStatus paymentStatus, Limit limit);
+
+    /**
+     * Belirli durumdaki, since'ten sonraki son N ödeme
+     */
+    List<BillingHistory> findByUserIdAndPaymentStatusAndCreatedAtAfterOrderByCreatedAtDesc(
+            String userId, BillingHistory.PaymentStatus paymentStatus, LocalDateTime since, Limit limit);
+
     /**
      * Belirli bir tarih aralığındaki faturaları getir
      */
@@ -0,0 +1,25 @@
+package com.microservices.subscription_and_billing_service.repository;
+
+import com.microservices.subscription_and_billing_service.entity.BillingJobCheckpoint;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * BillingJobCheckpoint Repository
+ */
+@Repository
+public interface BillingJobCheckpointRepository extends JpaRepository<BillingJobCheckpoint, String> {
+
+    /**
+     * Job checkpoint'ini satır kilidiyle getir (aynı anda tek instance job'u sahiplenir)
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM BillingJobCheckpoint c WHERE c.jobName = :jobName")
+    Optional<BillingJobCheckpoint> findForUpdate(@Param("jobName") String jobName);
+}
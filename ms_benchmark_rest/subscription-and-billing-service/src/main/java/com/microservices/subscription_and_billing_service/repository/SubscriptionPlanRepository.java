@@ -1,7 +1,10 @@
 package com.microservices.subscription_and_billing_service.repository;
 
 import com.microservices.subscription_and_billing_service.entity.SubscriptionPlan;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -14,13 +17,15 @@ import java.util.Optional;
 public interface SubscriptionPlanRepository extends JpaRepository<SubscriptionPlan, Long> {
 
     /**
-     * Plan adına göre plan bul
+     * Plan adına göre plan bul (query cache)
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<SubscriptionPlan> findByPlanName(String planName);
 
     /**
-     * Aktif planları listele
+     * Aktif planları listele (query cache)
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<SubscriptionPlan> findByIsActiveTrueOrderBySortOrderAsc();
 
     /**
@@ -0,0 +1,419 @@
+package com.microservices.subscription_and_billing_service.service;
+
+import com.microservices.subscription_and_billing_service.entity.BillingHistory;
+import com.microservices.subscription_and_billing_service.entity.BillingJobCheckpoint;
+import com.microservices.subscription_and_billing_service.entity.Subscription;
+import com.microservices.subscription_and_billing_service.entity.SubscriptionPlan;
+import com.microservices.subscription_and_billing_service.repository.BillingJobCheckpointRepository;
+import com.microservices.subscription_and_billing_service.repository.SubscriptionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+/**
+ * Subscription Renewal Service
+ * Otomatik yenileme ve süre sonu (expiry) job'ları.
+ *
+ * - Vadesi gelen abonelikler keyset pagination ile chunk chunk okunur (id > lastProcessedId).
+ * - Ödemeler sınırlı bir worker havuzunda paralel çalıştırılır (PaymentService.processPayment).
+ * - Chunk sonuçları tek transaction'da JDBC batch ile yazılır: subscription güncellemeleri,
+ *   BillingHistory kayıtları ve checkpoint ilerlemesi birlikte commit edilir.
+ * - Çöken çalıştırma aynı pencereden kaldığı ID'den devam eder. Commit edilmemiş son chunk'ın
+ *   ödemeleri aynı idempotency key ile tekrar gönderilir (abonelik + dönem + deneme), gateway ikinci
+ *   kez tahsil etmez.
+ * - Reddedilen ödeme üstel bekleme ile (retry-backoff, 2x, 4x...) en fazla max-attempts kez denenir;
+ *   deneme hakkı biten abonelik endDate geçince expiry job'ında EXPIRED olur.
+ *
+ * Metrikler: billing.job.items{job,result}, billing.job.chunk{job}, billing.job.lag{job} (saniye)
+ */
+@Service
+public class SubscriptionRenewalService {
+
+    private static final Logger log = LoggerFactory.getLogger(SubscriptionRenewalService.class);
+
+    static final String RENEWAL_JOB = "subscription-renewal";
+    static final String EXPIRY_JOB = "subscription-expiry";
+
+    private static final String UPDATE_RENEWED_SQL =
+            "UPDATE subscriptions SET end_date = ?, next_billing_date = ?, last_billing_date = ?, " +
+            "failed_payment_attempts = 0, next_retry_at = NULL, updated_at = ? WHERE id = ? AND status = 'ACTIVE'";
+
+    private static final String UPDATE_FAILED_SQL =
+            "UPDATE subscriptions SET failed_payment_attempts = COALESCE(failed_payment_attempts, 0) + 1, " +
+            "next_retry_at = ?, updated_at = ? WHERE id = ?";
+
+    private static final String UPDATE_EXPIRED_SQL =
+            "UPDATE subscriptions SET status = 'EXPIRED', updated_at = ? WHERE id = ? AND status = 'ACTIVE'";
+
+    private static final String INSERT_BILLING_SQL =
+            "INSERT INTO billing_history (user_id, subscription_id, plan_id, plan_name, amount, currency, " +
+            "payment_status, payment_method, transaction_id, payment_date, billing_period_start, " +
+            "billing_period_end, failure_reason, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_CHECKPOINT_SQL =
+            "UPDATE billing_job_checkpoints SET last_processed_id = ?, processed_count = processed_count + ?, " +
+            "updated_at = ? WHERE job_name = ? AND lock_owner = ? AND status = 'RUNNING'";
+
+    private static final String COMPLETE_CHECKPOINT_SQL =
+            "UPDATE billing_job_checkpoints SET status = 'COMPLETED', updated_at = ? " +
+            "WHERE job_name = ? AND lock_owner = ?";
+
+    private final SubscriptionRepository subscriptionRepository;
+    private final BillingJobCheckpointRepository checkpointRepository;
+    private final PaymentService paymentService;
+    private final EntitlementCache entitlementCache;
+    private final TransactionIdGenerator transactionIdGenerator;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final boolean enabled;
+    private final int chunkSize;
+    private final Duration lookahead;
+    private final Duration staleAfter;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final String lockOwner;
+    private final ThreadPoolTaskExecutor workerPool;
+    private final Map<String, AtomicLong> lagSeconds = new ConcurrentHashMap<>();
+
+    public SubscriptionRenewalService(
+            SubscriptionRepository subscriptionRepository,
+            BillingJobCheckpointRepository checkpointRepository,
+            PaymentService paymentService,
+            EntitlementCache entitlementCache,
+            TransactionIdGenerator transactionIdGenerator,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${billing.renewal.enabled:true}") boolean enabled,
+            @Value("${billing.renewal.chunk-size:500}") int chunkSize,
+            @Value("${billing.renewal.workers:16}") int workers,
+            @Value("${billing.renewal.lookahead:24h}") Duration lookahead,
+            @Value("${billing.renewal.stale-after:5m}") Duration staleAfter,
+            @Value("${billing.renewal.max-attempts:4}") int maxAttempts,
+            @Value("${billing.renewal.retry-backoff:2h}") Duration retryBackoff) {
+        this.subscriptionRepository = subscriptionRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.paymentService = paymentService;
+        this.entitlementCache = entitlementCache;
+        this.transactionIdGenerator = transactionIdGenerator;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.chunkSize = chunkSize;
+        this.lookahead = lookahead;
+        this.staleAfter = staleAfter;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+        this.lockOwner = resolveHostName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+
+        this.workerPool = new ThreadPoolTaskExecutor();
+        workerPool.setCorePoolSize(workers);
+        workerPool.setMaxPoolSize(workers);
+        workerPool.setQueueCapacity(chunkSize);
+        workerPool.setThreadNamePrefix("BillingWorker-");
+        // Kuyruk doluysa görevi çağıran thread çalıştırır (doğal backpressure)
+        workerPool.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        workerPool.initialize();
+
+        log.info("Renewal engine: enabled={}, chunkSize={}, workers={}, lookahead={}, maxAttempts={}, "
+                + "retryBackoff={}, owner={}", enabled, chunkSize, workers, lookahead, maxAttempts, retryBackoff, lockOwner);
+    }
+
+    /**
+     * Periyodik çalıştırma: önce yenilemeler, sonra süresi dolanlar
+     */
+    @Scheduled(cron = "${billing.renewal.cron:0 */15 * * * *}")
+    public void runScheduled() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            runRenewals();
+            runExpirations();
+        } catch (RuntimeException e) {
+            log.error("Renewal engine run failed", e);
+        }
+    }
+
+    /**
+     * endDate'i [now, now + lookahead] aralığında olan otomatik yenilemeli abonelikleri yenile
+     */
+    public void runRenewals() {
+        LocalDateTime now = LocalDateTime.now();
+        claim(RENEWAL_JOB, now, now.plus(lookahead)).ifPresent(checkpoint -> runJob(checkpoint,
+                (afterId, page) -> subscriptionRepository.findSubscriptionsForRenewal(
+                        checkpoint.getWindowStart(), checkpoint.getWindowEnd(), maxAttempts, afterId, page),
+                this::renewChunk));
+    }
+
+    /**
+     * endDate'i geçmiş ve hala ACTIVE olan abonelikleri EXPIRED yap
+     */
+    public void runExpirations() {
+        claim(EXPIRY_JOB, null, LocalDateTime.now()).ifPresent(checkpoint -> runJob(checkpoint,
+                (afterId, page) -> subscriptionRepository.findExpiredSubscriptions(
+                        checkpoint.getWindowEnd(), afterId, page),
+                this::expireChunk));
+    }
+
+    /**
+     * Job döngüsü: chunk oku, işle, checkpoint'i ilerlet; boş chunk gelince tamamla
+     */
+    private void runJob(BillingJobCheckpoint checkpoint,
+                        BiFunction<Long, PageRequest, List<Subscription>> chunkReader,
+                        BiFunction<String, List<Subscription>, Integer> chunkProcessor) {
+        String job = checkpoint.getJobName();
+        Timer chunkTimer = Timer.builder("billing.job.chunk").tag("job", job).register(meterRegistry);
+        AtomicLong lag = lagSeconds.computeIfAbsent(job, name ->
+                meterRegistry.gauge("billing.job.lag", Tags.of("job", name), new AtomicLong()));
+
+        long lastId = checkpoint.getLastProcessedId();
+        long processed = 0;
+        long startTime = System.nanoTime();
+
+        log.info("{} started: window=[{}, {}], resumeAfterId={}",
+                job, checkpoint.getWindowStart(), checkpoint.getWindowEnd(), lastId);
+
+        while (true) {
+            long chunkStart = System.nanoTime();
+            List<Subscription> chunk = chunkReader.apply(lastId, PageRequest.of(0, chunkSize));
+            if (chunk.isEmpty()) {
+                break;
+            }
+
+            // Lag: chunk'taki en eski vadenin şimdiye uzaklığı (negatif = vadeden önce işleniyor)
+            chunk.stream()
+                    .map(Subscription::getEndDate)
+                    .min(LocalDateTime::compareTo)
+                    .ifPresent(oldest -> lag.set(Duration.between(oldest, LocalDateTime.now()).toSeconds()));
+
+            processed += chunkProcessor.apply(job, chunk);
+            lastId = chunk.get(chunk.size() - 1).getId();
+            chunkTimer.record(System.nanoTime() - chunkStart, TimeUnit.NANOSECONDS);
+        }
+
+        jdbcTemplate.update(COMPLETE_CHECKPOINT_SQL, Timestamp.valueOf(LocalDateTime.now()), job, lockOwner);
+        long elapsedMillis = Math.max(1, (System.nanoTime() - startTime) / 1_000_000);
+        log.info("{} completed: {} subscriptions in {} ms ({} /s)",
+                job, processed, elapsedMillis, processed * 1000 / elapsedMillis);
+    }
+
+    /**
+     * Chunk'ı paralel öde, sonuçları tek transaction'da yaz
+     */
+    private int renewChunk(String job, List<Subscription> chunk) {
+        List<RenewalResult> results = chunk.stream()
+                .map(subscription -> CompletableFuture.supplyAsync(() -> renew(subscription), workerPool))
+                .toList()
+                .stream()
+                .map(CompletableFuture::join)
+                .toList();
+
+        List<RenewalResult> renewed = results.stream().filter(RenewalResult::success).toList();
+        List<RenewalResult> failed = results.stream().filter(result -> !result.success()).toList();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        long lastId = chunk.get(chunk.size() - 1).getId();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(UPDATE_RENEWED_SQL, renewed, renewed.size(), (ps, result) -> {
+                ps.setTimestamp(1, Timestamp.valueOf(result.periodEnd()));
+                ps.setTimestamp(2, Timestamp.valueOf(result.periodEnd()));
+                ps.setTimestamp(3, now);
+                ps.setTimestamp(4, now);
+                ps.setLong(5, result.subscription().getId());
+            });
+            jdbcTemplate.batchUpdate(UPDATE_FAILED_SQL, failed, failed.size(), (ps, result) -> {
+                ps.setTimestamp(1, Timestamp.valueOf(nextRetryAt(now.toLocalDateTime(), result.attempt())));
+                ps.setTimestamp(2, now);
+                ps.setLong(3, result.subscription().getId());
+            });
+            jdbcTemplate.batchUpdate(INSERT_BILLING_SQL, results, results.size(), (ps, result) -> {
+                Subscription subscription = result.subscription();
+                SubscriptionPlan plan = subscription.getPlan();
+                ps.setString(1, subscription.getUserId());
+                ps.setLong(2, subscription.getId());
+                ps.setLong(3, plan.getId());
+                ps.setString(4, plan.getDisplayName());
+                ps.setBigDecimal(5, result.amount());
+                ps.setString(6, "TRY");
+                ps.setString(7, (result.success() ? BillingHistory.PaymentStatus.SUCCESS
+                        : BillingHistory.PaymentStatus.FAILED).name());
+                ps.setString(8, BillingHistory.PaymentMethod.CREDIT_CARD.name());
+                ps.setString(9, result.transactionId());
+                ps.setTimestamp(10, now);
+                ps.setTimestamp(11, Timestamp.valueOf(result.periodStart()));
+                ps.setTimestamp(12, Timestamp.valueOf(result.periodEnd()));
+                ps.setString(13, result.failureReason());
+                ps.setTimestamp(14, now);
+            });
+            advanceCheckpoint(job, lastId, chunk.size(), now);
+        });
+
+        chunk.forEach(subscription -> entitlementCache.invalidate(subscription.getUserId()));
+        itemCounter(job, "renewed").increment(renewed.size());
+        itemCounter(job, "failed").increment(failed.size());
+        itemCounter(job, "exhausted").increment(failed.stream().filter(result -> result.attempt() + 1 >= maxAttempts).count());
+        return chunk.size();
+    }
+
+    /**
+     * Chunk'taki abonelikleri EXPIRED yap
+     */
+    private int expireChunk(String job, List<Subscription> chunk) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        long lastId = chunk.get(chunk.size() - 1).getId();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(UPDATE_EXPIRED_SQL, chunk, chunk.size(), (ps, subscription) -> {
+                ps.setTimestamp(1, now);
+                ps.setLong(2, subscription.getId());
+            });
+            advanceCheckpoint(job, lastId, chunk.size(), now);
+        });
+
+        chunk.forEach(subscription -> entitlementCache.invalidate(subscription.getUserId()));
+        itemCounter(job, "expired").increment(chunk.size());
+        return chunk.size();
+    }
+
+    /**
+     * Tek abonelik için ödeme (worker thread'inde çalışır)
+     */
+    private RenewalResult renew(Subscription subscription) {
+        SubscriptionPlan plan = subscription.getPlan();
+        boolean monthly = subscription.getBillingCycle() == Subscription.BillingCycle.MONTHLY;
+        BigDecimal amount = monthly ? plan.getMonthlyPrice() : plan.getYearlyPrice();
+        LocalDateTime periodStart = subscription.getEndDate();
+        LocalDateTime periodEnd = monthly ? periodStart.plusMonths(1) : periodStart.plusYears(1);
+        int attempt = subscription.getFailedPaymentAttempts() != null ? subscription.getFailedPaymentAttempts() : 0;
+        String transactionId = transactionIdGenerator.renewalTransactionId(subscription.getId(), periodStart, attempt);
+
+        try {
+            boolean paid = paymentService.processPayment(subscription.getUserId(), amount, null, transactionId);
+            return new RenewalResult(subscription, amount, paid, periodStart, periodEnd, attempt, transactionId,
+                    paid ? null : "Payment declined");
+        } catch (RuntimeException e) {
+            return new RenewalResult(subscription, amount, false, periodStart, periodEnd, attempt, transactionId,
+                    e.getMessage());
+        }
+    }
+
+    /**
+     * Başarısız denemeden sonraki deneme zamanı: retryBackoff * 2^attempt
+     */
+    private LocalDateTime nextRetryAt(LocalDateTime now, int attempt) {
+        return now.plus(retryBackoff.multipliedBy(1L << Math.min(attempt, 16)));
+    }
+
+    /**
+     * Checkpoint'i chunk ile aynı transaction'da ilerlet; sahiplik kaybedildiyse rollback
+     */
+    private void advanceCheckpoint(String job, long lastId, int count, Timestamp now) {
+        int updated = jdbcTemplate.update(UPDATE_CHECKPOINT_SQL, lastId, count, now, job, lockOwner);
+        if (updated == 0) {
+            throw new IllegalStateException("Lost ownership of billing job: " + job);
+        }
+    }
+
+    /**
+     * Job'u sahiplen: yarım kalmış çalıştırma varsa onu devral, yoksa yeni pencere aç.
+     * Başka bir instance aktif olarak çalıştırıyorsa (heartbeat staleAfter'dan yeni) boş döner.
+     */
+    private Optional<BillingJobCheckpoint> claim(String job, LocalDateTime windowStart, LocalDateTime windowEnd) {
+        try {
+            return transactionTemplate.execute(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                BillingJobCheckpoint checkpoint = checkpointRepository.findForUpdate(job)
+                        .orElseGet(() -> BillingJobCheckpoint.builder()
+                                .jobName(job)
+                                .status(BillingJobCheckpoint.JobStatus.COMPLETED)
+                                .lastProcessedId(0L)
+                                .processedCount(0L)
+                                .build());
+
+                if (checkpoint.getStatus() == BillingJobCheckpoint.JobStatus.RUNNING) {
+                    boolean heldByOther = !lockOwner.equals(checkpoint.getLockOwner())
+                            && checkpoint.getUpdatedAt() != null
+                            && checkpoint.getUpdatedAt().isAfter(now.minus(staleAfter));
+                    if (heldByOther) {
+                        log.info("{} is running on {}, skipping", job, checkpoint.getLockOwner());
+                        return Optional.empty();
+                    }
+                    log.info("{} resuming interrupted run from id {}", job, checkpoint.getLastProcessedId());
+                } else {
+                    checkpoint.setStatus(BillingJobCheckpoint.JobStatus.RUNNING);
+                    checkpoint.setWindowStart(windowStart);
+                    checkpoint.setWindowEnd(windowEnd);
+                    checkpoint.setLastProcessedId(0L);
+                    checkpoint.setProcessedCount(0L);
+                    checkpoint.setStartedAt(now);
+                }
+                checkpoint.setLockOwner(lockOwner);
+                checkpoint.setUpdatedAt(now);
+                return Optional.of(checkpointRepository.save(checkpoint));
+            });
+        } catch (DataIntegrityViolationException e) {
+            // İlk çalıştırmada iki instance aynı anda satır oluşturmaya çalıştı
+            log.info("{} claimed concurrently by another instance, skipping", job);
+            return Optional.empty();
+        }
+    }
+
+    private Counter itemCounter(String job, String result) {
+        return Counter.builder("billing.job.items").tag("job", job).tag("result", result).register(meterRegistry);
+    }
+
+    private static String resolveHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workerPool.shutdown();
+    }
+
+    /**
+     * Tek aboneliğin yenileme sonucu
+     */
+    private record RenewalResult(Subscription subscription, BigDecimal amount, boolean success,
+                                 LocalDateTime periodStart, LocalDateTime periodEnd, int attempt,
+                                 String transactionId, String failureReason) {
+    }
+}
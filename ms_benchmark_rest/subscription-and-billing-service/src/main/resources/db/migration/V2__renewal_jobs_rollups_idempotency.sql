@@ -0,0 +1,67 @@
+-- ddl-auto döneminde eklenen tablo / kolon / indeksler
+-- O dönemde güncellenmiş veritabanlarında zaten vardır; bu yüzden hepsi "if not exists"
+
+-- Yenileme backoff'u (SubscriptionRenewalService)
+alter table subscriptions add column if not exists next_retry_at timestamp(6);
+
+create index if not exists idx_subscription_status_end_date on subscriptions (status, end_date);
+
+-- Kullanıcı fatura geçmişi (findByUserIdOrderByCreatedAtDesc) ve rollup
+create index if not exists idx_billing_user_created_at on billing_history (user_id, created_at desc);
+
+create table if not exists billing_job_checkpoints (
+    job_name varchar(50) not null,
+    status varchar(20) not null check (status in ('RUNNING','COMPLETED')),
+    window_start timestamp(6),
+    window_end timestamp(6),
+    last_processed_id bigint not null,
+    processed_count bigint not null,
+    lock_owner varchar(100),
+    started_at timestamp(6),
+    updated_at timestamp(6),
+    primary key (job_name)
+);
+
+create table if not exists billing_monthly_aggregates (
+    id bigint generated by default as identity,
+    scope_type varchar(20) not null check (scope_type in ('USER','PLAN')),
+    scope_key varchar(100) not null,
+    period_month date not null,
+    currency varchar(3) not null,
+    payment_count bigint not null,
+    success_count bigint not null,
+    failure_count bigint not null,
+    success_amount numeric(14,2) not null,
+    failed_amount numeric(14,2) not null,
+    updated_at timestamp(6) not null,
+    primary key (id)
+);
+
+create unique index if not exists idx_billing_aggregate_scope_month
+    on billing_monthly_aggregates (scope_type, scope_key, period_month, currency);
+create index if not exists idx_billing_aggregate_type_month
+    on billing_monthly_aggregates (scope_type, period_month);
+
+create table if not exists billing_rollup_gaps (
+    id bigint not null,
+    detected_at timestamp(6) not null,
+    primary key (id)
+);
+
+create index if not exists idx_billing_rollup_gap_detected_at on billing_rollup_gaps (detected_at);
+
+create table if not exists idempotency_keys (
+    id bigint generated by default as identity,
+    user_id varchar(255) not null,
+    idempotency_key varchar(100) not null,
+    operation varchar(50) not null,
+    request_hash varchar(64) not null,
+    status varchar(20) not null check (status in ('PENDING','COMPLETED')),
+    response_body TEXT,
+    created_at timestamp(6) not null,
+    completed_at timestamp(6),
+    primary key (id)
+);
+
+create unique index if not exists idx_idempotency_user_key on idempotency_keys (user_id, idempotency_key);
+create index if not exists idx_idempotency_created_at on idempotency_keys (created_at);
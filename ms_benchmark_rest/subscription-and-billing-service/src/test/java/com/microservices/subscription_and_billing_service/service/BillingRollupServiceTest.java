@@ -0,0 +1,174 @@
+package com.microservices.subscription_and_billing_service.service;
+
+import com.microservices.subscription_and_billing_service.entity.BillingJobCheckpoint;
+import com.microservices.subscription_and_billing_service.repository.BillingJobCheckpointRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * BillingRollupService'in gap takibi gerçek PostgreSQL üzerinde (Docker yoksa atlanır):
+ * cursor'ın atladığı commit edilmemiş id'ler gap olarak kaydedilir, commit edilince sonraki çalıştırmada
+ * işlenir; rollback olanlar gap-timeout sonunda silinir. Checkpoint satırı bellekte tutulur (repository mock).
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class BillingRollupServiceTest {
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static DriverManagerDataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private BillingJobCheckpoint checkpoint;
+    private BillingRollupService rollupService;
+
+    @BeforeAll
+    static void migrate() {
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .load()
+                .migrate();
+        dataSource = new DriverManagerDataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("TRUNCATE billing_history, billing_rollup_gaps, billing_monthly_aggregates RESTART IDENTITY");
+
+        checkpoint = BillingJobCheckpoint.builder()
+                .jobName(BillingRollupService.ROLLUP_JOB)
+                .status(BillingJobCheckpoint.JobStatus.COMPLETED)
+                .lastProcessedId(0L)
+                .processedCount(0L)
+                .startedAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+        BillingJobCheckpointRepository checkpointRepository = mock(BillingJobCheckpointRepository.class);
+        when(checkpointRepository.existsById(BillingRollupService.ROLLUP_JOB)).thenReturn(true);
+        when(checkpointRepository.findForUpdate(BillingRollupService.ROLLUP_JOB)).thenReturn(Optional.of(checkpoint));
+
+        meterRegistry = new SimpleMeterRegistry();
+        rollupService = new BillingRollupService(checkpointRepository, jdbcTemplate,
+                new DataSourceTransactionManager(dataSource), meterRegistry, true, 2, Duration.ofHours(1), 10);
+    }
+
+    @Test
+    void uncommittedIdIsRecordedAsGapAndProcessedAfterCommit() throws SQLException {
+        insertPayment(null);
+        try (Connection pending = dataSource.getConnection()) {
+            pending.setAutoCommit(false);
+            insertPayment(pending);
+            insertPayment(null);
+            insertPayment(null);
+
+            // id 2 henüz görünmüyor: 1, 3, 4 işlenir, cursor 4'e ilerler, 2 gap olarak kalır
+            assertThat(rollupService.rollup()).isEqualTo(3);
+            assertThat(checkpoint.getLastProcessedId()).isEqualTo(4L);
+            assertThat(gapIds()).containsExactly(2L);
+            assertThat(planPaymentCount()).isEqualTo(3);
+
+            pending.commit();
+        }
+
+        // Geç commit edilen satır gap'ten okunur, gap kaydı silinir; cursor geri gitmez
+        assertThat(rollupService.rollup()).isEqualTo(1);
+        assertThat(checkpoint.getLastProcessedId()).isEqualTo(4L);
+        assertThat(gapIds()).isEmpty();
+        assertThat(planPaymentCount()).isEqualTo(4);
+        assertThat(checkpoint.getProcessedCount()).isEqualTo(4L);
+        assertThat(gapCount("detected")).isEqualTo(1);
+        assertThat(gapCount("filled")).isEqualTo(1);
+
+        // Yeni satır yoksa tekrar işlenen bir şey yok (çift sayım olmaz)
+        assertThat(rollupService.rollup()).isZero();
+        assertThat(planPaymentCount()).isEqualTo(4);
+    }
+
+    @Test
+    void rolledBackIdExpiresAfterGapTimeout() throws SQLException {
+        try (Connection pending = dataSource.getConnection()) {
+            pending.setAutoCommit(false);
+            insertPayment(pending);
+            insertPayment(null);
+            pending.rollback();
+        }
+
+        assertThat(rollupService.rollup()).isEqualTo(1);
+        assertThat(gapIds()).containsExactly(1L);
+
+        // gap-timeout'tan eski gap rollback kabul edilir
+        jdbcTemplate.update("UPDATE billing_rollup_gaps SET detected_at = detected_at - interval '2 hours'");
+        assertThat(rollupService.rollup()).isZero();
+        assertThat(gapIds()).isEmpty();
+        assertThat(gapCount("expired")).isEqualTo(1);
+    }
+
+    @Test
+    void jumpLargerThanMaxGapSpanIsNotRecorded() {
+        insertPayment(null);
+        jdbcTemplate.execute("ALTER TABLE billing_history ALTER COLUMN id RESTART WITH 100");
+        insertPayment(null);
+
+        assertThat(rollupService.rollup()).isEqualTo(2);
+        assertThat(checkpoint.getLastProcessedId()).isEqualTo(100L);
+        assertThat(gapIds()).isEmpty();
+    }
+
+    /**
+     * connection null ise otomatik commit ile ekler
+     */
+    private void insertPayment(Connection connection) {
+        String sql = """
+                INSERT INTO billing_history (user_id, subscription_id, plan_id, plan_name, amount, currency,
+                                             payment_status, payment_method, transaction_id, created_at)
+                VALUES ('user-1', 1, 1, 'BASIC', 99.90, 'TRY', 'SUCCESS', 'CREDIT_CARD', gen_random_uuid()::text, now())
+                """;
+        if (connection == null) {
+            jdbcTemplate.update(sql);
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private List<Long> gapIds() {
+        return jdbcTemplate.queryForList("SELECT id FROM billing_rollup_gaps ORDER BY id", Long.class);
+    }
+
+    private long planPaymentCount() {
+        Long count = jdbcTemplate.queryForObject(
+                "SELECT coalesce(sum(payment_count), 0) FROM billing_monthly_aggregates WHERE scope_type = 'PLAN'",
+                Long.class);
+        return count == null ? 0 : count;
+    }
+
+    private double gapCount(String result) {
+        return meterRegistry.get("billing.rollup.gaps").tag("result", result).counter().count();
+    }
+}
@@ -5,6 +5,7 @@ import com.microservice.user_service.dto.response.UserDashboardResponse.PaymentI
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import java.util.List;
 
@@ -17,7 +18,8 @@ public interface PaymentServiceClient {
 
     /**
      * Kullanıcının son ödeme bilgilerini (fatura geçmişini) getir
+     * limit billing servisinde veritabanı sorgusuna uygulanır
      */
     @GetMapping("/history")
-    List<PaymentInfo> getRecentPayments(@RequestHeader("X-User-Id") String userId);
+    List<PaymentInfo> getRecentPayments(@RequestHeader("X-User-Id") String userId, @RequestParam("limit") int limit);
 }
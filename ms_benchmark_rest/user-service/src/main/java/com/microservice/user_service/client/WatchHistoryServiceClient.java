@@ -0,0 +1,22 @@
+package com.microservice.user_service.client;
+
+import com.microservice.user_service.config.FeignClientConfiguration;
+import com.microservice.user_service.dto.response.UserDashboardResponse.WatchHistoryInfo;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+
+/**
+ * Watch History Feign Client
+ * Video Streaming Service'teki izleme geçmişi özetini almak için kullanılır
+ */
+@FeignClient(name = "video-streaming-service", url = "${application.config.video-streaming-service-url:http://video-streaming-service:9300}", path = "/api/stream/history", configuration = FeignClientConfiguration.class)
+public interface WatchHistoryServiceClient {
+
+    /**
+     * Hesabın izleme özeti (toplam / son dönemde izlenen içerik sayısı, son izleme tarihi)
+     * Video Streaming Service bellek içi indeksinden cevaplar
+     */
+    @GetMapping("/summary")
+    WatchHistoryInfo getSummary(@RequestHeader("X-User-Id") String userId);
+}
@@ -4,6 +4,7 @@ import com.microservice.user_service.client.ContentServiceClient;
 import com.microservice.user_service.client.PaymentServiceClient;
 import com.microservice.user_service.client.ProfileServiceClient;
 import com.microservice.user_service.client.SubscriptionServiceClient;
+import com.microservice.user_service.client.WatchHistoryServiceClient;
 import com.microservice.user_service.dto.response.UserDashboardResponse;
 import com.microservice.user_service.dto.response.UserDashboardResponse.*;
 import com.microservice.user_service.entity.UserProfile;
@@ -14,7 +15,6 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
@@ -26,12 +26,12 @@ import java.util.stream.Collectors;
  * 
  * Bu controller mikroservisler arası iletişim performansını test etmek için
  * oluşturulmuştur.
- * Tek bir endpoint çağrısı ile 5 farklı servise HTTP istekleri gönderir:
+ * Tek bir endpoint çağrısı ile 5 farklı servis çağrısı yapılır:
  * 1. Profile Service - Kullanıcı profilleri
  * 2. Subscription Service - Aktif abonelik
  * 3. Payment Service - Son ödemeler
  * 4. Content Service - Önerilen içerikler
- * 5. Watch History - İzleme geçmişi (mock)
+ * 5. Video Streaming Service - İzleme geçmişi özeti
  * 
  * Protocol Comparison: REST vs gRPC vs GraphQL performans karşılaştırması için
  * kullanılır.
@@ -49,6 +49,7 @@ public class UserDashboardController {
         private final SubscriptionServiceClient subscriptionServiceClient;
         private final PaymentServiceClient paymentServiceClient;
         private final ContentServiceClient contentServiceClient;
+        private final WatchHistoryServiceClient watchHistoryServiceClient;
         private final Executor restExecutor;
 
         public UserDashboardController(
@@ -57,12 +58,14 @@ public class UserDashboardController {
                         SubscriptionServiceClient subscriptionServiceClient,
                         PaymentServiceClient paymentServiceClient,
                         ContentServiceClient contentServiceClient,
+                        WatchHistoryServiceClient watchHistoryServiceClient,
                         @Qualifier("restExecutor") Executor restExecutor) {
                 this.userProfileService = userProfileService;
                 this.profileServiceClient = profileServiceClient;
                 this.subscriptionServiceClient = subscriptionServiceClient;
                 this.paymentServiceClient = paymentServiceClient;
                 this.contentServiceClient = contentServiceClient;
+                this.watchHistoryServiceClient = watchHistoryServiceClient;
                 this.restExecutor = restExecutor;
         }
 
@@ -77,7 +80,7 @@ public class UserDashboardController {
          * 3. Subscription Service'e Feign HTTP call (REST: ~80-100ms)
          * 4. Payment Service'e Feign HTTP call (REST: ~80-100ms)
          * 5. Content Service'e Feign HTTP call (REST: ~80-100ms)
-         * 6. Watch History mock data (local: ~5ms)
+         * 6. Video Streaming Service'e Feign HTTP call (izleme geçmişi özeti, bellek içi indeks)
          * 
          * TOPLAM BEKLENEN SÜRE (REST Parallel): ~150-200ms
          */
@@ -151,14 +154,12 @@ public class UserDashboardController {
                                         .supplyAsync(() -> {
                                                 try {
                                                         long start = System.currentTimeMillis();
-                                                        List<PaymentInfo> allPayments = paymentServiceClient
-                                                                        .getRecentPayments(userId);
-                                                        // Get last 5 payments
-                                                        List<PaymentInfo> filtered = allPayments.stream().limit(5)
-                                                                        .collect(Collectors.toList());
+                                                        // Son 5 ödeme (LIMIT server tarafında)
+                                                        List<PaymentInfo> recentPayments = paymentServiceClient
+                                                                        .getRecentPayments(userId, 5);
                                                         log.info("    ✓ Parallel [REST->Payment] - {}ms",
                                                                         System.currentTimeMillis() - start);
-                                                        return filtered;
+                                                        return recentPayments;
                                                 } catch (Exception e) {
                                                         log.warn("    ⚠ Parallel [REST->Payment] FAILED: {} - Returning empty list",
                                                                         e.getMessage());
@@ -186,28 +187,38 @@ public class UserDashboardController {
                                                 }
                                         }, restExecutor);
 
+                        // 6. HTTP CALL: Video Streaming Service - watch history summary (Feign REST)
+                        CompletableFuture<WatchHistoryInfo> watchHistoryFuture = CompletableFuture
+                                        .supplyAsync(() -> {
+                                                try {
+                                                        long start = System.currentTimeMillis();
+                                                        WatchHistoryInfo summary = watchHistoryServiceClient
+                                                                        .getSummary(userId);
+                                                        log.info("    ✓ Parallel [REST->WatchHistory] - {}ms",
+                                                                        System.currentTimeMillis() - start);
+                                                        return summary;
+                                                } catch (Exception e) {
+                                                        log.warn("    ⚠ Parallel [REST->WatchHistory] FAILED: {} - Returning empty history",
+                                                                        e.getMessage());
+                                                        return emptyWatchHistory();
+                                                }
+                                        }, restExecutor);
+
                         // Wait for all to complete
                         CompletableFuture
-                                        .allOf(profilesFuture, subFuture, paymentsFuture, contentsFuture).join();
+                                        .allOf(profilesFuture, subFuture, paymentsFuture, contentsFuture,
+                                                        watchHistoryFuture)
+                                        .join();
 
                         List<ProfileInfo> profiles = profilesFuture.get();
                         SubscriptionInfo subscription = subFuture.get();
                         List<PaymentInfo> payments = paymentsFuture.get();
                         List<ContentInfo> recommendedContents = contentsFuture.get();
+                        WatchHistoryInfo watchHistory = watchHistoryFuture.get();
 
                         log.info("  🚀 All parallel calls completed in {}ms (Truly Parallelized)",
                                         System.currentTimeMillis() - parallelStartTime);
 
-                        // 6. LOCAL: Mock watch history (no external service)
-                        long step6Start = System.currentTimeMillis();
-                        WatchHistoryInfo watchHistory = WatchHistoryInfo.builder()
-                                        .totalWatched(42)
-                                        .recentWatchCount(12)
-                                        .lastWatchedDate(LocalDateTime.now().toString())
-                                        .build();
-                        log.info("  ✓ Step 6 [LOCAL] Watch history created - {}ms",
-                                        System.currentTimeMillis() - step6Start);
-
                         // Build final response
                         UserDashboardResponse response = UserDashboardResponse.builder()
                                         .user(userInfo)
@@ -221,7 +232,7 @@ public class UserDashboardController {
                         long totalTime = System.currentTimeMillis() - startTime;
                         log.info("📊 [SERVICE CHAIN TEST - REST PARALLEL] ✅ Dashboard request completed - TOTAL TIME: {}ms",
                                         totalTime);
-                        log.info("   Protocol: REST PARALLEL | Service Calls: 4 HTTP ||");
+                        log.info("   Protocol: REST PARALLEL | Service Calls: 5 HTTP ||");
 
                         return ResponseEntity.ok(response);
 
@@ -233,6 +244,16 @@ public class UserDashboardController {
                 }
         }
 
+        /**
+         * İzleme geçmişi alınamazsa dashboard boş özetle döner
+         */
+        private static WatchHistoryInfo emptyWatchHistory() {
+                return WatchHistoryInfo.builder()
+                                .totalWatched(0)
+                                .recentWatchCount(0)
+                                .build();
+        }
+
         /**
          * Health check endpoint
          */
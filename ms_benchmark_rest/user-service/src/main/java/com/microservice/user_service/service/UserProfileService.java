@@ -38,10 +38,11 @@ public class UserProfileService {
     public UserProfileResponse createUserProfile(CreateUserProfileRequest request) {
         log.info("Creating user profile for userId: {}, email: {}", request.getUserId(), request.getEmail());
 
-        // Kullanıcı ID'si veya email ile daha önce profil oluşturulmuş mu kontrol et
-        if (userProfileRepository.existsByUserId(request.getUserId())) {
-            log.error("User profile already exists for userId: {}", request.getUserId());
-            throw new BadRequestException("User profile already exists for this user ID");
+        // Auth Service outbox'ı en az bir kez teslim eder: aynı userId tekrar gelirse mevcut profil döner
+        UserProfile existing = userProfileRepository.findByUserId(request.getUserId()).orElse(null);
+        if (existing != null) {
+            log.info("User profile already exists for userId: {}, returning existing profile", request.getUserId());
+            return UserProfileResponse.fromEntity(existing);
         }
 
         if (userProfileRepository.existsByEmail(request.getEmail())) {
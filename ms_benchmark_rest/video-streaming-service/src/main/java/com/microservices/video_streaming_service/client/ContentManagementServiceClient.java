@@ -2,10 +2,13 @@ package com.microservices.video_streaming_service.client;
 
 import com.microservices.video_streaming_service.config.FeignClientConfiguration;
 import com.microservices.video_streaming_service.dto.response.ContentResponse;
+import com.microservices.video_streaming_service.dto.response.EpisodeFileResponse;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 
+import java.util.List;
+
 /**
  * Content Management Service Feign Client
  * Video Streaming Service'ten Content Management Service'e HTTP istekleri göndermek için kullanılır
@@ -13,7 +16,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 @FeignClient(
     name = "content-management-service", 
     url = "${application.config.content-service-url:http://content-management-service:9200}",
-    path = "/api/contents",
+    path = "/api",
     configuration = FeignClientConfiguration.class
 )
 public interface ContentManagementServiceClient {
@@ -21,8 +24,20 @@ public interface ContentManagementServiceClient {
     /**
      * Content ID'ye göre içerik bilgilerini getir (videoFilePath için)
      */
-    @GetMapping("/{contentId}")
+    @GetMapping("/contents/{contentId}")
     ContentResponse getContentById(@PathVariable("contentId") Long contentId);
+
+    /**
+     * Episode ID'ye göre hafif bölüm bilgisini getir (videoFilePath ve seasonId için)
+     */
+    @GetMapping("/episodes/{episodeId}/file")
+    EpisodeFileResponse getEpisodeFile(@PathVariable("episodeId") Long episodeId);
+
+    /**
+     * Season ID'ye göre aktif bölümlerin hafif bilgisini getir (sezon prefetch'i)
+     */
+    @GetMapping("/episodes/season/{seasonId}/files")
+    List<EpisodeFileResponse> getActiveEpisodeFilesBySeasonId(@PathVariable("seasonId") Long seasonId);
 }
 
 
@@ -0,0 +1,32 @@
+package com.microservices.video_streaming_service.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Seek Response DTO
+ * ?t=saniye için keyframe ve oynatıcının isteyeceği byte aralığı
+ * Oynatıcı range ile (etag'i If-Range olarak göndererek) doğrudan keyframe'den okumaya başlar
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeekResponse {
+
+    private Double requestedSeconds;
+    // requestedSeconds'tan önceki (veya tam o andaki) son keyframe
+    private Double keyframeSeconds;
+    private Long byteOffset;
+    // Range header değeri (bytes={byteOffset}-)
+    private String range;
+    // Sonraki keyframe'in offset'i (son keyframe'de null)
+    private Long nextKeyframeOffset;
+    // moov atom'unun aralığı; oynatıcıda yoksa keyframe aralığıyla paralel istenebilir
+    private String moovRange;
+    private Long fileSize;
+    private Double durationSeconds;
+    private String etag;
+}
@@ -19,6 +19,7 @@ public class SubscriptionResponse {
 
     private Long id;
     private String userId;
+    private SubscriptionPlanResponse plan;
     private String status;
     private String billingCycle;
     private LocalDateTime startDate;
@@ -49,6 +49,13 @@ public class GatewayVerificationFilter implements Filter {
             return;
         }
 
+        // Prometheus scrape'i gateway üzerinden gelmez (iç ağdan doğrudan)
+        if (requestURI.equals("/actuator/prometheus")) {
+            log.debug("Prometheus scrape request - bypassing gateway verification");
+            chain.doFilter(request, response);
+            return;
+        }
+
         // Gateway header kontrolü
         if (!GATEWAY_HEADER_VALUE.equals(gatewayHeader)) {
             log.warn("⚠️ SECURITY ALERT: Direct service access attempt blocked! " +
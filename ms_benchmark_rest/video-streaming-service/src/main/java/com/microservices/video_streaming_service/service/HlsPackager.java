@@ -0,0 +1,241 @@
+package com.microservices.video_streaming_service.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * HLS Packager
+ * video.base-path altındaki kaynak videoları sabit süreli fMP4 segmentlere ve bir VOD manifest'e
+ * (index.m3u8) böler. Paketleme ffmpeg ile stream copy (-c copy) yapılır, transcoding yapılmaz;
+ * segmentler kaynaktaki keyframe'lerde kesilir, bu yüzden kaynak GOP'u segment süresine hizalı
+ * olmalıdır.
+ *
+ * - Offline adımdır: video.hls.packager.enabled=true ile açılır ve uygulama başlarken arka planda
+ *   bir kez çalışır (ayrı bir instance / job olarak da çalıştırılabilir).
+ * - Paket önce geçici dizine yazılır, tamamlanınca tek rename ile yayınlanır; yarım paket servis edilmez.
+ * - Güncel version'ı zaten olan kaynaklar atlanır.
+ * - Eski version dizinleri, güncel version yayınlandıktan video.hls.url-ttl sonra silinir: o ana kadar
+ *   eski version için verilmiş imzalı URL'lerin süresi dolmuştur, oynatan istemci segmentsiz kalmaz.
+ *   Süresi henüz dolmamış eski version'lar bir sonraki çalıştırmada silinir.
+ */
+@Component
+public class HlsPackager implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(HlsPackager.class);
+
+    private static final Set<String> SOURCE_EXTENSIONS = Set.of(".mp4", ".webm", ".mkv", ".avi");
+    private static final String TEMP_PREFIX = ".tmp-";
+
+    private final HlsStreamingService hlsStreamingService;
+    private final Path videoBasePath;
+    private final boolean enabled;
+    private final String ffmpegPath;
+    private final int segmentDurationSeconds;
+    private final Duration timeout;
+
+    public HlsPackager(
+            HlsStreamingService hlsStreamingService,
+            @Value("${video.base-path:${user.home}/videos}") String videoBasePath,
+            @Value("${video.hls.packager.enabled:false}") boolean enabled,
+            @Value("${video.hls.packager.ffmpeg-path:ffmpeg}") String ffmpegPath,
+            @Value("${video.hls.segment-duration:6}") int segmentDurationSeconds,
+            @Value("${video.hls.packager.timeout:30m}") Duration timeout) {
+        this.hlsStreamingService = hlsStreamingService;
+        this.videoBasePath = Paths.get(videoBasePath).toAbsolutePath().normalize();
+        this.enabled = enabled;
+        this.ffmpegPath = ffmpegPath;
+        this.segmentDurationSeconds = segmentDurationSeconds;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        Thread worker = new Thread(this::packageAll, "HlsPackager");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Paketi olmayan / güncel olmayan tüm kaynakları paketle
+     *
+     * @return paketlenen kaynak sayısı
+     */
+    public int packageAll() {
+        List<Path> sources;
+        try {
+            sources = findSources();
+        } catch (IOException | UncheckedIOException e) {
+            log.error("Failed to scan video base path {}: {}", videoBasePath, e.getMessage());
+            return 0;
+        }
+
+        log.info("HLS packager found {} source videos under {}", sources.size(), videoBasePath);
+        int packaged = 0;
+        for (Path source : sources) {
+            try {
+                if (packageSource(source.toFile())) {
+                    packaged++;
+                }
+            } catch (IOException e) {
+                log.error("Failed to package {}: {}", source, e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("HLS packager interrupted");
+                break;
+            }
+        }
+        log.info("HLS packager finished: packaged={}, total={}", packaged, sources.size());
+        return packaged;
+    }
+
+    /**
+     * Tek kaynağı paketle (güncel paket varsa false)
+     */
+    public boolean packageSource(File source) throws IOException, InterruptedException {
+        String packageId = hlsStreamingService.packageId(source.toPath());
+        String version = hlsStreamingService.version(source);
+        Path target = hlsStreamingService.packageDir(packageId, version);
+
+        if (Files.isRegularFile(target.resolve(HlsStreamingService.MANIFEST_FILE))) {
+            log.debug("HLS package up to date for {}", source);
+            removeStaleVersions(target.getParent(), version);
+            return false;
+        }
+
+        Path packageRoot = target.getParent();
+        Files.createDirectories(packageRoot);
+        Path temp = Files.createTempDirectory(packageRoot, TEMP_PREFIX + version + "-");
+        try {
+            runFfmpeg(source, temp);
+
+            deleteRecursively(temp.resolve("ffmpeg.log"));
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            // Yayın zamanı: eski version'lar bundan url-ttl sonra silinir
+            Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+            log.info("Packaged {} -> {}/{}", source, packageId, version);
+        } finally {
+            deleteRecursively(temp);
+        }
+
+        removeStaleVersions(packageRoot, version);
+        return true;
+    }
+
+    private void runFfmpeg(File source, Path outputDir) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>(List.of(
+                ffmpegPath, "-nostdin", "-hide_banner", "-y",
+                "-i", source.getAbsolutePath(),
+                "-map", "0:v:0", "-map", "0:a:0?",
+                "-c", "copy",
+                "-f", "hls",
+                "-hls_time", String.valueOf(segmentDurationSeconds),
+                "-hls_playlist_type", "vod",
+                "-hls_flags", "independent_segments",
+                "-hls_segment_type", "fmp4",
+                "-hls_fmp4_init_filename", HlsStreamingService.INIT_FILE,
+                "-hls_segment_filename", outputDir.resolve(HlsStreamingService.SEGMENT_PATTERN).toString(),
+                outputDir.resolve(HlsStreamingService.MANIFEST_FILE).toString()));
+
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(outputDir.resolve("ffmpeg.log").toFile())
+                .start();
+
+        if (!process.waitFor(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            process.destroyForcibly();
+            throw new IOException("ffmpeg timed out after " + timeout);
+        }
+        if (process.exitValue() != 0) {
+            throw new IOException("ffmpeg exited with code " + process.exitValue()
+                    + " (see " + outputDir.resolve("ffmpeg.log") + ")");
+        }
+        if (!Files.isRegularFile(outputDir.resolve(HlsStreamingService.MANIFEST_FILE))) {
+            throw new IOException("ffmpeg did not produce a manifest");
+        }
+    }
+
+    private List<Path> findSources() throws IOException {
+        Path hlsBasePath = hlsStreamingService.hlsBasePath();
+        try (Stream<Path> paths = Files.walk(videoBasePath)) {
+            return paths
+                    .filter(path -> !path.startsWith(hlsBasePath))
+                    .filter(Files::isRegularFile)
+                    .filter(path -> {
+                        String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+                        return SOURCE_EXTENSIONS.stream().anyMatch(name::endsWith);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    /**
+     * Kaynak değiştiği için artık referans verilmeyen eski version dizinlerini sil
+     * Güncel version url-ttl'den daha yeni yayınlandıysa eski version'lara dokunulmaz
+     * (kaynak değiştikten sonra eski version için URL verilmez, verilmiş olanlar url-ttl içinde dolar)
+     */
+    private void removeStaleVersions(Path packageRoot, String currentVersion) {
+        try {
+            Instant publishedAt = Files.getLastModifiedTime(packageRoot.resolve(currentVersion)).toInstant();
+            if (publishedAt.plus(hlsStreamingService.urlTtl()).isAfter(Instant.now())) {
+                log.debug("Keeping stale HLS package versions in {} until {}", packageRoot,
+                        publishedAt.plus(hlsStreamingService.urlTtl()));
+                return;
+            }
+        } catch (IOException e) {
+            log.warn("Failed to read HLS package version {}: {}", packageRoot.resolve(currentVersion), e.getMessage());
+            return;
+        }
+
+        try (Stream<Path> versions = Files.list(packageRoot)) {
+            versions.filter(path -> !path.getFileName().toString().equals(currentVersion))
+                    .filter(path -> !path.getFileName().toString().startsWith(TEMP_PREFIX))
+                    .forEach(path -> {
+                        try {
+                            deleteRecursively(path);
+                            log.info("Removed stale HLS package version {}", path);
+                        } catch (IOException e) {
+                            log.warn("Failed to remove stale HLS package {}: {}", path, e.getMessage());
+                        }
+                    });
+        } catch (IOException e) {
+            log.warn("Failed to list HLS package versions in {}: {}", packageRoot, e.getMessage());
+        }
+    }
+
+    private static void deleteRecursively(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(path)) {
+            for (Path p : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package com.microservices.video_streaming_service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * MP4 Seek Index
+ * MP4 dosyalarının keyframe zaman -> byte offset tablolarının önbelleği; oynatıcı seek'te moov'u
+ * indirip offset tahmin etmek yerine ?t=saniye ile doğru aralığı tek istekte öğrenir.
+ *
+ * - Tablo moov'dan bir kez çıkarılır (Mp4IndexParser) ve primitive dizilerde tutulur (keyframe başına 12 byte).
+ * - Cache anahtarı dosya yolu + lastModified + boyuttur; dosya değişirse yeni indeks çıkarılır.
+ * - İndekslenemeyen dosyalar (fragmented MP4, bozuk moov) boş indeks olarak cache'lenir, tekrar parse edilmez.
+ * - warm-on-startup açıksa uygulama başlarken video.base-path altındaki MP4'ler arka planda indekslenir;
+ *   oynatma oturumu açılan dosyalar da arka planda indekslenir (ilk seek beklemez).
+ *
+ * Metrikler: cache.* {cache=seek-index}, video.seek-index.build, video.seek-index.warm {result=queued|dropped}
+ */
+@Component
+public class Mp4SeekIndex implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(Mp4SeekIndex.class);
+
+    private static final SeekIndex EMPTY = new SeekIndex(new int[0], new long[0], 0, 0, 0, 0);
+
+    private final HlsStreamingService hlsStreamingService;
+    private final Path videoBasePath;
+    private final boolean warmOnStartup;
+    private final long maxMoovSize;
+
+    private final Cache<String, SeekIndex> indexes;
+    private final Set<String> warming = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolTaskExecutor warmExecutor;
+
+    private final Timer buildTimer;
+    private final Counter warmQueuedCounter;
+    private final Counter warmDroppedCounter;
+
+    public Mp4SeekIndex(
+            HlsStreamingService hlsStreamingService,
+            MeterRegistry meterRegistry,
+            @Value("${video.base-path:${user.home}/videos}") String videoBasePath,
+            @Value("${video.seek-index.max-memory:64MB}") DataSize maxMemory,
+            @Value("${video.seek-index.max-moov-size:64MB}") DataSize maxMoovSize,
+            @Value("${video.seek-index.warm-on-startup:true}") boolean warmOnStartup,
+            @Value("${video.seek-index.warm.threads:1}") int warmThreads,
+            @Value("${video.seek-index.warm.queue-capacity:256}") int warmQueueCapacity) {
+        this.hlsStreamingService = hlsStreamingService;
+        this.videoBasePath = Paths.get(videoBasePath).toAbsolutePath().normalize();
+        this.warmOnStartup = warmOnStartup;
+        this.maxMoovSize = maxMoovSize.toBytes();
+
+        this.indexes = Caffeine.newBuilder()
+                .maximumWeight(maxMemory.toBytes())
+                .weigher((String key, SeekIndex index) -> index.weight())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, indexes, "seek-index");
+
+        this.buildTimer = meterRegistry.timer("video.seek-index.build");
+        this.warmQueuedCounter = meterRegistry.counter("video.seek-index.warm", "result", "queued");
+        this.warmDroppedCounter = meterRegistry.counter("video.seek-index.warm", "result", "dropped");
+
+        this.warmExecutor = new ThreadPoolTaskExecutor();
+        warmExecutor.setCorePoolSize(warmThreads);
+        warmExecutor.setMaxPoolSize(warmThreads);
+        warmExecutor.setQueueCapacity(warmQueueCapacity);
+        warmExecutor.setThreadNamePrefix("SeekIndex-");
+        warmExecutor.initialize();
+
+        log.info("MP4 seek index: maxMemory={}, maxMoovSize={}, warmOnStartup={}, warmThreads={}",
+                maxMemory, maxMoovSize, warmOnStartup, warmThreads);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!warmOnStartup) {
+            return;
+        }
+        Thread worker = new Thread(this::indexAll, "Mp4SeekIndexer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Dosyanın indeksi (cache'te yoksa moov parse edilir; aynı dosya için tek parse çalışır)
+     * İndekslenemeyen dosyada keyframeCount() == 0
+     */
+    public SeekIndex get(File file) {
+        return indexes.get(key(file), key -> build(file));
+    }
+
+    /**
+     * Dosyayı arka planda indeksle (cache'te yoksa); kuyruk doluysa atlanır, ilk seek senkron indeksler
+     */
+    public void warm(File file) {
+        String key = key(file);
+        if (indexes.getIfPresent(key) != null || !warming.add(key)) {
+            return;
+        }
+        try {
+            warmExecutor.execute(() -> {
+                try {
+                    indexes.get(key, k -> build(file));
+                } finally {
+                    warming.remove(key);
+                }
+            });
+            warmQueuedCounter.increment();
+        } catch (TaskRejectedException e) {
+            warming.remove(key);
+            warmDroppedCounter.increment();
+        }
+    }
+
+    /**
+     * MP4 dosyası mı (uzantıya göre)
+     */
+    public boolean isIndexable(File file) {
+        String name = file.getName().toLowerCase(Locale.ROOT);
+        return name.endsWith(".mp4") || name.endsWith(".m4v");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        warmExecutor.shutdown();
+    }
+
+    /**
+     * video.base-path altındaki tüm MP4'leri sırayla indeksle (HLS paketleri hariç)
+     */
+    private void indexAll() {
+        Path hlsBasePath = hlsStreamingService.hlsBasePath();
+        List<Path> sources;
+        try (Stream<Path> paths = Files.walk(videoBasePath)) {
+            sources = paths
+                    .filter(path -> !path.startsWith(hlsBasePath))
+                    .filter(Files::isRegularFile)
+                    .filter(path -> isIndexable(path.toFile()))
+                    .sorted()
+                    .toList();
+        } catch (IOException | UncheckedIOException e) {
+            log.error("Failed to scan video base path {}: {}", videoBasePath, e.getMessage());
+            return;
+        }
+
+        int indexed = 0;
+        for (Path source : sources) {
+            if (get(source.toFile()).keyframeCount() > 0) {
+                indexed++;
+            }
+        }
+        log.info("MP4 seek indexer finished: indexed={}, total={}", indexed, sources.size());
+    }
+
+    private SeekIndex build(File file) {
+        long start = System.nanoTime();
+        try {
+            SeekIndex index = Mp4IndexParser.parse(file, maxMoovSize);
+            log.debug("Indexed {}: {} keyframes", file, index.keyframeCount());
+            return index;
+        } catch (IOException e) {
+            log.warn("MP4 seek index not available for {}: {}", file, e.getMessage());
+            return EMPTY;
+        } finally {
+            buildTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static String key(File file) {
+        return file.getAbsolutePath() + "|" + file.lastModified() + "|" + file.length();
+    }
+
+    /**
+     * Dosyanın keyframe tablosu: artan zaman (ms) ve karşılık gelen keyframe byte offset'leri
+     */
+    public static final class SeekIndex {
+
+        private final int[] keyframeMillis;
+        private final long[] keyframeOffsets;
+        private final long moovOffset;
+        private final long moovSize;
+        private final long fileSize;
+        private final long durationMillis;
+
+        SeekIndex(int[] keyframeMillis, long[] keyframeOffsets, long moovOffset, long moovSize, long fileSize,
+                  long durationMillis) {
+            this.keyframeMillis = keyframeMillis;
+            this.keyframeOffsets = keyframeOffsets;
+            this.moovOffset = moovOffset;
+            this.moovSize = moovSize;
+            this.fileSize = fileSize;
+            this.durationMillis = durationMillis;
+        }
+
+        public int keyframeCount() {
+            return keyframeMillis.length;
+        }
+
+        /**
+         * Verilen zamandan önceki (veya tam o andaki) son keyframe'in sırası
+         */
+        public int floor(long millis) {
+            int found = Arrays.binarySearch(keyframeMillis, (int) Math.min(Integer.MAX_VALUE, millis));
+            if (found >= 0) {
+                // Aynı zamanlı keyframe'lerden ilki
+                while (found > 0 && keyframeMillis[found - 1] == keyframeMillis[found]) {
+                    found--;
+                }
+                return found;
+            }
+            return Math.max(0, -found - 2);
+        }
+
+        public long keyframeMillis(int keyframe) {
+            return keyframeMillis[keyframe];
+        }
+
+        public long keyframeOffset(int keyframe) {
+            return keyframeOffsets[keyframe];
+        }
+
+        public long getMoovOffset() {
+            return moovOffset;
+        }
+
+        public long getMoovSize() {
+            return moovSize;
+        }
+
+        public long getFileSize() {
+            return fileSize;
+        }
+
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+
+        int weight() {
+            return 64 + keyframeMillis.length * (Integer.BYTES + Long.BYTES);
+        }
+    }
+}
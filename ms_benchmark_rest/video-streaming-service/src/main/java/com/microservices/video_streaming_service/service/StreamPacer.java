@@ -0,0 +1,257 @@
+package com.microservices.video_streaming_service.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stream Pacer
+ * Hız sınırlı gövdeleri Servlet non-blocking I/O (AsyncContext + WriteListener) ile yazar; Tomcat thread'i
+ * token beklerken park edilmez.
+ *
+ * - Her turda chunk-size kadar byte okunup yazılır ve TokenBucket'tan rezerve edilir; bekleme gerekirse
+ *   devam scheduler'a bırakılır ve thread container'a döner.
+ * - Süre dolunca yazım AsyncContext.start() ile container thread'inde sürer; socket dolduysa (isReady false)
+ *   container onWritePossible'ı çağırır.
+ * - Async timeout kapalıdır (uzun oynatmalar kesilmesin); yazamayan istemci connector'ın socket timeout'u
+ *   ile onError'a düşer.
+ *
+ * Metrikler: video.stream.paced.active
+ */
+@Component
+public class StreamPacer {
+
+    private static final Logger log = LoggerFactory.getLogger(StreamPacer.class);
+
+    private final ThreadPoolTaskScheduler scheduler;
+    private final int chunkSize;
+    private final AtomicInteger active = new AtomicInteger();
+
+    public StreamPacer(MeterRegistry meterRegistry,
+                       @Value("${video.streaming.pacer.threads:1}") int threads,
+                       @Value("${video.streaming.pacer.chunk-size:64KB}") DataSize chunkSize) {
+        this.chunkSize = (int) chunkSize.toBytes();
+
+        this.scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(threads);
+        scheduler.setThreadNamePrefix("StreamPacer-");
+        scheduler.initialize();
+
+        meterRegistry.gauge("video.stream.paced.active", active);
+
+        log.info("Stream pacer: threads={}, chunkSize={}", threads, chunkSize);
+    }
+
+    /**
+     * Status ve header'ları yaz, gövdeyi asenkron başlat; çağıran thread hemen döner
+     *
+     * @param parts    dosya aralıkları (sırayla); her birinin önündeki preamble olduğu gibi yazılır
+     * @param epilogue son aralıktan sonra yazılacak byte'lar (multipart kapanışı; yoksa boş)
+     */
+    public void write(HttpServletRequest request, HttpServletResponse response, HttpStatus status,
+                      HttpHeaders headers, Resource resource, List<Part> parts, byte[] epilogue,
+                      TokenBucket bandwidth) throws IOException {
+        response.setStatus(status.value());
+        headers.forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+
+        AsyncContext asyncContext = request.startAsync(request, response);
+        asyncContext.setTimeout(0);
+        PacedBody body = new PacedBody(asyncContext, response.getOutputStream(), resource, parts, epilogue,
+                bandwidth);
+        active.incrementAndGet();
+        // İlk onWritePossible bu thread container'a döndükten sonra çağrılır
+        response.getOutputStream().setWriteListener(body);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+    }
+
+    /**
+     * Aralık başına ilerle (blok cache stream'inde skip diske dokunmaz)
+     */
+    private static void skipFully(InputStream in, long bytes) throws IOException {
+        long left = bytes;
+        while (left > 0) {
+            long skipped = in.skip(left);
+            if (skipped <= 0) {
+                if (in.read() < 0) {
+                    throw new EOFException("File ended before the range start");
+                }
+                skipped = 1;
+            }
+            left -= skipped;
+        }
+    }
+
+    /**
+     * Gövdenin bir dosya aralığı
+     */
+    public record Part(byte[] preamble, long start, long length) {
+    }
+
+    /**
+     * Tek gövdenin yazım durumu; onWritePossible ve zamanlanmış devam aynı anda çalışmaz
+     * (devam yalnızca isReady() true iken bekleme gerektiğinde zamanlanır, bu durumda container çağırmaz)
+     */
+    private final class PacedBody implements WriteListener {
+
+        private final AsyncContext asyncContext;
+        private final ServletOutputStream out;
+        private final Resource resource;
+        private final List<Part> parts;
+        private final byte[] epilogue;
+        private final TokenBucket bandwidth;
+        private final byte[] buffer;
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        private int partIndex = -1;
+        private InputStream in;
+        private long remaining;
+        private byte[] pending;
+        private boolean epilogueQueued;
+
+        PacedBody(AsyncContext asyncContext, ServletOutputStream out, Resource resource, List<Part> parts,
+                  byte[] epilogue, TokenBucket bandwidth) {
+            this.asyncContext = asyncContext;
+            this.out = out;
+            this.resource = resource;
+            this.parts = parts;
+            this.epilogue = epilogue;
+            this.bandwidth = bandwidth;
+            this.buffer = new byte[chunkSize];
+        }
+
+        @Override
+        public void onWritePossible() {
+            if (done.get()) {
+                return;
+            }
+            try {
+                writeAvailable();
+            } catch (IOException | RuntimeException e) {
+                // İstemci bağlantıyı kesti (broken pipe) veya dosya okunamadı; eksik byte'lar abort olarak ölçülür
+                log.debug("Paced stream closed early: {}", e.getMessage());
+                finish();
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            log.debug("Paced stream write failed: {}", t.getMessage());
+            finish();
+        }
+
+        /**
+         * Socket kabul ettikçe ve token varken yaz; her write'tan önce isReady() kontrol edilir
+         */
+        private void writeAvailable() throws IOException {
+            while (out.isReady()) {
+                if (pending != null) {
+                    byte[] bytes = pending;
+                    pending = null;
+                    out.write(bytes);
+                    continue;
+                }
+                if (remaining > 0) {
+                    int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                    if (read < 0) {
+                        throw new EOFException("File ended before the requested range was sent");
+                    }
+                    out.write(buffer, 0, read);
+                    remaining -= read;
+                    long waitNanos = bandwidth.reserve(read);
+                    if (waitNanos > 0) {
+                        scheduler.schedule(this::resume, Instant.now().plusNanos(waitNanos));
+                        return;
+                    }
+                    continue;
+                }
+                if (!nextPart()) {
+                    finish();
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Sıradaki aralığı aç (preamble pending olur); aralık kalmadıysa epilogue'u sıraya al, o da yazıldıysa false
+         */
+        private boolean nextPart() throws IOException {
+            closeInput();
+            if (partIndex + 1 < parts.size()) {
+                Part part = parts.get(++partIndex);
+                in = resource.getInputStream();
+                skipFully(in, part.start());
+                remaining = part.length();
+                pending = part.preamble().length > 0 ? part.preamble() : null;
+                return true;
+            }
+            if (!epilogueQueued && epilogue.length > 0) {
+                epilogueQueued = true;
+                pending = epilogue;
+                return true;
+            }
+            return false;
+        }
+
+        private void resume() {
+            if (done.get()) {
+                return;
+            }
+            try {
+                asyncContext.start(this::onWritePossible);
+            } catch (IllegalStateException e) {
+                // İstek bu arada kapandı (ör. connector timeout)
+                finish();
+            }
+        }
+
+        private void finish() {
+            if (!done.compareAndSet(false, true)) {
+                return;
+            }
+            active.decrementAndGet();
+            closeInput();
+            try {
+                asyncContext.complete();
+            } catch (IllegalStateException e) {
+                log.debug("Paced stream already completed: {}", e.getMessage());
+            }
+        }
+
+        private void closeInput() {
+            if (in == null) {
+                return;
+            }
+            try {
+                in.close();
+            } catch (IOException e) {
+                log.debug("Failed to close stream input: {}", e.getMessage());
+            }
+            in = null;
+        }
+    }
+}
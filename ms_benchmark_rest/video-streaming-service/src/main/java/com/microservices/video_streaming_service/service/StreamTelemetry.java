@@ -0,0 +1,393 @@
+package com.microservices.video_streaming_service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Stream Telemetry (playback QoE)
+ * Streaming isteği başına gecikme ve teslim ölçümleri; buffering şikayetinin kaynağını
+ * (disk, ağ veya upstream lookup) ayırt etmek için.
+ *
+ * - İstek başında (preHandle) bir StreamObservation açılır ve request attribute olarak taşınır;
+ *   gövde yazıldıktan sonra (afterCompletion) metrikler kaydedilir. Gövde StreamPacer ile asenkron
+ *   yazılıyorsa kayıt AsyncListener ile yanıt tamamlanana kadar ertelenir.
+ * - TTFB: isteğin gelişinden gövdenin ilk byte'ının diskten / blok cache'inden okunduğu ana kadar.
+ * - File open: gövde stream'inin açılmasından ilk verinin okunmasına kadar (disk / cache payı).
+ * - Upstream: content / episode / subscription lookup süreleri (TTFB'nin içindedir).
+ * - Abort: gönderilmesi gereken byte'lar bitmeden kapanan gövde (istemci bağlantıyı kesti, broken pipe).
+ * - Histogramlar sabit bucket'lıdır (Micrometer fixed-boundary, kilitsiz sayaçlar); content etiketi
+ *   max-content-tags ile sınırlanır, sonrakiler "other" altında toplanır.
+ * - Her istek yerine örneklenmiş yapılandırılmış event loglanır (video.stream.events logger'ı);
+ *   abort'lar ve yavaş TTFB her zaman loglanır.
+ *
+ * Metrikler: video.stream.ttfb, video.stream.file-open, video.stream.throughput, video.stream.range.size,
+ * video.stream.bytes, video.stream.aborts, video.stream.upstream
+ */
+@Component
+public class StreamTelemetry implements HandlerInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(StreamTelemetry.class);
+    private static final Logger events = LoggerFactory.getLogger("video.stream.events");
+
+    private static final String OBSERVATION_ATTRIBUTE = StreamTelemetry.class.getName() + ".observation";
+    private static final String OTHER = "other";
+    private static final String UNKNOWN = "unknown";
+
+    private static final Duration[] TTFB_BUCKETS = durations(10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000);
+    private static final Duration[] FILE_OPEN_BUCKETS = durations(1, 5, 10, 25, 50, 100, 250, 500, 1000);
+    private static final Duration[] UPSTREAM_BUCKETS = durations(5, 10, 25, 50, 100, 250, 500, 1000, 2500);
+    private static final double[] RANGE_SIZE_BUCKETS = {
+            64 * 1024, 256 * 1024, 1024 * 1024, 4 * 1024 * 1024, 16 * 1024 * 1024, 64 * 1024 * 1024};
+    private static final double[] THROUGHPUT_BUCKETS = {
+            256 * 1024, 512 * 1024, 1024 * 1024, 2 * 1024 * 1024, 5 * 1024 * 1024, 10 * 1024 * 1024,
+            50 * 1024 * 1024};
+
+    private final MeterRegistry meterRegistry;
+    private final Map<MeterKey, StreamMeters> streamMeters = new ConcurrentHashMap<>();
+    private final Map<String, Timer> upstreamTimers = new ConcurrentHashMap<>();
+    private final Set<String> contentTags = ConcurrentHashMap.newKeySet();
+
+    private final int maxContentTags;
+    private final long minThroughputBytes;
+    private final double eventSampleRate;
+    private final long slowTtfbNanos;
+
+    public StreamTelemetry(
+            MeterRegistry meterRegistry,
+            @Value("${video.telemetry.max-content-tags:200}") int maxContentTags,
+            @Value("${video.telemetry.throughput-min-bytes:256KB}") DataSize minThroughputBytes,
+            @Value("${video.telemetry.events.sample-rate:0.01}") double eventSampleRate,
+            @Value("${video.telemetry.events.slow-ttfb:1s}") Duration slowTtfb) {
+        this.meterRegistry = meterRegistry;
+        this.maxContentTags = maxContentTags;
+        this.minThroughputBytes = minThroughputBytes.toBytes();
+        this.eventSampleRate = eventSampleRate;
+        this.slowTtfbNanos = slowTtfb.toNanos();
+
+        log.info("Stream telemetry: maxContentTags={}, throughputMinBytes={}, eventSampleRate={}, slowTtfb={}",
+                maxContentTags, minThroughputBytes, eventSampleRate, slowTtfb);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.setAttribute(OBSERVATION_ATTRIBUTE, new StreamObservation(System.nanoTime()));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        StreamObservation observation = observation(request);
+        if (observation != null) {
+            request.removeAttribute(OBSERVATION_ATTRIBUTE);
+            if (request.isAsyncStarted()) {
+                // Handler döndüğünde gövde henüz yazılmadı; ölçüm async tamamlanınca kaydedilir
+                request.getAsyncContext().addListener(new AsyncCompletionListener(observation));
+                return;
+            }
+            complete(observation, request, response.getStatus(), ex);
+        }
+    }
+
+    /**
+     * İsteğin gözlemi (streaming endpoint'i değilse null)
+     */
+    public StreamObservation observation(HttpServletRequest request) {
+        return request.getAttribute(OBSERVATION_ATTRIBUTE) instanceof StreamObservation observation
+                ? observation : null;
+    }
+
+    /**
+     * Upstream lookup'ı ölç (operation: content, episode, subscription); süre isteğin gözlemine de eklenir
+     */
+    public <T> T timeUpstream(HttpServletRequest request, String operation, Supplier<T> lookup) {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            T result = lookup.get();
+            success = true;
+            return result;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            upstreamTimer(operation, success).record(elapsed, TimeUnit.NANOSECONDS);
+            StreamObservation observation = observation(request);
+            if (observation != null) {
+                observation.upstreamNanos += elapsed;
+            }
+        }
+    }
+
+    private void complete(StreamObservation observation, HttpServletRequest request, int status, Throwable ex) {
+        long end = System.nanoTime();
+        boolean aborted = observation.expectedBytes > 0 && observation.bytes < observation.expectedBytes;
+        long ttfbNanos = observation.firstByteNanos > 0 ? observation.firstByteNanos - observation.startNanos : -1;
+
+        if (observation.contentKey != null) {
+            StreamMeters meters = meters(observation.contentKey, observation.plan);
+            if (ttfbNanos >= 0) {
+                meters.ttfb.record(ttfbNanos, TimeUnit.NANOSECONDS);
+            }
+            if (observation.fileOpenNanos >= 0) {
+                meters.fileOpen.record(observation.fileOpenNanos, TimeUnit.NANOSECONDS);
+            }
+            if (status == HttpServletResponse.SC_PARTIAL_CONTENT && observation.expectedBytes > 0) {
+                meters.rangeSize.record(observation.expectedBytes);
+            }
+            if (observation.bytes > 0) {
+                meters.bytes.increment(observation.bytes);
+            }
+            long transferNanos = observation.lastByteNanos - observation.firstByteNanos;
+            if (observation.bytes >= minThroughputBytes && transferNanos > 0) {
+                meters.throughput.record(observation.bytes * 1_000_000_000d / transferNanos);
+            }
+            if (aborted) {
+                meters.aborts.increment();
+            }
+        }
+
+        boolean slow = ttfbNanos > slowTtfbNanos;
+        if (aborted || slow || ex != null || ThreadLocalRandom.current().nextDouble() < eventSampleRate) {
+            events.info("event=stream content={} plan={} session={} method={} status={} range=\"{}\" bytes={} "
+                            + "expected={} aborted={} ttfbMs={} fileOpenMs={} upstreamMs={} durationMs={} error={}",
+                    observation.contentKey, observation.plan, observation.sessionId, request.getMethod(), status,
+                    request.getHeader(HttpHeaders.RANGE), observation.bytes, observation.expectedBytes, aborted,
+                    millis(ttfbNanos), millis(observation.fileOpenNanos), millis(observation.upstreamNanos),
+                    millis(end - observation.startNanos), ex != null ? ex.getClass().getSimpleName() : "none");
+        }
+    }
+
+    private StreamMeters meters(String contentKey, String plan) {
+        String contentTag = contentTag(contentKey);
+        return streamMeters.computeIfAbsent(new MeterKey(contentTag, plan != null ? plan : UNKNOWN),
+                key -> new StreamMeters(meterRegistry, key.content(), key.plan()));
+    }
+
+    /**
+     * Content etiketi (kardinalite sınırı dolunca "other")
+     */
+    private String contentTag(String contentKey) {
+        if (contentTags.contains(contentKey)) {
+            return contentKey;
+        }
+        if (contentTags.size() < maxContentTags && contentTags.add(contentKey)) {
+            return contentKey;
+        }
+        return contentTags.contains(contentKey) ? contentKey : OTHER;
+    }
+
+    private Timer upstreamTimer(String operation, boolean success) {
+        String outcome = success ? "success" : "error";
+        return upstreamTimers.computeIfAbsent(operation + "|" + outcome, key -> Timer.builder("video.stream.upstream")
+                .description("Upstream lookup latency on the streaming path")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .serviceLevelObjectives(UPSTREAM_BUCKETS)
+                .register(meterRegistry));
+    }
+
+    private static long millis(long nanos) {
+        return nanos >= 0 ? TimeUnit.NANOSECONDS.toMillis(nanos) : -1;
+    }
+
+    private static Duration[] durations(long... millis) {
+        Duration[] durations = new Duration[millis.length];
+        for (int i = 0; i < millis.length; i++) {
+            durations[i] = Duration.ofMillis(millis[i]);
+        }
+        return durations;
+    }
+
+    private record MeterKey(String content, String plan) {
+    }
+
+    /**
+     * Asenkron yazılan gövdenin gözlemini yanıt tamamlanınca kaydeder
+     */
+    private final class AsyncCompletionListener implements AsyncListener {
+
+        private final StreamObservation observation;
+        private Throwable error;
+
+        AsyncCompletionListener(StreamObservation observation) {
+            this.observation = observation;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            complete(observation, (HttpServletRequest) event.getSuppliedRequest(),
+                    ((HttpServletResponse) event.getSuppliedResponse()).getStatus(), error);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            error = event.getThrowable();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+
+    /**
+     * (content, plan) başına metrikler
+     */
+    private static final class StreamMeters {
+
+        private final Timer ttfb;
+        private final Timer fileOpen;
+        private final DistributionSummary rangeSize;
+        private final DistributionSummary throughput;
+        private final Counter bytes;
+        private final Counter aborts;
+
+        StreamMeters(MeterRegistry registry, String content, String plan) {
+            this.ttfb = Timer.builder("video.stream.ttfb")
+                    .description("Time from request arrival to the first body byte")
+                    .tags("content", content, "plan", plan)
+                    .serviceLevelObjectives(TTFB_BUCKETS)
+                    .register(registry);
+            this.fileOpen = Timer.builder("video.stream.file-open")
+                    .description("Time from opening the body stream to the first data read from disk or block cache")
+                    .tags("content", content, "plan", plan)
+                    .serviceLevelObjectives(FILE_OPEN_BUCKETS)
+                    .register(registry);
+            this.rangeSize = DistributionSummary.builder("video.stream.range.size")
+                    .description("Bytes requested by partial content responses")
+                    .baseUnit(BaseUnits.BYTES)
+                    .tags("content", content, "plan", plan)
+                    .serviceLevelObjectives(RANGE_SIZE_BUCKETS)
+                    .register(registry);
+            this.throughput = DistributionSummary.builder("video.stream.throughput")
+                    .description("Bytes served per second per response body")
+                    .baseUnit("bytes.per.second")
+                    .tags("content", content, "plan", plan)
+                    .serviceLevelObjectives(THROUGHPUT_BUCKETS)
+                    .register(registry);
+            this.bytes = Counter.builder("video.stream.bytes")
+                    .description("Response body bytes served")
+                    .baseUnit(BaseUnits.BYTES)
+                    .tags("content", content, "plan", plan)
+                    .register(registry);
+            this.aborts = Counter.builder("video.stream.aborts")
+                    .description("Response bodies closed before all bytes were sent (client abort / broken pipe)")
+                    .tags("content", content, "plan", plan)
+                    .register(registry);
+        }
+    }
+
+    /**
+     * Tek streaming isteğinin gözlemi; aynı anda tek thread'den güncellenir (asenkron gövdede sırayla
+     * container / StreamPacer thread'leri)
+     */
+    public static final class StreamObservation {
+
+        private final long startNanos;
+        private String contentKey;
+        private String plan;
+        private String sessionId;
+        private long upstreamNanos;
+        private long expectedBytes;
+        private long bytes;
+        private long firstByteNanos;
+        private long lastByteNanos;
+        private long fileOpenNanos = -1;
+
+        private StreamObservation(long startNanos) {
+            this.startNanos = startNanos;
+        }
+
+        /**
+         * İçerik anahtarı (content:{id} / episode:{id}), plan ve oturum
+         */
+        public void describe(String contentKey, String plan, String sessionId) {
+            this.contentKey = contentKey;
+            this.plan = plan;
+            this.sessionId = sessionId;
+        }
+
+        /**
+         * Gövdede gönderilecek toplam byte (tam dosya veya aralıkların toplamı)
+         */
+        public void expect(long bytes) {
+            this.expectedBytes = bytes;
+        }
+
+        /**
+         * Gövde stream'ini say; openStartNanos stream'in açılmaya başladığı an
+         */
+        public InputStream instrument(InputStream in, long openStartNanos) {
+            return new ObservedInputStream(in, this, openStartNanos);
+        }
+
+        private void onRead(int read, long openStartNanos) {
+            long now = System.nanoTime();
+            if (firstByteNanos == 0) {
+                firstByteNanos = now;
+            }
+            if (fileOpenNanos < 0) {
+                fileOpenNanos = now - openStartNanos;
+            }
+            lastByteNanos = now;
+            bytes += read;
+        }
+    }
+
+    private static final class ObservedInputStream extends FilterInputStream {
+
+        private final StreamObservation observation;
+        private final long openStartNanos;
+
+        ObservedInputStream(InputStream in, StreamObservation observation, long openStartNanos) {
+            super(in);
+            this.observation = observation;
+            this.openStartNanos = openStartNanos;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                observation.onRead(1, openStartNanos);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                observation.onRead(read, openStartNanos);
+            }
+            return read;
+        }
+    }
+}
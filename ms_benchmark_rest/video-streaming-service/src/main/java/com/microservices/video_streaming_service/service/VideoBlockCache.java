@@ -0,0 +1,323 @@
+package com.microservices.video_streaming_service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.microservices.video_streaming_service.service.StreamSessionRegistry.StreamSession;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Video Block Cache
+ * Video dosyalarını sabit boyutlu bloklara (video.cache.block-size) bölüp heap dışında (direct ByteBuffer)
+ * tutar; popüler içeriğin aynı byte aralıkları her izleyici için diskten tekrar okunmaz.
+ *
+ * - Toplam boyut video.cache.max-memory ile sınırlıdır (blok boyutuna göre ağırlık, W-TinyLFU eviction);
+ *   tek seferlik okunan bloklar sık okunan blokları çıkaramaz.
+ * - Aynı blok için eşzamanlı isteklerde diski tek loader okur.
+ * - Oturumun erişimi ardışıksa (önceki istek bu isteğin başladığı yerde bittiyse veya akış blok sınırını
+ *   geçtiyse) sonraki read-ahead-blocks blok arka planda yüklenir; kuyruk doluysa read-ahead atlanır.
+ * - Anahtar dosya yolu + lastModified + boyut içerir; dosya değişince eski bloklar okunmaz, eviction ile düşer.
+ * - Çıkarılan blokların belleği GC ile geri verilir; -XX:MaxDirectMemorySize max-memory'den büyük olmalıdır.
+ *
+ * Metrikler: video.cache.requests {result=hit|miss}, video.cache.hit-ratio, video.cache.bytes.served,
+ * video.cache.bytes.read, video.cache.read-ahead {result=submitted|dropped}, cache.* {cache=video-blocks}
+ */
+@Component
+public class VideoBlockCache {
+
+    private static final Logger log = LoggerFactory.getLogger(VideoBlockCache.class);
+
+    private final boolean enabled;
+    private final int blockSize;
+    private final int readAheadBlocks;
+    private final Cache<BlockKey, ByteBuffer> cache;
+    private final ThreadPoolTaskExecutor readAheadExecutor;
+    private final Set<BlockKey> pendingReadAheads = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter bytesServedCounter;
+    private final Counter bytesReadCounter;
+    private final Counter readAheadSubmittedCounter;
+    private final Counter readAheadDroppedCounter;
+
+    public VideoBlockCache(
+            MeterRegistry meterRegistry,
+            @Value("${video.cache.enabled:true}") boolean enabled,
+            @Value("${video.cache.max-memory:512MB}") DataSize maxMemory,
+            @Value("${video.cache.block-size:1MB}") DataSize blockSize,
+            @Value("${video.cache.read-ahead-blocks:4}") int readAheadBlocks,
+            @Value("${video.cache.read-ahead.threads:4}") int readAheadThreads,
+            @Value("${video.cache.read-ahead.queue-capacity:256}") int readAheadQueueCapacity) {
+        if (blockSize.toBytes() <= 0 || blockSize.toBytes() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("video.cache.block-size must be between 1B and 2GB");
+        }
+        this.enabled = enabled;
+        this.blockSize = (int) blockSize.toBytes();
+        this.readAheadBlocks = Math.max(0, readAheadBlocks);
+
+        this.hitCounter = meterRegistry.counter("video.cache.requests", "result", "hit");
+        this.missCounter = meterRegistry.counter("video.cache.requests", "result", "miss");
+        this.bytesServedCounter = meterRegistry.counter("video.cache.bytes.served");
+        this.bytesReadCounter = meterRegistry.counter("video.cache.bytes.read");
+        this.readAheadSubmittedCounter = meterRegistry.counter("video.cache.read-ahead", "result", "submitted");
+        this.readAheadDroppedCounter = meterRegistry.counter("video.cache.read-ahead", "result", "dropped");
+        meterRegistry.gauge("video.cache.hit-ratio", this, VideoBlockCache::hitRatio);
+
+        if (!enabled) {
+            this.cache = null;
+            this.readAheadExecutor = null;
+            log.info("Video block cache disabled");
+            return;
+        }
+
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxMemory.toBytes())
+                .weigher((BlockKey key, ByteBuffer block) -> block.capacity())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "video-blocks");
+        meterRegistry.gauge("video.cache.memory.used", cache,
+                c -> c.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L));
+
+        this.readAheadExecutor = new ThreadPoolTaskExecutor();
+        readAheadExecutor.setCorePoolSize(readAheadThreads);
+        readAheadExecutor.setMaxPoolSize(readAheadThreads);
+        readAheadExecutor.setQueueCapacity(readAheadQueueCapacity);
+        readAheadExecutor.setThreadNamePrefix("VideoReadAhead-");
+        readAheadExecutor.initialize();
+
+        ThreadPoolExecutor pool = readAheadExecutor.getThreadPoolExecutor();
+        meterRegistry.gauge("video.cache.read-ahead.queue", pool, p -> p.getQueue().size());
+
+        log.info("Video block cache: maxMemory={}, blockSize={}, readAheadBlocks={}, readAheadThreads={}",
+                maxMemory, blockSize, readAheadBlocks, readAheadThreads);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Dosyayı cache üzerinden okuyan stream (skip() diske dokunmaz)
+     *
+     * @param session ardışık erişim takibi için oynatma oturumu (null olabilir)
+     */
+    public InputStream open(File file, StreamSession session) {
+        if (!enabled) {
+            throw new IllegalStateException("Video block cache is disabled");
+        }
+        return new BlockInputStream(file, session);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (readAheadExecutor != null) {
+            readAheadExecutor.shutdown();
+        }
+    }
+
+    /**
+     * İstek yolundaki blok okuması (hit / miss sayılır)
+     */
+    private ByteBuffer block(File file, BlockKey key) throws IOException {
+        boolean[] loaded = new boolean[1];
+        ByteBuffer block;
+        try {
+            block = cache.get(key, k -> {
+                loaded[0] = true;
+                return load(file, k);
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (loaded[0]) {
+            misses.increment();
+            missCounter.increment();
+        } else {
+            hits.increment();
+            hitCounter.increment();
+        }
+        return block;
+    }
+
+    /**
+     * Sonraki blokları arka planda yükle (cache'te olan / yüklenmekte olan bloklar atlanır)
+     */
+    private void readAhead(File file, BlockKey current, long fileLength) {
+        long lastBlock = (fileLength - 1) / blockSize;
+        for (long index = current.index + 1; index <= Math.min(lastBlock, current.index + readAheadBlocks); index++) {
+            BlockKey key = current.withIndex(index);
+            if (cache.asMap().containsKey(key) || !pendingReadAheads.add(key)) {
+                continue;
+            }
+            try {
+                readAheadExecutor.execute(() -> {
+                    try {
+                        cache.get(key, k -> load(file, k));
+                    } catch (UncheckedIOException e) {
+                        log.debug("Read-ahead failed for {} block {}: {}", file, key.index, e.getMessage());
+                    } finally {
+                        pendingReadAheads.remove(key);
+                    }
+                });
+                readAheadSubmittedCounter.increment();
+            } catch (TaskRejectedException e) {
+                // Read-ahead en iyi çaba; kuyruk doluysa istek yolunda okunur
+                pendingReadAheads.remove(key);
+                readAheadDroppedCounter.increment();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Bloğu diskten direct buffer'a oku
+     */
+    private ByteBuffer load(File file, BlockKey key) {
+        long offset = key.index * blockSize;
+        int size = (int) Math.min(blockSize, key.length - offset);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(size);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, offset + buffer.position()) < 0) {
+                    throw new EOFException("File changed while reading: " + file);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        bytesReadCounter.increment(size);
+        buffer.flip();
+        return buffer.asReadOnlyBuffer();
+    }
+
+    private double hitRatio() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    /**
+     * Dosya sürümü (yol + lastModified + boyut) ve blok numarası
+     */
+    private record BlockKey(String path, long lastModified, long length, long index) {
+
+        BlockKey withIndex(long newIndex) {
+            return new BlockKey(path, lastModified, length, newIndex);
+        }
+    }
+
+    /**
+     * Blok cache'i üzerinden okuyan stream; okumalar direct buffer'dan mutlak konumla kopyalanır
+     * (buffer'lar eşzamanlı okuyucular arasında paylaşılır)
+     */
+    private final class BlockInputStream extends InputStream {
+
+        private final File file;
+        private final StreamSession session;
+        private final BlockKey firstKey;
+        private final long length;
+
+        private long position;
+        private ByteBuffer block;
+        private long blockIndex = -1;
+        private boolean sequential;
+        private boolean started;
+        private long served;
+
+        BlockInputStream(File file, StreamSession session) {
+            this.file = file;
+            this.session = session;
+            this.length = file.length();
+            this.firstKey = new BlockKey(file.getAbsolutePath(), file.lastModified(), length, 0);
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) < 0 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (position >= length) {
+                return -1;
+            }
+            if (!started) {
+                started = true;
+                sequential = session != null && session.continuesAt(position, blockSize);
+            }
+
+            long index = position / blockSize;
+            if (index != blockIndex) {
+                // Akış blok sınırını geçtiyse erişim ardışıktır
+                sequential |= blockIndex >= 0 && index == blockIndex + 1;
+                BlockKey key = firstKey.withIndex(index);
+                block = block(file, key);
+                blockIndex = index;
+                if (sequential && readAheadBlocks > 0) {
+                    readAhead(file, key, length);
+                }
+            }
+
+            int offsetInBlock = (int) (position - index * blockSize);
+            int count = Math.min(len, block.limit() - offsetInBlock);
+            block.get(offsetInBlock, b, off, count);
+            position += count;
+            served += count;
+            return count;
+        }
+
+        @Override
+        public long skip(long n) {
+            long skipped = Math.max(0, Math.min(n, length - position));
+            position += skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(Integer.MAX_VALUE, length - position);
+        }
+
+        @Override
+        public void close() {
+            if (served > 0) {
+                bytesServedCounter.increment(served);
+                served = 0;
+            }
+            if (session != null && started) {
+                session.recordEnd(position);
+            }
+            block = null;
+        }
+    }
+}
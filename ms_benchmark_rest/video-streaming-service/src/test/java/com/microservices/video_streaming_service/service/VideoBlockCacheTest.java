@@ -0,0 +1,249 @@
+package com.microservices.video_streaming_service.service;
+
+import com.microservices.video_streaming_service.dto.response.SubscriptionPlanResponse;
+import com.microservices.video_streaming_service.dto.response.SubscriptionResponse;
+import com.microservices.video_streaming_service.service.StreamSessionRegistry.StreamSession;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.util.unit.DataSize;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * VideoBlockCache'in BlockInputStream'i: blok sınırları, diske dokunmayan skip, son kısmi blok,
+ * ardışık erişimde read-ahead ve hit / miss sayımı (4KB blok, 3 tam + 1000 byte'lık dosya)
+ */
+class VideoBlockCacheTest {
+
+    private static final int BLOCK = 4096;
+    private static final int LAST_BLOCK = 1000;
+    private static final int LENGTH = 3 * BLOCK + LAST_BLOCK;
+
+    @TempDir
+    Path tempDir;
+
+    private byte[] content;
+    private File file;
+    private SimpleMeterRegistry registry;
+    private VideoBlockCache cache;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        content = new byte[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            content[i] = (byte) (i * 31 + 7);
+        }
+        file = Files.write(tempDir.resolve("video.mp4"), content).toFile();
+        registry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (cache != null) {
+            cache.shutdown();
+        }
+    }
+
+    @Test
+    void readsWholeFileAcrossBlocks() throws IOException {
+        cache = cache(0);
+
+        try (InputStream in = cache.open(file, null)) {
+            assertThat(in.readAllBytes()).isEqualTo(content);
+        }
+        assertThat(bytesServed()).isEqualTo(LENGTH);
+    }
+
+    @Test
+    void singleReadStopsAtBlockBoundary() throws IOException {
+        cache = cache(0);
+
+        try (InputStream in = cache.open(file, null)) {
+            assertThat(in.skip(BLOCK - 6)).isEqualTo(BLOCK - 6);
+            byte[] buffer = new byte[20];
+
+            assertThat(in.read(buffer, 0, 20)).isEqualTo(6);
+            assertThat(Arrays.copyOf(buffer, 6)).isEqualTo(slice(BLOCK - 6, BLOCK));
+            assertThat(in.readNBytes(14)).isEqualTo(slice(BLOCK, BLOCK + 14));
+        }
+        assertThat(misses()).isEqualTo(2);
+    }
+
+    @Test
+    void skipDoesNotTouchDisk() throws IOException {
+        cache = cache(0);
+
+        try (InputStream in = cache.open(file, null)) {
+            assertThat(in.skip(2 * BLOCK + 10)).isEqualTo(2 * BLOCK + 10);
+            assertThat(in.available()).isEqualTo(LENGTH - 2 * BLOCK - 10);
+            assertThat(bytesRead()).isZero();
+            assertThat(misses()).isZero();
+
+            assertThat(in.read()).isEqualTo(content[2 * BLOCK + 10] & 0xff);
+            assertThat(bytesRead()).isEqualTo(BLOCK);
+        }
+    }
+
+    @Test
+    void lastBlockIsSizedToFileEnd() throws IOException {
+        cache = cache(0);
+
+        try (InputStream in = cache.open(file, null)) {
+            in.skip(3 * BLOCK);
+
+            assertThat(in.readAllBytes()).isEqualTo(slice(3 * BLOCK, LENGTH));
+            assertThat(bytesRead()).isEqualTo(LAST_BLOCK);
+            assertThat(in.read()).isEqualTo(-1);
+            assertThat(in.skip(10)).isZero();
+            assertThat(in.available()).isZero();
+        }
+    }
+
+    @Test
+    void crossingBlockBoundaryTriggersReadAhead() throws Exception {
+        cache = cache(2);
+
+        try (InputStream in = cache.open(file, null)) {
+            assertThat(in.readNBytes(BLOCK)).isEqualTo(slice(0, BLOCK));
+            // Tek blok okundu; erişimin ardışık olduğu henüz bilinmiyor
+            assertThat(readAheads()).isZero();
+
+            assertThat(in.read()).isEqualTo(content[BLOCK] & 0xff);
+            assertThat(readAheads()).isEqualTo(2);
+            awaitBytesRead(LENGTH);
+
+            assertThat(in.readAllBytes()).isEqualTo(slice(BLOCK + 1, LENGTH));
+        }
+        assertThat(misses()).isEqualTo(2);
+        assertThat(hits()).isEqualTo(2);
+    }
+
+    @Test
+    void sessionContinuationTriggersReadAheadOnFirstRead() throws Exception {
+        cache = cache(2);
+        StreamSession session = session();
+
+        try (InputStream in = cache.open(file, session)) {
+            assertThat(in.readNBytes(BLOCK)).isEqualTo(slice(0, BLOCK));
+        }
+        assertThat(readAheads()).isZero();
+
+        // Sonraki Range isteği öncekinin bittiği yerden başlıyor
+        try (InputStream in = cache.open(file, session)) {
+            in.skip(BLOCK);
+            assertThat(in.read()).isEqualTo(content[BLOCK] & 0xff);
+            assertThat(readAheads()).isEqualTo(2);
+        }
+        awaitBytesRead(LENGTH);
+    }
+
+    @Test
+    void randomAccessDoesNotReadAhead() throws IOException {
+        cache = cache(2);
+        StreamSession session = session();
+
+        try (InputStream in = cache.open(file, session)) {
+            in.read();
+        }
+        try (InputStream in = cache.open(file, session)) {
+            in.skip(3 * BLOCK);
+            in.read();
+        }
+
+        assertThat(readAheads()).isZero();
+        assertThat(bytesRead()).isEqualTo(BLOCK + LAST_BLOCK);
+    }
+
+    @Test
+    void repeatedReadsAreCountedAsHits() throws IOException {
+        cache = cache(0);
+
+        for (int pass = 0; pass < 2; pass++) {
+            try (InputStream in = cache.open(file, null)) {
+                assertThat(in.readAllBytes()).isEqualTo(content);
+            }
+        }
+
+        assertThat(misses()).isEqualTo(4);
+        assertThat(hits()).isEqualTo(4);
+        assertThat(registry.get("video.cache.hit-ratio").gauge().value()).isEqualTo(0.5);
+        assertThat(bytesRead()).isEqualTo(LENGTH);
+        assertThat(bytesServed()).isEqualTo(2 * LENGTH);
+    }
+
+    @Test
+    void disabledCacheRejectsOpen() {
+        VideoBlockCache disabled = new VideoBlockCache(registry, false, DataSize.ofKilobytes(64),
+                DataSize.ofKilobytes(4), 2, 1, 8);
+
+        assertThat(disabled.isEnabled()).isFalse();
+        assertThatThrownBy(() -> disabled.open(file, null)).isInstanceOf(IllegalStateException.class);
+    }
+
+    private VideoBlockCache cache(int readAheadBlocks) {
+        return new VideoBlockCache(registry, true, DataSize.ofKilobytes(64), DataSize.ofKilobytes(4),
+                readAheadBlocks, 1, 8);
+    }
+
+    private StreamSession session() {
+        StreamSessionRegistry sessions = new StreamSessionRegistry(registry, Duration.ofSeconds(90), 1,
+                DataSize.ofMegabytes(8), DataSize.ofMegabytes(1), DataSize.ofMegabytes(2), DataSize.ofMegabytes(5),
+                DataSize.ofMegabytes(1));
+        SubscriptionResponse subscription = SubscriptionResponse.builder()
+                .plan(SubscriptionPlanResponse.builder().planName("BASIC").maxScreens(1).videoQuality("HD").build())
+                .build();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/stream/content/42");
+        request.setRemoteAddr("10.0.0.1");
+        request.addHeader("User-Agent", "TV");
+        return sessions.open("user-1", sessions.sessionId(request, "content:42"), request, subscription);
+    }
+
+    /**
+     * Read-ahead arka planda yüklenir; yüklenen byte sayısı beklenene ulaşana kadar bekle
+     */
+    private void awaitBytesRead(double expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (bytesRead() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(bytesRead()).isEqualTo(expected);
+    }
+
+    private double hits() {
+        return registry.get("video.cache.requests").tag("result", "hit").counter().count();
+    }
+
+    private double misses() {
+        return registry.get("video.cache.requests").tag("result", "miss").counter().count();
+    }
+
+    private double readAheads() {
+        return registry.get("video.cache.read-ahead").tag("result", "submitted").counter().count();
+    }
+
+    private double bytesRead() {
+        return registry.get("video.cache.bytes.read").counter().count();
+    }
+
+    private double bytesServed() {
+        return registry.get("video.cache.bytes.served").counter().count();
+    }
+
+    private byte[] slice(int from, int to) {
+        return Arrays.copyOfRange(content, from, to);
+    }
+}